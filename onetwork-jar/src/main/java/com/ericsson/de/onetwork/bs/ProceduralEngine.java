@@ -13,6 +13,7 @@
 package com.ericsson.de.onetwork.bs;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -21,14 +22,20 @@ import org.slf4j.LoggerFactory;
 
 import com.ericsson.de.onetwork.bs.features.FeatureManager;
 import com.ericsson.de.onetwork.bs.features.FeatureModule;
+import com.ericsson.de.onetwork.bs.rules.NodeLocalRule;
+import com.ericsson.de.onetwork.bs.rules.NodeLocalRuleExecutor;
 import com.ericsson.de.onetwork.bs.rules.Rule;
 import com.ericsson.de.onetwork.bs.rules.RuleConfig;
 import com.ericsson.de.onetwork.bs.rules.RuleManager;
 import com.ericsson.de.onetwork.bs.rules.RuleMap;
 import com.ericsson.de.onetwork.bs.rules.RuleUtility;
+import com.ericsson.de.onetwork.dms.MimDataStorage;
+import com.ericsson.de.onetwork.dms.MimModel;
+import com.ericsson.de.onetwork.dms.exceptions.DataModellerServiceException;
 import com.ericsson.de.onetwork.dms.generics.MoFactory;
 import com.ericsson.de.onetwork.dms.generics.NetworkElement;
 import com.ericsson.de.onetwork.gnm.Gnm;
+import com.ericsson.de.onetwork.util.ParallelTasks;
 
 /**
  * The ProceduralEngine class provides network build and user defined features
@@ -50,6 +57,24 @@ public class ProceduralEngine {
     private final static Logger logger = LoggerFactory
             .getLogger(ProceduralEngine.class.getName());
 
+    /**
+     * System property used to set the number of network elements that are
+     * built at the same time. Network elements are built one at a time by
+     * default.
+     */
+    public static final String NE_BUILD_PARALLELISM_PROPERTY = "onetwork.ne.build.parallelism";
+
+    private static final int DEFAULT_NE_BUILD_PARALLELISM = 1;
+
+    /**
+     * System property used to set the number of network elements that a node
+     * local rule is applied to at the same time. Rules are applied to one
+     * network element at a time by default.
+     */
+    public static final String RULE_PARALLELISM_PROPERTY = "onetwork.rule.parallelism";
+
+    private static final int DEFAULT_RULE_PARALLELISM = 1;
+
     /** Used for retrieving Rule objects. */
     private final RuleManager ruleManager;
 
@@ -65,6 +90,12 @@ public class ProceduralEngine {
     /** Used for naming NEs. */
     private NameGenerator nameGenerator;
 
+    /** The number of NEs that are built at the same time. */
+    private int neBuildParallelism = Integer.getInteger(NE_BUILD_PARALLELISM_PROPERTY, DEFAULT_NE_BUILD_PARALLELISM);
+
+    /** The number of NEs that a node local rule is applied to at the same time. */
+    private int ruleParallelism = Integer.getInteger(RULE_PARALLELISM_PROPERTY, DEFAULT_RULE_PARALLELISM);
+
     /**
      * The constructor initialises the rule manager and passes the MO Factory to
      * it. The rule manager gives all requested rules access to the MO Factory
@@ -74,6 +105,38 @@ public class ProceduralEngine {
         ruleManager = new RuleManager(moFactory);
     }
 
+    /**
+     * Sets the number of network elements that are built at the same time. The
+     * network built is the same whatever the number, as the MIM and name of
+     * each network element are assigned before any is built.
+     *
+     * @param neBuildParallelism
+     *            the number of network elements to build at the same time, at
+     *            least one
+     */
+    public void setNeBuildParallelism(final int neBuildParallelism) {
+        if (neBuildParallelism < 1) {
+            throw new IllegalArgumentException("NE build parallelism must be at least 1, but was " + neBuildParallelism);
+        }
+        this.neBuildParallelism = neBuildParallelism;
+    }
+
+    /**
+     * Sets the number of network elements that a {@link NodeLocalRule} is
+     * applied to at the same time. Other rules are always applied to one
+     * network element at a time.
+     *
+     * @param ruleParallelism
+     *            the number of network elements to apply a rule to at the same
+     *            time, at least one
+     */
+    public void setRuleParallelism(final int ruleParallelism) {
+        if (ruleParallelism < 1) {
+            throw new IllegalArgumentException("Rule parallelism must be at least 1, but was " + ruleParallelism);
+        }
+        this.ruleParallelism = ruleParallelism;
+    }
+
     /**
      * Builds the network as defined by the feature modules and
      * <code>Gnm</code>.
@@ -104,18 +167,56 @@ public class ProceduralEngine {
     private void populateNetworkWithSystemCreatedNEs(final Network network, final int requiredNEs) {
         logger.info("Building {} node {} network...", requiredNEs, gnm.getNetworkType());
 
-        final List<NetworkElement> networkElements = new ArrayList<NetworkElement>();
-
+        final List<String> mimNames = new ArrayList<String>(requiredNEs);
+        final List<String> neNames = new ArrayList<String>(requiredNEs);
         for (int currentNEs = 0; currentNEs < requiredNEs; currentNEs++) {
             final String mimName = mimSelector.getNextMimType();
-            networkElements.add(new NetworkElement(mimName, nameGenerator.getNextNeName(mimName)));
+            mimNames.add(mimName);
+            neNames.add(nameGenerator.getNextNeName(mimName));
         }
 
+        final Map<String, MimModel> mimModels = getMimModels(mimNames);
+        final List<NetworkElement> networkElements = ParallelTasks.map("ne-build", neNames, Math.max(neBuildParallelism, 1),
+                new ParallelTasks.Task<String, NetworkElement, RuntimeException>() {
+
+                    @Override
+                    public NetworkElement run(final int neIndex, final String neName) {
+                        return createNetworkElement(mimModels, mimNames.get(neIndex), neName);
+                    }
+                });
+
         logger.info("{} node(s) created.", requiredNEs);
 
         network.addNetworkElements(networkElements);
     }
 
+    /**
+     * Obtains the model snapshot of each MIM once, so that every network
+     * element of a MIM is built from the same snapshot.
+     */
+    private static Map<String, MimModel> getMimModels(final List<String> mimNames) {
+        final Map<String, MimModel> mimModels = new HashMap<String, MimModel>();
+        for (final String mimName : mimNames) {
+            if (!mimModels.containsKey(mimName)) {
+                try {
+                    mimModels.put(mimName, MimDataStorage.getMimModel(mimName));
+                } catch (final DataModellerServiceException e) {
+                    logger.error("Could not load MIM {}. {}", mimName, e.getMessage());
+                    mimModels.put(mimName, null);
+                }
+            }
+        }
+        return mimModels;
+    }
+
+    private static NetworkElement createNetworkElement(final Map<String, MimModel> mimModels, final String mimName, final String neName) {
+        final MimModel mimModel = mimModels.get(mimName);
+        if (null == mimModel) {
+            return new NetworkElement(mimName, neName);
+        }
+        return new NetworkElement(mimModel, neName);
+    }
+
     private void applyFeaturesToNetwork(final Network network, List<FeatureModule> featureModules) {
         featureModules = FeatureManager.orderFeaturesAllowingForDependencies(featureModules);
 
@@ -140,7 +241,11 @@ public class ProceduralEngine {
             final Rule rule = entry.getValue();
             final RuleConfig ruleConfig = entry.getKey();
             addGnmIfRequired(ruleConfig);
-            rule.apply(network, ruleConfig);
+            if (rule instanceof NodeLocalRule) {
+                NodeLocalRuleExecutor.apply((NodeLocalRule<?>) rule, network, ruleConfig, ruleParallelism);
+            } else {
+                rule.apply(network, ruleConfig);
+            }
         }
     }
 
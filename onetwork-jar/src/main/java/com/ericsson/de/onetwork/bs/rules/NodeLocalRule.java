@@ -0,0 +1,88 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.bs.rules;
+
+import java.util.List;
+
+import com.ericsson.de.onetwork.bs.Network;
+import com.ericsson.de.onetwork.dms.generics.NetworkElement;
+
+/**
+ * A <code>Rule</code> that only changes the <code>Mo</code> tree of the
+ * network element it is applied to, so that it can be applied to the network
+ * elements of a network in any order, or at the same time, by the
+ * {@link NodeLocalRuleExecutor}.
+ * <p>
+ * The rule is applied in three steps:
+ * <ol>
+ * <li>{@link #prepare(Network, RuleConfig)} is called once, before any network
+ * element is changed. Any state that is carried from one network element to
+ * the next, such as a counter incremented across the network, is worked out
+ * here for every network element.</li>
+ * <li>{@link #applyToNetworkElement(int, NetworkElement)} is called once per
+ * network element, possibly from several threads at once.</li>
+ * <li>{@link #reduce(Network, List)} is called once with the results of every
+ * network element, in network order, to update the network wide state.</li>
+ * </ol>
+ *
+ * @param <T>
+ *            the result of applying the rule to one network element
+ * @author eagent
+ * @since 1Network_15.14
+ */
+public interface NodeLocalRule<T> {
+
+    /**
+     * Returns whether the rule, configured as given, can be applied to each
+     * network element independently of the others.
+     *
+     * @param config
+     *            the configuration the rule is applied with
+     * @return true if the network elements can be processed at the same time
+     */
+    boolean isNodeLocal(RuleConfig config);
+
+    /**
+     * Prepares the rule for the given network, before any network element is
+     * changed.
+     *
+     * @param network
+     *            the network the rule is applied to
+     * @param config
+     *            the configuration the rule is applied with
+     */
+    void prepare(Network network, RuleConfig config);
+
+    /**
+     * Applies the rule to a single network element. Only the given network
+     * element may be changed.
+     *
+     * @param networkElementIndex
+     *            the position of the network element within the network
+     * @param networkElement
+     *            the network element to apply the rule to
+     * @return the result of the network element, passed to
+     *         {@link #reduce(Network, List)}
+     */
+    T applyToNetworkElement(int networkElementIndex, NetworkElement networkElement);
+
+    /**
+     * Updates the network with the results of every network element.
+     *
+     * @param network
+     *            the network the rule was applied to
+     * @param results
+     *            the result of each network element, in network order
+     */
+    void reduce(Network network, List<T> results);
+}
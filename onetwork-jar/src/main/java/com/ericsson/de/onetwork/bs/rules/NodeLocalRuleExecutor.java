@@ -0,0 +1,68 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.bs.rules;
+
+import java.util.List;
+
+import com.ericsson.de.onetwork.bs.Network;
+import com.ericsson.de.onetwork.dms.generics.NetworkElement;
+import com.ericsson.de.onetwork.util.ParallelTasks;
+
+/**
+ * Applies a {@link NodeLocalRule} to a network, processing several network
+ * elements at the same time.
+ *
+ * @author eagent
+ * @since 1Network_15.14
+ */
+public final class NodeLocalRuleExecutor {
+
+    private NodeLocalRuleExecutor() {
+    }
+
+    /**
+     * Applies the rule to every network element of the network. The results
+     * are reduced in network order, so the network is the same whatever the
+     * parallelism.
+     *
+     * @param rule
+     *            the rule to apply
+     * @param network
+     *            the network to apply the rule to
+     * @param config
+     *            the configuration the rule is applied with
+     * @param parallelism
+     *            the number of network elements processed at the same time. The
+     *            network elements are processed on the calling thread if
+     *            this is one, or if the rule is not node local for the
+     *            configuration
+     * @return the network with the rule applied
+     */
+    public static <T> Network apply(final NodeLocalRule<T> rule, final Network network, final RuleConfig config, final int parallelism) {
+        final List<NetworkElement> networkElements = network.getNetworkElements();
+        rule.prepare(network, config);
+
+        final int ruleParallelism = parallelism > 1 && rule.isNodeLocal(config) ? parallelism : 1;
+        final List<T> results = ParallelTasks.map("node-local-rule", networkElements, ruleParallelism,
+                new ParallelTasks.Task<NetworkElement, T, RuntimeException>() {
+
+                    @Override
+                    public T run(final int networkElementIndex, final NetworkElement networkElement) {
+                        return rule.applyToNetworkElement(networkElementIndex, networkElement);
+                    }
+                });
+
+        rule.reduce(network, results);
+        return network;
+    }
+}
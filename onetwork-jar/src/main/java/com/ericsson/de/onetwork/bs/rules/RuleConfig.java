@@ -13,8 +13,10 @@
 package com.ericsson.de.onetwork.bs.rules;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+import com.ericsson.de.onetwork.dms.generics.MoPathQuery;
 import com.ericsson.de.onetwork.dms.mo.datatype.MoAttributeDataType;
 import com.ericsson.de.onetwork.gnm.Gnm;
 
@@ -30,6 +32,9 @@ public class RuleConfig {
     /** Path to mo the rule applies to */
     private String moTypeHierarchy = "";
 
+    /** Path to mo the rule applies to, compiled */
+    private MoPathQuery moPathQuery = MoPathQuery.compile(moTypeHierarchy);
+
     /** If Mo name is non numerical, this is used */
     private String moName = null;
 
@@ -69,6 +74,9 @@ public class RuleConfig {
      */
     private Map<String, String> refAttrMap = null;
 
+    /** Map of {@code refAttrMap} with its mo type hierarchies compiled */
+    private Map<String, MoPathQuery> refAttrPathQueryMap = null;
+
     /** Max value an Mo can have <value> */
     private int moMaxValue = Integer.MAX_VALUE;
 
@@ -98,7 +106,7 @@ public class RuleConfig {
      *            comma separated Path to mo with only types
      */
     public RuleConfig(final String moTypeHierarchy) {
-        this.moTypeHierarchy = moTypeHierarchy;
+        setMoTypeHierarchy(moTypeHierarchy);
     }
 
     /**
@@ -145,6 +153,16 @@ public class RuleConfig {
      */
     public void setMoTypeHierarchy(final String moTypeHierarchy) {
         this.moTypeHierarchy = moTypeHierarchy;
+        moPathQuery = MoPathQuery.compile(moTypeHierarchy);
+    }
+
+    /**
+     * Get the Mo Type Hierarchy, compiled once when it is set.
+     *
+     * @return the compiled moTypeHierarchy
+     */
+    public MoPathQuery getMoPathQuery() {
+        return moPathQuery;
     }
 
     /**
@@ -361,6 +379,23 @@ public class RuleConfig {
      */
     public void setRefAttrMap(final Map<String, String> refAttrMap) {
         this.refAttrMap = refAttrMap;
+        refAttrPathQueryMap = null;
+        if (refAttrMap != null) {
+            refAttrPathQueryMap = new LinkedHashMap<String, MoPathQuery>();
+            for (final Map.Entry<String, String> entry : refAttrMap.entrySet()) {
+                refAttrPathQueryMap.put(entry.getKey(), MoPathQuery.compile(entry.getValue()));
+            }
+        }
+    }
+
+    /**
+     * Get attribute refs map, with the mo type hierarchies compiled when the
+     * map is set.
+     *
+     * @return the refAttrMap with compiled mo type hierarchies
+     */
+    public Map<String, MoPathQuery> getRefAttrPathQueryMap() {
+        return refAttrPathQueryMap;
     }
 
     /**
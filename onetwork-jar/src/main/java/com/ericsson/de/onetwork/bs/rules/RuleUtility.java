@@ -22,9 +22,9 @@ import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.ericsson.de.onetwork.dms.exceptions.ChildNotFoundException;
 import com.ericsson.de.onetwork.dms.exceptions.InvalidChildException;
 import com.ericsson.de.onetwork.dms.generics.Mo;
+import com.ericsson.de.onetwork.dms.generics.MoPathQuery;
 import com.ericsson.de.onetwork.dms.generics.NetworkElement;
 import com.ericsson.de.onetwork.dms.mo.datatype.MoAttributeDataType;
 
@@ -50,6 +50,18 @@ public class RuleUtility {
      */
     private static final int OFFSET_OF_PARENT_OF_REQUIRED_MO = 2;
 
+    /**
+     * Used to find the MOs below the top parent MO in the MO type hierarchy,
+     * when isolating the parent MOs for creation.
+     */
+    private static final int LEVEL_BELOW_TOP_PARENT_MO = 2;
+
+    /** Used to count the TDD cells on a node. */
+    private static final MoPathQuery TDD_CELL_QUERY = MoPathQuery.compile("ManagedElement,ENodeBFunction,EUtranCellTDD");
+
+    /** Used to count the FDD cells on a node. */
+    private static final MoPathQuery FDD_CELL_QUERY = MoPathQuery.compile("ManagedElement,ENodeBFunction,EUtranCellFDD");
+
     /**
      * Used to get all the parent MOs required when creating the MOs of a
      * feature. In order to create an MO, its parent MO must be known unless it
@@ -62,40 +74,44 @@ public class RuleUtility {
      * @return list of parent MOs
      */
     public static List<Mo> getParentsOfMoForCreation(final NetworkElement networkElement, final String moTypeHierarchy) {
-        final String[] parentMoHierarchy = getMoTypeHierarchyAsArray(moTypeHierarchy);
+        return getParentsOfMoForCreation(networkElement, MoPathQuery.compile(moTypeHierarchy));
+    }
+
+    /**
+     * Used to get all the parent MOs required when creating the MOs of a
+     * feature, from an mo type hierarchy which has already been compiled. The
+     * parent MOs are collected depth first into one list.
+     *
+     * @param networkElement
+     *            network element object to search
+     * @param moPathQuery
+     *            compiled mo type hierarchy used to isolate MOs in question
+     * @return list of parent MOs
+     */
+    public static List<Mo> getParentsOfMoForCreation(final NetworkElement networkElement, final MoPathQuery moPathQuery) {
         int level = 0;
 
         final Mo rootMo = networkElement.getRootMo();
 
-        if (isAtRootMo(parentMoHierarchy, level, rootMo)) {
+        if (isAtRootMo(moPathQuery, level, rootMo)) {
             level++;
         }
 
-        final List<Mo> moList = getChildrenByType(rootMo, parentMoHierarchy[level]);
-        return traverseToRequiredParentMos(moList, removeTopParentMo(parentMoHierarchy));
+        final List<Mo> parentMos = new ArrayList<Mo>();
+        collectRequiredParentMos(getChildrenByType(rootMo, moPathQuery.getMoType(level)), moPathQuery, LEVEL_BELOW_TOP_PARENT_MO, parentMos);
+        return parentMos;
     }
 
-    private static List<Mo> traverseToRequiredParentMos(List<Mo> moList, final String[] parentMos) {
-        for (int i = 0; i < parentMos.length - OFFSET_OF_PARENT_OF_REQUIRED_MO; i++) {
-            moList = getChildMosFromList(moList, parentMos[i + OFFSET_OF_REQUIRED_MO]);
+    private static void collectRequiredParentMos(final List<Mo> moList, final MoPathQuery moPathQuery, final int level,
+            final List<Mo> parentMos) {
+        if (level > moPathQuery.getNumberOfMoTypes() - OFFSET_OF_PARENT_OF_REQUIRED_MO) {
+            parentMos.addAll(moList);
+            return;
         }
 
-        return moList;
-    }
-
-    private static List<Mo> getChildMosFromList(final List<Mo> moList, final String childMoType) {
-        final List<Mo> foundMos = new ArrayList<Mo>();
-
-        for (final Mo mo : moList) {
-            foundMos.addAll(getChildrenByType(mo, childMoType));
+        for (int i = 0; i < moList.size(); i++) {
+            collectRequiredParentMos(getChildrenByType(moList.get(i), moPathQuery.getMoType(level)), moPathQuery, level + 1, parentMos);
         }
-
-        return foundMos;
-    }
-
-    private static String[] removeTopParentMo(final String[] parentMoHierarchy) {
-        final int lastElementIndex = parentMoHierarchy.length;
-        return Arrays.copyOfRange(parentMoHierarchy, 1, lastElementIndex);
     }
 
     /**
@@ -245,17 +261,15 @@ public class RuleUtility {
      * @return the required mo if present else null
      */
     public static Mo getMoIfSystemCreated(final Mo parentMo, final String requiredMoType, final String moValue) {
-        try {
-            final Mo mo = parentMo.getChildByTypeByName(requiredMoType, moValue);
+        final Mo mo = parentMo.findChildByTypeByName(requiredMoType, moValue);
+        if (null != mo) {
             logger.debug("Mo {} : {} was system created.", mo.getType(), mo.getName());
-            return mo;
-        } catch (InvalidChildException | ChildNotFoundException e) {
-            return null;
         }
+        return mo;
     }
 
-    private static boolean isAtRootMo(final String[] parentMos, final int level, final Mo rootMo) {
-        return rootMo.getType().equalsIgnoreCase(parentMos[level]);
+    private static boolean isAtRootMo(final MoPathQuery moPathQuery, final int level, final Mo rootMo) {
+        return rootMo.getType().equalsIgnoreCase(moPathQuery.getMoType(level));
     }
 
     /**
@@ -370,8 +384,8 @@ public class RuleUtility {
         try {
             // If the number of MOs to create are based on number of
             // cells on a node, the cell type needs to be added here.
-            totalTDD = networkElement.getMosFromNe("ManagedElement,ENodeBFunction,EUtranCellTDD").size();
-            totalFDD = networkElement.getMosFromNe("ManagedElement,ENodeBFunction,EUtranCellFDD").size();
+            totalTDD = networkElement.getMos(TDD_CELL_QUERY).size();
+            totalFDD = networkElement.getMos(FDD_CELL_QUERY).size();
         } catch (final InvalidChildException e) {
             logger.error("Cound not count Cells on {}", networkElement.getName());
         }
@@ -12,10 +12,13 @@
 
 package com.ericsson.de.onetwork.bs.rules.general;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -24,6 +27,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.ericsson.de.onetwork.bs.Network;
+import com.ericsson.de.onetwork.bs.rules.NodeLocalRule;
+import com.ericsson.de.onetwork.bs.rules.NodeLocalRuleExecutor;
 import com.ericsson.de.onetwork.bs.rules.Rule;
 import com.ericsson.de.onetwork.bs.rules.RuleConfig;
 import com.ericsson.de.onetwork.bs.rules.RuleUtility;
@@ -32,6 +37,7 @@ import com.ericsson.de.onetwork.dms.exceptions.InvalidPlatformRuntimeException;
 import com.ericsson.de.onetwork.dms.exceptions.MaximumCardinalityExceededException;
 import com.ericsson.de.onetwork.dms.generics.CreationContext;
 import com.ericsson.de.onetwork.dms.generics.Mo;
+import com.ericsson.de.onetwork.dms.generics.MoPathQuery;
 import com.ericsson.de.onetwork.dms.generics.NetworkElement;
 import com.ericsson.de.onetwork.dms.mo.datatype.AttributeDataType;
 import com.ericsson.de.onetwork.dms.mo.datatype.MoAttributeDataType;
@@ -41,7 +47,7 @@ import com.ericsson.de.onetwork.dms.mo.datatype.MoAttributeDataType;
  *
  * @author ecasjim
  */
-public class BasicMoCreation extends Rule {
+public class BasicMoCreation extends Rule implements NodeLocalRule<Void> {
     private final static Logger logger = LoggerFactory.getLogger(BasicMoCreation.class);
 
     /** Rule Config object to be used with this rule */
@@ -53,8 +59,11 @@ public class BasicMoCreation extends Rule {
     /** List containing cell names of network. */
     private Set<String> nodeNames = new LinkedHashSet<String>();
 
-    /** Number of MOs required to be created in this rule */
-    private Integer numberOfMosRequiredPerNe = 0;
+    /** What each network element starts from, in network order. */
+    private List<NodePlan> nodePlans;
+
+    /** Ref attributes whose target Mos could include the Mos this rule creates. */
+    private Set<String> refAttrNamesTargetingCreatedMos;
 
     /**
      * Constructor used to set name of rule.
@@ -80,51 +89,161 @@ public class BasicMoCreation extends Rule {
      */
     @Override
     public Network apply(final Network network, final RuleConfig ruleConfig) {
+        return NodeLocalRuleExecutor.apply(this, network, ruleConfig, 1);
+    }
+
+    /**
+     * The rule only changes the network element it is applied to, unless a
+     * configured attribute holds a struct or nested value. Such values are
+     * shared by every network element through the {@link RuleConfig}, and their
+     * placeholders are replaced in place.
+     *
+     * @see com.ericsson.de.onetwork.bs.rules.NodeLocalRule#isNodeLocal(com.ericsson.de.onetwork.bs.rules.RuleConfig)
+     */
+    @Override
+    public boolean isNodeLocal(final RuleConfig ruleConfig) {
+        for (final MoAttributeDataType attribute : ruleConfig.getAttributes().values()) {
+            final Object value = attribute.getValue();
+            if (value instanceof Map || value instanceof MoAttributeDataType) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Works out, for every network element, the parent {@link Mo}s, the number
+     * of {@code Mo}s to create, and the Mo value and per cell count that the
+     * network element starts from. These are carried from one network element
+     * to the next when incrementing across the network.
+     *
+     * @see com.ericsson.de.onetwork.bs.rules.NodeLocalRule#prepare(com.ericsson.de.onetwork.bs.Network,
+     *      com.ericsson.de.onetwork.bs.rules.RuleConfig)
+     */
+    @Override
+    public void prepare(final Network network, final RuleConfig ruleConfig) {
         nodeNames = network.getNetworkNodeNames();
         this.ruleConfig = ruleConfig;
         final String moTypeHierarchy = ruleConfig.getMoTypeHierarchy();
-        String moValue = null;
         final Collection<NetworkElement> networkElements = network.getNetworkElements();
-        final String moType = RuleUtility.getMoTypeToCreate(moTypeHierarchy);
-        logger.debug("Attempting to apply rule {} for Mo {} to {} node network", getName(), moType, networkElements.size());
+        logger.debug("Attempting to apply rule {} for Mo {} to {} node network", getName(), RuleUtility.getMoTypeToCreate(moTypeHierarchy),
+                networkElements.size());
 
+        refAttrNamesTargetingCreatedMos = getRefAttrNamesTargetingCreatedMos();
+        nodePlans = new ArrayList<NodePlan>(networkElements.size());
+        String moValue = null;
         for (final NetworkElement networkElement : networkElements) {
-            logger.debug("Applying rule {},{}", getName(), moTypeHierarchy);
-            final List<Mo> parentMoList = RuleUtility.getParentsOfMoForCreation(networkElement, moTypeHierarchy);
-
-            if (parentMoList.isEmpty()) {
-                logger.error("Rule {} failed as parent {} of {} do not exist on node: {}.",
-                        getName(), RuleUtility.getParentMoType(moTypeHierarchy), moType, networkElement.getName());
-            } else if (ruleConfig.isOnlySetAttributes()) {
-                setAttributesOnExistingMos(ruleConfig, networkElement);
+            final List<Mo> parentMoList = RuleUtility.getParentsOfMoForCreation(networkElement, ruleConfig.getMoPathQuery());
+            if (parentMoList.isEmpty() || ruleConfig.isOnlySetAttributes()) {
+                nodePlans.add(new NodePlan(parentMoList, 0, null, totalMosCreatedPerCell));
             } else {
-                moValue = createRequiredMos(networkElement, parentMoList, moType, moValue);
-                moValue = RuleUtility.prepareMoValueForNextNE(ruleConfig, moValue);
+                final int numberOfMosRequiredPerNe = determineNumOfMosPerNe(networkElement);
+                nodePlans.add(new NodePlan(parentMoList, numberOfMosRequiredPerNe, moValue, totalMosCreatedPerCell));
+                moValue = getMoValueForNextNe(moValue, numberOfMosRequiredPerNe);
+                totalMosCreatedPerCell = getMosCreatedPerCellAfter(totalMosCreatedPerCell, numberOfMosRequiredPerNe);
             }
         }
+    }
 
-        return network;
+    /**
+     * @see com.ericsson.de.onetwork.bs.rules.NodeLocalRule#applyToNetworkElement(int,
+     *      com.ericsson.de.onetwork.dms.generics.NetworkElement)
+     */
+    @Override
+    public Void applyToNetworkElement(final int networkElementIndex, final NetworkElement networkElement) {
+        final String moTypeHierarchy = ruleConfig.getMoTypeHierarchy();
+        final NodePlan nodePlan = nodePlans.get(networkElementIndex);
+        final MoRefTargets moRefTargets = new MoRefTargets(networkElement, refAttrNamesTargetingCreatedMos);
+        logger.debug("Applying rule {},{}", getName(), moTypeHierarchy);
+
+        if (nodePlan.parentMoList.isEmpty()) {
+            logger.error("Rule {} failed as parent {} of {} do not exist on node: {}.",
+                    getName(), RuleUtility.getParentMoType(moTypeHierarchy), RuleUtility.getMoTypeToCreate(moTypeHierarchy),
+                    networkElement.getName());
+        } else if (ruleConfig.isOnlySetAttributes()) {
+            setAttributesOnExistingMos(ruleConfig, networkElement, moRefTargets);
+        } else {
+            createRequiredMos(networkElement, nodePlan, ruleConfig.getMoPathQuery().getLastMoType(), moRefTargets);
+        }
+        return null;
+    }
+
+    /**
+     * @see com.ericsson.de.onetwork.bs.rules.NodeLocalRule#reduce(com.ericsson.de.onetwork.bs.Network,
+     *      java.util.List)
+     */
+    @Override
+    public void reduce(final Network network, final List<Void> results) {
+        nodePlans = null;
+        refAttrNamesTargetingCreatedMos = null;
     }
 
-    private void setAttributesOnExistingMos(final RuleConfig ruleConfig, final NetworkElement networkElement) {
+    /**
+     * Returns the ref attributes whose mo type hierarchy runs through the
+     * type of the {@link Mo}s created by this rule. Their target Mos may
+     * change as the rule is applied to a network element.
+     */
+    private Set<String> getRefAttrNamesTargetingCreatedMos() {
+        final Set<String> refAttrNames = new HashSet<String>();
+        if (ruleConfig.isRefToBeSet()) {
+            for (final Map.Entry<String, MoPathQuery> entry : ruleConfig.getRefAttrPathQueryMap().entrySet()) {
+                if (ruleConfig.getMoPathQuery().isPrefixOf(entry.getValue())) {
+                    refAttrNames.add(entry.getKey());
+                }
+            }
+        }
+        return refAttrNames;
+    }
+
+    /**
+     * Returns the Mo value the next network element starts from, which is
+     * only carried over when incrementing across the network.
+     */
+    private String getMoValueForNextNe(final String lastMoValue, final int numberOfMosCreated) {
+        if (ruleConfig.isIncrementingAcrossNode() || !ruleConfig.isIncrementingAcrossNetwork()) {
+            return null;
+        }
+        final String firstMoValue = lastMoValue == null ? ruleConfig.getStartingValue().toString() : lastMoValue;
+        return Integer.toString(Integer.parseInt(firstMoValue) + numberOfMosCreated);
+    }
+
+    /**
+     * Returns the per cell count after the given number of {@link Mo}s are
+     * created, as counted in
+     * {@link #createRequiredMos(NetworkElement, NodePlan, String)}.
+     */
+    private int getMosCreatedPerCellAfter(final int mosCreatedPerCell, final int numberOfMosCreated) {
+        final int numberOfMosPerCell = ruleConfig.getNumberOfMosPerCell();
+        if (numberOfMosCreated == 0) {
+            return mosCreatedPerCell;
+        } else if (numberOfMosPerCell <= 0) {
+            return 1;
+        } else if (mosCreatedPerCell > numberOfMosPerCell) {
+            return (numberOfMosCreated - 1) % numberOfMosPerCell + 1;
+        }
+        return (mosCreatedPerCell - 1 + numberOfMosCreated) % numberOfMosPerCell + 1;
+    }
+
+    private void setAttributesOnExistingMos(final RuleConfig ruleConfig, final NetworkElement networkElement, final MoRefTargets moRefTargets) {
         List<Mo> moList;
         try {
-            moList = networkElement.getMosFromNe(ruleConfig.getMoTypeHierarchy());
+            moList = networkElement.getMos(ruleConfig.getMoPathQuery());
             for (final Mo existingMo : moList) {
-                setMoAttributes(existingMo, networkElement);
+                setMoAttributes(existingMo, networkElement, moRefTargets);
             }
         } catch (final InvalidChildException e) {
             logger.error("Could not set attributes on {}", networkElement.getName());
         }
     }
 
-    private String createRequiredMos(final NetworkElement networkElement, final List<Mo> parentMoList, final String requiredMoType,
-            final String lastMoValue) {
-        String moValue = null;
+    private void createRequiredMos(final NetworkElement networkElement, final NodePlan nodePlan, final String requiredMoType,
+            final MoRefTargets moRefTargets) {
         final String nodeMimVersion = networkElement.getMimVersion();
-        Integer parentMoIndex = 0;
-        moValue = setInitialMoValueForThisNe(lastMoValue, networkElement.getName());
-        numberOfMosRequiredPerNe = determineNumOfMosPerNe(networkElement);
+        final List<Mo> parentMoList = nodePlan.parentMoList;
+        final int numberOfMosRequiredPerNe = nodePlan.numberOfMosRequiredPerNe;
+        int parentMoIndex = 0;
+        int mosCreatedPerCell = nodePlan.firstMosCreatedPerCell;
+        String moValue = setInitialMoValueForThisNe(nodePlan.firstMoValue, networkElement.getName());
 
         for (int mosCreated = 0; mosCreated < numberOfMosRequiredPerNe; mosCreated++) {
             final Mo parentMo = parentMoList.get(parentMoIndex);
@@ -135,15 +254,16 @@ public class BasicMoCreation extends Rule {
                 createdMo = createMo(networkElement, requiredMoType, moValue, nodeMimVersion, parentMo, createdMo);
             }
 
-            setMoAttributes(createdMo, networkElement);
-            parentMoIndex = updateParentIndex(parentMoIndex, parentMoList.size(), ruleConfig);
-
-            if (isNotFinishedCreatingMosForNE(mosCreated)) {
-                moValue = RuleUtility.determineMoValue(ruleConfig, moValue, new LinkedHashSet<String>(nodeNames), networkElement.getName());
+            setMoAttributes(createdMo, networkElement, moRefTargets);
+            if (ruleConfig.getNumberOfMosPerCell() > 0 && mosCreatedPerCell < ruleConfig.getNumberOfMosPerCell()) {
+                mosCreatedPerCell++;
+            } else {
+                parentMoIndex = RuleUtility.updateParentMoIndex(parentMoIndex, parentMoList.size());
+                mosCreatedPerCell = 1;
             }
-        }
 
-        return moValue;
+            moValue = RuleUtility.determineMoValue(ruleConfig, moValue, new LinkedHashSet<String>(nodeNames), networkElement.getName());
+        }
     }
 
     private Mo createMo(final NetworkElement networkElement, final String requiredMoType, final String moValue, final String nodeMimVersion,
@@ -160,10 +280,6 @@ public class BasicMoCreation extends Rule {
         return createdMo;
     }
 
-    private boolean isNotFinishedCreatingMosForNE(final int mosCreated) {
-        return mosCreated != numberOfMosRequiredPerNe;
-    }
-
     private String setInitialMoValueForThisNe(final String lastMoValue, final String nodeName) {
         if (lastMoValue == null) {
             return RuleUtility.determineMoValue(ruleConfig, lastMoValue, new LinkedHashSet<String>(nodeNames), nodeName);
@@ -183,18 +299,7 @@ public class BasicMoCreation extends Rule {
         return ruleConfig.getNumberOfMosPerNode();
     }
 
-    private int updateParentIndex(int parentMoIndex, final int parentMoListSize, final RuleConfig ruleConfig) {
-        if (ruleConfig.getNumberOfMosPerCell() > 0 && totalMosCreatedPerCell < ruleConfig.getNumberOfMosPerCell()) {
-            totalMosCreatedPerCell++;
-        } else {
-            parentMoIndex = RuleUtility.updateParentMoIndex(parentMoIndex, parentMoListSize);
-            totalMosCreatedPerCell = 1;
-        }
-
-        return parentMoIndex;
-    }
-
-    private void setMoAttributes(final Mo mo, final NetworkElement networkElement) {
+    private void setMoAttributes(final Mo mo, final NetworkElement networkElement, final MoRefTargets moRefTargets) {
         for (final Map.Entry<String, MoAttributeDataType> entry : ruleConfig.getAttributes().entrySet()) {
             mo.setAttributeValue(entry.getKey(), entry.getValue().getValue(), CreationContext.FEATURE_CREATED);
             logger.debug("Setting {} to {} on Mo {}", entry.getKey(), entry.getValue(), mo.getFdn());
@@ -203,21 +308,19 @@ public class BasicMoCreation extends Rule {
         replacePlaceHoldersWithRequiredValues(mo, networkElement.getName());
 
         try {
-            setAttributesWhichRequireMoRef(mo, networkElement);
+            setAttributesWhichRequireMoRef(mo, moRefTargets);
         } catch (final InvalidChildException e) {
             logger.error("Error: {}", e.getMessage());
         }
     }
 
-    private void setAttributesWhichRequireMoRef(final Mo mo, final NetworkElement networkElement) throws InvalidChildException {
+    private void setAttributesWhichRequireMoRef(final Mo mo, final MoRefTargets moRefTargets) throws InvalidChildException {
         if (ruleConfig.isRefToBeSet()) {
-            for (final Map.Entry<String, String> entry : ruleConfig.getRefAttrMap().entrySet()) {
-                final List<Mo> moList = networkElement.getMosFromNe(entry.getValue());
-                for (final Mo moExternal : moList) {
-                    if (moExternal.getName().equalsIgnoreCase(mo.getName())) {
-                        mo.setAttributeValue(entry.getKey(), moExternal.getFdn(), CreationContext.FEATURE_CREATED);
-                        logger.debug("Setting {} to {} on Mo {}", entry.getKey(), moExternal.getFdn(), mo.getFdn());
-                    }
+            for (final Map.Entry<String, MoPathQuery> entry : ruleConfig.getRefAttrPathQueryMap().entrySet()) {
+                final Mo moExternal = moRefTargets.getTargetByName(entry.getKey(), entry.getValue(), mo.getName());
+                if (moExternal != null) {
+                    mo.setAttributeValue(entry.getKey(), moExternal.getFdn(), CreationContext.FEATURE_CREATED);
+                    logger.debug("Setting {} to {} on Mo {}", entry.getKey(), moExternal.getFdn(), mo.getFdn());
                 }
             }
         }
@@ -298,4 +401,68 @@ public class BasicMoCreation extends Rule {
             }
         }
     }
+
+    /**
+     * What a network element starts from when the rule is applied to it.
+     */
+    private static final class NodePlan {
+        private final List<Mo> parentMoList;
+        private final int numberOfMosRequiredPerNe;
+        private final String firstMoValue;
+        private final int firstMosCreatedPerCell;
+
+        private NodePlan(final List<Mo> parentMoList, final int numberOfMosRequiredPerNe, final String firstMoValue,
+                final int firstMosCreatedPerCell) {
+            this.parentMoList = parentMoList;
+            this.numberOfMosRequiredPerNe = numberOfMosRequiredPerNe;
+            this.firstMoValue = firstMoValue;
+            this.firstMosCreatedPerCell = firstMosCreatedPerCell;
+        }
+    }
+
+    /**
+     * The Mos that the ref attributes of one network element point to, keyed
+     * by their name ignoring case. The target Mos of a ref attribute are found
+     * once per network element, and only found again when they could include
+     * Mos created by the rule since.
+     */
+    private static final class MoRefTargets {
+        private final NetworkElement networkElement;
+        private final Set<String> refAttrNamesTargetingCreatedMos;
+        private final Map<String, Map<String, Mo>> targetsByRefAttrName = new HashMap<String, Map<String, Mo>>();
+        private final Map<String, Integer> modificationCountsByRefAttrName = new HashMap<String, Integer>();
+
+        private MoRefTargets(final NetworkElement networkElement, final Set<String> refAttrNamesTargetingCreatedMos) {
+            this.networkElement = networkElement;
+            this.refAttrNamesTargetingCreatedMos = refAttrNamesTargetingCreatedMos;
+        }
+
+        /**
+         * Returns the target Mo of the ref attribute with the given name,
+         * ignoring case. Where several target Mos share the name, the last one
+         * found is returned.
+         */
+        private Mo getTargetByName(final String refAttrName, final MoPathQuery moPathQuery, final String moName) throws InvalidChildException {
+            if (moName == null) {
+                return null;
+            }
+            final int modificationCount = networkElement.getRootMo().getSubtreeModificationCount();
+            Map<String, Mo> targetsByName = targetsByRefAttrName.get(refAttrName);
+            if (targetsByName == null
+                    || refAttrNamesTargetingCreatedMos.contains(refAttrName)
+                    && modificationCount != modificationCountsByRefAttrName.get(refAttrName)) {
+                targetsByName = new HashMap<String, Mo>();
+                for (final Mo target : networkElement.getMos(moPathQuery)) {
+                    targetsByName.put(toNameKey(target.getName()), target);
+                }
+                targetsByRefAttrName.put(refAttrName, targetsByName);
+                modificationCountsByRefAttrName.put(refAttrName, modificationCount);
+            }
+            return targetsByName.get(toNameKey(moName));
+        }
+
+        private static String toNameKey(final String moName) {
+            return moName == null ? null : moName.toLowerCase(Locale.ROOT);
+        }
+    }
 }
@@ -13,13 +13,14 @@
 package com.ericsson.de.onetwork.bs.rules.lte;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.ericsson.de.onetwork.bs.Network;
+import com.ericsson.de.onetwork.bs.rules.NodeLocalRule;
+import com.ericsson.de.onetwork.bs.rules.NodeLocalRuleExecutor;
 import com.ericsson.de.onetwork.bs.rules.Rule;
 import com.ericsson.de.onetwork.bs.rules.RuleConfig;
 import com.ericsson.de.onetwork.bs.rules.RuleUtility;
@@ -28,6 +29,7 @@ import com.ericsson.de.onetwork.dms.exceptions.InvalidPlatformRuntimeException;
 import com.ericsson.de.onetwork.dms.exceptions.MaximumCardinalityExceededException;
 import com.ericsson.de.onetwork.dms.generics.CreationContext;
 import com.ericsson.de.onetwork.dms.generics.Mo;
+import com.ericsson.de.onetwork.dms.generics.MoPathQuery;
 import com.ericsson.de.onetwork.dms.generics.NetworkElement;
 import com.ericsson.de.onetwork.gnm.Gnm;
 
@@ -37,7 +39,7 @@ import com.ericsson.de.onetwork.gnm.Gnm;
  *
  * @author ecasjim
  */
-public class EUtranCellCreation extends Rule {
+public class EUtranCellCreation extends Rule implements NodeLocalRule<List<String>> {
 
     private final static Logger logger = LoggerFactory.getLogger(EUtranCellCreation.class);
     private final static String DEFAULT_ATTRIBUTE_VALUE = "1";
@@ -48,6 +50,12 @@ public class EUtranCellCreation extends Rule {
     /** Used to navigate through cell pattern array. */
     private int cellPatternCounter = 0;
 
+    /** Position in the cell pattern of the first network element. */
+    private int firstCellPatternIndex = 0;
+
+    /** Type hierarchy of the cells created by the current application. */
+    private MoPathQuery moPathQuery;
+
     private final String[] attributeNames = { "tac", "physicalLayerSubCellId",
         "physicalLayerCellIdGroup", "earfcnul", "earfcndl" };
 
@@ -76,7 +84,27 @@ public class EUtranCellCreation extends Rule {
      */
     @Override
     public Network apply(final Network network, final RuleConfig config) {
-        final String moTypeHierarchy = config.getMoTypeHierarchy();
+        return NodeLocalRuleExecutor.apply(this, network, config, 1);
+    }
+
+    /*
+     * @see
+     * com.ericsson.de.onetwork.bs.rules.NodeLocalRule#isNodeLocal(com.ericsson
+     * .de.onetwork.bs.rules.RuleConfig)
+     */
+    @Override
+    public boolean isNodeLocal(final RuleConfig config) {
+        return true;
+    }
+
+    /*
+     * @see
+     * com.ericsson.de.onetwork.bs.rules.NodeLocalRule#prepare(com.ericsson.de
+     * .onetwork.bs.Network, com.ericsson.de.onetwork.bs.rules.RuleConfig)
+     */
+    @Override
+    public void prepare(final Network network, final RuleConfig config) {
+        moPathQuery = config.getMoPathQuery();
         final Gnm gnm = config.getGnm();
         final int networkNodeSize = network.getNetworkElements().size();
         final int networkCellSize = (int) (Math.floor(gnm.getCellPatternAverage()) * networkNodeSize);
@@ -84,25 +112,40 @@ public class EUtranCellCreation extends Rule {
         logger.info("{} cells will be implemented across a {} node network.", networkCellSize, networkNodeSize);
 
         cellPattern = gnm.getCellPattern();
-        final Collection<NetworkElement> networkElements = network.getNetworkElements();
+        firstCellPatternIndex = cellPatternCounter == cellPattern.size() ? 0 : cellPatternCounter;
+    }
 
-        for (final NetworkElement networkElement : networkElements) {
-            final List<Mo> parentMoList = RuleUtility.getParentsOfMoForCreation(networkElement, moTypeHierarchy);
+    /*
+     * @see
+     * com.ericsson.de.onetwork.bs.rules.NodeLocalRule#applyToNetworkElement
+     * (int, com.ericsson.de.onetwork.dms.generics.NetworkElement)
+     */
+    @Override
+    public List<String> applyToNetworkElement(final int networkElementIndex, final NetworkElement networkElement) {
+        final List<Mo> parentMoList = RuleUtility.getParentsOfMoForCreation(networkElement, moPathQuery);
 
-            final List<String> cellNames =
-                    createRequiredMOs(networkElement.getMimVersion(), networkElement.getName(),
-                            parentMoList, RuleUtility.getMoTypeToCreate(moTypeHierarchy));
+        return createRequiredMOs(networkElement.getMimVersion(), networkElement.getName(), parentMoList,
+                moPathQuery.getLastMoType(), numberOfCellsRequiredForNetworkElement(networkElementIndex));
+    }
 
+    /*
+     * @see
+     * com.ericsson.de.onetwork.bs.rules.NodeLocalRule#reduce(com.ericsson.de
+     * .onetwork.bs.Network, java.util.List)
+     */
+    @Override
+    public void reduce(final Network network, final List<List<String>> results) {
+        for (final List<String> cellNames : results) {
             network.addNetworkCellNames(cellNames);
         }
-
-        return network;
+        if (!results.isEmpty()) {
+            cellPatternCounter = (firstCellPatternIndex + results.size() - 1) % cellPattern.size() + 1;
+        }
     }
 
     private List<String> createRequiredMOs(final String nodeMimVersion, final String nodeName, final List<Mo> parentMoList,
-            final String requiredMoType) {
+            final String requiredMoType, final int cellsRequired) {
         final List<String> cellNames = new ArrayList<String>();
-        final int cellsRequired = numberOfCellsRequiredForThisNetworkElement();
         int parentMoIndex = 0;
         int cellsCreated = 0;
 
@@ -151,11 +194,11 @@ public class EUtranCellCreation extends Rule {
 
     }
 
-    private int numberOfCellsRequiredForThisNetworkElement() {
-        if (cellPatternCounter == cellPattern.size()) {
-            cellPatternCounter = 0;
-        }
-
-        return cellPattern.get(cellPatternCounter++);
+    /**
+     * The cell pattern is followed from one network element to the next, and
+     * restarts when it is exhausted.
+     */
+    private int numberOfCellsRequiredForNetworkElement(final int networkElementIndex) {
+        return cellPattern.get((firstCellPatternIndex + networkElementIndex) % cellPattern.size());
     }
 }
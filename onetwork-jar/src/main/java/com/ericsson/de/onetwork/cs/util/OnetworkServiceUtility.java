@@ -27,6 +27,8 @@ import org.slf4j.LoggerFactory;
 
 import com.ericsson.de.onetwork.cs.exceptions.NexusUploadException;
 import com.ericsson.de.onetwork.cs.nodeintro.FtpFileHandler;
+import com.ericsson.de.onetwork.ss.NetsimServer;
+import com.ericsson.de.onetwork.ss.NetsimServerPool;
 import com.ericsson.de.onetwork.util.OnetworkSshClient;
 
 /**
@@ -41,7 +43,6 @@ public class OnetworkServiceUtility {
     private final static String _1NETWORK_NEXUS_FOLDER = "nexus/content/repositories/simnet/com/ericsson/1Network/";
     private final static String _1NETWORK_NEXUS_USERNAME = "simnet";
     private final static String _1NETWORK_NEXUS_PASSWORD = "simnet01";
-    private final static String NETSIM_SERVER = "netsimv006-04.athtem.eei.ericsson.se";
     private final static String _1NETWORK_NETSIM_DIRECTORY = "/netsim/1Network/";
     private final static String SIMS_PROJECT_CODE = "ERIConetworksims_CXP9038429-";
     private static final int SUCCESSFUL = 0;
@@ -102,8 +103,9 @@ public class OnetworkServiceUtility {
             throws NexusUploadException {
         int exitCode = 0;
         final OnetworkSshClient sshClient = new OnetworkSshClient();
+        final NetsimServer netsimServer = NetsimServerPool.getDefaultPool().getPrimaryNetsimServer();
         final String cmdGetSimsFromNetsim =
-                "scp netsim@" + NETSIM_SERVER + ":" + _1NETWORK_NETSIM_DIRECTORY + filename + " . ";
+                "scp " + netsimServer.getUser() + "@" + netsimServer.getHost() + ":" + _1NETWORK_NETSIM_DIRECTORY + filename + " . ";
 
         final String uploadCommand =
                 "curl --noproxy '*' -k --upload-file "
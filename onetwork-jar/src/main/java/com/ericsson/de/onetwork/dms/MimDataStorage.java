@@ -12,18 +12,13 @@
 
 package com.ericsson.de.onetwork.dms;
 
-import static com.ericsson.de.onetwork.dms.constants.RelationshipConstants.INVALID_ROOT_MO_TYPE;
-import static com.ericsson.de.onetwork.dms.constants.RelationshipConstants.NO_PARENT_FOUND_INDICATOR;
-import static com.ericsson.de.onetwork.dms.constants.RelationshipConstants.RELATIONSHIP_CHILD_TYPE_INDEX;
-import static com.ericsson.de.onetwork.dms.constants.RelationshipConstants.RELATIONSHIP_PARENT_TYPE_INDEX;
-import static com.ericsson.de.onetwork.dms.constants.RelationshipConstants.RELATIONSHIP_SEPARATOR;
-
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collection;
+import java.net.URISyntaxException;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
-import java.util.Map;
 
 import javax.xml.bind.JAXBException;
 import javax.xml.parsers.ParserConfigurationException;
@@ -36,24 +31,32 @@ import com.ericsson.de.onetwork.MimXmlFileTestConstants;
 import com.ericsson.de.onetwork.dms.exceptions.DataModellerServiceException;
 import com.ericsson.de.onetwork.dms.generics.Mo;
 import com.ericsson.de.onetwork.dms.generics.Platform;
+import com.ericsson.de.onetwork.dms.mo.CardinalityBounds;
+import com.ericsson.de.onetwork.dms.mo.MoClassDescriptor;
 import com.ericsson.de.onetwork.dms.mo.datatype.MoAttributeDataType;
 import com.ericsson.de.onetwork.dms.momparser.MomParser;
 import com.ericsson.de.onetwork.dms.momparser.MomParserFactory;
 import com.ericsson.de.onetwork.dms.momparser.schema.config.MomParserConfig;
 import com.ericsson.de.onetwork.dms.momparser.schema.config.MomParserConfig.Input;
 import com.ericsson.de.onetwork.dms.momparser.schema.config.MomParserConfig.Output;
-import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Attribute;
 import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Class;
 import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Relationship;
 import com.ericsson.de.onetwork.dms.util.MimFileUtility;
 import com.ericsson.de.onetwork.dms.util.MimToPlatformMapper;
-import com.ericsson.de.onetwork.dms.util.MoFormatter;
 import com.ericsson.de.onetwork.ss.util.InvalidMimVersionFormatException;
 
 /**
  * Storage solution for MOM.XML data within the scope of vertical slice,
  * expected to end by 1Network_15.15. One CPP (ERBS G.1.60) and one COM-ECIM
  * (SGSN 15B WPP-V5) are stored locally.
+ * <p>
+ * Parsed MIMs are held in memory, keyed by MIM version, up to the number set
+ * by the {@value #MIM_CACHE_SIZE_PROPERTY} system property. A loaded model is
+ * never modified, so it is safe to read from several threads at once.
+ * <p>
+ * Once parsed, a MIM is also written to a binary model file, which is read
+ * instead of the MOM XML by later loads, including those of later runs, for
+ * as long as the checksum of the MOM XML and the MOM parser are unchanged.
  *
  * @author edalrey
  * @since 1Network_15.14
@@ -69,48 +72,126 @@ public class MimDataStorage {
 
     private static String MIM_DIRECTORY = RESOURCES_DIRECTORY + "dms" + File.separator + "mims" + File.separator;
 
-    private static MomParser PARSER;
+    /**
+     * System property used to bound the number of parsed MIMs held in memory.
+     */
+    public static final String MIM_CACHE_SIZE_PROPERTY = "onetwork.mim.cache.size";
+
+    private static final int DEFAULT_MIM_CACHE_SIZE = 4;
+
+    /**
+     * System property which, when set to false, stops parsed MIMs from being
+     * written to and read from binary model files. It is true by default.
+     */
+    public static final String MIM_MODEL_FILES_PROPERTY = "onetwork.mim.model.files";
+
+    /**
+     * System property used to set the directory of the binary model files. By
+     * default they are written to .onetwork/mimmodels in the home directory of
+     * the user, outside of the class path.
+     */
+    public static final String MIM_MODEL_FILES_DIRECTORY_PROPERTY = "onetwork.mim.model.files.directory";
+
+    private static String MIM_MODEL_FILES_DIRECTORY = System.getProperty("user.home") + File.separator + ".onetwork" + File.separator
+            + "mimmodels" + File.separator;
 
-    private static String CURRENT_MIM_VERSION = "";
+    private static final MimModelCache MIM_MODELS = new MimModelCache(Integer.getInteger(MIM_CACHE_SIZE_PROPERTY, DEFAULT_MIM_CACHE_SIZE));
 
-    private static Map<String, Class> CLASSES;
-    private static Map<String, Relationship> RELATONSHIPS;
+    /**
+     * Held while a MIM version is parsed, so that concurrent readers of a
+     * version that is not yet cached wait for a single parse of it.
+     */
+    private static final Object MIM_LOAD_LOCK = new Object();
 
-    // MIM example = "LTE ERBS F1101"
+    /**
+     * Parses the MOM XML of the given MIM version and caches the result, unless
+     * it is already cached. Up to {@value #DEFAULT_MIM_CACHE_SIZE} MIM versions
+     * are held by default, after which the least recently used is evicted.
+     *
+     * @param mimVersion
+     *            version of the underlying node model, e.g. "LTE ERBS F1101"
+     * @throws DataModellerServiceException
+     *             thrown when the MIM version is blank or its MOM XML cannot be
+     *             parsed
+     */
     // This is called from rest call from GUI, before 1network service starts
     public static void loadMimVersionToMemory(final String mimVersion) throws DataModellerServiceException {
+        getMimModel(mimVersion);
+    }
 
-        try {
-            if (!mimVersion.equals(CURRENT_MIM_VERSION)) {
-                // Map MIM to config path
-                final MomParserConfig mpConfig = new MomParserConfig();
-                final Input input = new Input();
-                final Output output = new Output();
-
-                // TODO: an adapter method can be called to convert mimVersion
-                // to the mim file name.
-                if (MimToPlatformMapper.getPlatformByMimVersion(mimVersion) == Platform.CPP) {
-                    input.setMomURI(MIM_DIRECTORY + MimFileUtility.getMimFileName(mimVersion));
+    /**
+     * Returns the immutable snapshot of the given MIM version, parsing its MOM
+     * XML first if it is not cached. Builds should obtain the snapshot once
+     * and read the model from it.
+     *
+     * @param mimVersion
+     *            version of the underlying node model, e.g. "LTE ERBS F1101"
+     * @return the model of the MIM version
+     * @throws DataModellerServiceException
+     *             thrown when the MIM version is blank or its MOM XML cannot be
+     *             parsed
+     */
+    public static MimModel getMimModel(final String mimVersion) throws DataModellerServiceException {
+        if (mimVersion.equals("")) {
+            throw new DataModellerServiceException("MIM version is blank.");
+        }
+        MimModel model = MIM_MODELS.get(mimVersion);
+        if (model == null) {
+            synchronized (MIM_LOAD_LOCK) {
+                model = MIM_MODELS.get(mimVersion);
+                if (model == null) {
+                    model = parseMimVersion(mimVersion);
+                    MIM_MODELS.put(model);
                 }
-                else if (MimToPlatformMapper.getPlatformByMimVersion(mimVersion) == Platform.COMECIM) {
-                    input.setMomURI(MIM_DIRECTORY + MimXmlFileTestConstants.getComEcimFile());
+            }
+        }
+        return model;
+    }
+
+    private static MimModel parseMimVersion(final String mimVersion) throws DataModellerServiceException {
+        try {
+            // Map MIM to config path
+            final MomParserConfig mpConfig = new MomParserConfig();
+            final Input input = new Input();
+            final Output output = new Output();
+            final Platform platform = MimToPlatformMapper.getPlatformByMimVersion(mimVersion);
+
+            // TODO: an adapter method can be called to convert mimVersion
+            // to the mim file name.
+            String momFileName = null;
+            if (platform == Platform.CPP) {
+                momFileName = MimFileUtility.getMimFileName(mimVersion);
+                input.setMomURI(MIM_DIRECTORY + momFileName);
+            }
+            else if (platform == Platform.COMECIM) {
+                momFileName = MimXmlFileTestConstants.getComEcimFile();
+                input.setMomURI(MIM_DIRECTORY + momFileName);
+            }
+
+            input.setMpDtdURI(DTD_FILE_LOCATION);
+            output.setMomPool("");
+            output.setVersion("");
+            mpConfig.setInput(input);
+            mpConfig.setOutput(output);
+            logger.debug("Platform: " + platform.toString());
+
+            logger.debug("MOM file URI: " + input.getMomURI());
+            final Long momChecksum = getMomChecksum(momFileName);
+            final Path mimModelFile = getMimModelFile(mimVersion);
+            if (null != momChecksum) {
+                final MimModel model = MimModelFile.read(mimModelFile, momChecksum);
+                if (null != model) {
+                    logger.debug("MIM {} is read from model file {}", mimVersion, mimModelFile);
+                    return model;
                 }
+            }
 
-                input.setMpDtdURI(DTD_FILE_LOCATION);
-                output.setMomPool("");
-                output.setVersion("");
-                mpConfig.setInput(input);
-                mpConfig.setOutput(output);
-                logger.debug("Platform: " + MimToPlatformMapper.getPlatformByMimVersion(mimVersion).toString());
-
-                logger.debug("MOM file URI: " + input.getMomURI());
-                PARSER = MomParserFactory.createMomParser(MimToPlatformMapper.getPlatformByMimVersion(mimVersion), mpConfig);
-                CLASSES = populateCppClasses();
-                RELATONSHIPS = populateCppRelationships();
-                CURRENT_MIM_VERSION = mimVersion;
-            } else if (mimVersion.equals("")) {
-                throw new DataModellerServiceException("MIM version is blank.");
+            final MomParser parser = MomParserFactory.createMomParser(platform, mpConfig);
+            final MimModel model = new MimModel(mimVersion, platform, parser);
+            if (null != momChecksum) {
+                writeMimModelFile(model, momChecksum, mimModelFile);
             }
+            return model;
         } catch (IOException | ParserConfigurationException | SAXException | JAXBException | InvalidMimVersionFormatException e) {
             // TODO: Possibly create custom exception
             logger.debug("Exception occured at loadMimVersionToMemory. See msg:{}", e.getMessage());
@@ -118,12 +199,64 @@ public class MimDataStorage {
         }
     }
 
-    private static Map<String, Class> populateCppClasses() {
-        return PARSER.getMimClasses();
+    private static boolean isMimModelFilesEnabled() {
+        return Boolean.parseBoolean(System.getProperty(MIM_MODEL_FILES_PROPERTY, Boolean.TRUE.toString()));
+    }
+
+    private static Path getMimModelFile(final String mimVersion) {
+        return Paths.get(System.getProperty(MIM_MODEL_FILES_DIRECTORY_PROPERTY, MIM_MODEL_FILES_DIRECTORY), MimModelFile.getFileName(mimVersion));
+    }
+
+    /**
+     * Returns the checksum of the MOM XML, or null if model files are not used
+     * or the MOM XML cannot be read, in which case the MOM XML is parsed. The
+     * MOM XML is found through the class path URI rather than the MOM URI, as
+     * the latter is URL encoded.
+     */
+    private static Long getMomChecksum(final String momFileName) {
+        if (!isMimModelFilesEnabled() || null == momFileName) {
+            return null;
+        }
+        try {
+            final Path momPath = Paths.get(MimDataStorage.class.getResource("/").toURI()).resolve("dms").resolve("mims").resolve(momFileName);
+            return MimModelFile.getChecksum(momPath);
+        } catch (final IOException | URISyntaxException | IllegalArgumentException | FileSystemNotFoundException e) {
+            logger.warn("Could not work out the checksum of MOM XML {}, so no model file is used: {}", momFileName, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeMimModelFile(final MimModel model, final long momChecksum, final Path mimModelFile) {
+        try {
+            MimModelFile.write(model, momChecksum, mimModelFile);
+            logger.debug("MIM {} is written to model file {}", model.getMimVersion(), mimModelFile);
+        } catch (final IOException e) {
+            // The model is still usable; the MOM XML is parsed again next time.
+            logger.warn("Could not write MIM model file {}: {}", mimModelFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the cached model, loading it if it has been evicted since it was
+     * last used.
+     */
+    private static MimModel getLoadedMimModel(final String mimVersion) {
+        try {
+            return getMimModel(mimVersion);
+        } catch (final DataModellerServiceException e) {
+            throw new IllegalStateException("Could not load MIM version: " + mimVersion, e);
+        }
     }
 
-    private static Map<String, Relationship> populateCppRelationships() {
-        return PARSER.getMimRelationships();
+    /**
+     * Sets the number of parsed MIM versions that are held in memory. The
+     * least recently used are evicted if more are currently held.
+     *
+     * @param maximumSize
+     *            the number of MIM versions to hold, at least one
+     */
+    public static void setMimCacheSize(final int maximumSize) {
+        MIM_MODELS.setMaximumSize(maximumSize);
     }
 
     /**
@@ -137,10 +270,25 @@ public class MimDataStorage {
      *            the type of child managed object
      * @return mp.dtd {@code Relationship} instance of a given type
      */
-    public static Relationship getRelatonshipByParentAndChildMoTypes(final String parentType, final String childType) {
-        final String relationshipName = parentType + RELATIONSHIP_SEPARATOR + childType;
-        return getRelatonships(relationshipName);
+    public static Relationship getRelatonshipByParentAndChildMoTypes(final String mimVersion, final String parentType, final String childType) {
+        return getLoadedMimModel(mimVersion).getRelationship(parentType, childType);
+    }
 
+    /**
+     * Return the {@link CardinalityBounds} of the relationship between two
+     * {@link Mo} types, compiled when the MIM was loaded.
+     *
+     * @param mimVersion
+     *            version of the underlying node model
+     * @param parentType
+     *            the type of parent managed object
+     * @param childType
+     *            the type of child managed object
+     * @return the minimum and maximum cardinality of the child type
+     */
+    public static CardinalityBounds getCardinalityBoundsByParentAndChildMoTypes(final String mimVersion, final String parentType,
+            final String childType) {
+        return getLoadedMimModel(mimVersion).getCardinalityBounds(parentType, childType);
     }
 
     /**
@@ -153,25 +301,7 @@ public class MimDataStorage {
      * @return mp.dtd {@code Class} instance of a given type
      */
     public static Class getClassByMoType(final String mimVersion, final String moType) {
-        return getClass(moType);
-    }
-
-    private static Class getClass(final String moType) {
-        final Class moClass = CLASSES.get(moType);
-        if (null != moClass) {
-            return moClass;
-        } else {
-            throw new IllegalStateException("Could not find Mo instance of input type: " + moType);
-        }
-    }
-
-    private static Relationship getRelatonships(final String moType) {
-        final Relationship moRelationship = RELATONSHIPS.get(moType);
-        if (null != moRelationship) {
-            return moRelationship;
-        } else {
-            throw new IllegalStateException("Could not find parent of input child type: " + moType);
-        }
+        return getLoadedMimModel(mimVersion).getClassByMoType(moType);
     }
 
     /**
@@ -183,38 +313,9 @@ public class MimDataStorage {
      * @return the {@code Mo} object that is at the root of the given MOM XML
      */
     public static Class getRootMoClass(final String mimVersion) {
-        final Collection<Class> classesPerMim = getClassesByMimVersion(mimVersion);
-        logger.debug("There are {} Classes in MIM {}", classesPerMim.size(), mimVersion);
-        for (final Class moClass : classesPerMim) {
-            final String moType = MoFormatter.removeComEcimNamespaceFrom(moClass.getName());
-            final String parent = getParentMoType(mimVersion, moType);
-            final String parentMoType = MoFormatter.removeComEcimNamespaceFrom(parent);
-            if (NO_PARENT_FOUND_INDICATOR.equals(parentMoType) && !INVALID_ROOT_MO_TYPE.equals(moClass.getName())) {
-                return moClass;
-            }
-        }
-        logger.debug("Mim version {} contains no classes", mimVersion);
-        return null;
-    }
-
-    private static Collection<Class> getClassesByMimVersion(final String mimVersion) {
-        final Platform platform = MimToPlatformMapper.getPlatformByMimVersion(mimVersion);
-        logger.debug("MIM {} is based on Platform {}", mimVersion, platform);
-        return CLASSES.values();
-    }
-
-    private static String getParentMoType(final String mimVersion, final String moType) {
-        for (final Relationship relationshipItem : getRelationshipsByMimVersion(mimVersion)) {
-            final String[] relationshipComponents = relationshipItem.getName().split(RELATIONSHIP_SEPARATOR);
-            if (MoFormatter.removeComEcimNamespaceFrom(relationshipComponents[RELATIONSHIP_CHILD_TYPE_INDEX]).equals(moType)) {
-                return relationshipComponents[RELATIONSHIP_PARENT_TYPE_INDEX];
-            }
-        }
-        return NO_PARENT_FOUND_INDICATOR;
-    }
-
-    private static Collection<Relationship> getRelationshipsByMimVersion(final String mimVersion) {
-        return RELATONSHIPS.values();
+        final MimModel model = getLoadedMimModel(mimVersion);
+        logger.debug("There are {} Classes in MIM {}, based on Platform {}", model.getClasses().size(), mimVersion, model.getPlatform());
+        return model.getRootMoClass();
     }
 
     /**
@@ -228,11 +329,7 @@ public class MimDataStorage {
      *         created or not
      */
     public static boolean isMoSystemCreated(final String mimVersion, final String moType) {
-        final Class moClass = getClassByMoType(mimVersion, moType);
-        if (moClass.getSystemCreated() != null) {
-            return true;
-        }
-        return false;
+        return getLoadedMimModel(mimVersion).isMoSystemCreated(moType);
     }
 
     /**
@@ -242,19 +339,24 @@ public class MimDataStorage {
      *            version of the underlying node model
      * @param moType
      *            the type of managed object
-     * @return a list of {@code Mo} names that valid are valid children
+     * @return an unmodifiable list of {@code Mo} names that valid are valid
+     *         children
      */
     public static List<String> getChildMoTypes(final String mimVersion, final String moType) {
-        final List<String> children = new ArrayList<String>();
-        for (final Relationship relationshipItem : getRelationshipsByMimVersion(mimVersion)) {
-            final String[] relationshipComponents = relationshipItem.getName().split(RELATIONSHIP_SEPARATOR);
-            final String parentName = MoFormatter.removeComEcimNamespaceFrom(relationshipComponents[RELATIONSHIP_PARENT_TYPE_INDEX]);
-            if (parentName.equals(moType)) {
-                final String childName = MoFormatter.removeComEcimNamespaceFrom(relationshipComponents[RELATIONSHIP_CHILD_TYPE_INDEX]);
-                children.add(childName);
-            }
-        }
-        return children;
+        return getLoadedMimModel(mimVersion).getChildMoTypes(moType);
+    }
+
+    /**
+     * Return the compiled {@link MoClassDescriptor} of an {@link Mo} type.
+     *
+     * @param mimVersion
+     *            version of the underlying node model
+     * @param moType
+     *            the type of managed object
+     * @return the attribute table of the given type
+     */
+    public static MoClassDescriptor getMoClassDescriptor(final String mimVersion, final String moType) {
+        return getLoadedMimModel(mimVersion).getMoClassDescriptor(moType);
     }
 
     /**
@@ -265,23 +367,11 @@ public class MimDataStorage {
      *            version of the underlying node model
      * @param moType
      *            the type of managed object
-     * @return a list of {@code MoAttributeDataType} names that valid are valid
-     *         attributes
+     * @return an unmodifiable list of {@code MoAttributeDataType} names that
+     *         valid are valid attributes
      */
     public static List<String> getAttributes(final String mimVersion, final String moType) {
-        final List<String> attributeList = new ArrayList<String>();
-        final Class moClass = getClassByMoType(mimVersion, moType);
-        final List<Object> possibleAttributes = moClass.getActionOrAttribute();
-
-        if (possibleAttributes != null) {
-            for (final Object possibleAttribute : possibleAttributes) {
-                if (possibleAttribute instanceof Attribute) {
-                    final String attributeName = ((Attribute) possibleAttribute).getName();
-                    attributeList.add(attributeName);
-                }
-            }
-        }
-        return attributeList;
+        return getMoClassDescriptor(mimVersion, moType).getAttributeNames();
     }
 
 }
@@ -0,0 +1,261 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.dms;
+
+import static com.ericsson.de.onetwork.dms.constants.RelationshipConstants.INVALID_ROOT_MO_TYPE;
+import static com.ericsson.de.onetwork.dms.constants.RelationshipConstants.NO_PARENT_FOUND_INDICATOR;
+import static com.ericsson.de.onetwork.dms.constants.RelationshipConstants.RELATIONSHIP_SEPARATOR;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ericsson.de.onetwork.dms.exceptions.DataModellerServiceException;
+import com.ericsson.de.onetwork.dms.generics.Mo;
+import com.ericsson.de.onetwork.dms.generics.Platform;
+import com.ericsson.de.onetwork.dms.generics.SystemCreatedMoTemplate;
+import com.ericsson.de.onetwork.dms.mo.CardinalityBounds;
+import com.ericsson.de.onetwork.dms.mo.MoClassDescriptor;
+import com.ericsson.de.onetwork.dms.momparser.MomParser;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Class;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Relationship;
+import com.ericsson.de.onetwork.dms.util.CardinalityAssessor;
+import com.ericsson.de.onetwork.dms.util.ContainmentIndex;
+import com.ericsson.de.onetwork.dms.util.MoFormatter;
+
+/**
+ * An immutable snapshot of the parsed content of a single MIM version, as held
+ * by {@link MimDataStorage}. A build obtains the snapshot once, from
+ * {@link MimDataStorage#getMimModel(String)}, and reads the model from it, so
+ * that it is not affected by other MIM versions being loaded or evicted
+ * meanwhile. Nothing in a snapshot changes after it is published, apart from
+ * its system created {@code Mo} tree which is built on first use under the
+ * lock of the snapshot, so it may be read from any number of threads.
+ *
+ * @author eagent
+ * @since 1Network_15.14
+ */
+public final class MimModel {
+
+    private final String mimVersion;
+    private final Platform platform;
+    private final Map<String, Class> classes;
+    private final Map<String, Relationship> relationships;
+    private final Map<String, MoClassDescriptor> classDescriptors;
+    private final Map<String, CardinalityBounds> cardinalityBounds;
+    private final ContainmentIndex containmentIndex;
+    private final Class rootMoClass;
+
+    /** Guarded by this; built on first use */
+    private Mo systemCreatedMoTemplate;
+
+    MimModel(final String mimVersion, final Platform platform, final MomParser parser) {
+        this(mimVersion, platform, parser.getMimClasses(), parser.getMimRelationships());
+    }
+
+    MimModel(final String mimVersion, final Platform platform, final Map<String, Class> classes, final Map<String, Relationship> relationships) {
+        this.mimVersion = mimVersion;
+        this.platform = platform;
+        this.classes = Collections.unmodifiableMap(classes);
+        this.relationships = Collections.unmodifiableMap(relationships);
+        containmentIndex = ContainmentIndex.build(relationships.values());
+        classDescriptors = compileClassDescriptors(this.classes);
+        cardinalityBounds = compileCardinalityBounds(this.relationships);
+        rootMoClass = findRootMoClass(this.classes, containmentIndex);
+    }
+
+    private static Map<String, MoClassDescriptor> compileClassDescriptors(final Map<String, Class> classes) {
+        final Map<String, MoClassDescriptor> classDescriptors = new HashMap<>();
+        for (final Map.Entry<String, Class> entry : classes.entrySet()) {
+            classDescriptors.put(entry.getKey(), MoClassDescriptor.compile(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(classDescriptors);
+    }
+
+    private static Map<String, CardinalityBounds> compileCardinalityBounds(final Map<String, Relationship> relationships) {
+        final Map<String, CardinalityBounds> cardinalityBounds = new HashMap<>();
+        for (final Map.Entry<String, Relationship> entry : relationships.entrySet()) {
+            final CardinalityBounds bounds = CardinalityBounds.compile(entry.getValue());
+            if (null != bounds) {
+                cardinalityBounds.put(entry.getKey(), bounds);
+            }
+        }
+        return Collections.unmodifiableMap(cardinalityBounds);
+    }
+
+    private static Class findRootMoClass(final Map<String, Class> classes, final ContainmentIndex containmentIndex) {
+        for (final Class moClass : classes.values()) {
+            final String moType = MoFormatter.removeComEcimNamespaceFrom(moClass.getName());
+            final String parent = containmentIndex.getParentMoType(moType);
+            final String parentMoType = MoFormatter.removeComEcimNamespaceFrom(parent);
+            if (NO_PARENT_FOUND_INDICATOR.equals(parentMoType) && !INVALID_ROOT_MO_TYPE.equals(moClass.getName())) {
+                return moClass;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the version of the MIM this model was parsed from.
+     *
+     * @return the MIM version, e.g. "LTE ERBS F1101"
+     */
+    public String getMimVersion() {
+        return mimVersion;
+    }
+
+    /**
+     * Returns the platform the MIM is based on.
+     *
+     * @return the platform of the MIM
+     */
+    public Platform getPlatform() {
+        return platform;
+    }
+
+    /**
+     * Return an mp.dtd {@link Class} based on an input {@link Mo} type.
+     *
+     * @param moType
+     *            the type of managed object
+     * @return mp.dtd {@code Class} instance of a given type
+     */
+    public Class getClassByMoType(final String moType) {
+        final Class moClass = classes.get(moType);
+        if (null != moClass) {
+            return moClass;
+        } else {
+            throw new IllegalStateException("Could not find Mo instance of input type: " + moType);
+        }
+    }
+
+    /**
+     * Return an mp.dtd {@link Relationship} based on an input {@link Mo} type.
+     *
+     * @param parentType
+     *            the type of parent managed object
+     * @param childType
+     *            the type of child managed object
+     * @return mp.dtd {@code Relationship} instance of a given type
+     */
+    public Relationship getRelationship(final String parentType, final String childType) {
+        final String relationshipName = parentType + RELATIONSHIP_SEPARATOR + childType;
+        final Relationship moRelationship = relationships.get(relationshipName);
+        if (null != moRelationship) {
+            return moRelationship;
+        } else {
+            throw new IllegalStateException("Could not find parent of input child type: " + relationshipName);
+        }
+    }
+
+    /**
+     * Return the {@link CardinalityBounds} compiled from the
+     * {@link Relationship} between two {@link Mo} types.
+     *
+     * @param parentType
+     *            the type of parent managed object
+     * @param childType
+     *            the type of child managed object
+     * @return the minimum and maximum cardinality of the child type
+     */
+    public CardinalityBounds getCardinalityBounds(final String parentType, final String childType) {
+        final CardinalityBounds bounds = cardinalityBounds.get(parentType + RELATIONSHIP_SEPARATOR + childType);
+        if (null != bounds) {
+            return bounds;
+        }
+        // Not a containment with a valid cardinality, so fail as the
+        // relationship is read.
+        final Relationship relationship = getRelationship(parentType, childType);
+        return new CardinalityBounds(CardinalityAssessor.getMinCardinality(relationship), CardinalityAssessor.getMaxCardinality(relationship));
+    }
+
+    /**
+     * Returns the mp.dtd {@link Class} at the root of the MOM XML tree
+     * structure.
+     *
+     * @return the root class, or null if the MIM contains no classes
+     */
+    public Class getRootMoClass() {
+        return rootMoClass;
+    }
+
+    /**
+     * Returns the boolean variable that indicates if the specified {@code Mo}
+     * type is system created or not.
+     *
+     * @param moType
+     *            the type of managed object
+     * @return a boolean value based on whether the given {@code Mo} is system
+     *         created or not
+     */
+    public boolean isMoSystemCreated(final String moType) {
+        return null != getClassByMoType(moType).getSystemCreated();
+    }
+
+    /**
+     * Return a list of {@link Mo} types that are valid children.
+     *
+     * @param moType
+     *            the type of managed object
+     * @return an unmodifiable list of {@code Mo} types that are valid children
+     */
+    public List<String> getChildMoTypes(final String moType) {
+        return containmentIndex.getChildMoTypes(moType);
+    }
+
+    /**
+     * Return the compiled {@link MoClassDescriptor} of an {@link Mo} type.
+     *
+     * @param moType
+     *            the type of managed object
+     * @return the attribute table of the given type
+     */
+    public MoClassDescriptor getMoClassDescriptor(final String moType) {
+        final MoClassDescriptor descriptor = classDescriptors.get(moType);
+        if (null != descriptor) {
+            return descriptor;
+        } else {
+            throw new IllegalStateException("Could not find Mo instance of input type: " + moType);
+        }
+    }
+
+    /**
+     * Returns the tree of system created {@link Mo}s every network element of
+     * this MIM starts with, building it on first use. The tree is shared by
+     * all network elements of this model, so it must only be copied, never
+     * modified.
+     *
+     * @return the root {@code Mo} of the system created tree
+     * @throws DataModellerServiceException
+     *             if the system created tree cannot be built from the MIM
+     */
+    public synchronized Mo getSystemCreatedMoTemplate() throws DataModellerServiceException {
+        if (null == systemCreatedMoTemplate) {
+            systemCreatedMoTemplate = SystemCreatedMoTemplate.build(this);
+        }
+        return systemCreatedMoTemplate;
+    }
+
+    Map<String, Class> getClasses() {
+        return classes;
+    }
+
+    Map<String, Relationship> getRelationships() {
+        return relationships;
+    }
+
+    ContainmentIndex getContainmentIndex() {
+        return containmentIndex;
+    }
+}
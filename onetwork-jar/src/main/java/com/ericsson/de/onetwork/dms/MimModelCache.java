@@ -0,0 +1,99 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.dms;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A size bounded cache of {@link MimModel}s keyed by MIM version. When full,
+ * the least recently used model is evicted.
+ *
+ * @author eagent
+ * @since 1Network_15.14
+ */
+final class MimModelCache {
+
+    private final static Logger logger = LoggerFactory.getLogger(MimModelCache.class);
+
+    private final Map<String, MimModel> models;
+
+    private int maximumSize;
+
+    MimModelCache(final int maximumSize) {
+        this.maximumSize = checkMaximumSize(maximumSize);
+        models = new LinkedHashMap<String, MimModel>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, MimModel> eldest) {
+                if (size() > MimModelCache.this.maximumSize) {
+                    logger.debug("Evicting MIM {} from the model cache", eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached model of the MIM version and marks it as the most
+     * recently used.
+     *
+     * @param mimVersion
+     *            version of the underlying node model
+     * @return the cached model, or null if it is not cached
+     */
+    synchronized MimModel get(final String mimVersion) {
+        return models.get(mimVersion);
+    }
+
+    synchronized void put(final MimModel model) {
+        models.put(model.getMimVersion(), model);
+    }
+
+    synchronized int size() {
+        return models.size();
+    }
+
+    synchronized void clear() {
+        models.clear();
+    }
+
+    /**
+     * Sets the number of models that can be held, evicting the least recently
+     * used models if there are now too many.
+     *
+     * @param maximumSize
+     *            the number of models to hold, at least one
+     */
+    synchronized void setMaximumSize(final int maximumSize) {
+        this.maximumSize = checkMaximumSize(maximumSize);
+        while (models.size() > maximumSize) {
+            final String eldestMimVersion = models.keySet().iterator().next();
+            logger.debug("Evicting MIM {} from the model cache", eldestMimVersion);
+            models.remove(eldestMimVersion);
+        }
+    }
+
+    private static int checkMaximumSize(final int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("MIM model cache size must be at least 1, was " + maximumSize);
+        }
+        return maximumSize;
+    }
+}
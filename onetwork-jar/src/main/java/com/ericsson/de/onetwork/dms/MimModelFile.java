@@ -0,0 +1,514 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.dms;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.de.onetwork.dms.generics.Platform;
+import com.ericsson.de.onetwork.dms.mo.MoClassDescriptor;
+import com.ericsson.de.onetwork.dms.momparser.ArtifactMerger;
+import com.ericsson.de.onetwork.dms.momparser.BaseLocalMomParser;
+import com.ericsson.de.onetwork.dms.momparser.CppLocalMomParser;
+import com.ericsson.de.onetwork.dms.momparser.EcimLocalMomParser;
+import com.ericsson.de.onetwork.dms.momparser.MomParserFactory;
+import com.ericsson.de.onetwork.dms.momparser.MomParserUtil;
+import com.ericsson.de.onetwork.dms.momparser.StreamingLocalMomParser;
+import com.ericsson.de.onetwork.dms.momparser.config.ConfigFactory;
+import com.ericsson.de.onetwork.dms.momparser.predicate.ArtifactPredicate;
+import com.ericsson.de.onetwork.dms.momparser.trim.ClassTrimmer;
+import com.ericsson.de.onetwork.dms.momparser.trim.DerivedDataTypeTrimmer;
+import com.ericsson.de.onetwork.dms.momparser.trim.EnumTrimmer;
+import com.ericsson.de.onetwork.dms.momparser.trim.StructTrimmer;
+import com.ericsson.de.onetwork.dms.momparser.trim.TrimmerFactory;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Attribute;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Cardinality;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Child;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Class;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Containment;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.DataType;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.DefaultValue;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Max;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Min;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Relationship;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Sequence;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.SystemCreated;
+
+/**
+ * Reads and writes the binary file of a {@link MimModel}, so that a MIM that
+ * was parsed before can be loaded without reading its MOM XML again.
+ * <p>
+ * The file holds the parts of the trimmed model that networks are built from:
+ * the classes with their attribute data types and default values, and the
+ * containment relationships with their cardinalities. All strings are held
+ * once, in a table at the start of the file. The file also holds the checksum
+ * of the MOM XML it was written from and a fingerprint of the parser that
+ * wrote it, and is ignored once either no longer matches, or once the format
+ * version changes.
+ *
+ * @author eagent
+ * @since 1Network_15.14
+ */
+final class MimModelFile {
+
+    private final static Logger logger = LoggerFactory.getLogger(MimModelFile.class);
+
+    /** "MIMB", the first four bytes of every MIM model file. */
+    private static final int MAGIC_NUMBER = 0x4D494D42;
+
+    /**
+     * Incremented whenever the layout of the file changes. Changes to the
+     * parsing and trimming of the MOM XML are covered by
+     * {@link #MODEL_FINGERPRINT} instead, as long as the changed classes are
+     * listed in {@link #MODEL_CLASSES}.
+     */
+    static final int FORMAT_VERSION = 2;
+
+    /** The file extension of the MIM model files. */
+    static final String FILE_EXTENSION = ".mimb";
+
+    private static final int NO_STRING = -1;
+
+    private static final byte NO_CONTAINMENT = 0;
+    private static final byte CONTAINMENT_WITHOUT_CARDINALITY = 1;
+    private static final byte CONTAINMENT_WITH_CARDINALITY = 2;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final String MPDTD_PACKAGE = Attribute.class.getPackage().getName();
+
+    /**
+     * The classes which decide what ends up in a model file. Their byte code
+     * makes up the {@link #MODEL_FINGERPRINT}.
+     */
+    private static final java.lang.Class<?>[] MODEL_CLASSES = { MimModelFile.class, MimModel.class, MomParserFactory.class,
+            BaseLocalMomParser.class, CppLocalMomParser.class, EcimLocalMomParser.class, StreamingLocalMomParser.class,
+            ArtifactMerger.class, MomParserUtil.class, ConfigFactory.class, ArtifactPredicate.class, TrimmerFactory.class,
+            ClassTrimmer.class, DerivedDataTypeTrimmer.class, EnumTrimmer.class, StructTrimmer.class };
+
+    /**
+     * The checksum of the byte code of the {@link #MODEL_CLASSES}, so that a
+     * model file is ignored once the parser or the trimmers change.
+     */
+    static final long MODEL_FINGERPRINT = getModelFingerprint();
+
+    private MimModelFile() {
+    }
+
+    private static long getModelFingerprint() {
+        final CRC32 fingerprint = new CRC32();
+        final byte[] buffer = new byte[8192];
+        for (final java.lang.Class<?> modelClass : MODEL_CLASSES) {
+            fingerprint.update(modelClass.getName().getBytes(UTF_8));
+            final String classFile = "/" + modelClass.getName().replace('.', '/') + ".class";
+            try (InputStream in = modelClass.getResourceAsStream(classFile)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    fingerprint.update(buffer, 0, read);
+                }
+            } catch (final IOException | NullPointerException e) {
+                // The class name alone still tells the classes apart.
+                logger.debug("Could not read byte code of {}: {}", modelClass.getName(), e.getMessage());
+            }
+        }
+        return fingerprint.getValue();
+    }
+
+    /**
+     * Returns the name of the file the model of a MIM version is written to.
+     *
+     * @param mimVersion
+     *            version of the underlying node model, e.g. "LTE ERBS F1101"
+     * @return a file name made of the MIM version
+     */
+    static String getFileName(final String mimVersion) {
+        return mimVersion.replaceAll("[^A-Za-z0-9._-]", "_") + FILE_EXTENSION;
+    }
+
+    /**
+     * Returns the checksum of a MOM XML file, or of all files under a MOM XML
+     * directory, together with their relative paths.
+     *
+     * @param momPath
+     *            the MOM XML file or directory
+     * @return the CRC-32 checksum of the MOM XML
+     * @throws IOException
+     *             if the MOM XML cannot be read
+     */
+    static long getChecksum(final Path momPath) throws IOException {
+        final CRC32 checksum = new CRC32();
+        final byte[] buffer = new byte[64 * 1024];
+        for (final Path momFile : getFilesUnder(momPath)) {
+            checksum.update(momPath.relativize(momFile).toString().getBytes(UTF_8));
+            try (InputStream in = Files.newInputStream(momFile)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    checksum.update(buffer, 0, read);
+                }
+            }
+        }
+        return checksum.getValue();
+    }
+
+    private static List<Path> getFilesUnder(final Path momPath) throws IOException {
+        final List<Path> momFiles = new ArrayList<>();
+        Files.walkFileTree(momPath, new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attributes) {
+                momFiles.add(file);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        Collections.sort(momFiles);
+        return momFiles;
+    }
+
+    /**
+     * Writes the model to a file. The model is first written to a temporary
+     * file which then replaces the file, so that a reader never sees a file
+     * that is partly written.
+     *
+     * @param model
+     *            the model to write
+     * @param checksum
+     *            the checksum of the MOM XML the model was parsed from
+     * @param file
+     *            the file to write
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    static void write(final MimModel model, final long checksum, final Path file) throws IOException {
+        final StringTable strings = new StringTable();
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        final DataOutputStream bodyOut = new DataOutputStream(body);
+        writeClasses(model, strings, bodyOut);
+        writeRelationships(model.getRelationships(), strings, bodyOut);
+        bodyOut.flush();
+
+        Files.createDirectories(file.getParent());
+        final Path temporaryFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream fileOut = Files.newOutputStream(temporaryFile)) {
+                final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut));
+                out.writeInt(MAGIC_NUMBER);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(MODEL_FINGERPRINT);
+                out.writeLong(checksum);
+                writeString(model.getMimVersion(), out);
+                writeString(model.getPlatform().name(), out);
+                strings.writeTo(out);
+                body.writeTo(out);
+                out.flush();
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    private static void writeClasses(final MimModel model, final StringTable strings, final DataOutputStream out) throws IOException {
+        final Map<String, Class> classes = model.getClasses();
+        out.writeInt(classes.size());
+        for (final Map.Entry<String, Class> entry : classes.entrySet()) {
+            final Class moClass = entry.getValue();
+            final MoClassDescriptor descriptor = model.getMoClassDescriptor(entry.getKey());
+            out.writeInt(strings.indexOf(entry.getKey()));
+            out.writeInt(strings.indexOf(moClass.getName()));
+            out.writeBoolean(null != moClass.getSystemCreated());
+
+            out.writeInt(descriptor.getNumberOfAttributes());
+            final Set<String> writtenAttributeNames = new HashSet<>();
+            for (final Object possibleAttribute : moClass.getActionOrAttribute()) {
+                if (possibleAttribute instanceof Attribute && writtenAttributeNames.add(((Attribute) possibleAttribute).getName())) {
+                    final Attribute attribute = (Attribute) possibleAttribute;
+                    final Object topLevelDataType = getFirstDataType(attribute.getDataType());
+                    final Object elementDataType = topLevelDataType instanceof Sequence ? getFirstElementDataType((Sequence) topLevelDataType) : null;
+                    out.writeInt(strings.indexOf(attribute.getName()));
+                    out.writeInt(strings.indexOf(getSimpleName(topLevelDataType)));
+                    out.writeInt(strings.indexOf(getSimpleName(elementDataType)));
+                    out.writeInt(strings.indexOf(descriptor.getAttribute(attribute.getName()).getDefaultValue()));
+                }
+            }
+        }
+    }
+
+    private static void writeRelationships(final Map<String, Relationship> relationships, final StringTable strings, final DataOutputStream out)
+            throws IOException {
+        out.writeInt(relationships.size());
+        for (final Map.Entry<String, Relationship> entry : relationships.entrySet()) {
+            out.writeInt(strings.indexOf(entry.getKey()));
+            out.writeInt(strings.indexOf(entry.getValue().getName()));
+
+            final Cardinality cardinality = getCardinality(entry.getValue());
+            if (null == cardinality) {
+                out.writeByte(null == getContainment(entry.getValue()) ? NO_CONTAINMENT : CONTAINMENT_WITHOUT_CARDINALITY);
+            } else {
+                out.writeByte(CONTAINMENT_WITH_CARDINALITY);
+                out.writeInt(cardinality.getMinOrMax().size());
+                for (final Object minOrMax : cardinality.getMinOrMax()) {
+                    out.writeBoolean(minOrMax instanceof Min);
+                    out.writeInt(strings.indexOf(minOrMax instanceof Min ? ((Min) minOrMax).getvalue() : ((Max) minOrMax).getvalue()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the model from a file by mapping it into memory.
+     *
+     * @param file
+     *            the file to read
+     * @param checksum
+     *            the checksum of the current MOM XML of the MIM version
+     * @return the model, or null if the file does not exist, was written from
+     *         another MOM XML or in another format, or cannot be read
+     */
+    static MimModel read(final Path file, final long checksum) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC_NUMBER || buffer.getInt() != FORMAT_VERSION) {
+                logger.debug("MIM model file {} is not of format version {}", file, FORMAT_VERSION);
+                return null;
+            }
+            if (buffer.getLong() != MODEL_FINGERPRINT) {
+                logger.debug("MIM model file {} was written by another MOM parser", file);
+                return null;
+            }
+            if (buffer.getLong() != checksum) {
+                logger.debug("MIM model file {} was written from another MOM XML", file);
+                return null;
+            }
+            final String mimVersion = readString(buffer);
+            final Platform platform = Platform.valueOf(readString(buffer));
+            final String[] strings = readStringTable(buffer);
+            final Map<String, Class> classes = readClasses(buffer, strings);
+            final Map<String, Relationship> relationships = readRelationships(buffer, strings);
+            return new MimModel(mimVersion, platform, classes, relationships);
+        } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException | ReflectiveOperationException e) {
+            logger.warn("Could not read MIM model file {}: {}", file, e.toString());
+            return null;
+        }
+    }
+
+    private static Map<String, Class> readClasses(final ByteBuffer buffer, final String[] strings) throws ReflectiveOperationException {
+        final int numberOfClasses = buffer.getInt();
+        final Map<String, Class> classes = new LinkedHashMap<>();
+        for (int classIndex = 0; classIndex < numberOfClasses; classIndex++) {
+            final String key = readString(buffer, strings);
+            final Class moClass = new Class();
+            moClass.setName(readString(buffer, strings));
+            if (buffer.get() != 0) {
+                moClass.setSystemCreated(new SystemCreated());
+            }
+
+            final int numberOfAttributes = buffer.getInt();
+            for (int attributeIndex = 0; attributeIndex < numberOfAttributes; attributeIndex++) {
+                final Attribute attribute = new Attribute();
+                attribute.setName(readString(buffer, strings));
+                final String topLevelDataType = readString(buffer, strings);
+                final String elementDataType = readString(buffer, strings);
+                final String defaultValue = readString(buffer, strings);
+                if (null != topLevelDataType) {
+                    attribute.setDataType(createDataType(topLevelDataType, elementDataType, defaultValue));
+                }
+                moClass.getActionOrAttribute().add(attribute);
+            }
+            classes.put(key, moClass);
+        }
+        return classes;
+    }
+
+    private static Map<String, Relationship> readRelationships(final ByteBuffer buffer, final String[] strings) {
+        final int numberOfRelationships = buffer.getInt();
+        final Map<String, Relationship> relationships = new LinkedHashMap<>();
+        for (int relationshipIndex = 0; relationshipIndex < numberOfRelationships; relationshipIndex++) {
+            final String key = readString(buffer, strings);
+            final Relationship relationship = new Relationship();
+            relationship.setName(readString(buffer, strings));
+
+            final byte containmentType = buffer.get();
+            if (containmentType != NO_CONTAINMENT) {
+                final Child child = new Child();
+                if (containmentType == CONTAINMENT_WITH_CARDINALITY) {
+                    final Cardinality cardinality = new Cardinality();
+                    final int numberOfMinOrMax = buffer.getInt();
+                    for (int minOrMaxIndex = 0; minOrMaxIndex < numberOfMinOrMax; minOrMaxIndex++) {
+                        final boolean isMin = buffer.get() != 0;
+                        final String value = readString(buffer, strings);
+                        if (isMin) {
+                            final Min min = new Min();
+                            min.setvalue(value);
+                            cardinality.getMinOrMax().add(min);
+                        } else {
+                            final Max max = new Max();
+                            max.setvalue(value);
+                            cardinality.getMinOrMax().add(max);
+                        }
+                    }
+                    child.setCardinality(cardinality);
+                }
+                final Containment containment = new Containment();
+                containment.getChild().add(child);
+                relationship.getBiDirectionalAssociationOrUniDirectionalAssociationOrContainmentOrInheritance().add(containment);
+            }
+            relationships.put(key, relationship);
+        }
+        return relationships;
+    }
+
+    private static DataType createDataType(final String topLevelDataType, final String elementDataType, final String defaultValue)
+            throws ReflectiveOperationException {
+        final Object topLevel = createDataTypeContent(topLevelDataType, null == elementDataType ? defaultValue : null);
+        if (null != elementDataType) {
+            ((Sequence) topLevel)
+                    .getIntegerOrBooleanOrOctetOrCharOrDoubleOrFloatOrLongOrLonglongOrShortOrStringOrWstringOrInt8OrInt16OrInt32OrInt64OrUint8OrUint16OrUint32OrUint64OrDecimal64OrEnumRefOrMoRefOrStructRefOrDerivedDataTypeRef()
+                    .add(createDataTypeContent(elementDataType, defaultValue));
+        }
+        final DataType dataType = new DataType();
+        dataType
+                .getIntegerOrBooleanOrOctetOrCharOrDoubleOrFloatOrLongOrLonglongOrShortOrStringOrWstringOrInt8OrInt16OrInt32OrInt64OrUint8OrUint16OrUint32OrUint64OrDecimal64OrEnumRefOrMoRefOrStructRefOrDerivedDataTypeRefOrSequence()
+                .add(topLevel);
+        return dataType;
+    }
+
+    private static Object createDataTypeContent(final String simpleName, final String defaultValue) throws ReflectiveOperationException {
+        final java.lang.Class<?> dataTypeClass = java.lang.Class.forName(MPDTD_PACKAGE + "." + simpleName);
+        final Object dataTypeContent = dataTypeClass.newInstance();
+        if (null != defaultValue) {
+            final DefaultValue value = new DefaultValue();
+            value.setvalue(defaultValue);
+            dataTypeClass.getMethod("setDefaultValue", DefaultValue.class).invoke(dataTypeContent, value);
+        }
+        return dataTypeContent;
+    }
+
+    private static Object getFirstDataType(final DataType dataType) {
+        if (null == dataType) {
+            return null;
+        }
+        final List<Object> dataTypes =
+                dataType.getIntegerOrBooleanOrOctetOrCharOrDoubleOrFloatOrLongOrLonglongOrShortOrStringOrWstringOrInt8OrInt16OrInt32OrInt64OrUint8OrUint16OrUint32OrUint64OrDecimal64OrEnumRefOrMoRefOrStructRefOrDerivedDataTypeRefOrSequence();
+        return dataTypes.isEmpty() ? null : dataTypes.get(0);
+    }
+
+    private static Object getFirstElementDataType(final Sequence sequence) {
+        final List<Object> dataTypes =
+                sequence.getIntegerOrBooleanOrOctetOrCharOrDoubleOrFloatOrLongOrLonglongOrShortOrStringOrWstringOrInt8OrInt16OrInt32OrInt64OrUint8OrUint16OrUint32OrUint64OrDecimal64OrEnumRefOrMoRefOrStructRefOrDerivedDataTypeRef();
+        return dataTypes.isEmpty() ? null : dataTypes.get(0);
+    }
+
+    private static String getSimpleName(final Object dataType) {
+        return null == dataType ? null : dataType.getClass().getSimpleName();
+    }
+
+    private static Containment getContainment(final Relationship relationship) {
+        for (final Object possibleContainment : relationship.getBiDirectionalAssociationOrUniDirectionalAssociationOrContainmentOrInheritance()) {
+            if (possibleContainment instanceof Containment) {
+                return (Containment) possibleContainment;
+            }
+        }
+        return null;
+    }
+
+    private static Cardinality getCardinality(final Relationship relationship) {
+        final Containment containment = getContainment(relationship);
+        if (null == containment || containment.getChild().isEmpty()) {
+            return null;
+        }
+        return containment.getChild().get(0).getCardinality();
+    }
+
+    private static void writeString(final String value, final DataOutputStream out) throws IOException {
+        final byte[] bytes = value.getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private static String readString(final ByteBuffer buffer, final String[] strings) {
+        final int index = buffer.getInt();
+        return index == NO_STRING ? null : strings[index];
+    }
+
+    private static String[] readStringTable(final ByteBuffer buffer) {
+        final String[] strings = new String[buffer.getInt()];
+        for (int index = 0; index < strings.length; index++) {
+            strings[index] = readString(buffer).intern();
+        }
+        return strings;
+    }
+
+    /**
+     * The strings of a model file, each given an index the first time it is
+     * written.
+     */
+    private static final class StringTable {
+
+        private final Map<String, Integer> indexes = new LinkedHashMap<>();
+
+        int indexOf(final String value) {
+            if (null == value) {
+                return NO_STRING;
+            }
+            Integer index = indexes.get(value);
+            if (null == index) {
+                index = indexes.size();
+                indexes.put(value, index);
+            }
+            return index;
+        }
+
+        void writeTo(final DataOutputStream out) throws IOException {
+            out.writeInt(indexes.size());
+            for (final String value : indexes.keySet()) {
+                writeString(value, out);
+            }
+        }
+    }
+}
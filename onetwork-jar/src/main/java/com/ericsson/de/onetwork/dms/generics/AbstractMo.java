@@ -13,14 +13,17 @@
 package com.ericsson.de.onetwork.dms.generics;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import com.ericsson.de.onetwork.dms.exceptions.ChildNotFoundException;
 import com.ericsson.de.onetwork.dms.exceptions.InvalidChildException;
+import com.ericsson.de.onetwork.dms.mo.AttributeDescriptor;
+import com.ericsson.de.onetwork.dms.mo.MoClassDescriptor;
 import com.ericsson.de.onetwork.dms.mo.datatype.MoAttributeDataType;
-import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Attribute;
 import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Class;
 
 /**
@@ -44,14 +47,18 @@ abstract class AbstractMo implements Mo {
      */
     protected Class momMoClass = null;
     /**
-     * Indicates if the {@link Mo} must be created automatically.
+     * The parent of the {@link Mo}, or null if it is a root {@code Mo}.
      */
-    private boolean systemCreated = false;
-
+    protected Mo parentMo = null;
+    /**
+     * The attribute table compiled from {@code momMoClass}, shared by all
+     * {@link Mo}s of the same type. It maps attribute names to slots.
+     */
+    private MoClassDescriptor moClassDescriptor = null;
     /**
-     * Used to keep track of feature populated attribute names.
+     * Indicates if the {@link Mo} must be created automatically.
      */
-    private final List<String> featurePopulatedAttributeNames = new ArrayList<>();
+    private boolean systemCreated = false;
 
     /**
      * A map keyed by the child {@link Mo}'s type, and containing a list of
@@ -59,10 +66,54 @@ abstract class AbstractMo implements Mo {
      */
     private final Map<String, List<Mo>> children = new HashMap<>();
     /**
-     * A map keyed by each attribute's name for the {@code Mo}, and containing a
-     * {@code GenericDataType}.
+     * An index of {@code children} keyed by the child {@link Mo}'s type and
+     * then by its name. The map of a type is created when its first child is
+     * added. Where children of a type share a name, the first one added is
+     * indexed, as a scan of {@code children} would find it.
+     */
+    private final Map<String, Map<String, Mo>> childrenByName = new HashMap<>();
+    /**
+     * The number of {@code children} of each type, kept up to date by
+     * {@link #addChild(Mo)} and {@link #removeChild(Mo)}, so that the maximum
+     * cardinality check of a new child is a compare against a counter.
+     */
+    private final Map<String, Integer> childCounts = new HashMap<>();
+    /**
+     * The lists of {@code children}, in the iteration order of the map. Kept
+     * so that the children can be visited without an iterator being created.
+     * Null until first needed, and reset when the child types are set.
+     */
+    private List<List<Mo>> childLists = null;
+    /**
+     * The number of children added to or removed from this {@link Mo} and its
+     * descendants.
+     */
+    private int subtreeModificationCount = 0;
+    /**
+     * The attributes of the {@code Mo}, indexed by the slots of
+     * {@code moClassDescriptor}. Attributes still holding their MOM default
+     * share one instance per type. Null until the attribute names are set.
      */
-    private final Map<String, MoAttributeDataType> attributes = new HashMap<>();
+    private MoAttributeDataType[] attributeSlots = null;
+    /**
+     * Indicates that {@code attributeSlots} is shared with a template or a
+     * copy of a template, and must be copied before it is written to.
+     */
+    private boolean attributeSlotsShared = false;
+    /**
+     * The slots of attributes that have been populated by features.
+     */
+    private BitSet featurePopulatedSlots = null;
+    /**
+     * The names of the attributes populated by features, in the order they
+     * were first populated. Null until a feature populates an attribute.
+     */
+    private List<String> featurePopulatedAttributeNames = null;
+    /**
+     * Attributes that are not defined by {@code moClassDescriptor}, in the
+     * order they were added. Null unless such an attribute is set.
+     */
+    private Map<String, MoAttributeDataType> undeclaredAttributes = null;
 
     @Override
     public String getType() {
@@ -98,14 +149,17 @@ abstract class AbstractMo implements Mo {
     public void setChildTypes(final List<String> childTypes) {
         for (final String childType : childTypes) {
             children.put(childType, new ArrayList<Mo>());
+            childrenByName.remove(childType);
+            childCounts.put(childType, 0);
         }
+        childLists = null;
     }
 
     @Override
     public List<Mo> getChildren() {
         final List<Mo> childMos = new ArrayList<>();
-        for (final String key : children.keySet()) {
-            for (final Mo childMo : children.get(key)) {
+        for (final List<Mo> childrenOfType : getChildLists()) {
+            for (final Mo childMo : childrenOfType) {
                 if (childMo != null) {
                     childMos.add(childMo);
                 }
@@ -114,6 +168,27 @@ abstract class AbstractMo implements Mo {
         return childMos;
     }
 
+    @Override
+    public <E extends Exception> void forEachChild(final MoVisitor<E> visitor) throws E {
+        final List<List<Mo>> lists = getChildLists();
+        for (int typeIndex = 0; typeIndex < lists.size(); typeIndex++) {
+            final List<Mo> childrenOfType = lists.get(typeIndex);
+            for (int childIndex = 0; childIndex < childrenOfType.size(); childIndex++) {
+                final Mo childMo = childrenOfType.get(childIndex);
+                if (childMo != null) {
+                    visitor.visit(childMo);
+                }
+            }
+        }
+    }
+
+    private List<List<Mo>> getChildLists() {
+        if (null == childLists) {
+            childLists = new ArrayList<>(children.values());
+        }
+        return childLists;
+    }
+
     @Override
     public List<Mo> getChildrenByType(final String moType) throws InvalidChildException {
         final List<Mo> childrenByType = children.get(moType);
@@ -123,19 +198,31 @@ abstract class AbstractMo implements Mo {
         return childrenByType;
     }
 
+    @Override
+    public int getNumberOfChildrenByType(final String moType) throws InvalidChildException {
+        final Integer childCount = childCounts.get(moType);
+        if (null == childCount) {
+            throw new InvalidChildException(String.format(INVALID_CHILD_EXCEPTION_MESSAGE, moType, getFdn().getType()));
+        }
+        return childCount;
+    }
+
     @Override
     public Mo getChildByTypeByName(final String moType, final String name) throws InvalidChildException, ChildNotFoundException {
-        final List<Mo> childrenFdnByType = getChildrenByType(moType);
-        try {
-            for (final Mo childMo : childrenFdnByType) {
-                if (childMo.getName().equals(name)) {
-                    return childMo;
-                }
-            }
-        } catch (final NullPointerException es) {
+        if (!children.containsKey(moType)) {
             throw new InvalidChildException(String.format(INVALID_CHILD_EXCEPTION_MESSAGE, moType, getFdn().getType()));
         }
-        throw new ChildNotFoundException(String.format(CHILD_NOT_FOUND_EXCEPTION_MESSAGE, getFdn(), moType));
+        final Mo childMo = findChildByTypeByName(moType, name);
+        if (null == childMo) {
+            throw new ChildNotFoundException(String.format(CHILD_NOT_FOUND_EXCEPTION_MESSAGE, getFdn(), moType));
+        }
+        return childMo;
+    }
+
+    @Override
+    public Mo findChildByTypeByName(final String moType, final String name) {
+        final Map<String, Mo> childrenOfType = childrenByName.get(moType);
+        return null == childrenOfType ? null : childrenOfType.get(name);
     }
 
     @Override
@@ -143,60 +230,252 @@ abstract class AbstractMo implements Mo {
         final String childType = child.getType();
         final List<Mo> childrenByType = children.get(childType);
         childrenByType.add(child);
+        indexChild(childType, child);
+        childCounts.put(childType, childrenByType.size());
+        countChildModification();
     }
 
     @Override
-    public boolean isValidChildMoType(final String childMoType) {
-        for (final String type : getChildTypes()) {
-            if (type.equals(childMoType)) {
-                return true;
+    public boolean removeChild(final Mo child) {
+        final String childType = child.getType();
+        final List<Mo> childrenByType = children.get(childType);
+        if (null == childrenByType || !childrenByType.remove(child)) {
+            return false;
+        }
+        final Map<String, Mo> childrenOfType = childrenByName.get(childType);
+        if (child == childrenOfType.get(child.getName())) {
+            childrenOfType.remove(child.getName());
+            for (final Mo remainingChild : childrenByType) {
+                if (remainingChild.getName().equals(child.getName())) {
+                    childrenOfType.put(child.getName(), remainingChild);
+                    break;
+                }
             }
         }
-        return false;
+        childCounts.put(childType, childrenByType.size());
+        countChildModification();
+        return true;
+    }
+
+    /**
+     * Counts the addition or removal of a child on this {@link Mo} and on each
+     * of its ancestors, so that the count of the root covers the whole tree.
+     */
+    private void countChildModification() {
+        Mo mo = this;
+        while (mo instanceof AbstractMo) {
+            final AbstractMo abstractMo = (AbstractMo) mo;
+            abstractMo.subtreeModificationCount++;
+            mo = abstractMo.parentMo;
+        }
+    }
+
+    @Override
+    public int getSubtreeModificationCount() {
+        return subtreeModificationCount;
+    }
+
+    private void indexChild(final String childType, final Mo child) {
+        Map<String, Mo> childrenOfType = childrenByName.get(childType);
+        if (null == childrenOfType) {
+            childrenOfType = new HashMap<>();
+            childrenByName.put(childType, childrenOfType);
+        }
+        final String name = child.getName();
+        if (!childrenOfType.containsKey(name)) {
+            childrenOfType.put(name, child);
+        }
+    }
+
+    @Override
+    public boolean isValidChildMoType(final String childMoType) {
+        return children.containsKey(childMoType);
     }
 
     @Override
     public List<String> getAttributeNames() {
-        return new ArrayList<>(attributes.keySet());
+        final List<String> attributeNames = new ArrayList<>();
+        if (null != attributeSlots) {
+            attributeNames.addAll(getMoClassDescriptor().getAttributeNames());
+        }
+        if (null != undeclaredAttributes) {
+            attributeNames.addAll(undeclaredAttributes.keySet());
+        }
+        return attributeNames;
     }
 
     @Override
     public void setAttributeNames(final List<String> attributeNames) {
+        final MoClassDescriptor descriptor = getMoClassDescriptor();
+        allocateAttributeSlots();
         for (final String attributeName : attributeNames) {
-            attributes.put(attributeName, null);
+            if (null == descriptor.getAttribute(attributeName) && !getUndeclaredAttributes().containsKey(attributeName)) {
+                getUndeclaredAttributes().put(attributeName, null);
+            }
+        }
+    }
+
+    @Override
+    public MoClassDescriptor getMoClassDescriptor() {
+        if (null == moClassDescriptor) {
+            // Only reached by an Mo that was not created by the MoFactory.
+            moClassDescriptor = MoClassDescriptor.compile(momMoClass);
         }
+        return moClassDescriptor;
+    }
+
+    @Override
+    public void setMoClassDescriptor(final MoClassDescriptor moClassDescriptor) {
+        this.moClassDescriptor = moClassDescriptor;
+        attributeSlots = null;
+        attributeSlotsShared = false;
+        featurePopulatedSlots = null;
+        featurePopulatedAttributeNames = null;
     }
 
     @Override
     public MoAttributeDataType getAttributeByName(final String name) {
-        final MoAttributeDataType attribute = attributes.get(name);
-        return attribute;
+        final AttributeDescriptor attributeDescriptor = getMoClassDescriptor().getAttribute(name);
+        if (null != attributeDescriptor) {
+            return null == attributeSlots ? null : attributeSlots[attributeDescriptor.getIndex()];
+        }
+        return null == undeclaredAttributes ? null : undeclaredAttributes.get(name);
     }
 
     @Override
     public void setAttributeValue(final String attributeName, final Object value, final CreationContext attributeContext) {
-        attributes.put(attributeName, new MoAttributeDataType(getDataTypeFromMomMoClass(attributeName), value));
+        final boolean featureCreated = attributeContext.equals(CreationContext.FEATURE_CREATED);
+        final AttributeDescriptor attributeDescriptor = getMoClassDescriptor().getAttribute(attributeName);
+
+        if (null == attributeDescriptor) {
+            getUndeclaredAttributes().put(attributeName, new MoAttributeDataType(null, value));
+            if (featureCreated && (null == featurePopulatedAttributeNames || !featurePopulatedAttributeNames.contains(attributeName))) {
+                addFeaturePopulatedAttributeName(attributeName);
+            }
+            return;
+        }
 
-        if (attributeContext.equals(CreationContext.FEATURE_CREATED)) {
-            featurePopulatedAttributeNames.add(attributeName);
+        allocateAttributeSlots();
+        if (attributeSlotsShared) {
+            attributeSlots = attributeSlots.clone();
+            attributeSlotsShared = false;
+        }
+        final int slot = attributeDescriptor.getIndex();
+        if (!featureCreated && isMomDefault(attributeDescriptor, value)) {
+            attributeSlots[slot] = attributeDescriptor.getDefaultAttribute();
+        } else {
+            attributeSlots[slot] = new MoAttributeDataType(attributeDescriptor.getDataType(), value);
+        }
+
+        if (featureCreated) {
+            if (null == featurePopulatedSlots) {
+                featurePopulatedSlots = new BitSet(attributeSlots.length);
+            }
+            if (!featurePopulatedSlots.get(slot)) {
+                featurePopulatedSlots.set(slot);
+                addFeaturePopulatedAttributeName(attributeDescriptor.getName());
+            }
         }
     }
 
-    private String getDataTypeFromMomMoClass(final String attributeName) {
-        for (final Object momMoAttribute : momMoClass.getActionOrAttribute()) {
-            if (momMoAttribute instanceof Attribute) {
-                final Attribute attribute = (Attribute) momMoAttribute;
-                if (attribute.getName().equals(attributeName)) {
-                    final String dataTypeClassName =
-                            attribute
-                                    .getDataType()
-                                    .getIntegerOrBooleanOrOctetOrCharOrDoubleOrFloatOrLongOrLonglongOrShortOrStringOrWstringOrInt8OrInt16OrInt32OrInt64OrUint8OrUint16OrUint32OrUint64OrDecimal64OrEnumRefOrMoRefOrStructRefOrDerivedDataTypeRefOrSequence()
-                                    .get(0).getClass().getSimpleName();
-                    return dataTypeClassName;
-                }
+    private void addFeaturePopulatedAttributeName(final String attributeName) {
+        if (null == featurePopulatedAttributeNames) {
+            featurePopulatedAttributeNames = new ArrayList<>();
+        }
+        featurePopulatedAttributeNames.add(attributeName);
+    }
+
+    private static boolean isMomDefault(final AttributeDescriptor attributeDescriptor, final Object value) {
+        final String defaultValue = attributeDescriptor.getDefaultValue();
+        return null == defaultValue ? null == value : defaultValue.equals(value);
+    }
+
+    private void allocateAttributeSlots() {
+        if (null == attributeSlots) {
+            attributeSlots = new MoAttributeDataType[getMoClassDescriptor().getNumberOfAttributes()];
+        }
+    }
+
+    private Map<String, MoAttributeDataType> getUndeclaredAttributes() {
+        if (null == undeclaredAttributes) {
+            undeclaredAttributes = new LinkedHashMap<>();
+        }
+        return undeclaredAttributes;
+    }
+
+    /**
+     * Returns a new {@code Mo} of the same type and MOM class as this one,
+     * without attributes or children.
+     *
+     * @param parentMo
+     *            the parent of the new {@code Mo}, or null for a root
+     *            {@code Mo}
+     * @param name
+     *            the name of the new {@code Mo}
+     * @return a new, empty {@code Mo}
+     */
+    abstract AbstractMo newInstance(Mo parentMo, String name);
+
+    /**
+     * Returns a structural copy of this {@code Mo} and all of its descendants,
+     * placed under a new parent and given a new name. The descendants keep
+     * their names. Attribute values are shared with this {@code Mo} until
+     * either side sets an attribute, so the slots of this subtree must have
+     * been marked as shared by {@link #shareAttributeSlots()} first. The
+     * subtree is only read, so copies can be made on several threads at once.
+     *
+     * @param parentMo
+     *            the parent of the copy, or null if the copy is a root
+     *            {@code Mo}
+     * @param name
+     *            the name of the copy
+     * @return the copy of this {@code Mo}
+     */
+    Mo copySubtree(final Mo parentMo, final String name) {
+        final AbstractMo copy = newInstance(parentMo, name);
+        copy.moClassDescriptor = moClassDescriptor;
+        copy.systemCreated = systemCreated;
+        if (null != attributeSlots) {
+            copy.attributeSlots = attributeSlots;
+            copy.attributeSlotsShared = true;
+        }
+        if (null != featurePopulatedSlots) {
+            copy.featurePopulatedSlots = (BitSet) featurePopulatedSlots.clone();
+        }
+        if (null != featurePopulatedAttributeNames) {
+            copy.featurePopulatedAttributeNames = new ArrayList<>(featurePopulatedAttributeNames);
+        }
+        if (null != undeclaredAttributes) {
+            copy.undeclaredAttributes = new LinkedHashMap<>(undeclaredAttributes);
+        }
+
+        for (final Map.Entry<String, List<Mo>> childrenByType : children.entrySet()) {
+            final List<Mo> childCopies = new ArrayList<>(childrenByType.getValue().size());
+            copy.children.put(childrenByType.getKey(), childCopies);
+            copy.childCounts.put(childrenByType.getKey(), childrenByType.getValue().size());
+            for (final Mo child : childrenByType.getValue()) {
+                final Mo childCopy = ((AbstractMo) child).copySubtree(copy, child.getName());
+                childCopies.add(childCopy);
+                copy.indexChild(childrenByType.getKey(), childCopy);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Marks the attribute slots of this {@code Mo} and all of its descendants
+     * as shared, so that {@link #copySubtree(Mo, String)} can hand them to
+     * copies. Called once, when the subtree is built as a template.
+     */
+    void shareAttributeSlots() {
+        if (null != attributeSlots) {
+            attributeSlotsShared = true;
+        }
+        for (final List<Mo> childrenOfType : children.values()) {
+            for (final Mo child : childrenOfType) {
+                ((AbstractMo) child).shareAttributeSlots();
             }
         }
-        return null;
     }
 
     @Override
@@ -211,7 +490,10 @@ abstract class AbstractMo implements Mo {
 
     @Override
     public List<String> getFeaturePopulatedAttributeNames() {
-        return featurePopulatedAttributeNames;
+        if (null == featurePopulatedAttributeNames) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(featurePopulatedAttributeNames);
     }
 
 }
@@ -39,6 +39,7 @@ public class ComEcimMo extends AbstractMo implements Mo {
      */
     public ComEcimMo(final Class momMoClass, final Mo parentMo, final String moType, final String name) {
         this.momMoClass = momMoClass;
+        this.parentMo = parentMo;
 
         // TODO: Keep namespace in ComEcim but remove for map keys.
         final String moTypeWithoutNamespace = MoFormatter.removeComEcimNamespaceFrom(moType);
@@ -50,4 +51,9 @@ public class ComEcimMo extends AbstractMo implements Mo {
         fdn = new Fdn(parentFdn, moTypeWithoutNamespace, name);
     }
 
+    @Override
+    AbstractMo newInstance(final Mo parentMo, final String name) {
+        return new ComEcimMo(momMoClass, parentMo, getType(), name);
+    }
+
 }
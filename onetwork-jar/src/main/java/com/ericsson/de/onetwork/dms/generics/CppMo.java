@@ -38,6 +38,7 @@ public class CppMo extends AbstractMo implements Mo {
      */
     public CppMo(final Class momMoClass, final Mo parentMo, final String moType, final String name) {
         this.momMoClass = momMoClass;
+        this.parentMo = parentMo;
         if (null == parentMo) {
             fdn = new Fdn(null, moType, name);
         } else {
@@ -45,4 +46,9 @@ public class CppMo extends AbstractMo implements Mo {
         }
     }
 
+    @Override
+    AbstractMo newInstance(final Mo parentMo, final String name) {
+        return new CppMo(momMoClass, parentMo, getType(), name);
+    }
+
 }
@@ -12,6 +12,8 @@
 
 package com.ericsson.de.onetwork.dms.generics;
 
+import java.util.Objects;
+
 /**
  * An {@code Fdn} represents the Fully Distinguished Name of the managed object.
  * <p>
@@ -23,6 +25,10 @@ package com.ericsson.de.onetwork.dms.generics;
  * The parent {@code Fdn} of the given {@code Fdn} holds the location of the
  * {@link Mo} that is the parent of the {@code Mo}, which is designated by
  * the given {@code Fdn}.
+ * <p>
+ * An {@code Fdn} is immutable, so it can be used as a map key. The type and
+ * name strings are interned, as the same ones are repeated across every
+ * network element, and the length and hash code are worked out on creation.
  *
  * @author edalrey
  * @since 1Network_15.11
@@ -46,6 +52,21 @@ public class Fdn {
      * String value. It is the second part of an RDN.
      */
     private final String moName;
+    /**
+     * The level at which this {@code Fdn} sits, worked out once as the
+     * {@code Fdn} is created.
+     */
+    private final int length;
+    /**
+     * The hash code of this {@code Fdn}, worked out once from the hash code of
+     * the parent {@code Fdn} and the RDN.
+     */
+    private final int hash;
+    /**
+     * The Fully Distinguished Name as a string, rendered on first use from the
+     * rendered string of the parent {@code Fdn}.
+     */
+    private String fdnString;
 
     /**
      * Initialises a newly created {@link Fdn} object that represents the Fully
@@ -61,14 +82,23 @@ public class Fdn {
      */
     public Fdn(final Fdn parentFdn, final String moType, final String moName) {
         this.parentFdn = parentFdn;
-        this.moType = moType;
-        this.moName = moName;
+        this.moType = null == moType ? null : moType.intern();
+        this.moName = null == moName ? null : moName.intern();
+        if (null == parentFdn) {
+            length = 1;
+            hash = 31 * Objects.hashCode(this.moType) + Objects.hashCode(this.moName);
+        } else {
+            length = parentFdn.length + 1;
+            hash = 31 * (31 * parentFdn.hash + Objects.hashCode(this.moType)) + Objects.hashCode(this.moName);
+        }
     }
 
     /**
-     * Compares the {@link toString} value of this {@link Fdn} instance to a
-     * second {@code Fdn} instance. That indicates if both {@code Fdn} instances
-     * represent the same Fully Distinguished Name.
+     * Compares the RDNs of this {@link Fdn} instance and of its parents to the
+     * ones of a second {@code Fdn} instance. That indicates if both {@code Fdn}
+     * instances represent the same Fully Distinguished Name. The comparison
+     * stops at the first RDN that differs, or at the first parent {@code Fdn}
+     * that both share.
      *
      * @param fdn
      *            the {@code Fdn} instance to compare this {@code Fdn} instance
@@ -78,11 +108,27 @@ public class Fdn {
      */
     @Override
     public boolean equals(final Object fdn) {
-        if (fdn instanceof Fdn) {
-            return toString().equals(fdn.toString());
-        } else {
+        if (!(fdn instanceof Fdn)) {
             return false;
         }
+        Fdn thisLevel = this;
+        Fdn otherLevel = (Fdn) fdn;
+        if (thisLevel.length != otherLevel.length || thisLevel.hash != otherLevel.hash) {
+            return false;
+        }
+        while (thisLevel != otherLevel) {
+            if (!Objects.equals(thisLevel.moType, otherLevel.moType) || !Objects.equals(thisLevel.moName, otherLevel.moName)) {
+                return false;
+            }
+            thisLevel = thisLevel.parentFdn;
+            otherLevel = otherLevel.parentFdn;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
     }
 
     /**
@@ -93,11 +139,7 @@ public class Fdn {
      *         {@link NetworkElement} tree structure
      */
     public int getLength() {
-        if (null == parentFdn) {
-            return 1;
-        } else {
-            return parentFdn.getLength() + 1;
-        }
+        return length;
     }
 
     /**
@@ -129,11 +171,16 @@ public class Fdn {
 
     @Override
     public String toString() {
-        if (null == parentFdn) {
-            return String.format("%s=%s", moType, moName);
-        } else {
-            return String.format("%s,%s=%s", parentFdn.toString(), moType, moName);
+        String rendered = fdnString;
+        if (null == rendered) {
+            final StringBuilder fdn = new StringBuilder();
+            if (null != parentFdn) {
+                fdn.append(parentFdn.toString()).append(',');
+            }
+            rendered = fdn.append(moType).append('=').append(moName).toString();
+            fdnString = rendered;
         }
+        return rendered;
     }
 
 }
@@ -16,6 +16,7 @@ import java.util.List;
 
 import com.ericsson.de.onetwork.dms.exceptions.ChildNotFoundException;
 import com.ericsson.de.onetwork.dms.exceptions.InvalidChildException;
+import com.ericsson.de.onetwork.dms.mo.MoClassDescriptor;
 import com.ericsson.de.onetwork.dms.mo.datatype.MoAttributeDataType;
 
 /**
@@ -109,6 +110,32 @@ public interface Mo {
      */
     List<Mo> getChildrenByType(String moType) throws InvalidChildException;
 
+    /**
+     * Hands each child {@link Mo} to the visitor, in the order of
+     * {@link #getChildren()}, without copying the children into a list.
+     *
+     * @param visitor
+     *            the visitor of each child {@code Mo}
+     * @param <E>
+     *            the type of exception the visitor may throw
+     * @throws E
+     *             if a visit fails; the remaining children are then not
+     *             visited
+     */
+    <E extends Exception> void forEachChild(MoVisitor<E> visitor) throws E;
+
+    /**
+     * Returns the number of children {@link Mo}s that are of a specified type.
+     *
+     * @param moType
+     *            the type of the counted {@code Mo}'s
+     * @return the number of children {@code Mo}s of the specified type
+     * @throws InvalidChildException
+     *             when moType does not match any available children {@code Mo}
+     *             's.
+     */
+    int getNumberOfChildrenByType(String moType) throws InvalidChildException;
+
     /**
      * Returns a child {@link Mo} with a specified type and name. For example
      * "ManagedElement=LTE01ERBS00001,ENodeBFunction=1".
@@ -127,6 +154,19 @@ public interface Mo {
      */
     Mo getChildByTypeByName(String moType, String name) throws InvalidChildException, ChildNotFoundException;
 
+    /**
+     * Returns a child {@link Mo} with a specified type and name, without
+     * throwing an exception if there is none.
+     *
+     * @param moType
+     *            the type of the requested {@code Mo}
+     * @param name
+     *            the name of the requested {@code Mo}
+     * @return a child {@code Mo} with a specified type and name, or null if
+     *         this {@code Mo} has no such child
+     */
+    Mo findChildByTypeByName(String moType, String name);
+
     /**
      * Checks whether an {@code Mo} specified by a given moType is a valid child
      * of this {@code Mo}.
@@ -146,6 +186,28 @@ public interface Mo {
      */
     void addChild(Mo child);
 
+    /**
+     * Removes a child {@link Mo} from the list of children {@code Mo}'s of
+     * this {@code Mo} instance.
+     *
+     * @param child
+     *            {@code Mo} to be removed from the list of children
+     *            {@code Mo}'s
+     * @return true if the child was removed, false if it was not a child of
+     *         this {@code Mo}
+     */
+    boolean removeChild(Mo child);
+
+    /**
+     * Returns the number of children {@link Mo}s added to or removed from this
+     * {@code Mo} or any of its descendants. The count only ever grows, so a
+     * cached view of the subtree is still valid for as long as the count is
+     * unchanged.
+     *
+     * @return the number of children added or removed below this {@code Mo}
+     */
+    int getSubtreeModificationCount();
+
     /**
      * Returns a list of all possible attribute names of this {@link Mo}.
      *
@@ -161,6 +223,22 @@ public interface Mo {
      */
     void setAttributeNames(List<String> attributeNames);
 
+    /**
+     * Returns the compiled attribute table of this {@link Mo}'s type.
+     *
+     * @return the {@link MoClassDescriptor} of this {@code Mo}
+     */
+    MoClassDescriptor getMoClassDescriptor();
+
+    /**
+     * Sets the compiled attribute table of this {@link Mo}'s type, shared by
+     * all {@code Mo}s of the same type and MIM version.
+     *
+     * @param moClassDescriptor
+     *            the {@link MoClassDescriptor} of this {@code Mo}
+     */
+    void setMoClassDescriptor(MoClassDescriptor moClassDescriptor);
+
     /**
      * Returns the attribute specified by a given name.
      *
@@ -15,9 +15,12 @@ package com.ericsson.de.onetwork.dms.generics;
 import java.util.List;
 
 import com.ericsson.de.onetwork.dms.MimDataStorage;
+import com.ericsson.de.onetwork.dms.MimModel;
+import com.ericsson.de.onetwork.dms.exceptions.DataModellerServiceException;
 import com.ericsson.de.onetwork.dms.exceptions.InvalidChildException;
 import com.ericsson.de.onetwork.dms.exceptions.InvalidPlatformRuntimeException;
 import com.ericsson.de.onetwork.dms.exceptions.MaximumCardinalityExceededException;
+import com.ericsson.de.onetwork.dms.mo.MoClassDescriptor;
 import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Class;
 import com.ericsson.de.onetwork.dms.util.CardinalityAssessor;
 import com.ericsson.de.onetwork.dms.util.DefaultAttributeValueSetter;
@@ -83,23 +86,64 @@ public class MoFactory {
      */
     public Mo getMo(final String mimVersion, final Mo parentMo, final String moType, final String moName) throws InvalidPlatformRuntimeException,
             InvalidChildException, MaximumCardinalityExceededException {
-        Mo managedObject = null;
-
-        if (isValidMoToCreate(moType, parentMo)) {
-            if (isUnderMaximumCardinatlity(parentMo, moType)) {
-                managedObject = createMo(mimVersion, parentMo, moType, moName);
-            } else {
-                throw new MaximumCardinalityExceededException(
-                        String.format("No more %s can be added to %s=%s", moType, parentMo.getFdn().getType(), parentMo.getFdn().getName()));
-            }
-        } else {
-            throw new InvalidChildException(String.format("%s is not a child of %s", moType, parentMo.getFdn().getType()));
+        checkIsValidMoToCreate(moType, parentMo);
+        final Platform platform = MimToPlatformMapper.getPlatformByMimVersion(mimVersion);
+        final MimModel mimModel = getMimModel(mimVersion);
+        if (!isUnderMaximumCardinatlity(mimModel, parentMo, moType)) {
+            throw maximumCardinalityExceeded(moType, parentMo);
         }
+        return createMo(mimModel, platform, parentMo, moType, moName);
+    }
 
-        if (useDefaultAttributes) {
-            DefaultAttributeValueSetter.setAllDefaultAttributes(mimVersion, managedObject);
+    /**
+     * Returns the requested {@link Mo} based on the specified parent
+     * {@link Fdn}, managed object type, and managed object name, reading the
+     * model from the given {@link MimModel} snapshot.
+     *
+     * @param mimModel
+     *            the model of the underlying node
+     * @param parentMo
+     *            the parent {@code Mo}
+     * @param moType
+     *            the type of managed object
+     * @param moName
+     *            the name of the {@code Mo}
+     * @return the requested {@code Mo} instance
+     * @throws InvalidModelRuntimeException
+     *             thrown when an unsupported Platform is used
+     * @throws InvalidChildException
+     *             thrown when the requested {@code Mo} type is not a child of
+     *             the parent {@code Mo}
+     * @throws MaximumCardinalityExceededException
+     *             thrown when the parent {@code Mo} already contains the
+     *             maximum number of {@code Mo}'s of the the requested type
+     */
+    public Mo getMo(final MimModel mimModel, final Mo parentMo, final String moType, final String moName) throws InvalidPlatformRuntimeException,
+            InvalidChildException, MaximumCardinalityExceededException {
+        checkIsValidMoToCreate(moType, parentMo);
+        if (!isUnderMaximumCardinatlity(mimModel, parentMo, moType)) {
+            throw maximumCardinalityExceeded(moType, parentMo);
+        }
+        return createMo(mimModel, mimModel.getPlatform(), parentMo, moType, moName);
+    }
+
+    private static MimModel getMimModel(final String mimVersion) {
+        try {
+            return MimDataStorage.getMimModel(mimVersion);
+        } catch (final DataModellerServiceException e) {
+            throw new IllegalStateException("Could not load MIM version: " + mimVersion, e);
         }
-        return managedObject;
+    }
+
+    private void checkIsValidMoToCreate(final String moType, final Mo parentMo) throws InvalidChildException {
+        if (!isValidMoToCreate(moType, parentMo)) {
+            throw new InvalidChildException(String.format("%s is not a child of %s", moType, parentMo.getFdn().getType()));
+        }
+    }
+
+    private static MaximumCardinalityExceededException maximumCardinalityExceeded(final String moType, final Mo parentMo) {
+        return new MaximumCardinalityExceededException(
+                String.format("No more %s can be added to %s=%s", moType, parentMo.getFdn().getType(), parentMo.getFdn().getName()));
     }
 
     private boolean isValidMoToCreate(final String moType, final Mo parentMo) {
@@ -108,16 +152,17 @@ public class MoFactory {
         return null == parentMo || parentMo.isValidChildMoType(moType);
     }
 
-    private boolean isUnderMaximumCardinatlity(final Mo parentMo, final String moType) throws InvalidChildException {
+    private boolean isUnderMaximumCardinatlity(final MimModel mimModel, final Mo parentMo, final String moType) throws InvalidChildException {
         // The null case if for when there is no parent defined for the Mo being
         // created, e.g., the root level Mo.
-        return null == parentMo || !CardinalityAssessor.isMaxCardinalityExceeded(moType, parentMo);
+        return null == parentMo || !CardinalityAssessor.isMaxCardinalityExceeded(mimModel, moType, parentMo);
     }
 
-    private Mo createMo(final String mimVersion, final Mo parentMo, final String type, final String name) throws InvalidPlatformRuntimeException {
-        final Platform platform = MimToPlatformMapper.getPlatformByMimVersion(mimVersion);
+    private Mo createMo(final MimModel mimModel, final Platform platform, final Mo parentMo, final String type, final String name)
+            throws InvalidPlatformRuntimeException {
         Mo newManagedObject;
-        final Class moClass = MimDataStorage.getClassByMoType(mimVersion, type);
+        final MoClassDescriptor moClassDescriptor = mimModel.getMoClassDescriptor(type);
+        final Class moClass = moClassDescriptor.getMomMoClass();
         switch (platform) {
             case CPP:
                 newManagedObject = new CppMo(moClass, parentMo, type, name);
@@ -126,14 +171,17 @@ public class MoFactory {
                 newManagedObject = new ComEcimMo(moClass, parentMo, type, name);
                 break;
             default:
-                throw new InvalidPlatformRuntimeException(String.format("%s is not a valid model.", mimVersion));
+                throw new InvalidPlatformRuntimeException(String.format("%s is not a valid model.", mimModel.getMimVersion()));
         }
 
-        final List<String> attributeNames = MimDataStorage.getAttributes(mimVersion, type);
-        newManagedObject.setAttributeNames(attributeNames);
-        final List<String> childTypes = MimDataStorage.getChildMoTypes(mimVersion, type);
+        newManagedObject.setMoClassDescriptor(moClassDescriptor);
+        newManagedObject.setAttributeNames(moClassDescriptor.getAttributeNames());
+        final List<String> childTypes = mimModel.getChildMoTypes(type);
         newManagedObject.setChildTypes(childTypes);
 
+        if (useDefaultAttributes) {
+            DefaultAttributeValueSetter.setAllDefaultAttributes(moClassDescriptor, newManagedObject);
+        }
         return newManagedObject;
     }
 
@@ -0,0 +1,172 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.dms.generics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ericsson.de.onetwork.dms.exceptions.InvalidChildException;
+
+/**
+ * A comma separated {@code Mo} type hierarchy, e.g.
+ * {@code ManagedElement,ENodeBFunction,EUtranCellFDD}, split once so that it
+ * can be evaluated against many {@link NetworkElement}s. The first type is
+ * that of the root {@link Mo}, and the query finds the {@code Mo}s of the last
+ * type.
+ *
+ * @author eagent
+ * @since 1Network_15.14
+ */
+public final class MoPathQuery {
+
+    private static final String MO_TYPE_SEPARATOR = ",";
+
+    private final String moTypeHierarchy;
+    private final String[] moTypes;
+
+    private MoPathQuery(final String moTypeHierarchy) {
+        this.moTypeHierarchy = moTypeHierarchy;
+        moTypes = moTypeHierarchy.split(MO_TYPE_SEPARATOR);
+    }
+
+    /**
+     * Compiles a comma separated {@code Mo} type hierarchy into a query.
+     *
+     * @param moTypeHierarchy
+     *            the comma separated {@code Mo} types, starting with the type
+     *            of the root {@link Mo}
+     * @return the compiled query
+     */
+    public static MoPathQuery compile(final String moTypeHierarchy) {
+        return new MoPathQuery(moTypeHierarchy);
+    }
+
+    /**
+     * Returns the {@code Mo} type hierarchy the query was compiled from.
+     *
+     * @return the comma separated {@code Mo} types
+     */
+    public String getMoTypeHierarchy() {
+        return moTypeHierarchy;
+    }
+
+    /**
+     * Returns the number of {@code Mo} types in the hierarchy, including the
+     * type of the root {@link Mo}.
+     *
+     * @return the number of {@code Mo} types
+     */
+    public int getNumberOfMoTypes() {
+        return moTypes.length;
+    }
+
+    /**
+     * Returns the {@code Mo} type at the given level of the hierarchy, where
+     * the root {@link Mo} is at level 0.
+     *
+     * @param level
+     *            the level of the hierarchy
+     * @return the {@code Mo} type at the level
+     */
+    public String getMoType(final int level) {
+        return moTypes[level];
+    }
+
+    /**
+     * Returns the last {@code Mo} type of the hierarchy, which is the type the
+     * query finds.
+     *
+     * @return the last {@code Mo} type
+     */
+    public String getLastMoType() {
+        return moTypes[moTypes.length - 1];
+    }
+
+    /**
+     * Returns whether the given query runs through the {@code Mo} types of
+     * this one below the root, ignoring case. If it does, the {@link Mo}s
+     * found by this query can lie on the path of the given query.
+     *
+     * @param moPathQuery
+     *            the query that may run through this one
+     * @return true if this query is a prefix of the given one
+     */
+    public boolean isPrefixOf(final MoPathQuery moPathQuery) {
+        if (moTypes.length > moPathQuery.moTypes.length) {
+            return false;
+        }
+        for (int level = 1; level < moTypes.length; level++) {
+            if (!moTypes[level].equalsIgnoreCase(moPathQuery.moTypes[level])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the {@link Mo}s of the last type of the hierarchy below the given
+     * root {@code Mo}, in the order of {@link Mo#getChildren()} at each level.
+     * The children of the root are matched on their type ignoring case. The
+     * {@code Mo}s are collected depth first into one list, so no list is built
+     * for the intermediate levels.
+     *
+     * @param rootMo
+     *            the root {@code Mo} of a {@link NetworkElement}
+     * @return the {@code Mo}s found
+     * @throws InvalidChildException
+     *             if a {@code Mo} on the path cannot have children of the
+     *             next type in the hierarchy
+     */
+    public List<Mo> findMos(final Mo rootMo) throws InvalidChildException {
+        final List<Mo> mos = new ArrayList<>();
+        rootMo.forEachChild(new MoVisitor<InvalidChildException>() {
+
+            @Override
+            public void visit(final Mo mo) throws InvalidChildException {
+                if (mo.getType().equalsIgnoreCase(moTypes[1])) {
+                    collectMos(mo, 1, mos);
+                }
+            }
+        });
+        return mos;
+    }
+
+    private void collectMos(final Mo mo, final int level, final List<Mo> mos) throws InvalidChildException {
+        final List<Mo> children = mo.getChildrenByType(moTypes[level + 1]);
+        if (level < moTypes.length - 2) {
+            for (int childIndex = 0; childIndex < children.size(); childIndex++) {
+                final Mo child = children.get(childIndex);
+                if (child.getType().equalsIgnoreCase(moTypes[level + 1])) {
+                    collectMos(child, level + 1, mos);
+                }
+            }
+        } else {
+            mos.addAll(children);
+        }
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return other instanceof MoPathQuery && moTypeHierarchy.equals(((MoPathQuery) other).moTypeHierarchy);
+    }
+
+    @Override
+    public int hashCode() {
+        return moTypeHierarchy.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return moTypeHierarchy;
+    }
+}
@@ -0,0 +1,60 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.dms.generics;
+
+/**
+ * Walks a tree of {@link Mo}s depth first, visiting each {@code Mo} before its
+ * children, in the order of {@link Mo#getChildren()}. Nothing is allocated per
+ * visited {@code Mo}: the walk is driven by {@link Mo#forEachChild(MoVisitor)}
+ * rather than by copies of the children.
+ *
+ * @author eagent
+ * @since 1Network_15.14
+ */
+public final class MoTreeWalker {
+
+    private MoTreeWalker() {
+    }
+
+    /**
+     * Visits the given {@link Mo} and all of its descendants, each one before
+     * its children.
+     *
+     * @param rootMo
+     *            the {@code Mo} at the top of the walked tree
+     * @param visitor
+     *            the visitor of each {@code Mo}
+     * @param <E>
+     *            the type of exception the visitor may throw
+     * @throws E
+     *             if a visit fails; the walk is then stopped
+     */
+    public static <E extends Exception> void walkDepthFirst(final Mo rootMo, final MoVisitor<E> visitor) throws E {
+        new DepthFirstVisitor<>(visitor).visit(rootMo);
+    }
+
+    private static final class DepthFirstVisitor<E extends Exception> implements MoVisitor<E> {
+
+        private final MoVisitor<E> visitor;
+
+        DepthFirstVisitor(final MoVisitor<E> visitor) {
+            this.visitor = visitor;
+        }
+
+        @Override
+        public void visit(final Mo mo) throws E {
+            visitor.visit(mo);
+            mo.forEachChild(this);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.dms.generics;
+
+/**
+ * Visits {@link Mo}s handed to it by {@link Mo#forEachChild(MoVisitor)} or by
+ * {@link MoTreeWalker}, without the {@code Mo}s being copied into a list.
+ *
+ * @param <E>
+ *            the type of exception the visitor may throw
+ * @author eagent
+ * @since 1Network_15.14
+ */
+public interface MoVisitor<E extends Exception> {
+
+    /**
+     * Visits an {@link Mo}.
+     *
+     * @param mo
+     *            the visited {@code Mo}
+     * @throws E
+     *             if the visit fails; the traversal is then stopped
+     */
+    void visit(Mo mo) throws E;
+}
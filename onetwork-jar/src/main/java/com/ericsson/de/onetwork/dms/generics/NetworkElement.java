@@ -12,23 +12,20 @@
 
 package com.ericsson.de.onetwork.dms.generics;
 
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.ericsson.de.onetwork.bs.rules.RuleUtility;
 import com.ericsson.de.onetwork.dms.MimDataStorage;
+import com.ericsson.de.onetwork.dms.MimModel;
 import com.ericsson.de.onetwork.dms.exceptions.DataModellerServiceException;
 import com.ericsson.de.onetwork.dms.exceptions.InvalidChildException;
-import com.ericsson.de.onetwork.dms.exceptions.InvalidPlatformRuntimeException;
 import com.ericsson.de.onetwork.dms.exceptions.MaximumCardinalityExceededException;
-import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Class;
-import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Relationship;
-import com.ericsson.de.onetwork.dms.util.CardinalityAssessor;
 import com.ericsson.de.onetwork.dms.util.MimToPlatformMapper;
-import com.ericsson.de.onetwork.dms.util.MoFormatter;
 
 /**
  * The {@code NetworkElement} object is a collection of {@code Mo} instances
@@ -40,6 +37,12 @@ import com.ericsson.de.onetwork.dms.util.MoFormatter;
  */
 public class NetworkElement {
 
+    /**
+     * System property that, when true, enables the cache of {@code Mo} query
+     * results on every {@code NetworkElement}.
+     */
+    public static final String MO_QUERY_CACHE_PROPERTY = "onetwork.ne.mo.query.cache";
+
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     /**
@@ -51,16 +54,25 @@ public class NetworkElement {
      * The unique name of the node e.g ERBS10000.
      */
     private final String name;
+    /**
+     * The model snapshot the {@code NetworkElement} was built from, or null if
+     * the MIM version could not be loaded.
+     */
+    private final MimModel mimModel;
     /**
      * The lower level {@code Mo} on top of which all other {@code Mo}s are
      * added.
      */
     private Mo rootMo;
     /**
-     * A utility used to generated an {@code Mo} instance based on an input MOM.
-     * This is used for the autogeneration of SystemCreated {@code Mo}s.
+     * The results of {@code Mo} queries, or null if they are not cached.
      */
-    private final MoFactory moFactory;
+    private Map<MoPathQuery, List<Mo>> moQueryCache = Boolean.getBoolean(MO_QUERY_CACHE_PROPERTY) ? new HashMap<MoPathQuery, List<Mo>>() : null;
+    /**
+     * The subtree modification count of the root {@code Mo} when the cached
+     * query results were found.
+     */
+    private int moQueryCacheModificationCount = 0;
 
     /**
      * Initialises a newly created {@code NetworkElement} object that represents
@@ -74,31 +86,48 @@ public class NetworkElement {
      *            this {@code NetworkElement}
      * @param name
      *            the name of the @ NetworkElement}
-     * @param moFactory
-     *            a utility used to generate {@code Mo} objects
      */
     public NetworkElement(final String mimVersion, final String name) {
         this.mimVersion = mimVersion;
         this.name = name;
-        moFactory = new MoFactory(true);
+        MimModel loadedMimModel = null;
+        try {
+            loadedMimModel = MimDataStorage.getMimModel(mimVersion);
+            rootMo = SystemCreatedMoTemplate.createRootMo(loadedMimModel, getRootName(name));
+        } catch (final DataModellerServiceException customException) {
+            logCreationFailure(customException);
+        }
+        mimModel = loadedMimModel;
+    }
+
+    /**
+     * Initialises a newly created {@code NetworkElement} object from a model
+     * snapshot that the caller has already obtained from
+     * {@link MimDataStorage#getMimModel(String)}.
+     *
+     * @param mimModel
+     *            the model that is used to create {@code Mo} objects on this
+     *            {@code NetworkElement}
+     * @param name
+     *            the name of the {@code NetworkElement}
+     */
+    public NetworkElement(final MimModel mimModel, final String name) {
+        this.mimModel = mimModel;
+        mimVersion = mimModel.getMimVersion();
+        this.name = name;
         try {
-            initialiseRootMo();
-            populateSystemCreatedMos(rootMo);
+            rootMo = SystemCreatedMoTemplate.createRootMo(mimModel, getRootName(name));
         } catch (final DataModellerServiceException customException) {
-            if (customException instanceof InvalidChildException || customException instanceof MaximumCardinalityExceededException) {
-                logger.error("Node ({}) is invalid. {}", name, customException.getMessage());
-            } else {
-                logger.error(customException.getMessage());
-            }
+            logCreationFailure(customException);
         }
     }
 
-    private void initialiseRootMo() throws DataModellerServiceException {
-        MimDataStorage.loadMimVersionToMemory(mimVersion);
-        final Class rootClass = MimDataStorage.getRootMoClass(mimVersion);
-        final String moType = MoFormatter.removeComEcimNamespaceFrom(rootClass.getName());
-        rootMo = moFactory.getMo(mimVersion, null, moType, getRootName(name));
-        rootMo.setSystemCreated(true);
+    private void logCreationFailure(final DataModellerServiceException customException) {
+        if (customException instanceof InvalidChildException || customException instanceof MaximumCardinalityExceededException) {
+            logger.error("Node ({}) is invalid. {}", name, customException.getMessage());
+        } else {
+            logger.error(customException.getMessage());
+        }
     }
 
     private String getRootName(final String name) {
@@ -113,30 +142,6 @@ public class NetworkElement {
         return rootName;
     }
 
-    private void populateSystemCreatedMos(final Mo parentMo) throws InvalidPlatformRuntimeException, InvalidChildException,
-            MaximumCardinalityExceededException {
-        for (final String childType : parentMo.getChildTypes()) {
-            if (MimDataStorage.isMoSystemCreated(mimVersion, childType)) {
-                final long minCardinality = getMinCardinality(parentMo, childType);
-                for (int moCounter = 1; moCounter <= minCardinality; moCounter++) {
-                    final Mo managedObject = moFactory.getMo(mimVersion, parentMo, childType, Integer.toString(moCounter));
-                    managedObject.setSystemCreated(true);
-                    parentMo.addChild(managedObject);
-                    populateSystemCreatedMos(managedObject);
-                }
-            }
-        }
-    }
-
-    private long getMinCardinality(final Mo parentMo, final String childType) {
-        final Relationship relationship = MimDataStorage.getRelatonshipByParentAndChildMoTypes(parentMo.getType(), childType);
-        final long minCardinality = CardinalityAssessor.getMinCardinality(relationship);
-        // This is a unique case where the Mo is both systemCreated and has a 0
-        // minimum cardinality.
-        // System creating here that at least 1 instance must be created.
-        return Math.max(minCardinality, 1);
-    }
-
     /**
      * Returns the root level {@link Mo} within the {@link NetworkElement}. All
      * other {@code Mo}'s in the node sit below the root level.
@@ -156,6 +161,16 @@ public class NetworkElement {
         return mimVersion;
     }
 
+    /**
+     * Returns the model snapshot the {@link NetworkElement} was built from.
+     *
+     * @return the model of the underlying MIM, or null if it could not be
+     *         loaded
+     */
+    public MimModel getMimModel() {
+        return mimModel;
+    }
+
     /**
      * Returns the name of the {@link NetworkElement}.
      *
@@ -165,6 +180,24 @@ public class NetworkElement {
         return name;
     }
 
+    /**
+     * Enables or disables the cache of {@link #getMos(MoPathQuery)} results.
+     * Cached results are dropped whenever a child {@link Mo} is added
+     * anywhere in the {@code NetworkElement}, and are returned as unmodifiable
+     * lists. Disabling the cache drops all of its results. Like the rest of
+     * the {@code NetworkElement}, the cache is not thread safe.
+     *
+     * @param moQueryCacheEnabled
+     *            true to cache the results of {@code Mo} queries
+     */
+    public void setMoQueryCacheEnabled(final boolean moQueryCacheEnabled) {
+        if (!moQueryCacheEnabled) {
+            moQueryCache = null;
+        } else if (null == moQueryCache) {
+            moQueryCache = new HashMap<>();
+        }
+    }
+
     /**
      * Used to get mos of a certain type which are within a network element.
      *
@@ -176,25 +209,35 @@ public class NetworkElement {
      *             relationship which doesn't exist
      */
     public List<Mo> getMosFromNe(final String moTypeHierarchy) throws InvalidChildException {
-        final String[] parentMoTypes = RuleUtility.getMoTypeHierarchyAsArray(moTypeHierarchy);
-        return getRequiredMosRecursively(getRootMo().getChildren(), parentMoTypes, 1);
+        return getMos(MoPathQuery.compile(moTypeHierarchy));
     }
 
-    private List<Mo> getRequiredMosRecursively(final List<Mo> parentList, final String[] parentMoTypes, int level)
-            throws InvalidChildException {
-        List<Mo> childList = new ArrayList<Mo>();
-
-        for (final Mo mo : parentList) {
-            if (mo.getType().equalsIgnoreCase(parentMoTypes[level])) {
-                childList.addAll(mo.getChildrenByType(parentMoTypes[level + 1]));
-            }
+    /**
+     * Used to get the mos found by a compiled query within a network element.
+     * If the cache is enabled, the result is reused until a child {@link Mo}
+     * is added to the network element.
+     *
+     * @param moPathQuery
+     *            the compiled mo type hierarchy of the mos to obtain
+     * @return list of mos
+     * @throws InvalidChildException
+     *             thrown when the query represents a parent-child relationship
+     *             which doesn't exist
+     */
+    public List<Mo> getMos(final MoPathQuery moPathQuery) throws InvalidChildException {
+        if (null == moQueryCache) {
+            return moPathQuery.findMos(getRootMo());
         }
-
-        if (level < parentMoTypes.length - 2) {
-            childList = getRequiredMosRecursively(childList, parentMoTypes, ++level);
+        final int modificationCount = getRootMo().getSubtreeModificationCount();
+        if (modificationCount != moQueryCacheModificationCount) {
+            moQueryCache.clear();
+            moQueryCacheModificationCount = modificationCount;
         }
-
-        return childList;
+        List<Mo> mos = moQueryCache.get(moPathQuery);
+        if (null == mos) {
+            mos = Collections.unmodifiableList(moPathQuery.findMos(getRootMo()));
+            moQueryCache.put(moPathQuery, mos);
+        }
+        return mos;
     }
-
 }
@@ -0,0 +1,104 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.dms.generics;
+
+import com.ericsson.de.onetwork.dms.MimModel;
+import com.ericsson.de.onetwork.dms.exceptions.DataModellerServiceException;
+import com.ericsson.de.onetwork.dms.exceptions.InvalidChildException;
+import com.ericsson.de.onetwork.dms.exceptions.InvalidPlatformRuntimeException;
+import com.ericsson.de.onetwork.dms.exceptions.MaximumCardinalityExceededException;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Class;
+import com.ericsson.de.onetwork.dms.util.MoFormatter;
+
+/**
+ * Builds the tree of system created {@code Mo}s that every
+ * {@link NetworkElement} of a MIM starts with. The tree is built once per
+ * {@link MimModel} and held by it, see
+ * {@link MimModel#getSystemCreatedMoTemplate()}, and each new
+ * {@code NetworkElement} receives a copy of it.
+ *
+ * @author eagent
+ * @since 1Network_15.14
+ */
+public final class SystemCreatedMoTemplate {
+
+    /**
+     * The name given to the root {@code Mo} of a template. Copies of the
+     * template are renamed to the root name of their {@code NetworkElement}.
+     */
+    private final static String TEMPLATE_ROOT_NAME = "1";
+
+    private SystemCreatedMoTemplate() {
+    }
+
+    /**
+     * Returns a new root {@code Mo}, with all system created {@code Mo}s below
+     * it, for the given MIM.
+     *
+     * @param mimModel
+     *            the model of the {@code NetworkElement}
+     * @param rootName
+     *            the name of the root {@code Mo}
+     * @return the root {@code Mo} of a new system created tree
+     * @throws DataModellerServiceException
+     *             if the system created tree cannot be built from the MIM
+     */
+    static Mo createRootMo(final MimModel mimModel, final String rootName) throws DataModellerServiceException {
+        return ((AbstractMo) mimModel.getSystemCreatedMoTemplate()).copySubtree(null, rootName);
+    }
+
+    /**
+     * Builds a new tree of system created {@code Mo}s from the given MIM. The
+     * attribute slots of the tree are marked as shared, so that it can be
+     * copied without being written to.
+     *
+     * @param mimModel
+     *            the model the tree is built from
+     * @return the root {@code Mo} of the tree
+     * @throws DataModellerServiceException
+     *             if the system created tree cannot be built from the MIM
+     */
+    public static Mo build(final MimModel mimModel) throws DataModellerServiceException {
+        final MoFactory moFactory = new MoFactory(true);
+        final Class rootClass = mimModel.getRootMoClass();
+        final String moType = MoFormatter.removeComEcimNamespaceFrom(rootClass.getName());
+        final Mo rootMo = moFactory.getMo(mimModel, null, moType, TEMPLATE_ROOT_NAME);
+        rootMo.setSystemCreated(true);
+        populateSystemCreatedMos(moFactory, mimModel, rootMo);
+        ((AbstractMo) rootMo).shareAttributeSlots();
+        return rootMo;
+    }
+
+    private static void populateSystemCreatedMos(final MoFactory moFactory, final MimModel mimModel, final Mo parentMo)
+            throws InvalidPlatformRuntimeException, InvalidChildException, MaximumCardinalityExceededException {
+        for (final String childType : parentMo.getChildTypes()) {
+            if (mimModel.isMoSystemCreated(childType)) {
+                final long minCardinality = getMinCardinality(mimModel, parentMo, childType);
+                for (int moCounter = 1; moCounter <= minCardinality; moCounter++) {
+                    final Mo managedObject = moFactory.getMo(mimModel, parentMo, childType, Integer.toString(moCounter));
+                    managedObject.setSystemCreated(true);
+                    parentMo.addChild(managedObject);
+                    populateSystemCreatedMos(moFactory, mimModel, managedObject);
+                }
+            }
+        }
+    }
+
+    private static long getMinCardinality(final MimModel mimModel, final Mo parentMo, final String childType) {
+        final long minCardinality = mimModel.getCardinalityBounds(parentMo.getType(), childType).getMinCardinality();
+        // This is a unique case where the Mo is both systemCreated and has a 0
+        // minimum cardinality.
+        // System creating here that at least 1 instance must be created.
+        return Math.max(minCardinality, 1);
+    }
+}
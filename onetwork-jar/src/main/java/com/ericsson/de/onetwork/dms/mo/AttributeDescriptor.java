@@ -0,0 +1,87 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.dms.mo;
+
+import com.ericsson.de.onetwork.dms.mo.datatype.MoAttributeDataType;
+
+/**
+ * Immutable description of one attribute of an {@link MoClassDescriptor},
+ * resolved from the MOM XML when the MIM is loaded.
+ *
+ * @author eagent
+ * @since 1Network_15.14
+ */
+public final class AttributeDescriptor {
+
+    private final String name;
+    private final String dataType;
+    private final String defaultValue;
+    private final int index;
+    private final MoAttributeDataType defaultAttribute;
+
+    AttributeDescriptor(final String name, final String dataType, final String defaultValue, final int index) {
+        this.name = name;
+        this.dataType = dataType;
+        this.defaultValue = defaultValue;
+        this.index = index;
+        defaultAttribute = MoAttributeDataType.unmodifiable(dataType, defaultValue);
+    }
+
+    /**
+     * Returns the name of the attribute.
+     *
+     * @return the name of the attribute
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the mp.dtd data type of the attribute, for example "EnumRef" or
+     * "Sequence".
+     *
+     * @return the simple class name of the mp.dtd data type
+     */
+    public String getDataType() {
+        return dataType;
+    }
+
+    /**
+     * Returns the default value of the attribute as defined in the MOM XML.
+     *
+     * @return the default value, or null if the MOM defines none
+     */
+    public String getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * Returns the attribute holding the MOM default value. The instance is
+     * shared by every {@code Mo} whose attribute still has its default, so it
+     * cannot be modified.
+     *
+     * @return the shared, unmodifiable default attribute
+     */
+    public MoAttributeDataType getDefaultAttribute() {
+        return defaultAttribute;
+    }
+
+    /**
+     * Returns the position of the attribute within its {@link MoClassDescriptor}.
+     *
+     * @return the zero based index of the attribute
+     */
+    public int getIndex() {
+        return index;
+    }
+}
@@ -0,0 +1,136 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.dms.mo;
+
+import java.util.List;
+
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Cardinality;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Child;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Containment;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Max;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Min;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Relationship;
+
+/**
+ * Immutable minimum and maximum cardinality of the child of a containment
+ * mp.dtd {@link Relationship}. It is compiled once per MIM load, so that
+ * creating managed objects does not need to find and parse the cardinality of
+ * the relationship again.
+ *
+ * @author eagent
+ * @since 1Network_15.14
+ */
+public final class CardinalityBounds {
+
+    /**
+     * If the MOM does not contain a max/min relationship cardinality, then
+     * this value is held instead.
+     */
+    public static final long NO_CARDINALITY_DEFINED_INDICATOR = 0;
+
+    private final long minCardinality;
+    private final long maxCardinality;
+
+    /**
+     * Constructs the cardinality bounds of a relationship.
+     *
+     * @param minCardinality
+     *            the minimum number of children, or
+     *            {@code NO_CARDINALITY_DEFINED_INDICATOR}
+     * @param maxCardinality
+     *            the maximum number of children, or
+     *            {@code NO_CARDINALITY_DEFINED_INDICATOR}
+     */
+    public CardinalityBounds(final long minCardinality, final long maxCardinality) {
+        this.minCardinality = minCardinality;
+        this.maxCardinality = maxCardinality;
+    }
+
+    /**
+     * Compiles the cardinality bounds of the given mp.dtd {@link Relationship}.
+     *
+     * @param relationship
+     *            the relationship as defined in the MOM XML
+     * @return the bounds of the relationship, or null if it is not a
+     *         containment with a valid cardinality
+     */
+    public static CardinalityBounds compile(final Relationship relationship) {
+        final Cardinality cardinality = getCardinality(relationship);
+        if (null == cardinality) {
+            return null;
+        }
+        long minCardinality = NO_CARDINALITY_DEFINED_INDICATOR;
+        long maxCardinality = NO_CARDINALITY_DEFINED_INDICATOR;
+        boolean minFound = false;
+        boolean maxFound = false;
+        try {
+            for (final Object minOrMax : cardinality.getMinOrMax()) {
+                if (minOrMax instanceof Min && !minFound) {
+                    minCardinality = Long.parseLong(((Min) minOrMax).getvalue());
+                    minFound = true;
+                } else if (minOrMax instanceof Max && !maxFound) {
+                    maxCardinality = Long.parseLong(((Max) minOrMax).getvalue());
+                    maxFound = true;
+                }
+            }
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+        return new CardinalityBounds(minCardinality, maxCardinality);
+    }
+
+    private static Cardinality getCardinality(final Relationship relationship) {
+        final List<Object> possibleContainments = relationship.getBiDirectionalAssociationOrUniDirectionalAssociationOrContainmentOrInheritance();
+        for (final Object possibleContainment : possibleContainments) {
+            if (possibleContainment instanceof Containment) {
+                final List<Child> children = ((Containment) possibleContainment).getChild();
+                return children.isEmpty() ? null : children.get(0).getCardinality();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the minimum number of children that can be created underneath
+     * the parent.
+     *
+     * @return the minimum cardinality, or
+     *         {@code NO_CARDINALITY_DEFINED_INDICATOR}
+     */
+    public long getMinCardinality() {
+        return minCardinality;
+    }
+
+    /**
+     * Returns the maximum number of children that can be created underneath
+     * the parent.
+     *
+     * @return the maximum cardinality, or
+     *         {@code NO_CARDINALITY_DEFINED_INDICATOR}
+     */
+    public long getMaxCardinality() {
+        return maxCardinality;
+    }
+
+    /**
+     * Returns whether a parent which already has the given number of children
+     * can have no more of them.
+     *
+     * @param numberOfChildren
+     *            the current number of children of the relationship's type
+     * @return true if the maximum cardinality is defined and has been reached
+     */
+    public boolean isMaxCardinalityExceeded(final int numberOfChildren) {
+        return NO_CARDINALITY_DEFINED_INDICATOR != maxCardinality && numberOfChildren >= maxCardinality;
+    }
+}
@@ -0,0 +1,277 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.dms.mo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Attribute;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Char;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Class;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.DataType;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Decimal64;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.DefaultValue;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.DerivedDataTypeRef;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.EnumRef;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Int16;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Int32;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Int64;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Int8;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Longlong;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Octet;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Sequence;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Uint16;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Uint32;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Uint64;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Uint8;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Wstring;
+
+/**
+ * Immutable description of the attributes of an mp.dtd {@link Class}. It is
+ * compiled once per MIM load, so that creating managed objects does not need
+ * to walk the JAXB model again.
+ *
+ * @author eagent
+ * @since 1Network_15.14
+ */
+public final class MoClassDescriptor {
+
+    private final Class momMoClass;
+    private final List<String> attributeNames;
+    private final Map<String, AttributeDescriptor> attributesByName;
+
+    private MoClassDescriptor(final Class momMoClass, final List<String> attributeNames, final Map<String, AttributeDescriptor> attributesByName) {
+        this.momMoClass = momMoClass;
+        this.attributeNames = attributeNames;
+        this.attributesByName = attributesByName;
+    }
+
+    /**
+     * Compiles the attribute table of the given mp.dtd {@link Class}.
+     *
+     * @param momMoClass
+     *            the class as defined in the MOM XML
+     * @return the descriptor of the class
+     */
+    public static MoClassDescriptor compile(final Class momMoClass) {
+        final List<String> attributeNames = new ArrayList<>();
+        final Map<String, AttributeDescriptor> attributesByName = new HashMap<>();
+
+        final List<Object> possibleAttributes = momMoClass.getActionOrAttribute();
+        if (possibleAttributes != null) {
+            for (final Object possibleAttribute : possibleAttributes) {
+                if (possibleAttribute instanceof Attribute) {
+                    final Attribute attribute = (Attribute) possibleAttribute;
+                    final String attributeName = attribute.getName();
+                    if (!attributesByName.containsKey(attributeName)) {
+                        final Object topLevelDataType = getTopLevelDataType(attribute);
+                        attributesByName.put(attributeName, new AttributeDescriptor(attributeName, getDataTypeName(topLevelDataType),
+                                getDefaultValue(topLevelDataType), attributeNames.size()));
+                        attributeNames.add(attributeName);
+                    }
+                }
+            }
+        }
+        return new MoClassDescriptor(momMoClass, Collections.unmodifiableList(attributeNames), Collections.unmodifiableMap(attributesByName));
+    }
+
+    /**
+     * Returns the mp.dtd {@link Class} this descriptor was compiled from.
+     *
+     * @return the class as defined in the MOM XML
+     */
+    public Class getMomMoClass() {
+        return momMoClass;
+    }
+
+    /**
+     * Returns the number of distinct attributes of the class.
+     *
+     * @return the number of attributes
+     */
+    public int getNumberOfAttributes() {
+        return attributeNames.size();
+    }
+
+    /**
+     * Returns the attribute names in the order the MOM XML defines them.
+     *
+     * @return an unmodifiable list of attribute names
+     */
+    public List<String> getAttributeNames() {
+        return attributeNames;
+    }
+
+    /**
+     * Returns the description of the named attribute.
+     *
+     * @param attributeName
+     *            the name of the attribute
+     * @return the attribute description, or null if the class has no such
+     *         attribute
+     */
+    public AttributeDescriptor getAttribute(final String attributeName) {
+        return attributesByName.get(attributeName);
+    }
+
+    /**
+     * Returns the mp.dtd data type of the named attribute.
+     *
+     * @param attributeName
+     *            the name of the attribute
+     * @return the simple class name of the data type, or null if the class has
+     *         no such attribute
+     */
+    public String getDataType(final String attributeName) {
+        final AttributeDescriptor attribute = attributesByName.get(attributeName);
+        if (null == attribute) {
+            return null;
+        }
+        return attribute.getDataType();
+    }
+
+    private static Object getTopLevelDataType(final Attribute attribute) {
+        final DataType dataType = attribute.getDataType();
+        if (null == dataType) {
+            return null;
+        }
+        final List<Object> dataTypes =
+                dataType.getIntegerOrBooleanOrOctetOrCharOrDoubleOrFloatOrLongOrLonglongOrShortOrStringOrWstringOrInt8OrInt16OrInt32OrInt64OrUint8OrUint16OrUint32OrUint64OrDecimal64OrEnumRefOrMoRefOrStructRefOrDerivedDataTypeRefOrSequence();
+        if (dataTypes.isEmpty()) {
+            return null;
+        }
+        return dataTypes.get(0);
+    }
+
+    private static String getDataTypeName(final Object topLevelDataType) {
+        if (null == topLevelDataType) {
+            return null;
+        }
+        return topLevelDataType.getClass().getSimpleName();
+    }
+
+    private static String getDefaultValue(final Object topLevelDataType) {
+        if (null == topLevelDataType) {
+            return null;
+        }
+        final DefaultValue defaultValue;
+        if (topLevelDataType instanceof Sequence) {
+            defaultValue = ifTopLevelIsSequence(topLevelDataType);
+        } else {
+            defaultValue = selectDefault(topLevelDataType);
+        }
+        // TODO: Use the MomDefaultValue Enum here when no default is defined.
+        if (null != defaultValue) {
+            return defaultValue.getvalue();
+        }
+        return null;
+    }
+
+    private static DefaultValue ifTopLevelIsSequence(final Object topLevelDataType) {
+        final Object secondLevelDataType =
+                ((Sequence) topLevelDataType)
+                        .getIntegerOrBooleanOrOctetOrCharOrDoubleOrFloatOrLongOrLonglongOrShortOrStringOrWstringOrInt8OrInt16OrInt32OrInt64OrUint8OrUint16OrUint32OrUint64OrDecimal64OrEnumRefOrMoRefOrStructRefOrDerivedDataTypeRef()
+                        .get(0);
+        final DefaultValue defaultValue = selectDefault(secondLevelDataType);
+        return defaultValue;
+
+    }
+
+    private static DefaultValue selectDefault(final Object defaultValueContainer) {
+
+        final String nameOfDataTypeOfDefault = defaultValueContainer.getClass().getSimpleName().toLowerCase();
+        DefaultValue defaultValue = null;
+
+        switch (nameOfDataTypeOfDefault) {
+            case "boolean":
+                defaultValue = ((com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Boolean) defaultValueContainer).getDefaultValue();
+                break;
+            case "octet":
+                defaultValue = ((Octet) defaultValueContainer).getDefaultValue();
+                break;
+            case "char":
+                defaultValue = ((Char) defaultValueContainer).getDefaultValue();
+                break;
+            case "double":
+                defaultValue = ((com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Double) defaultValueContainer).getDefaultValue();
+                break;
+            case "float":
+                defaultValue = ((com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Float) defaultValueContainer).getDefaultValue();
+                break;
+            case "long":
+                defaultValue = ((com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Long) defaultValueContainer).getDefaultValue();
+                break;
+            case "longlong":
+                defaultValue = ((Longlong) defaultValueContainer).getDefaultValue();
+                break;
+            case "short":
+                defaultValue = ((com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Short) defaultValueContainer).getDefaultValue();
+                break;
+            case "string":
+                defaultValue = ((com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.String) defaultValueContainer).getDefaultValue();
+                break;
+            case "wstring":
+                defaultValue = ((Wstring) defaultValueContainer).getDefaultValue();
+                break;
+            case "int8":
+                defaultValue = ((Int8) defaultValueContainer).getDefaultValue();
+                break;
+            case "int16":
+                defaultValue = ((Int16) defaultValueContainer).getDefaultValue();
+                break;
+            case "int32":
+                defaultValue = ((Int32) defaultValueContainer).getDefaultValue();
+                break;
+            case "int64":
+                defaultValue = ((Int64) defaultValueContainer).getDefaultValue();
+                break;
+            case "uint8":
+                defaultValue = ((Uint8) defaultValueContainer).getDefaultValue();
+                break;
+            case "uint16":
+                defaultValue = ((Uint16) defaultValueContainer).getDefaultValue();
+                break;
+            case "uint32":
+                defaultValue = ((Uint32) defaultValueContainer).getDefaultValue();
+                break;
+            case "uint64":
+                defaultValue = ((Uint64) defaultValueContainer).getDefaultValue();
+                break;
+            case "decimal64":
+                defaultValue = ((Decimal64) defaultValueContainer).getDefaultValue();
+                break;
+            case "enumref":
+                defaultValue = ((EnumRef) defaultValueContainer).getDefaultValue();
+                break;
+            case "deriveddatatypeRef":
+                defaultValue = ((DerivedDataTypeRef) defaultValueContainer).getDefaultValue();
+                break;
+            // TODO: Needs to be implemented.
+            // case "moRef":
+            // def = ((MoRef) obj).getDefaultValue();
+            // break;
+            // case "structRef":
+            // def = ((StructRef) obj).getDefaultValue();
+            // break;
+            // case "sequence":
+            // def = ((Sequence) obj).getDefaultValue();
+            // break;
+            default:
+                break;
+        }
+        return defaultValue;
+    }
+}
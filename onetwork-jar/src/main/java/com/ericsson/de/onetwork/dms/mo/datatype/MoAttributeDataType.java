@@ -104,6 +104,20 @@ public class MoAttributeDataType {
         this.value = value;
     }
 
+    /**
+     * Returns an attribute whose data type and value cannot be set, for
+     * instances that are shared, such as MOM default values.
+     *
+     * @param dataType
+     *            the data type for an Managed Object attribute
+     * @param value
+     *            the value of an Managed Object attribute
+     * @return the unmodifiable attribute
+     */
+    public static MoAttributeDataType unmodifiable(final String dataType, final Object value) {
+        return new UnmodifiableMoAttributeDataType(dataType, value);
+    }
+
     /*
      * @see java.lang.Object#toString()
      */
@@ -112,4 +126,24 @@ public class MoAttributeDataType {
         return value.toString();
     }
 
+    /**
+     * Attribute which throws {@link UnsupportedOperationException} when its
+     * data type or value is set.
+     */
+    private static final class UnmodifiableMoAttributeDataType extends MoAttributeDataType {
+
+        UnmodifiableMoAttributeDataType(final String dataType, final Object value) {
+            super(dataType, value);
+        }
+
+        @Override
+        public void setDataType(final String dataType) {
+            throw new UnsupportedOperationException("Shared attribute cannot be modified");
+        }
+
+        @Override
+        public void setValue(final Object value) {
+            throw new UnsupportedOperationException("Shared attribute cannot be modified");
+        }
+    }
 }
@@ -16,6 +16,7 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.xml.bind.JAXBException;
@@ -32,6 +33,7 @@ import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Mim;
 import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Models;
 import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Relationship;
 import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Struct;
+import com.ericsson.de.onetwork.util.ParallelTasks;
 
 /**
  * The Class {@code BaseLocalMomParser} provides a skeletal implementation of
@@ -80,6 +82,17 @@ public class BaseLocalMomParser implements MomParser {
     /** The output directory for the exported artifact XML files. */
     protected String outputDirectory;
 
+    /**
+     * System property used to set the number of threads which marshal the
+     * artifacts to XML files in {@link #exportToXml()}.
+     */
+    public static final String EXPORT_PARALLELISM_PROPERTY = "onetwork.mom.export.parallelism";
+
+    private static final int DEFAULT_EXPORT_PARALLELISM = 1;
+
+    /** The number of threads which marshal the artifacts to XML files. */
+    private int exportParallelism = Integer.getInteger(EXPORT_PARALLELISM_PROPERTY, DEFAULT_EXPORT_PARALLELISM);
+
     /*
      * @see
      * com.ericsson.de.onenetwork.momparser.MomParser#extract(java.lang.String)
@@ -195,6 +208,21 @@ public class BaseLocalMomParser implements MomParser {
         mergedMimAttributeSpecifications = ArtifactMerger.mergeAllAttributeSpecificationArtifacts(mims);
     }
 
+    /**
+     * Sets the number of threads which marshal the artifacts to XML files in
+     * {@link #exportToXml()}. Each artifact is written to its own file, so the
+     * files are the same whatever the number of threads.
+     *
+     * @param exportParallelism
+     *            the number of threads, at least one
+     */
+    public void setExportParallelism(final int exportParallelism) {
+        if (exportParallelism < 1) {
+            throw new IllegalArgumentException("Export parallelism must be at least 1, but was " + exportParallelism);
+        }
+        this.exportParallelism = exportParallelism;
+    }
+
     /**
      * Marshals all artifacts (STRUCT, ENUM, CLASS, and RELATIONSHIP) to the
      * specified directory .
@@ -205,26 +233,40 @@ public class BaseLocalMomParser implements MomParser {
      *             Thrown if binding the XML data fails.
      */
     protected void marshalAllElements(final Map<String, String> artifactDirectory) throws JAXBException {
+        final List<Object> artifacts = new ArrayList<>();
+        final List<String> artifactFiles = new ArrayList<>();
 
         // Marshal the class artifacts to the class directory.
         for (final Class mimClass : getMimClasses().values()) {
-            MomParserUtil.marshal(mimClass, artifactDirectory.get("class") + File.separator + mimClass.getName());
+            artifacts.add(mimClass);
+            artifactFiles.add(artifactDirectory.get("class") + File.separator + mimClass.getName());
         }
         // Marshal the enum artifacts to the enum directory.
         for (final Enum mimEnum : getMimEnums()) {
-            MomParserUtil.marshal(mimEnum, artifactDirectory.get("enum") + File.separator + mimEnum.getName());
+            artifacts.add(mimEnum);
+            artifactFiles.add(artifactDirectory.get("enum") + File.separator + mimEnum.getName());
         }
 
         // Marshal the relationship artifacts to the relationship directory
         for (final Relationship relationship : getMimRelationships().values()) {
-
-            MomParserUtil.marshal(relationship,
-                    artifactDirectory.get("relationship") + File.separator + relationship.getName());
+            artifacts.add(relationship);
+            artifactFiles.add(artifactDirectory.get("relationship") + File.separator + relationship.getName());
         }
         // Marshal the struct artifacts to the struct directory
         for (final Struct struct : getMimStructs()) {
-            MomParserUtil.marshal(struct, artifactDirectory.get("struct") + File.separator + struct.getName());
+            artifacts.add(struct);
+            artifactFiles.add(artifactDirectory.get("struct") + File.separator + struct.getName());
         }
+
+        logger.debug("Marshalling {} artifacts on up to {} threads", artifacts.size(), exportParallelism);
+        ParallelTasks.map("mom-export", artifacts, exportParallelism, new ParallelTasks.Task<Object, Void, JAXBException>() {
+
+            @Override
+            public Void run(final int artifactIndex, final Object artifact) throws JAXBException {
+                MomParserUtil.marshal(artifact, artifactFiles.get(artifactIndex));
+                return null;
+            }
+        });
     }
 
     /**
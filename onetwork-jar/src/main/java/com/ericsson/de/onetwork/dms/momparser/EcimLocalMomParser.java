@@ -14,7 +14,10 @@ package com.ericsson.de.onetwork.dms.momparser;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 import javax.xml.bind.JAXBException;
 import javax.xml.parsers.ParserConfigurationException;
@@ -32,10 +35,18 @@ import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.InterMim;
 import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Mim;
 import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Models;
 import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Struct;
+import com.ericsson.de.onetwork.util.ParallelTasks;
 
 /**
  * Parses ECIM data from either a combination of a MOM XML file and mp.dtd file
  * or the {@code MomParserConfig} object.
+ * <p>
+ * An ECIM MOM is made of a folder of fragment files. The fragments are
+ * unmarshalled, and their artifacts given namespaces, concurrently, on up to
+ * the number of threads set by the {@value #FRAGMENT_PARALLELISM_PROPERTY}
+ * system property, one per processor by default. The fragments are then
+ * merged in the order of their file names, so the model is the same whatever
+ * the number of threads.
  *
  * @author eaefhiq
  */
@@ -44,6 +55,12 @@ public class EcimLocalMomParser extends BaseLocalMomParser {
     /** Logger for parsing events. */
     private final static Logger logger = LoggerFactory.getLogger(EcimLocalMomParser.class);
 
+    /**
+     * System property used to set the number of threads which parse the MOM
+     * fragment files.
+     */
+    public static final String FRAGMENT_PARALLELISM_PROPERTY = "onetwork.mom.fragment.parallelism";
+
     /**
      * Instantiates a new ECIM MOM parser using a MOM file and an mp.dtd file as
      * inputs.
@@ -72,24 +89,77 @@ public class EcimLocalMomParser extends BaseLocalMomParser {
         logger.debug("ComEcim fragments located in: {}", fragFolder.toString());
         super.outputDirectory = outputDir;
 
-        // store all fragment MOM files to an array
+        // store all fragment MOM files to an array, in the order they are merged
         final File[] momFiles = fragFolder.listFiles();
-        logger.debug("ComEcim fragments used are: ", momFiles.toString());
+        if (momFiles == null) {
+            throw new FileNotFoundException("MOM fragment folder does not exist: " + momFragmentFolder);
+        }
+        Arrays.sort(momFiles);
+        logger.debug("ComEcim fragments used are: {}", Arrays.toString(momFiles));
+
+        final List<Fragment> fragments = parseFragments(momFiles, mpDtd);
+        final List<Mim> mims = new ArrayList<>();
+        final List<InterMim> interMims = new ArrayList<>();
+        for (final Fragment fragment : fragments) {
+            mims.addAll(fragment.mims);
+            interMims.addAll(fragment.interMims);
+        }
+        mergeArtifacts(mims, interMims);
+    }
 
-        // bind the first MOM XML fragment to the {@link Models} object
-        final String firstMomFragmentPath = momFiles[0].getAbsolutePath();
-        logger.debug("Binding {} XML fragment to model", firstMomFragmentPath);
-        final Models models = MomParserUtil.<Models>unmarshal(firstMomFragmentPath, mpDtd, Models.class);
+    private static List<Fragment> parseFragments(final File[] momFiles, final String mpDtd) throws FileNotFoundException,
+            ParserConfigurationException, SAXException, JAXBException {
+        final int fragmentParallelism = getFragmentParallelism();
+        logger.debug("Parsing {} ComEcim fragments on up to {} threads", momFiles.length, fragmentParallelism);
+        try {
+            return ParallelTasks.map("mom-fragment-parse", Arrays.asList(momFiles), fragmentParallelism,
+                    new ParallelTasks.Task<File, Fragment, Exception>() {
 
-        /*
-         * Extracts the Mim and InterMim objects from the remaining models in
-         * the XML file and adds them to the first model.
-         */
-        for (int i = 1; i < momFiles.length; i++) {
-            models.getMimOrInterMimOrMib().addAll(
-                    MomParserUtil.<Models>unmarshal(momFiles[i].getAbsolutePath(), mpDtd, Models.class).getMimOrInterMimOrMib());
+                        @Override
+                        public Fragment run(final int fragmentIndex, final File momFile) throws Exception {
+                            return parseFragment(momFile, mpDtd);
+                        }
+                    });
+        } catch (final FileNotFoundException | ParserConfigurationException | SAXException | JAXBException | RuntimeException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int getFragmentParallelism() {
+        final int fragmentParallelism = Integer.getInteger(FRAGMENT_PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors());
+        if (fragmentParallelism < 1) {
+            throw new IllegalArgumentException("Fragment parallelism must be at least 1, but was " + fragmentParallelism);
+        }
+        return fragmentParallelism;
+    }
+
+    /**
+     * Binds a MOM XML fragment to a {@link Models} object, and extracts its
+     * {@code Mim} objects, with namespaces assigned to their artifacts, and
+     * its {@code InterMim} objects.
+     */
+    private static Fragment parseFragment(final File momFile, final String mpDtd) throws FileNotFoundException, ParserConfigurationException,
+            SAXException, JAXBException {
+        logger.debug("Binding {} XML fragment to model", momFile.getAbsolutePath());
+        final Models models = MomParserUtil.<Models>unmarshal(momFile.getAbsolutePath(), mpDtd, Models.class);
+        return new Fragment(models);
+    }
+
+    /**
+     * The {@code Mim} and {@code InterMim} objects of one MOM XML fragment.
+     */
+    private static final class Fragment {
+
+        private final Collection<Mim> mims;
+        private final Collection<InterMim> interMims;
+
+        Fragment(final Models models) {
+            mims = MomParserUtil.<Mim>ruleFilter(models.getMimOrInterMimOrMib(), new ArtifactPredicate<Mim>(Mim.class));
+            assignNamespaceToMos(mims);
+            interMims = MomParserUtil.<InterMim>ruleFilter(models.getMimOrInterMimOrMib(), new ArtifactPredicate<InterMim>(InterMim.class));
         }
-        init(models);
     }
 
     /**
@@ -128,15 +198,8 @@ public class EcimLocalMomParser extends BaseLocalMomParser {
          * merge all {@code Mim} objects to a
          * single collection
          */
-        final Collection<Mim> mims = MomParserUtil.<Mim>ruleFilter(models.getMimOrInterMimOrMib(), new ArtifactPredicate<Mim>(Mim.class));
-        assignNamespaceToMos(mims);
-        /*
-         * merge all {@code InterMim} objects
-         * to a single collection
-         */
-        final Collection<InterMim> interMims =
-                MomParserUtil.<InterMim>ruleFilter(models.getMimOrInterMimOrMib(), new ArtifactPredicate<InterMim>(InterMim.class));
-        mergeArtifacts(mims, interMims);
+        final Fragment fragment = new Fragment(models);
+        mergeArtifacts(fragment.mims, fragment.interMims);
     }
 
     /**
@@ -146,7 +209,7 @@ public class EcimLocalMomParser extends BaseLocalMomParser {
      * @param mims
      *            the collection of MIM elements
      */
-    private void assignNamespaceToMos(final Collection<Mim> mims) {
+    private static void assignNamespaceToMos(final Collection<Mim> mims) {
         // go through the {@code mims} assign the {@code namespace} to the
         // artifacts.
         for (final Mim mim : mims) {
@@ -171,7 +234,7 @@ public class EcimLocalMomParser extends BaseLocalMomParser {
      * @param mimClasses
      *            the collection of {@code Class} objects from the model
      */
-    private void assignNamespaceToClasses(final String namespace, final Collection<Class> mimClasses) {
+    private static void assignNamespaceToClasses(final String namespace, final Collection<Class> mimClasses) {
         for (final Class mimClass : mimClasses) {
             mimClass.setName(namespace + ":" + mimClass.getName());
         }
@@ -185,7 +248,7 @@ public class EcimLocalMomParser extends BaseLocalMomParser {
      * @param structs
      *            the collection of {@code Struct}
      */
-    private void assignNamespaceToStruct(final String namespace, final Collection<Struct> structs) {
+    private static void assignNamespaceToStruct(final String namespace, final Collection<Struct> structs) {
         for (final Struct struct : structs) {
             struct.setName(namespace + ":" + struct.getName());
         }
@@ -199,7 +262,7 @@ public class EcimLocalMomParser extends BaseLocalMomParser {
      * @param mimEnums
      *            the collection of {@code Enum}
      */
-    private void assignNamespaceToEnum(final String namespace, final Collection<Enum> mimEnums) {
+    private static void assignNamespaceToEnum(final String namespace, final Collection<Enum> mimEnums) {
         for (final Enum mimEnum : mimEnums) {
             mimEnum.setName(namespace + ":" + mimEnum.getName());
         }
@@ -213,7 +276,7 @@ public class EcimLocalMomParser extends BaseLocalMomParser {
      * @param mimDerivedDataTypes
      *            the collection of {@code DerivedDataType}
      */
-    private void assignNamespaceToDerivedDataType(final String namespace, final Collection<DerivedDataType> mimDerivedDataTypes) {
+    private static void assignNamespaceToDerivedDataType(final String namespace, final Collection<DerivedDataType> mimDerivedDataTypes) {
         for (final DerivedDataType mimDerivedDataType : mimDerivedDataTypes) {
             mimDerivedDataType.setName(namespace + ":" + mimDerivedDataType.getName());
         }
@@ -24,11 +24,21 @@ import com.ericsson.de.onetwork.dms.momparser.schema.config.MomParserConfig;
 
 /**
  * A factory for creating instances of {@code MomParser} objects.
+ * <p>
+ * The MOM is bound to the mp.dtd object model by JAXB, unless the
+ * {@value #STREAMING_PARSER_PROPERTY} system property is set to true, in which
+ * case it is streamed by a {@link StreamingLocalMomParser}.
  *
  * @author eaefhiq
  */
 public class MomParserFactory {
 
+    /**
+     * System property used to stream MOMs with StAX rather than bind them with
+     * JAXB.
+     */
+    public static final String STREAMING_PARSER_PROPERTY = "onetwork.mom.parser.streaming";
+
     /**
      * Creates a new {@code MomParser} object.
      *
@@ -51,6 +61,44 @@ public class MomParserFactory {
      */
     public static MomParser createMomParser(final Platform nodePlatform, final MomParserConfig config) throws FileNotFoundException,
             ParserConfigurationException, SAXException, JAXBException {
+        return createMomParser(nodePlatform, config, Boolean.getBoolean(STREAMING_PARSER_PROPERTY));
+    }
+
+    /**
+     * Creates a new {@code MomParser} object.
+     *
+     * @param nodePlatform
+     *            the node type. For example, "cpp" for a CPP node.
+     * @param streaming
+     *            whether the MOM is streamed by a
+     *            {@link StreamingLocalMomParser}, which creates only the
+     *            artifacts used to build a MIM model
+     * @return an instance of a {@code MomParser} object or null if the node
+     *         type is not supported.
+     * @throws FileNotFoundException
+     *             Thrown if the MOM file or the mp.dtd file in the
+     *             {@code MomParserConfig} object
+     *             does not exist.
+     * @throws ParserConfigurationException
+     *             Thrown if the MOM file or the mp.dtd file in the
+     *             {@code MomParserConfig} object
+     *             have corrupt data in them.
+     * @throws SAXException
+     *             Thrown if parsing fails.
+     * @throws JAXBException
+     *             Thrown if binding the XML data fails.
+     */
+    public static MomParser createMomParser(final Platform nodePlatform, final MomParserConfig config, final boolean streaming)
+            throws FileNotFoundException, ParserConfigurationException, SAXException, JAXBException {
+        if (streaming) {
+            switch (nodePlatform) {
+                case CPP:
+                case COMECIM:
+                    return new StreamingLocalMomParser(config, nodePlatform);
+                default:
+                    return null;
+            }
+        }
         switch (nodePlatform) {
             case CPP:
                 return new CppLocalMomParser(config);
@@ -16,6 +16,10 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
@@ -36,11 +40,78 @@ import com.ericsson.de.onetwork.dms.momparser.trim.TrimmerFactory;
 /**
  * Provides a set of utilities for binding between XML files and objects and for
  * manipulation of collections.
+ * <p>
+ * A {@code JAXBContext} is created once per bound type and shared, as it is
+ * thread safe and costly to create. Marshallers and unmarshallers are not
+ * thread safe, so each thread keeps its own, per bound type, for reuse.
  *
  * @author eaefhiq
  */
 public class MomParserUtil {
 
+    /** The shared JAXB contexts, keyed by the type they are bound to. */
+    private static final ConcurrentMap<Class<?>, JAXBContext> JAXB_CONTEXTS = new ConcurrentHashMap<>();
+
+    /** The unmarshallers of the current thread, keyed by bound type. */
+    private static final ThreadLocal<Map<Class<?>, Unmarshaller>> UNMARSHALLERS = new ThreadLocal<Map<Class<?>, Unmarshaller>>() {
+
+        @Override
+        protected Map<Class<?>, Unmarshaller> initialValue() {
+            return new HashMap<>();
+        }
+    };
+
+    /** The marshallers of the current thread, keyed by bound type. */
+    private static final ThreadLocal<Map<Class<?>, Marshaller>> MARSHALLERS = new ThreadLocal<Map<Class<?>, Marshaller>>() {
+
+        @Override
+        protected Map<Class<?>, Marshaller> initialValue() {
+            return new HashMap<>();
+        }
+    };
+
+    /**
+     * Returns the shared {@code JAXBContext} of a bound type, creating it on
+     * first use.
+     *
+     * @param boundType
+     *            the type bound to XML
+     * @return the JAXB context of the type
+     * @throws JAXBException
+     *             Thrown if the context cannot be created.
+     */
+    static JAXBContext getJaxbContext(final Class<?> boundType) throws JAXBException {
+        JAXBContext context = JAXB_CONTEXTS.get(boundType);
+        if (context == null) {
+            context = JAXBContext.newInstance(boundType);
+            final JAXBContext existingContext = JAXB_CONTEXTS.putIfAbsent(boundType, context);
+            if (existingContext != null) {
+                context = existingContext;
+            }
+        }
+        return context;
+    }
+
+    private static Unmarshaller getUnmarshaller(final Class<?> boundType) throws JAXBException {
+        final Map<Class<?>, Unmarshaller> unmarshallers = UNMARSHALLERS.get();
+        Unmarshaller unmarshaller = unmarshallers.get(boundType);
+        if (unmarshaller == null) {
+            unmarshaller = getJaxbContext(boundType).createUnmarshaller();
+            unmarshallers.put(boundType, unmarshaller);
+        }
+        return unmarshaller;
+    }
+
+    private static Marshaller getMarshaller(final Class<?> boundType) throws JAXBException {
+        final Map<Class<?>, Marshaller> marshallers = MARSHALLERS.get();
+        Marshaller marshaller = marshallers.get(boundType);
+        if (marshaller == null) {
+            marshaller = getJaxbContext(boundType).createMarshaller();
+            marshallers.put(boundType, marshaller);
+        }
+        return marshaller;
+    }
+
     /**
      * Creates an {@code XMLReader} object, which is used for reading XML files.
      *
@@ -95,7 +166,7 @@ public class MomParserUtil {
         final InputSource inSrc = new InputSource(new java.io.FileInputStream(xmlFile));
         inSrc.setSystemId(dtdFile);
         final SAXSource source = new SAXSource(MomParserUtil.getXmlReader(false), inSrc);
-        final Unmarshaller unmarshaller = JAXBContext.newInstance(classToBeBound).createUnmarshaller();
+        final Unmarshaller unmarshaller = getUnmarshaller(classToBeBound);
         return (T) unmarshaller.unmarshal(source);
     }
 
@@ -128,8 +199,7 @@ public class MomParserUtil {
      */
     public static <T> T unmarshal(final String xmlFile, final Class<T> classToBeBound) throws JAXBException {
         final File file = new File(xmlFile);
-        final JAXBContext jaxbContext = JAXBContext.newInstance(classToBeBound);
-        final Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
+        final Unmarshaller jaxbUnmarshaller = getUnmarshaller(classToBeBound);
         return (T) jaxbUnmarshaller.unmarshal(file);
     }
 
@@ -145,8 +215,7 @@ public class MomParserUtil {
      *             Thrown if binding the XML data fails.
      */
     public static void marshal(final Object marshaledObject, final String xmlFileURI) throws JAXBException {
-        final JAXBContext context = JAXBContext.newInstance(marshaledObject.getClass());
-        final Marshaller marsheller = context.createMarshaller();
+        final Marshaller marsheller = getMarshaller(marshaledObject.getClass());
         marsheller.marshal(marshaledObject, new File(xmlFileURI + ".xml"));
 
     }
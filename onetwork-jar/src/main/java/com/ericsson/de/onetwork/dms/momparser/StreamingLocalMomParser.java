@@ -0,0 +1,432 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.dms.momparser;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.SAXException;
+
+import com.ericsson.de.onetwork.dms.generics.Platform;
+import com.ericsson.de.onetwork.dms.momparser.schema.config.MomParserConfig;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Attribute;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Cardinality;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Child;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Class;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Containment;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.DataType;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.DefaultValue;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.HasClass;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Max;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Min;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Parent;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Relationship;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Sequence;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.SystemCreated;
+import com.ericsson.de.onetwork.dms.util.MoFormatter;
+
+/**
+ * Parses CPP and ECIM data by streaming the MOM XML with StAX rather than
+ * binding the whole document to the mp.dtd object model.
+ * <p>
+ * Only the artifacts used to build a MIM model are created: classes with
+ * their system created flag and attributes, the data type and default value
+ * of each attribute, and relationships with their containment and cardinality.
+ * Descriptions, dependencies, actions, counters, enums, structs and derived
+ * data types are skipped as they are read, so the parsed artifacts are the
+ * same as those of {@link CppLocalMomParser} and {@link EcimLocalMomParser}
+ * after trimming, without the rest of the document being held in memory.
+ * <p>
+ * As enums, structs and derived data types are not created, they are neither
+ * returned nor exported by this parser.
+ *
+ * @author eagent
+ */
+public class StreamingLocalMomParser extends BaseLocalMomParser {
+
+    private final static Logger logger = LoggerFactory.getLogger(StreamingLocalMomParser.class);
+
+    private static final String MPDTD_PACKAGE = Class.class.getPackage().getName();
+
+    private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+
+    /** The simple names of the mp.dtd classes which a {@code dataType} holds. */
+    private static final Set<String> DATA_TYPE_CLASS_NAMES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "Integer", "Boolean", "Octet", "Char", "Double", "Float", "Long", "Longlong", "Short", "String", "Wstring", "Int8", "Int16", "Int32",
+            "Int64", "Uint8", "Uint16", "Uint32", "Uint64", "Decimal64", "EnumRef", "MoRef", "StructRef", "DerivedDataTypeRef", "Sequence")));
+
+    /** The mp.dtd classes of the data type elements, by element name. */
+    private static final ConcurrentMap<String, java.lang.Class<?>> DATA_TYPE_CLASSES = new ConcurrentHashMap<>();
+
+    private static final String MIM = "mim";
+    private static final String INTER_MIM = "interMim";
+    private static final String CLASS = "class";
+    private static final String SYSTEM_CREATED = "systemCreated";
+    private static final String ATTRIBUTE = "attribute";
+    private static final String DATA_TYPE = "dataType";
+    private static final String DEFAULT_VALUE = "defaultValue";
+    private static final String RELATIONSHIP = "relationship";
+    private static final String CONTAINMENT = "containment";
+    private static final String PARENT = "parent";
+    private static final String CHILD = "child";
+    private static final String HAS_CLASS = "hasClass";
+    private static final String CARDINALITY = "cardinality";
+    private static final String MIN = "min";
+    private static final String MAX = "max";
+    private static final String NAME = "name";
+
+    /** Whether class names are prefixed with the name of their MIM. */
+    private final boolean namespaced;
+
+    /**
+     * Instantiates a new streaming MOM parser using a MOM file, or a folder of
+     * MOM fragment files, and an mp.dtd file as inputs.
+     *
+     * @param momUri
+     *            the MOM file path, or the MOM fragment folder path for ECIM
+     * @param mpDtd
+     *            the mp.dtd file path, against which the DOCTYPE of the MOM
+     *            files is resolved
+     * @param outputDir
+     *            the output directory for the exported XML files
+     * @param platform
+     *            the platform of the MOM; ECIM class names are prefixed with
+     *            the name of their MIM
+     * @throws FileNotFoundException
+     *             Thrown if the MOM file does not exist.
+     * @throws SAXException
+     *             Thrown if parsing fails.
+     */
+    public StreamingLocalMomParser(final String momUri, final String mpDtd, final String outputDir, final Platform platform)
+            throws FileNotFoundException, SAXException {
+        logger.debug("Streaming parsing using ( momUri = {}, dtdFile = {}, outputDirectory = {} )", momUri, mpDtd, outputDir);
+        super.outputDirectory = outputDir;
+        namespaced = platform == Platform.COMECIM;
+
+        final File mom = new File(momUri);
+        final File[] momFiles = mom.isDirectory() ? mom.listFiles() : new File[] { mom };
+        if (momFiles == null) {
+            throw new FileNotFoundException("MOM folder could not be read: " + momUri);
+        }
+        // fragments are merged in the order of their file names
+        Arrays.sort(momFiles);
+
+        for (final File momFile : momFiles) {
+            parse(momFile, mpDtd);
+        }
+    }
+
+    /**
+     * Instantiates a new streaming MOM parser using a {@code MomParserConfig}
+     * object as an input.
+     *
+     * @param momConfig
+     *            the MOM configuration object.
+     * @param platform
+     *            the platform of the MOM
+     * @throws FileNotFoundException
+     *             Thrown if the MOM file in the {@code MomParserConfig}
+     *             object does not exist.
+     * @throws SAXException
+     *             Thrown if parsing fails.
+     */
+    public StreamingLocalMomParser(final MomParserConfig momConfig, final Platform platform) throws FileNotFoundException, SAXException {
+        this(momConfig.getInput().getMomURI(), momConfig.getInput().getMpDtdURI(), momConfig.getOutput().getMomPool(), platform);
+        super.outputDirectory =
+                momConfig.getOutput().getMomPool()
+                        + File.separator + momConfig.getPlatformType()
+                        + File.separator + momConfig.getNodeType()
+                        + File.separator + momConfig.getOutput().getVersion()
+                        + File.separator;
+    }
+
+    private void parse(final File momFile, final String mpDtd) throws FileNotFoundException, SAXException {
+        logger.debug("Streaming {} MOM XML", momFile.getAbsolutePath());
+        try (final InputStream in = new BufferedInputStream(new FileInputStream(momFile))) {
+            final XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(getSystemId(momFile, mpDtd), in);
+            try {
+                readModels(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (final FileNotFoundException e) {
+            throw e;
+        } catch (final XMLStreamException | IOException e) {
+            throw new SAXException("Could not parse MOM XML " + momFile.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Relative DOCTYPE declarations are resolved against the mp.dtd file, as
+     * they are when the MOM XML is bound by JAXB.
+     */
+    private static String getSystemId(final File momFile, final String mpDtd) {
+        return new File(null == mpDtd ? momFile.getPath() : mpDtd).toURI().toString();
+    }
+
+    private void readModels(final XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                final String elementName = reader.getLocalName();
+                if (MIM.equals(elementName)) {
+                    readMim(reader, reader.getAttributeValue(null, NAME));
+                } else if (INTER_MIM.equals(elementName)) {
+                    readMim(reader, null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the classes and relationships of a {@code mim} or {@code interMim}
+     * element, skipping all its other content.
+     */
+    private void readMim(final XMLStreamReader reader, final String mimName) throws XMLStreamException {
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            final String elementName = reader.getLocalName();
+            if (CLASS.equals(elementName) && null != mimName) {
+                final Class mimClass = readClass(reader, mimName);
+                mimClasses.put(MoFormatter.removeComEcimNamespaceFrom(mimClass.getName()), mimClass);
+            } else if (RELATIONSHIP.equals(elementName)) {
+                final Relationship relationship = readRelationship(reader);
+                mimRelationships.put(MoFormatter.removeComEcimNamespaceFrom(relationship.getName()), relationship);
+            } else {
+                skipElement(reader);
+            }
+        }
+    }
+
+    private Class readClass(final XMLStreamReader reader, final String mimName) throws XMLStreamException {
+        final Class mimClass = new Class();
+        final String className = reader.getAttributeValue(null, NAME);
+        mimClass.setName(namespaced ? mimName + ":" + className : className);
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            final String elementName = reader.getLocalName();
+            if (SYSTEM_CREATED.equals(elementName)) {
+                mimClass.setSystemCreated(new SystemCreated());
+                skipElement(reader);
+            } else if (ATTRIBUTE.equals(elementName)) {
+                mimClass.getActionOrAttribute().add(readAttribute(reader));
+            } else {
+                skipElement(reader);
+            }
+        }
+        return mimClass;
+    }
+
+    private static Attribute readAttribute(final XMLStreamReader reader) throws XMLStreamException {
+        final Attribute attribute = new Attribute();
+        attribute.setName(reader.getAttributeValue(null, NAME));
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if (DATA_TYPE.equals(reader.getLocalName())) {
+                attribute.setDataType(readDataType(reader));
+            } else {
+                skipElement(reader);
+            }
+        }
+        return attribute;
+    }
+
+    private static DataType readDataType(final XMLStreamReader reader) throws XMLStreamException {
+        final DataType dataType = new DataType();
+        final List<Object> dataTypes =
+                dataType.getIntegerOrBooleanOrOctetOrCharOrDoubleOrFloatOrLongOrLonglongOrShortOrStringOrWstringOrInt8OrInt16OrInt32OrInt64OrUint8OrUint16OrUint32OrUint64OrDecimal64OrEnumRefOrMoRefOrStructRefOrDerivedDataTypeRefOrSequence();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            final Object dataTypeContent = readDataTypeContent(reader);
+            if (null != dataTypeContent) {
+                dataTypes.add(dataTypeContent);
+            }
+        }
+        return dataType;
+    }
+
+    /**
+     * Reads a data type element, such as {@code integer} or {@code sequence},
+     * keeping only its default value and, for a sequence, its element types.
+     */
+    private static Object readDataTypeContent(final XMLStreamReader reader) throws XMLStreamException {
+        final String elementName = reader.getLocalName();
+        final java.lang.Class<?> dataTypeClass = getDataTypeClass(elementName);
+        if (null == dataTypeClass) {
+            skipElement(reader);
+            return null;
+        }
+        final Object dataTypeContent = newInstance(dataTypeClass);
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if (DEFAULT_VALUE.equals(reader.getLocalName())) {
+                final DefaultValue defaultValue = new DefaultValue();
+                defaultValue.setvalue(reader.getElementText());
+                setDefaultValue(dataTypeContent, defaultValue);
+            } else if (dataTypeContent instanceof Sequence) {
+                final Object elementDataType = readDataTypeContent(reader);
+                if (null != elementDataType) {
+                    ((Sequence) dataTypeContent)
+                            .getIntegerOrBooleanOrOctetOrCharOrDoubleOrFloatOrLongOrLonglongOrShortOrStringOrWstringOrInt8OrInt16OrInt32OrInt64OrUint8OrUint16OrUint32OrUint64OrDecimal64OrEnumRefOrMoRefOrStructRefOrDerivedDataTypeRef()
+                            .add(elementDataType);
+                }
+            } else {
+                skipElement(reader);
+            }
+        }
+        return dataTypeContent;
+    }
+
+    private static Relationship readRelationship(final XMLStreamReader reader) throws XMLStreamException {
+        final Relationship relationship = new Relationship();
+        relationship.setName(reader.getAttributeValue(null, NAME));
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if (CONTAINMENT.equals(reader.getLocalName())) {
+                relationship.getBiDirectionalAssociationOrUniDirectionalAssociationOrContainmentOrInheritance().add(readContainment(reader));
+            } else {
+                skipElement(reader);
+            }
+        }
+        return relationship;
+    }
+
+    private static Containment readContainment(final XMLStreamReader reader) throws XMLStreamException {
+        final Containment containment = new Containment();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            final String elementName = reader.getLocalName();
+            if (PARENT.equals(elementName)) {
+                final Parent parent = new Parent();
+                parent.setHasClass(readEnd(reader, null));
+                containment.setParent(parent);
+            } else if (CHILD.equals(elementName)) {
+                final Child child = new Child();
+                child.setHasClass(readEnd(reader, child));
+                containment.getChild().add(child);
+            } else {
+                skipElement(reader);
+            }
+        }
+        return containment;
+    }
+
+    /**
+     * Reads the class of a {@code parent} or {@code child} element and, for a
+     * child, its cardinality.
+     */
+    private static HasClass readEnd(final XMLStreamReader reader, final Child child) throws XMLStreamException {
+        HasClass hasClass = null;
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            final String elementName = reader.getLocalName();
+            if (HAS_CLASS.equals(elementName)) {
+                hasClass = new HasClass();
+                hasClass.setName(reader.getAttributeValue(null, NAME));
+                skipElement(reader);
+            } else if (CARDINALITY.equals(elementName) && null != child) {
+                child.setCardinality(readCardinality(reader));
+            } else {
+                skipElement(reader);
+            }
+        }
+        return hasClass;
+    }
+
+    private static Cardinality readCardinality(final XMLStreamReader reader) throws XMLStreamException {
+        final Cardinality cardinality = new Cardinality();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            final String elementName = reader.getLocalName();
+            if (MIN.equals(elementName)) {
+                final Min min = new Min();
+                min.setvalue(reader.getElementText());
+                cardinality.getMinOrMax().add(min);
+            } else if (MAX.equals(elementName)) {
+                final Max max = new Max();
+                max.setvalue(reader.getElementText());
+                cardinality.getMinOrMax().add(max);
+            } else {
+                skipElement(reader);
+            }
+        }
+        return cardinality;
+    }
+
+    /**
+     * Skips the current element and all its content, leaving the reader on
+     * its end tag.
+     */
+    private static void skipElement(final XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Returns the mp.dtd class of a data type element, or null if the element
+     * is not a data type, e.g. {@code minLength} within a sequence.
+     */
+    private static java.lang.Class<?> getDataTypeClass(final String elementName) {
+        java.lang.Class<?> dataTypeClass = DATA_TYPE_CLASSES.get(elementName);
+        if (null == dataTypeClass) {
+            final String className = MPDTD_PACKAGE + "." + Character.toUpperCase(elementName.charAt(0)) + elementName.substring(1);
+            try {
+                dataTypeClass = java.lang.Class.forName(className);
+            } catch (final ClassNotFoundException e) {
+                dataTypeClass = Void.class;
+            }
+            if (!isDataTypeClass(dataTypeClass)) {
+                dataTypeClass = Void.class;
+            }
+            DATA_TYPE_CLASSES.putIfAbsent(elementName, dataTypeClass);
+        }
+        return Void.class == dataTypeClass ? null : dataTypeClass;
+    }
+
+    private static boolean isDataTypeClass(final java.lang.Class<?> dataTypeClass) {
+        return DATA_TYPE_CLASS_NAMES.contains(dataTypeClass.getSimpleName());
+    }
+
+    private static Object newInstance(final java.lang.Class<?> dataTypeClass) {
+        try {
+            return dataTypeClass.newInstance();
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create data type " + dataTypeClass.getName(), e);
+        }
+    }
+
+    private static void setDefaultValue(final Object dataTypeContent, final DefaultValue defaultValue) {
+        try {
+            dataTypeContent.getClass().getMethod("setDefaultValue", DefaultValue.class).invoke(dataTypeContent, defaultValue);
+        } catch (final NoSuchMethodException e) {
+            // the data type has no default value, e.g. a moRef
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not set default value of data type " + dataTypeContent.getClass().getName(), e);
+        }
+    }
+}
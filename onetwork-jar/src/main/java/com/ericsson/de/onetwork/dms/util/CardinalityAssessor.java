@@ -12,12 +12,13 @@
 
 package com.ericsson.de.onetwork.dms.util;
 
-import java.util.Collection;
 import java.util.List;
 
 import com.ericsson.de.onetwork.dms.MimDataStorage;
+import com.ericsson.de.onetwork.dms.MimModel;
 import com.ericsson.de.onetwork.dms.exceptions.InvalidChildException;
 import com.ericsson.de.onetwork.dms.generics.Mo;
+import com.ericsson.de.onetwork.dms.mo.CardinalityBounds;
 import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Child;
 import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Containment;
 import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Max;
@@ -37,7 +38,7 @@ public class CardinalityAssessor {
      * If the MOM does not contain a max/min relationship cardinality, then a
      * default value is returned and later processed.
      */
-    private static final long NO_CARDINALITY_DEFINED_INDICATOR = 0;
+    private static final long NO_CARDINALITY_DEFINED_INDICATOR = CardinalityBounds.NO_CARDINALITY_DEFINED_INDICATOR;
 
     /**
      * Returns the minimum number of {@link Mo} objects of a specified moType
@@ -112,14 +113,30 @@ public class CardinalityAssessor {
      *             thrown when the requested {@code Mo} type is not a child of
      *             the parent {@code Mo}
      */
-    public static boolean isMaxCardinalityExceeded(final String moType, final Mo parentMo) throws InvalidChildException {
-        final Relationship relationship = MimDataStorage.getRelatonshipByParentAndChildMoTypes(parentMo.getType(), moType);
-        final long maxCardinality = getMaxCardinality(relationship);
-        if (NO_CARDINALITY_DEFINED_INDICATOR == maxCardinality) {
-            return false;
-        }
-        final Collection<Mo> childrenByType = parentMo.getChildrenByType(moType);
-        final long currentNumberOfChildrenByType = childrenByType.size();
-        return currentNumberOfChildrenByType >= maxCardinality;
+    public static boolean isMaxCardinalityExceeded(final String mimVersion, final String moType, final Mo parentMo) throws InvalidChildException {
+        final CardinalityBounds cardinalityBounds =
+                MimDataStorage.getCardinalityBoundsByParentAndChildMoTypes(mimVersion, parentMo.getType(), moType);
+        return cardinalityBounds.isMaxCardinalityExceeded(parentMo.getNumberOfChildrenByType(moType));
+    }
+
+    /**
+     * Returns a boolean value based on whether the maximum cardinality has been
+     * exceeded for specific {@link Mo} type on a given parent {@code Mo}.
+     *
+     * @param mimModel
+     *            the model of the underlying node
+     * @param moType
+     *            the type of managed object
+     * @param parentMo
+     *            the parent {@link Mo}
+     * @return a boolean that indicates if the maximum cardinality has been
+     *         exceeded
+     * @throws InvalidChildException
+     *             thrown when the requested {@code Mo} type is not a child of
+     *             the parent {@code Mo}
+     */
+    public static boolean isMaxCardinalityExceeded(final MimModel mimModel, final String moType, final Mo parentMo) throws InvalidChildException {
+        final CardinalityBounds cardinalityBounds = mimModel.getCardinalityBounds(parentMo.getType(), moType);
+        return cardinalityBounds.isMaxCardinalityExceeded(parentMo.getNumberOfChildrenByType(moType));
     }
 }
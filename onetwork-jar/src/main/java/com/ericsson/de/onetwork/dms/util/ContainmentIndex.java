@@ -0,0 +1,116 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.dms.util;
+
+import static com.ericsson.de.onetwork.dms.constants.RelationshipConstants.NO_PARENT_FOUND_INDICATOR;
+import static com.ericsson.de.onetwork.dms.constants.RelationshipConstants.RELATIONSHIP_CHILD_TYPE_INDEX;
+import static com.ericsson.de.onetwork.dms.constants.RelationshipConstants.RELATIONSHIP_PARENT_TYPE_INDEX;
+import static com.ericsson.de.onetwork.dms.constants.RelationshipConstants.RELATIONSHIP_SEPARATOR;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ericsson.de.onetwork.dms.generics.Mo;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Relationship;
+
+/**
+ * Parent to children and child to parent lookup of {@link Mo} types, built
+ * once from the containment {@link Relationship}s of a MIM.
+ * <p>
+ * Keys are {@code Mo} types with any COM-ECIM namespace removed. The parent
+ * returned for a child type is the raw parent component of the first
+ * relationship found for it, matching a scan of the same collection.
+ *
+ * @author eagent
+ * @since 1Network_15.14
+ */
+public final class ContainmentIndex {
+
+    private final Map<String, List<String>> parentToChildTypes;
+    private final Map<String, String> childToParentType;
+
+    private ContainmentIndex(final Map<String, List<String>> parentToChildTypes, final Map<String, String> childToParentType) {
+        this.parentToChildTypes = parentToChildTypes;
+        this.childToParentType = childToParentType;
+    }
+
+    /**
+     * Builds the index from the relationships of a MIM.
+     *
+     * @param relationships
+     *            the containment relationships of the MIM
+     * @return an index of parent and child {@code Mo} types
+     */
+    public static ContainmentIndex build(final Collection<Relationship> relationships) {
+        final Map<String, List<String>> parentToChildTypes = new HashMap<>();
+        final Map<String, String> childToParentType = new HashMap<>();
+
+        for (final Relationship relationship : relationships) {
+            final String[] relationshipComponents = relationship.getName().split(RELATIONSHIP_SEPARATOR);
+            final String rawParentType = relationshipComponents[RELATIONSHIP_PARENT_TYPE_INDEX];
+            final String parentType = MoFormatter.removeComEcimNamespaceFrom(rawParentType);
+            final String childType = MoFormatter.removeComEcimNamespaceFrom(relationshipComponents[RELATIONSHIP_CHILD_TYPE_INDEX]);
+
+            List<String> childTypes = parentToChildTypes.get(parentType);
+            if (childTypes == null) {
+                childTypes = new ArrayList<>();
+                parentToChildTypes.put(parentType, childTypes);
+            }
+            childTypes.add(childType);
+
+            if (!childToParentType.containsKey(childType)) {
+                childToParentType.put(childType, rawParentType);
+            }
+        }
+
+        for (final Map.Entry<String, List<String>> entry : parentToChildTypes.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        return new ContainmentIndex(parentToChildTypes, childToParentType);
+    }
+
+    /**
+     * Returns the valid child types of the given {@link Mo} type.
+     *
+     * @param moType
+     *            the type of managed object, without namespace
+     * @return an unmodifiable list of child types, empty if there are none
+     */
+    public List<String> getChildMoTypes(final String moType) {
+        final List<String> childTypes = parentToChildTypes.get(moType);
+        if (childTypes == null) {
+            return Collections.emptyList();
+        }
+        return childTypes;
+    }
+
+    /**
+     * Returns the parent type of the given {@link Mo} type.
+     *
+     * @param moType
+     *            the type of managed object, without namespace
+     * @return the parent type as named in the relationship, or
+     *         {@code NO_PARENT_FOUND_INDICATOR} if the type has no parent
+     */
+    public String getParentMoType(final String moType) {
+        final String parentType = childToParentType.get(moType);
+        if (parentType == null) {
+            return NO_PARENT_FOUND_INDICATOR;
+        }
+        return parentType;
+    }
+}
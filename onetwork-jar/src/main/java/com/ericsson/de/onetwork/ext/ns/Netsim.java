@@ -20,6 +20,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.ericsson.de.onetwork.ss.util.SshClient;
+import com.ericsson.de.onetwork.ss.util.SshSessionPool;
 import com.ericsson.de.onetwork.util.ServerUtility;
 
 /**
@@ -101,10 +102,9 @@ public class Netsim {
 
         logger.info("Start upgrading NETSim server({})", ONENETWORK_NETSIM_BUILD_SERVER);
 
-        final SshClient sshClient = new SshClient();
+        final SshClient sshClient = acquireSshClient();
 
         try {
-            authenticateAndConnectToRemoteServer(sshClient);
             logger.info("Connection established to the NETSim server({})", ONENETWORK_NETSIM_BUILD_SERVER);
 
             if (checkForSimdepCodeExistenceOnGivenClient(sshClient)) {
@@ -122,7 +122,7 @@ public class Netsim {
             }
 
         } finally {
-            sshClient.close();
+            SshSessionPool.getDefaultPool().release(sshClient);
         }
     }
 
@@ -131,17 +131,9 @@ public class Netsim {
         return sshClient.executeCommand(cmdToCheckExitenceOfSimDepCodeOnServer) == SUCCESFUL;
     }
 
-    private static void authenticateAndConnectToRemoteServer(final SshClient sshClient) throws IOException {
-        sshClient.authUserPassword(ONENETWORK_NETSIM_BUILD_SERVER_USER, ONENETWORK_NETSIM_BUILD_SERVER_PWD);
-
-        if (ServerUtility.isRunningOnWindowsServer()
-                || ServerUtility.isRunningOnJenkinsServer()) {
-            sshClient.connectThroughDefaultTunnel(ONENETWORK_NETSIM_BUILD_SERVER);
-        } else if (ServerUtility.isRunningOnProductionNetsimServer()
-                || ServerUtility.isRunningOnNetsimServerApartFromProductionServer()) {
-            sshClient.connect(ONENETWORK_NETSIM_BUILD_SERVER);
-        } else {
-            sshClient.connect(ONENETWORK_NETSIM_BUILD_SERVER);
-        }
+    private static SshClient acquireSshClient() throws IOException {
+        final boolean tunneled = ServerUtility.isRunningOnWindowsServer() || ServerUtility.isRunningOnJenkinsServer();
+        return SshSessionPool.getDefaultPool().acquire(ONENETWORK_NETSIM_BUILD_SERVER, ONENETWORK_NETSIM_BUILD_SERVER_USER,
+                ONENETWORK_NETSIM_BUILD_SERVER_PWD, tunneled);
     }
 }
@@ -0,0 +1,335 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2013
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+
+package com.ericsson.de.onetwork.ss;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.de.onetwork.ss.util.CommandExecutor;
+import com.ericsson.de.onetwork.ss.util.CommandOutputListener;
+import com.ericsson.de.onetwork.util.ParallelTasks;
+
+/**
+ * Builds simulations on NETSim by running the MML script of each simulation
+ * through its own netsim_pipe session, several at the same time. A
+ * simulation is built successfully when netsim_pipe exits with 0 and prints
+ * {@code OK} as its last line. The status of each simulation is tracked, and
+ * failed simulations are retried on their own.
+ *
+ * @author eagent
+ */
+public class NetsimPipeSimBuilder {
+
+    private final static Logger logger = LoggerFactory.getLogger(NetsimPipeSimBuilder.class);
+
+    /**
+     * System property used to set the number of netsim_pipe sessions that
+     * simulations are built through at the same time. Each session is an exec
+     * channel on the pooled ssh session, which is shared with the other users
+     * of the NETSim server, so at most {@value #MAX_SIM_BUILD_PARALLELISM} are
+     * opened.
+     */
+    public static final String SIM_BUILD_PARALLELISM_PROPERTY = "onetwork.sim.build.parallelism";
+
+    /**
+     * The most netsim_pipe sessions opened at the same time. The pooled ssh
+     * session limits the channels open on it to the MaxSessions of sshd, and
+     * callers beyond that wait for a channel. Keeping below the limit leaves
+     * channels for the commands and file copies of the other users of the
+     * session, so that they are not held up for a whole sim build.
+     */
+    public static final int MAX_SIM_BUILD_PARALLELISM = 8;
+
+    /**
+     * System property used to set the number of times the build of a
+     * simulation is attempted before it is reported as failed.
+     */
+    public static final String SIM_BUILD_ATTEMPTS_PROPERTY = "onetwork.sim.build.attempts";
+
+    /** Default location of netsim_pipe on a NETSim server */
+    public static final String DEFAULT_NETSIM_PIPE = "/netsim/inst/netsim_pipe";
+
+    private static final int DEFAULT_SIM_BUILD_PARALLELISM = 1;
+    private static final int DEFAULT_SIM_BUILD_ATTEMPTS = 1;
+    private static final String SUCCESS_OUTPUT = "OK";
+    private static final String MML_SCRIPT_FILE_EXTENSION = ".mml";
+
+    /** Runs netsim_pipe on the NETSim server */
+    private final CommandExecutor commandExecutor;
+
+    /** Folder holding the MML scripts on the NETSim server */
+    private final String scriptsFolder;
+
+    private String netsimPipe = DEFAULT_NETSIM_PIPE;
+
+    private int simBuildParallelism = getSimBuildParallelismProperty();
+
+    private int simBuildAttempts = Integer.getInteger(SIM_BUILD_ATTEMPTS_PROPERTY, DEFAULT_SIM_BUILD_ATTEMPTS);
+
+    /** Build status of each simulation, in the order they were requested */
+    private final Map<String, SimBuildStatus> simBuildStatuses = new LinkedHashMap<>();
+
+    /** Number of build attempts of each simulation */
+    private final Map<String, Integer> simBuildAttemptCounts = new LinkedHashMap<>();
+
+    /**
+     * Creates a builder running the MML scripts found in the given folder.
+     *
+     * @param commandExecutor
+     *            runs netsim_pipe on the NETSim server
+     * @param scriptsFolder
+     *            the folder holding the {@code <simName>.mml} scripts on the
+     *            NETSim server
+     */
+    public NetsimPipeSimBuilder(final CommandExecutor commandExecutor, final String scriptsFolder) {
+        this.commandExecutor = commandExecutor;
+        this.scriptsFolder = scriptsFolder;
+    }
+
+    /**
+     * Builds the given simulations, each of which is attempted up to the
+     * configured number of times.
+     *
+     * @param simNames
+     *            the names of the simulations, whose MML scripts are named
+     *            after them
+     * @return true if all simulations are built successfully, otherwise false
+     */
+    public boolean buildSims(final List<String> simNames) {
+        synchronized (simBuildStatuses) {
+            for (final String simName : simNames) {
+                simBuildStatuses.put(simName, SimBuildStatus.PENDING);
+            }
+        }
+        return runBuilds(simNames);
+    }
+
+    /**
+     * Builds again the simulations whose last build failed.
+     *
+     * @return true if all of them are built successfully this time, otherwise
+     *         false
+     */
+    public boolean retryFailedSims() {
+        return runBuilds(getFailedSims());
+    }
+
+    /**
+     * Builds again a single simulation.
+     *
+     * @param simName
+     *            the name of the simulation
+     * @return true if the simulation is built successfully, otherwise false
+     */
+    public boolean retrySim(final String simName) {
+        final List<String> simNames = new ArrayList<>();
+        simNames.add(simName);
+        return runBuilds(simNames);
+    }
+
+    /**
+     * Returns the build status of the given simulation.
+     *
+     * @param simName
+     *            the name of the simulation
+     * @return the build status, or null if the simulation was never requested
+     */
+    public SimBuildStatus getSimBuildStatus(final String simName) {
+        synchronized (simBuildStatuses) {
+            return simBuildStatuses.get(simName);
+        }
+    }
+
+    /**
+     * Returns the build status of each simulation, in the order they were
+     * requested.
+     *
+     * @return a copy of the build statuses
+     */
+    public Map<String, SimBuildStatus> getSimBuildStatuses() {
+        synchronized (simBuildStatuses) {
+            return new LinkedHashMap<>(simBuildStatuses);
+        }
+    }
+
+    /**
+     * Returns the number of times the build of the given simulation was
+     * attempted.
+     *
+     * @param simName
+     *            the name of the simulation
+     * @return the number of build attempts
+     */
+    public int getNumberOfAttempts(final String simName) {
+        synchronized (simBuildStatuses) {
+            final Integer attempts = simBuildAttemptCounts.get(simName);
+            return attempts == null ? 0 : attempts;
+        }
+    }
+
+    /**
+     * Returns the simulations whose last build failed.
+     *
+     * @return the names of the failed simulations
+     */
+    public List<String> getFailedSims() {
+        final List<String> failedSims = new ArrayList<>();
+        synchronized (simBuildStatuses) {
+            for (final Map.Entry<String, SimBuildStatus> entry : simBuildStatuses.entrySet()) {
+                if (entry.getValue() == SimBuildStatus.FAILED) {
+                    failedSims.add(entry.getKey());
+                }
+            }
+        }
+        return failedSims;
+    }
+
+    /**
+     * Sets the number of netsim_pipe sessions that simulations are built
+     * through at the same time.
+     *
+     * @param simBuildParallelism
+     *            the number of simulations built at the same time, from 1 to
+     *            {@value #MAX_SIM_BUILD_PARALLELISM}
+     */
+    public void setSimBuildParallelism(final int simBuildParallelism) {
+        if (simBuildParallelism < 1 || simBuildParallelism > MAX_SIM_BUILD_PARALLELISM) {
+            throw new IllegalArgumentException("Sim build parallelism must be from 1 to " + MAX_SIM_BUILD_PARALLELISM + ", but was "
+                    + simBuildParallelism);
+        }
+        this.simBuildParallelism = simBuildParallelism;
+    }
+
+    private static int getSimBuildParallelismProperty() {
+        final int simBuildParallelism = Integer.getInteger(SIM_BUILD_PARALLELISM_PROPERTY, DEFAULT_SIM_BUILD_PARALLELISM);
+        final int cappedSimBuildParallelism = Math.max(1, Math.min(simBuildParallelism, MAX_SIM_BUILD_PARALLELISM));
+        if (cappedSimBuildParallelism != simBuildParallelism) {
+            logger.warn("{}={} is out of range, {} netsim_pipe sessions are used", SIM_BUILD_PARALLELISM_PROPERTY, simBuildParallelism,
+                    cappedSimBuildParallelism);
+        }
+        return cappedSimBuildParallelism;
+    }
+
+    /**
+     * Sets the number of times the build of a simulation is attempted before
+     * it is reported as failed.
+     *
+     * @param simBuildAttempts
+     *            the number of build attempts per simulation
+     */
+    public void setSimBuildAttempts(final int simBuildAttempts) {
+        if (simBuildAttempts < 1) {
+            throw new IllegalArgumentException("Sim build attempts must be at least 1, but was " + simBuildAttempts);
+        }
+        this.simBuildAttempts = simBuildAttempts;
+    }
+
+    /**
+     * Sets the location of netsim_pipe on the NETSim server.
+     *
+     * @param netsimPipe
+     *            the path of netsim_pipe
+     */
+    public void setNetsimPipe(final String netsimPipe) {
+        this.netsimPipe = netsimPipe;
+    }
+
+    private boolean runBuilds(final List<String> simNames) {
+        final List<Boolean> results = ParallelTasks.map("sim-build", simNames, simBuildParallelism,
+                new ParallelTasks.Task<String, Boolean, RuntimeException>() {
+
+                    @Override
+                    public Boolean run(final int simIndex, final String simName) {
+                        return buildSim(simName);
+                    }
+                });
+        return !results.contains(Boolean.FALSE);
+    }
+
+    private boolean buildSim(final String simName) {
+        for (int attempt = 1; attempt <= simBuildAttempts; attempt++) {
+            setSimBuildStatus(simName, SimBuildStatus.RUNNING, true);
+            final boolean built = runNetsimPipe(simName, attempt);
+            setSimBuildStatus(simName, built ? SimBuildStatus.SUCCEEDED : SimBuildStatus.FAILED, false);
+            if (built) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean runNetsimPipe(final String simName, final int attempt) {
+        final String mmlScript = scriptsFolder.replace("\\", "/").replaceFirst("/*$", "/") + simName + MML_SCRIPT_FILE_EXTENSION;
+        final String cmdToRunMmlScript = netsimPipe + " < " + mmlScript;
+        logger.info("Building simulation {} (attempt {} of {})", simName, attempt, simBuildAttempts);
+
+        final LastLineListener listener = new LastLineListener(simName);
+        try {
+            final int exitStatus = commandExecutor.executeCommand(cmdToRunMmlScript, listener);
+            if (exitStatus == 0 && SUCCESS_OUTPUT.equals(listener.getLastOutputLine())) {
+                logger.info("Successfully built simulation {}", simName);
+                return true;
+            }
+            logger.error("Failed to build simulation {}: exitStatus={}, last output={}", simName, exitStatus, listener.getLastOutputLine());
+        } catch (final IOException ex) {
+            logger.error("Failed to build simulation {}: {}", simName, ex.getMessage());
+        }
+        return false;
+    }
+
+    private void setSimBuildStatus(final String simName, final SimBuildStatus simBuildStatus, final boolean newAttempt) {
+        synchronized (simBuildStatuses) {
+            simBuildStatuses.put(simName, simBuildStatus);
+            if (newAttempt) {
+                simBuildAttemptCounts.put(simName, getNumberOfAttempts(simName) + 1);
+            }
+        }
+    }
+
+    /**
+     * Logs the output of netsim_pipe and keeps its last non-empty line.
+     */
+    private static final class LastLineListener implements CommandOutputListener {
+
+        private final String simName;
+        private volatile String lastOutputLine;
+
+        LastLineListener(final String simName) {
+            this.simName = simName;
+        }
+
+        @Override
+        public void onOutputLine(final String line) {
+            logger.debug("{}: {}", simName, line);
+            if (!line.trim().isEmpty()) {
+                lastOutputLine = line.trim();
+            }
+        }
+
+        @Override
+        public void onErrorLine(final String line) {
+            logger.info("{} stderr: {}", simName, line);
+        }
+
+        String getLastOutputLine() {
+            return lastOutputLine;
+        }
+    }
+}
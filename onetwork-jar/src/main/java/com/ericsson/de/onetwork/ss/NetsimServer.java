@@ -0,0 +1,89 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2013
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+
+package com.ericsson.de.onetwork.ss;
+
+/**
+ * A NETSim server simulations are built on, with the credentials used to log
+ * in to it.
+ *
+ * @author eagent
+ */
+public final class NetsimServer {
+
+    private final String host;
+    private final String user;
+    private final String password;
+
+    /**
+     * Initialize newly created this object.
+     *
+     * @param host
+     *            the host name of the server
+     * @param user
+     *            the user name
+     * @param password
+     *            the user password
+     */
+    public NetsimServer(final String host, final String user, final String password) {
+        this.host = host;
+        this.user = user;
+        this.password = password;
+    }
+
+    /**
+     * Returns the host name of the server.
+     *
+     * @return the host name
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * Returns the user name used to log in to the server.
+     *
+     * @return the user name
+     */
+    public String getUser() {
+        return user;
+    }
+
+    /**
+     * Returns the password used to log in to the server.
+     *
+     * @return the password
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (!(other instanceof NetsimServer)) {
+            return false;
+        }
+        final NetsimServer netsimServer = (NetsimServer) other;
+        return host.equals(netsimServer.host) && user.equals(netsimServer.user);
+    }
+
+    @Override
+    public int hashCode() {
+        return host.hashCode() * 31 + user.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return user + "@" + host;
+    }
+}
@@ -0,0 +1,135 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2013
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+
+package com.ericsson.de.onetwork.ss;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The NETSim servers simulations are built on, read from the
+ * {@code /ss/netsim_build_servers.props} configuration file. The first server
+ * is the primary one, which the built simulations are collected onto.
+ *
+ * @author eagent
+ */
+public class NetsimServerPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(NetsimServerPool.class);
+
+    /**
+     * System property holding comma separated host names of build servers,
+     * which replace the ones in the configuration file.
+     */
+    public static final String BUILD_SERVERS_PROPERTY = "onetwork.netsim.build.servers";
+
+    static final String BUILD_SERVERS_KEY = "netsim_build_servers";
+    static final String BUILD_SERVER_USER_KEY = "netsim_build_server_user";
+    static final String BUILD_SERVER_PWD_KEY = "netsim_build_server_pwd";
+
+    private static final String CONFIG_FILE = "netsim_build_servers.props";
+
+    private static final NetsimServerPool DEFAULT_POOL = new NetsimServerPool(loadConfiguration(), System.getProperty(BUILD_SERVERS_PROPERTY));
+
+    private final List<NetsimServer> netsimServers;
+
+    /**
+     * Creates a pool of the given servers.
+     *
+     * @param netsimServers
+     *            the servers, starting with the primary one
+     */
+    public NetsimServerPool(final List<NetsimServer> netsimServers) {
+        if (netsimServers.isEmpty()) {
+            throw new IllegalArgumentException("At least one NETSim build server is required");
+        }
+        this.netsimServers = Collections.unmodifiableList(new ArrayList<>(netsimServers));
+    }
+
+    /**
+     * Creates a pool of the servers in the given configuration.
+     *
+     * @param config
+     *            the build server configuration
+     * @param hostsOverride
+     *            comma separated host names replacing the configured ones, or
+     *            null to use the configured ones
+     */
+    NetsimServerPool(final Properties config, final String hostsOverride) {
+        this(parseServers(config, hostsOverride));
+    }
+
+    /**
+     * Returns the build servers configured for this JVM.
+     *
+     * @return the configured pool
+     */
+    public static NetsimServerPool getDefaultPool() {
+        return DEFAULT_POOL;
+    }
+
+    /**
+     * Returns the build servers, starting with the primary one.
+     *
+     * @return the build servers
+     */
+    public List<NetsimServer> getNetsimServers() {
+        return netsimServers;
+    }
+
+    /**
+     * Returns the server the simulations are collected onto.
+     *
+     * @return the primary build server
+     */
+    public NetsimServer getPrimaryNetsimServer() {
+        return netsimServers.get(0);
+    }
+
+    private static List<NetsimServer> parseServers(final Properties config, final String hostsOverride) {
+        final String hosts = hostsOverride == null ? config.getProperty(BUILD_SERVERS_KEY, "") : hostsOverride;
+        final String user = config.getProperty(BUILD_SERVER_USER_KEY);
+        final String password = config.getProperty(BUILD_SERVER_PWD_KEY);
+
+        final List<NetsimServer> netsimServers = new ArrayList<>();
+        for (final String host : hosts.split(",")) {
+            if (!host.trim().isEmpty()) {
+                netsimServers.add(new NetsimServer(host.trim(), user, password));
+            }
+        }
+        logger.info("NETSim build servers: {}", netsimServers);
+        return netsimServers;
+    }
+
+    private static Properties loadConfiguration() {
+        final Properties defaultConfig = new Properties();
+        defaultConfig.setProperty(BUILD_SERVERS_KEY, "netsimv006-04.athtem.eei.ericsson.se");
+        defaultConfig.setProperty(BUILD_SERVER_USER_KEY, "netsim");
+        defaultConfig.setProperty(BUILD_SERVER_PWD_KEY, "netsim");
+
+        final Properties config = new Properties(defaultConfig);
+        try (final InputStream in = NetsimServerPool.class.getResourceAsStream("/ss/" + CONFIG_FILE)) {
+            config.load(in);
+        } catch (final IOException | NullPointerException e) {
+            logger.info("Default build servers are used, as {} could not be loaded: {}", CONFIG_FILE, e.getMessage());
+        }
+        return config;
+    }
+}
@@ -33,13 +33,28 @@ public class NetsimSimulator implements Simulator {
 
     private final static Logger logger = LoggerFactory.getLogger(NetsimSimulator.class);
 
+    /**
+     * System property which, when set to true, makes the MO script of each
+     * network element be written straight to its file instead of being held
+     * in memory until all sims are processed.
+     */
+    public static final String STREAMING_MO_SCRIPTS_PROPERTY = "onetwork.mo.scripts.streaming";
+
+    /**
+     * System property which, when set to true, makes the netsim scripts be
+     * uploaded to the netsim server as one tar.gz archive.
+     */
+    public static final String ARCHIVED_SCRIPTS_UPLOAD_PROPERTY = "onetwork.netsim.scripts.archived.upload";
+
     @Override
     public void simulateNetwork(final Network network) throws SimulationBuildFailedException {
 
         try {
             final List<Sim> sims = NetsimUtility.allocateSimulations(network);
 
-            populateMoScripts(sims);
+            if (!isStreamingMoScripts()) {
+                populateMoScripts(sims);
+            }
 
             populateMmlScripts(sims);
 
@@ -50,6 +65,10 @@ public class NetsimSimulator implements Simulator {
         }
     }
 
+    private static boolean isStreamingMoScripts() {
+        return Boolean.getBoolean(STREAMING_MO_SCRIPTS_PROPERTY);
+    }
+
     private void populateMoScripts(final List<Sim> sims) {
 
         final SimMoDataGenerator simMoDataGen = new SimMoDataGenerator();
@@ -74,13 +93,13 @@ public class NetsimSimulator implements Simulator {
     }
 
     private void buildSims(final List<Sim> sims) throws IOException, SimulationBuildFailedException {
-        final SimBuildManager sbm = new SimBuildManager();
-        sbm.setSims(sims);
-        logger.debug("Start of NETSim scripts creation locally!");
-        sbm.createNetsimScripts();
-        logger.debug("End of NETSim scripts creation locally!");
-
-        logger.debug("Start of building sims on NETSim!");
-        sbm.buildSimsInNetsim();
+        final NetsimServerPool netsimServerPool = NetsimServerPool.getDefaultPool();
+        final SimBuildScheduler simBuildScheduler = new SimBuildScheduler(netsimServerPool, isStreamingMoScripts(),
+                Boolean.getBoolean(ARCHIVED_SCRIPTS_UPLOAD_PROPERTY));
+
+        logger.debug("Start of building sims on NETSim servers {}!", netsimServerPool.getNetsimServers());
+        if (!simBuildScheduler.buildSims(sims)) {
+            logger.error("Failed to build sims on NETSim servers {}", netsimServerPool.getNetsimServers());
+        }
     }
 }
@@ -16,6 +16,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -24,6 +25,7 @@ import org.slf4j.LoggerFactory;
 
 import com.ericsson.de.onetwork.ss.util.FileUtils;
 import com.ericsson.de.onetwork.ss.util.SshClient;
+import com.ericsson.de.onetwork.ss.util.SshSessionPool;
 import com.ericsson.de.onetwork.util.ServerUtility;
 
 /**
@@ -41,17 +43,53 @@ public class SimBuildManager {
 
     private static String ONENETWORK_SS_SCRIPTS_FOLDER;
 
-    private static final String ONENETWORK_SIMULATION_BUILD_SCRIPT = "create_onenetwork_sims.sh";
-
-    private static final String ONENETWORK_NETSIM_BUILD_SERVER = "netsimv006-04.athtem.eei.ericsson.se";
-    private static final String ONENETWORK_NETSIM_BUILD_SERVER_USER = "netsim";
-    private static final String ONENETWORK_NETSIM_BUILD_SERVER_PWD = "netsim";
+    private static final String ONENETWORK_PORTS_CREATION_SCRIPT = "create_onenetwork_sim_ports.pl";
 
     private static int SUCCESFULLY_EXECUTED = 0;
 
+    /** Same exit code as the build script returns when a sim fails */
+    private static int SIM_BUILD_FAILED = 201;
+
+    /** The NETSim server the sims are built on */
+    private final NetsimServer netsimServer;
+
+    /** Local folder the netsim scripts are created in */
+    private String localScriptsFolder = ONENETWORK_NETSIM_SCRIPTS_FOLDER;
+
     /** Holds simulation list */
     private List<Sim> sims;
 
+    /**
+     * If true, the MO scripts are written straight from the MO trees of the
+     * network elements, instead of from the scripts held by each {@link Sim}.
+     */
+    private boolean streamingMoScripts = false;
+
+    /**
+     * If true, the netsim scripts are uploaded as one compressed archive
+     * instead of file by file.
+     */
+    private boolean archivedScriptsUpload = false;
+
+    /**
+     * Initialize newly created this object, building on the primary NETSim
+     * server of the {@link NetsimServerPool}.
+     */
+    public SimBuildManager() {
+        this(NetsimServerPool.getDefaultPool().getPrimaryNetsimServer());
+    }
+
+    /**
+     * Initialize newly created this object, building on the given NETSim
+     * server.
+     *
+     * @param netsimServer
+     *            the server the sims are built on
+     */
+    public SimBuildManager(final NetsimServer netsimServer) {
+        this.netsimServer = netsimServer;
+    }
+
     /**
      * Builds sims in NETSsim.
      *
@@ -76,16 +114,14 @@ public class SimBuildManager {
     private int cleanNetsimScriptsFolderOnProductionNetsimServer() throws IOException {
         logger.debug("Following folder is going to be deleted:" + ONENETWORK_NETSIM_SCRIPTS_FOLDER);
 
-        final SshClient sshClient = new SshClient();
+        final SshClient sshClient = acquireSshClient();
 
         try {
-            authenticateAndConnectToRemoteServer(sshClient);
-
             final String cmdToRemoveContentsOfOneNetworkNetsimScriptsFolder = "rm -rfv " + ONENETWORK_NETSIM_SCRIPTS_FOLDER + "/*";
             return sshClient.executeCommand(cmdToRemoveContentsOfOneNetworkNetsimScriptsFolder);
 
         } finally {
-            sshClient.close();
+            SshSessionPool.getDefaultPool().release(sshClient);
         }
     }
 
@@ -101,61 +137,66 @@ public class SimBuildManager {
     }
 
     private void copyLocalNetsimScriptsToProductionNetsimServer() throws IOException {
-        if (!ServerUtility.isRunningOnProductionNetsimServer()) {
+        if (!ServerUtility.isRunningOnServer(netsimServer.getHost()) || !localScriptsFolder.equals(ONENETWORK_NETSIM_SCRIPTS_FOLDER)) {
             copyFilesToRemoteNetsimServer();
         }
     }
 
-    private int executeScriptsOnProductionNetsimServer() throws IOException {
-        logger.info("Building simulations on netsim server...");
-
-        final SshClient sshClient = new SshClient();
+    private int executeScriptsOnProductionNetsimServer() throws IOException, SimulationBuildFailedException {
+        logger.info("Building simulations on netsim server {}...", netsimServer.getHost());
 
         final Path remoteDestPath = Paths.get(ONENETWORK_NETSIM_SCRIPTS_FOLDER);
 
-        try {
-            authenticateAndConnectToRemoteServer(sshClient);
+        final SshClient sshClient = acquireSshClient();
 
-            final String script = getScriptWithFullPath(remoteDestPath);
+        try {
+            final String portsScript = getScriptWithFullPath(remoteDestPath, ONENETWORK_PORTS_CREATION_SCRIPT);
 
-            final String cmdToExecuteScriptAfterMakeScriptsExecutableAndConvertThemToUnixFormat = "cd " + ONENETWORK_NETSIM_SCRIPTS_FOLDER
+            final String cmdToCreatePortsAfterMakeScriptsExecutableAndConvertThemToUnixFormat = "cd " + ONENETWORK_NETSIM_SCRIPTS_FOLDER
                     + "; chmod +x `find . -print | egrep -i 'sh|pl'`"
                     + "; dos2unix `find . -print | egrep -i 'sh|pl'`"
-                    + ";" + script;
+                    + ";" + portsScript;
+
+            // As before, the build carries on when the ports script fails,
+            // e.g. because the ports already exist on a rerun
+            final int portsResult = sshClient.executeCommand(cmdToCreatePortsAfterMakeScriptsExecutableAndConvertThemToUnixFormat);
+            if (portsResult != SUCCESFULLY_EXECUTED) {
+                logger.info("Ports script exited with {} on netsim server, building simulations anyway.", portsResult);
+            }
 
-            final int commandResult = sshClient.executeCommand(cmdToExecuteScriptAfterMakeScriptsExecutableAndConvertThemToUnixFormat);
+            final NetsimPipeSimBuilder simBuilder = new NetsimPipeSimBuilder(sshClient, ONENETWORK_NETSIM_SCRIPTS_FOLDER);
 
-            if (commandResult == 0) {
+            if (simBuilder.buildSims(getSimNames())) {
                 logger.info("Successfully built simulations on netsim server.");
+                return SUCCESFULLY_EXECUTED;
             } else {
-                logger.info("Failed to build simulations on netsim server.");
+                logger.info("Failed to build simulations on netsim server: {}", simBuilder.getFailedSims());
+                return SIM_BUILD_FAILED;
             }
 
-            return commandResult;
-
         } finally {
-            sshClient.close();
+            SshSessionPool.getDefaultPool().release(sshClient);
         }
     }
 
-    private String getScriptWithFullPath(final Path remoteDestPath) {
-        final String script = remoteDestPath.toString().replace("\\", "/") + "/" + ONENETWORK_SIMULATION_BUILD_SCRIPT;
+    private List<String> getSimNames() throws SimulationBuildFailedException {
+        final List<String> simNames = new ArrayList<>();
+        for (final Sim sim : getSims()) {
+            simNames.add(sim.getName());
+        }
+        return simNames;
+    }
+
+    private String getScriptWithFullPath(final Path remoteDestPath, final String scriptName) {
+        final String script = remoteDestPath.toString().replace("\\", "/") + "/" + scriptName;
         logger.debug("script:{}", script);
         return script;
     }
 
-    private void authenticateAndConnectToRemoteServer(final SshClient sshClient) throws IOException {
-        sshClient.authUserPassword(ONENETWORK_NETSIM_BUILD_SERVER_USER, ONENETWORK_NETSIM_BUILD_SERVER_PWD);
-
-        if (ServerUtility.isRunningOnWindowsServer()
-                || ServerUtility.isRunningOnJenkinsServer()) {
-            sshClient.connectThroughDefaultTunnel(ONENETWORK_NETSIM_BUILD_SERVER);
-        } else if (ServerUtility.isRunningOnProductionNetsimServer()
-                || ServerUtility.isRunningOnNetsimServerApartFromProductionServer()) {
-            sshClient.connect(ONENETWORK_NETSIM_BUILD_SERVER);
-        } else {
-            sshClient.connect(ONENETWORK_NETSIM_BUILD_SERVER);
-        }
+    private SshClient acquireSshClient() throws IOException {
+        final boolean tunneled = ServerUtility.isRunningOnWindowsServer() || ServerUtility.isRunningOnJenkinsServer();
+        return SshSessionPool.getDefaultPool().acquire(netsimServer.getHost(), netsimServer.getUser(), netsimServer.getPassword(),
+                tunneled);
     }
 
     /**
@@ -179,7 +220,7 @@ public class SimBuildManager {
     }
 
     private void createNetsimScriptsBaseDir() throws IOException {
-        final Path netsimFilesFolderPath = Paths.get(ONENETWORK_NETSIM_SCRIPTS_FOLDER);
+        final Path netsimFilesFolderPath = Paths.get(localScriptsFolder);
 
         if (Files.notExists(netsimFilesFolderPath)) {
             Files.createDirectories(netsimFilesFolderPath);
@@ -188,18 +229,26 @@ public class SimBuildManager {
     }
 
     private void createMoFiles(final List<Sim> sims) throws IOException {
-        for (final Sim sim : sims) {
-            createMoFilesPerSim(sim);
+        if (streamingMoScripts) {
+            final SimMoDataGenerator simMoDataGen = new SimMoDataGenerator();
+            final Path netsimFilesFolderPath = Paths.get(localScriptsFolder);
+            for (final Sim sim : sims) {
+                simMoDataGen.writeMoScriptFiles(sim, netsimFilesFolderPath);
+            }
+        } else {
+            for (final Sim sim : sims) {
+                createMoFilesPerSim(sim);
+            }
         }
     }
 
     private void createMoFilesPerSim(final Sim sim) {
         for (final Map.Entry<String, String> entry : sim.getNetworkElementToMoScriptMap().entrySet()) {
-            final String moScriptFileName = entry.getKey() + ".mo";
+            final String moScriptFileName = entry.getKey() + SimMoDataGenerator.MO_SCRIPT_FILE_EXTENSION;
             final String neMoScript = entry.getValue();
             logger.debug("\n{}=\n{}", moScriptFileName, neMoScript);
 
-            FileUtils.writeToFile(ONENETWORK_NETSIM_SCRIPTS_FOLDER, moScriptFileName, neMoScript);
+            FileUtils.writeToFile(localScriptsFolder, moScriptFileName, neMoScript);
         }
     }
 
@@ -214,31 +263,35 @@ public class SimBuildManager {
         final String mmlScript = sim.getMmlCmd();
         logger.debug("\n{}=\n{}", mmlScriptFileName, mmlScript);
 
-        FileUtils.writeToFile(ONENETWORK_NETSIM_SCRIPTS_FOLDER, mmlScriptFileName, mmlScript);
+        FileUtils.writeToFile(localScriptsFolder, mmlScriptFileName, mmlScript);
     }
 
     private void copyBuildScriptsToDefaultNetsimScriptsFolderLocally() throws IOException {
         setFileLocationsBasedOnServer();
         final Path scriptsFolderPath = Paths.get(ONENETWORK_SS_SCRIPTS_FOLDER);
-        final Path netsimFilesFolderPath = Paths.get(ONENETWORK_NETSIM_SCRIPTS_FOLDER);
+        final Path netsimFilesFolderPath = Paths.get(localScriptsFolder);
         FileUtils.copyFolderFiles(scriptsFolderPath, netsimFilesFolderPath);
     }
 
     private boolean copyFilesToRemoteNetsimServer() throws IOException {
 
         logger.info("Copying simulation scripts to netsim server...");
-        final SshClient sshClient = new SshClient();
 
-        final Path sourceFolderPath = Paths.get(ONENETWORK_NETSIM_SCRIPTS_FOLDER);
-        // for now both source and dest. folder the same
+        final Path sourceFolderPath = Paths.get(localScriptsFolder);
         final Path remoteDestPath = Paths.get(ONENETWORK_NETSIM_SCRIPTS_FOLDER);
 
         final List<Path> paths = FileUtils.getSourceFiles(sourceFolderPath);
 
-        try {
-            authenticateAndConnectToRemoteServer(sshClient);
+        final SshClient sshClient = acquireSshClient();
 
-            if (sshClient.copyFiles(paths, remoteDestPath)) {
+        try {
+            final boolean copied;
+            if (archivedScriptsUpload) {
+                copied = sshClient.copyFilesAsArchive(paths, remoteDestPath);
+            } else {
+                copied = sshClient.copyFiles(paths, remoteDestPath);
+            }
+            if (copied) {
                 logger.info("Successfully copied simulation scripts to netsim server.");
                 return true;
             } else {
@@ -247,7 +300,7 @@ public class SimBuildManager {
             }
 
         } finally {
-            sshClient.close();
+            SshSessionPool.getDefaultPool().release(sshClient);
         }
     }
 
@@ -274,4 +327,40 @@ public class SimBuildManager {
     public void setSims(final List<Sim> sims) {
         this.sims = sims;
     }
+
+    /**
+     * Sets whether the MO scripts are written straight from the MO trees of
+     * the network elements while the netsim scripts are created. In that case
+     * the MO scripts do not need to be loaded onto the sims beforehand.
+     *
+     * @param streamingMoScripts
+     *            true to write the MO scripts from the MO trees
+     */
+    public void setStreamingMoScripts(final boolean streamingMoScripts) {
+        this.streamingMoScripts = streamingMoScripts;
+    }
+
+    /**
+     * Sets whether the netsim scripts are copied to the netsim server as one
+     * tar.gz archive, extracted remotely, instead of one sftp upload per
+     * file.
+     *
+     * @param archivedScriptsUpload
+     *            true to upload the scripts as one archive
+     */
+    public void setArchivedScriptsUpload(final boolean archivedScriptsUpload) {
+        this.archivedScriptsUpload = archivedScriptsUpload;
+    }
+
+    /**
+     * Sets the local folder the netsim scripts are created in, before they
+     * are copied to the NETSim server. Needed when sims are built on several
+     * servers at the same time.
+     *
+     * @param localScriptsFolder
+     *            the local scripts folder
+     */
+    public void setLocalScriptsFolder(final String localScriptsFolder) {
+        this.localScriptsFolder = localScriptsFolder;
+    }
 }
@@ -0,0 +1,327 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2013
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.ss;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.de.onetwork.ss.util.SshClient;
+import com.ericsson.de.onetwork.ss.util.SshSessionPool;
+import com.ericsson.de.onetwork.util.ParallelTasks;
+import com.ericsson.de.onetwork.util.ServerUtility;
+
+/**
+ * Shares the building of simulations out across the NETSim servers of a
+ * {@link NetsimServerPool}. Each simulation is assigned to the server with the
+ * fewest network elements so far, largest simulations first, and all servers
+ * build their simulations at the same time. The simulation zips built on the
+ * other servers are then collected onto the primary server.
+ *
+ * @author eagent
+ */
+public class SimBuildScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimBuildScheduler.class);
+
+    /** Folder NETSim saves the simulation zips in */
+    static final String NETSIM_SIMULATIONS_FOLDER = "/netsim/netsimdir/";
+
+    /** Local parent folder of the netsim scripts of each server, when sharded */
+    private static final String SHARDED_SCRIPTS_FOLDER = "/tmp/prod/onenetwork_shards/";
+
+    private static final String SIM_ZIP_FILE_EXTENSION = ".zip";
+
+    private final NetsimServerPool netsimServerPool;
+
+    private final ServerSimBuilder serverSimBuilder;
+
+    /**
+     * Creates a scheduler building the simulations with a
+     * {@link SimBuildManager} per server.
+     *
+     * @param netsimServerPool
+     *            the servers to build on
+     * @param streamingMoScripts
+     *            true to write the MO scripts from the MO trees
+     * @param archivedScriptsUpload
+     *            true to upload the scripts of each server as one archive
+     */
+    public SimBuildScheduler(final NetsimServerPool netsimServerPool, final boolean streamingMoScripts, final boolean archivedScriptsUpload) {
+        this(netsimServerPool, new SshServerSimBuilder(netsimServerPool.getNetsimServers().size() > 1, streamingMoScripts,
+                archivedScriptsUpload, SshSessionPool.getDefaultPool(), Paths.get(SHARDED_SCRIPTS_FOLDER)));
+    }
+
+    /**
+     * Creates a scheduler building the simulations of each server with the
+     * given builder.
+     *
+     * @param netsimServerPool
+     *            the servers to build on
+     * @param serverSimBuilder
+     *            builds the simulations assigned to a server
+     */
+    public SimBuildScheduler(final NetsimServerPool netsimServerPool, final ServerSimBuilder serverSimBuilder) {
+        this.netsimServerPool = netsimServerPool;
+        this.serverSimBuilder = serverSimBuilder;
+    }
+
+    /**
+     * Assigns the simulations to the servers, weighted by their number of
+     * network elements. Going from the largest simulation to the smallest,
+     * each goes to the server with the fewest network elements assigned so
+     * far. Each server keeps its simulations in their original order.
+     *
+     * @param sims
+     *            the simulations to be built
+     * @return the simulations of each server, in the order of the pool
+     */
+    public Map<NetsimServer, List<Sim>> assignSims(final List<Sim> sims) {
+        final List<NetsimServer> netsimServers = netsimServerPool.getNetsimServers();
+        final int[] numberOfNes = new int[netsimServers.size()];
+        final Map<Sim, Integer> assignedServerIndexes = new IdentityHashMap<>();
+
+        final List<Sim> simsBySize = new ArrayList<>(sims);
+        Collections.sort(simsBySize, new Comparator<Sim>() {
+
+            @Override
+            public int compare(final Sim sim, final Sim otherSim) {
+                return Integer.compare(otherSim.getNetworkElements().size(), sim.getNetworkElements().size());
+            }
+        });
+        for (final Sim sim : simsBySize) {
+            int leastLoadedServerIndex = 0;
+            for (int serverIndex = 1; serverIndex < numberOfNes.length; serverIndex++) {
+                if (numberOfNes[serverIndex] < numberOfNes[leastLoadedServerIndex]) {
+                    leastLoadedServerIndex = serverIndex;
+                }
+            }
+            numberOfNes[leastLoadedServerIndex] += sim.getNetworkElements().size();
+            assignedServerIndexes.put(sim, leastLoadedServerIndex);
+        }
+
+        final Map<NetsimServer, List<Sim>> serverSims = new LinkedHashMap<>();
+        for (final NetsimServer netsimServer : netsimServers) {
+            serverSims.put(netsimServer, new ArrayList<Sim>());
+        }
+        for (final Sim sim : sims) {
+            serverSims.get(netsimServers.get(assignedServerIndexes.get(sim))).add(sim);
+        }
+        for (int serverIndex = 0; serverIndex < numberOfNes.length; serverIndex++) {
+            logger.info("{} sims with {} NEs assigned to {}", serverSims.get(netsimServers.get(serverIndex)).size(),
+                    numberOfNes[serverIndex], netsimServers.get(serverIndex).getHost());
+        }
+        return serverSims;
+    }
+
+    /**
+     * Builds the simulations on all servers at the same time, and collects
+     * the simulation zips onto the primary server.
+     *
+     * @param sims
+     *            the simulations to be built
+     * @return true if all simulations are built and collected successfully,
+     *         otherwise false
+     * @throws IOException
+     *             if a server cannot be reached
+     * @throws SimulationBuildFailedException
+     *             if the simulations cannot be built
+     */
+    public boolean buildSims(final List<Sim> sims) throws IOException, SimulationBuildFailedException {
+        final Map<NetsimServer, List<Sim>> serverSims = assignSims(sims);
+        final boolean allSimsBuilt = buildOnAllServers(serverSims);
+        if (!allSimsBuilt) {
+            return false;
+        }
+        return collectSimZipsOnPrimaryServer(serverSims);
+    }
+
+    private boolean buildOnAllServers(final Map<NetsimServer, List<Sim>> serverSims) throws IOException,
+            SimulationBuildFailedException {
+        final List<NetsimServer> buildServers = new ArrayList<>();
+        for (final Map.Entry<NetsimServer, List<Sim>> entry : serverSims.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                buildServers.add(entry.getKey());
+            }
+        }
+        if (buildServers.isEmpty()) {
+            return true;
+        }
+
+        final List<Boolean> results;
+        try {
+            results = ParallelTasks.map("server-sim-build", buildServers, buildServers.size(),
+                    new ParallelTasks.Task<NetsimServer, Boolean, Exception>() {
+
+                        @Override
+                        public Boolean run(final int serverIndex, final NetsimServer netsimServer) throws IOException,
+                                SimulationBuildFailedException {
+                            return serverSimBuilder.buildSims(netsimServer, serverSims.get(netsimServer));
+                        }
+                    });
+        } catch (final IOException | SimulationBuildFailedException | RuntimeException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new IllegalStateException("Could not build simulations", e);
+        }
+
+        boolean allSimsBuilt = true;
+        for (int serverIndex = 0; serverIndex < buildServers.size(); serverIndex++) {
+            if (!results.get(serverIndex)) {
+                logger.error("Failed to build simulations on {}", buildServers.get(serverIndex).getHost());
+                allSimsBuilt = false;
+            }
+        }
+        return allSimsBuilt;
+    }
+
+    private boolean collectSimZipsOnPrimaryServer(final Map<NetsimServer, List<Sim>> serverSims) throws IOException {
+        final NetsimServer primaryServer = netsimServerPool.getPrimaryNetsimServer();
+        final List<String> simZipNames = new ArrayList<>();
+        boolean allSimZipsCollected = true;
+        for (final Map.Entry<NetsimServer, List<Sim>> entry : serverSims.entrySet()) {
+            if (entry.getKey().equals(primaryServer)) {
+                continue;
+            }
+            for (final Sim sim : entry.getValue()) {
+                final String simZipName = sim.getName() + SIM_ZIP_FILE_EXTENSION;
+                logger.info("Collecting {} from {} onto {}", simZipName, entry.getKey().getHost(), primaryServer.getHost());
+                allSimZipsCollected &= serverSimBuilder.copySimZip(entry.getKey(), primaryServer, simZipName);
+                simZipNames.add(simZipName);
+            }
+        }
+        logger.info("Collected {} sim zips onto {}", simZipNames.size(), primaryServer.getHost());
+        return allSimZipsCollected;
+    }
+
+    /**
+     * Builds the simulations assigned to one server, and moves simulation
+     * zips between servers.
+     */
+    public interface ServerSimBuilder {
+
+        /**
+         * Builds the given simulations on the given server.
+         *
+         * @param netsimServer
+         *            the server to build on
+         * @param sims
+         *            the simulations assigned to the server
+         * @return true if all simulations are built successfully, otherwise
+         *         false
+         * @throws IOException
+         *             if the server cannot be reached
+         * @throws SimulationBuildFailedException
+         *             if the simulations cannot be built
+         */
+        boolean buildSims(NetsimServer netsimServer, List<Sim> sims) throws IOException, SimulationBuildFailedException;
+
+        /**
+         * Copies a simulation zip from the NETSim simulations folder of one
+         * server to that of another.
+         *
+         * @param fromServer
+         *            the server the simulation was built on
+         * @param toServer
+         *            the server the simulation is collected onto
+         * @param simZipName
+         *            the file name of the simulation zip
+         * @return true if the zip is copied successfully, otherwise false
+         * @throws IOException
+         *             if a server cannot be reached
+         */
+        boolean copySimZip(NetsimServer fromServer, NetsimServer toServer, String simZipName) throws IOException;
+    }
+
+    /**
+     * Builds through a {@link SimBuildManager} per server, and copies
+     * simulation zips through this host over pooled ssh sessions.
+     */
+    static final class SshServerSimBuilder implements ServerSimBuilder {
+
+        private final boolean sharded;
+        private final boolean streamingMoScripts;
+        private final boolean archivedScriptsUpload;
+
+        /** Hands out the ssh sessions to the servers */
+        private final SshSessionPool sshSessionPool;
+
+        /** Local folder the simulation zips are copied through */
+        private final Path localZipsFolder;
+
+        SshServerSimBuilder(final boolean sharded, final boolean streamingMoScripts, final boolean archivedScriptsUpload,
+                final SshSessionPool sshSessionPool, final Path localZipsFolder) {
+            this.sharded = sharded;
+            this.streamingMoScripts = streamingMoScripts;
+            this.archivedScriptsUpload = archivedScriptsUpload;
+            this.sshSessionPool = sshSessionPool;
+            this.localZipsFolder = localZipsFolder;
+        }
+
+        @Override
+        public boolean buildSims(final NetsimServer netsimServer, final List<Sim> sims) throws IOException,
+                SimulationBuildFailedException {
+            final SimBuildManager sbm = new SimBuildManager(netsimServer);
+            sbm.setSims(sims);
+            sbm.setStreamingMoScripts(streamingMoScripts);
+            sbm.setArchivedScriptsUpload(archivedScriptsUpload);
+            if (sharded) {
+                sbm.setLocalScriptsFolder(SHARDED_SCRIPTS_FOLDER + netsimServer.getHost() + "/");
+            }
+            return sbm.buildSimsInNetsim();
+        }
+
+        @Override
+        public boolean copySimZip(final NetsimServer fromServer, final NetsimServer toServer, final String simZipName)
+                throws IOException {
+            final Path localFolder = localZipsFolder.resolve(fromServer.getHost());
+            final Path localSimZip = localFolder.resolve(simZipName);
+
+            Files.createDirectories(localFolder);
+            final SshClient fromClient = acquireSshClient(fromServer);
+            try {
+                if (!fromClient.copyFrom(NETSIM_SIMULATIONS_FOLDER + simZipName, localFolder.toString())) {
+                    return false;
+                }
+            } finally {
+                sshSessionPool.release(fromClient);
+            }
+
+            final SshClient toClient = acquireSshClient(toServer);
+            try {
+                final List<Path> paths = new ArrayList<>();
+                paths.add(localSimZip);
+                return toClient.copyFiles(paths, Paths.get(NETSIM_SIMULATIONS_FOLDER));
+            } finally {
+                sshSessionPool.release(toClient);
+            }
+        }
+
+        private SshClient acquireSshClient(final NetsimServer netsimServer) throws IOException {
+            final boolean tunneled = ServerUtility.isRunningOnWindowsServer() || ServerUtility.isRunningOnJenkinsServer();
+            return sshSessionPool.acquire(netsimServer.getHost(), netsimServer.getUser(), netsimServer.getPassword(),
+                    tunneled);
+        }
+    }
+}
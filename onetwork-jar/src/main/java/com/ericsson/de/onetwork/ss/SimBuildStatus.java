@@ -0,0 +1,34 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2013
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+
+package com.ericsson.de.onetwork.ss;
+
+/**
+ * Build status of a single simulation on NETSim.
+ *
+ * @author eagent
+ */
+public enum SimBuildStatus {
+
+    /** Not built yet */
+    PENDING,
+
+    /** Its MML script is running through netsim_pipe */
+    RUNNING,
+
+    /** Built successfully */
+    SUCCEEDED,
+
+    /** Its last build attempt failed */
+    FAILED
+}
@@ -118,9 +118,11 @@ public class SimMmlDataGenerator {
     private String getKertayleForAllNetworkElementsAsMml() {
         final SimServiceStringBuilder mmlCommand = new SimServiceStringBuilder();
 
-        for (final String neName : sim.getNetworkElementToMoScriptMap().keySet()) {
-            final String networkElementName = neName;
-            final String moScriptFileName = ONENETWORK_NETSIM_SCRIPTS_FOLDER + neName + ".mo";
+        // The MO scripts may have been streamed straight to files, so the NEs
+        // are iterated rather than the in-memory MO script map
+        for (final NetworkElement ne : sim.getNetworkElements()) {
+            final String networkElementName = ne.getName();
+            final String moScriptFileName = ONENETWORK_NETSIM_SCRIPTS_FOLDER + networkElementName + ".mo";
             mmlCommand.appendWithoutNewLine(NetsimUtility.createKertayleMml(networkElementName, moScriptFileName));
         }
         // Introduce an new line for nice looking MML file
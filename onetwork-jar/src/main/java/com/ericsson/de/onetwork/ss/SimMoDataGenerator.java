@@ -12,6 +12,11 @@
 
 package com.ericsson.de.onetwork.ss;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,9 +25,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.ericsson.de.onetwork.dms.generics.Mo;
+import com.ericsson.de.onetwork.dms.generics.MoTreeWalker;
+import com.ericsson.de.onetwork.dms.generics.MoVisitor;
 import com.ericsson.de.onetwork.dms.generics.NetworkElement;
 import com.ericsson.de.onetwork.dms.mo.datatype.MoAttributeDataType;
-import com.ericsson.de.onetwork.ss.util.SimServiceStringBuilder;
+import com.ericsson.de.onetwork.ss.util.MoScriptWriter;
 
 /**
  * Generates Managed Object scripts according to NETSim tool standard.
@@ -38,8 +45,11 @@ public class SimMoDataGenerator {
 
     private final static Logger logger = LoggerFactory.getLogger(SimMoDataGenerator.class);
 
-    /** Holds reference to MO script data */
-    private StringBuilder moDataHolder;
+    /** The character set of the MO script files. */
+    private static final Charset MO_SCRIPT_CHARSET = Charset.forName("US-ASCII");
+
+    /** The file extension of the MO script files. */
+    public static final String MO_SCRIPT_FILE_EXTENSION = ".mo";
 
     /** An attribute data type lookup map from MOM to NETSim */
     final private static Map<String, String> moAttrDataTypeForNetsim;
@@ -70,17 +80,60 @@ public class SimMoDataGenerator {
     public void loadMoScriptsOnto(final Sim sim) {
 
         final List<NetworkElement> networkElements = sim.getNetworkElements();
+        final StringBuilder moDataHolder = new StringBuilder();
 
         for (final NetworkElement ne : networkElements) {
             final String neName = ne.getName();
-            final Mo mo = ne.getRootMo();
-
-            moDataHolder = new StringBuilder();
-            populateMosWithoutSetMoRef(mo);
+            moDataHolder.setLength(0);
+            try {
+                writeMoScript(ne, moDataHolder);
+            } catch (final IOException e) {
+                // A StringBuilder does not throw IOException
+                throw new IllegalStateException(e);
+            }
             sim.getNetworkElementToMoScriptMap().put(neName, new String(moDataHolder));
         }
     }
 
+    /**
+     * Writes the MO script of each network element of the simulation straight
+     * to its own file, named after the network element, in the given folder.
+     * The script of a network element is written while its MO tree is
+     * traversed, so it is never held in memory as a whole.
+     *
+     * @param sim
+     *            the simulation whose MO scripts are written
+     * @param folder
+     *            the folder the MO script files are written to
+     * @throws IOException
+     *             if an MO script file cannot be written
+     */
+    public void writeMoScriptFiles(final Sim sim, final Path folder) throws IOException {
+
+        for (final NetworkElement ne : sim.getNetworkElements()) {
+            final Path moScriptFile = folder.resolve(ne.getName() + MO_SCRIPT_FILE_EXTENSION);
+            try (BufferedWriter writer = Files.newBufferedWriter(moScriptFile, MO_SCRIPT_CHARSET)) {
+                writeMoScript(ne, writer);
+            }
+            logger.debug("MO script is written to {}", moScriptFile);
+        }
+    }
+
+    /**
+     * Writes the MO script of a network element, one CREATE block per MO
+     * which is not system created, in depth first order.
+     *
+     * @param ne
+     *            the network element whose MO script is written
+     * @param moScript
+     *            the destination of the MO script
+     * @throws IOException
+     *             if the MO script cannot be written to the destination
+     */
+    public void writeMoScript(final NetworkElement ne, final Appendable moScript) throws IOException {
+        populateMosWithoutSetMoRef(ne.getRootMo(), new MoScriptWriter(moScript));
+    }
+
     /**
      * TODO: In future, this method should be able to exclude all MO Ref
      * attribute types of line while MO creation occurs. MO Ref should be set
@@ -89,125 +142,108 @@ public class SimMoDataGenerator {
      *
      * @param mo
      *            the managed object data
+     * @param moScript
+     *            the writer of the MO script
      */
-    private void populateMosWithoutSetMoRef(final Mo mo) {
-
-        if (!mo.isSystemCreated()) {
-            moDataHolder.append(createMoScript(mo));
-        }
-
-        for (final Mo childMo : mo.getChildren()) {
-            populateMosWithoutSetMoRef(childMo);
-        }
+    private void populateMosWithoutSetMoRef(final Mo mo, final MoScriptWriter moScript) throws IOException {
+        MoTreeWalker.walkDepthFirst(mo, new MoVisitor<IOException>() {
+
+            @Override
+            public void visit(final Mo visitedMo) throws IOException {
+                if (!visitedMo.isSystemCreated()) {
+                    writeCreateMoScript(visitedMo, moScript);
+                }
+            }
+        });
     }
 
-    private String createMoScript(final Mo mo) {
+    private void writeCreateMoScript(final Mo mo, final MoScriptWriter moScript) throws IOException {
 
         final String parentFdn = mo.getParentFdn() == null ? "\"\"" : mo.getParentFdn().toString();
         final String identity = mo.getName() == null ? "\"\"" : mo.getName();
         final String moType = mo.getType() == null ? "\"\"" : mo.getType();
         final int numOfAttr = mo.getAttributeNames().size();
 
-        return fillCreateMoTemplateForCpp(parentFdn, identity, moType, numOfAttr, mo);
-    }
-
-    private String fillCreateMoTemplateForCpp(final String parentFdn, final String identity, final String moType, final int numOfAttr, final Mo mo) {
-
-        final SimServiceStringBuilder moScript = new SimServiceStringBuilder();
-
-        moScript.append("CREATE");
-        moScript.append("(");
-        moScript.append("  parent " + parentFdn);
-        moScript.append("  identity " + identity);
-        moScript.append("  moType " + moType);
-        moScript.append("  exception none");
-        moScript.append("  nrOfAttributes " + numOfAttr);
-        moScript.appendWithoutNewLine(parseMoAttributes(mo));
-        moScript.append(")");
-
-        return moScript.toString();
+        moScript.append("CREATE").newLine();
+        moScript.append("(").newLine();
+        moScript.append("  parent ").append(parentFdn).newLine();
+        moScript.append("  identity ").append(identity).newLine();
+        moScript.append("  moType ").append(moType).newLine();
+        moScript.append("  exception none").newLine();
+        moScript.append("  nrOfAttributes ").append(numOfAttr).newLine();
+        writeMoAttributes(mo, moScript);
+        moScript.append(")").newLine();
     }
 
-    private String parseMoAttributes(final Mo mo) {
-
-        final StringBuilder moScript = new StringBuilder();
+    private void writeMoAttributes(final Mo mo, final MoScriptWriter moScript) throws IOException {
 
         for (final String moAttrName : mo.getFeaturePopulatedAttributeNames()) {
             final MoAttributeDataType moAttrDataType = mo.getAttributeByName(moAttrName);
 
-            moScript.append(parseMoAttributeDataType(moAttrName, moAttrDataType, "", false));
+            writeMoAttributeDataType(moAttrName, moAttrDataType, false, moScript);
         }
-        return moScript.toString();
     }
 
     /**
-     * Parses MO attribute data type according to NETSim MML command format in a
+     * Writes MO attribute data type according to NETSim MML command format in a
      * recursive way.
      *
      * @param moAttrName
      *            the attribute name of an MO
      * @param moAttrDataType
      *            the attribute data type of an MO
-     * @param initialData
-     *            the processed data which pass to the recursive function
      * @param listItem
      *            defines attribute whether a list item.
-     * @return an MO script which defines attribute data
+     * @param moScript
+     *            the writer of the MO script which defines attribute data
      */
-    private String parseMoAttributeDataType(final String moAttrName, final MoAttributeDataType moAttrDataType, final String initialData,
-            final boolean listItem) {
-
-        final SimServiceStringBuilder moScript = new SimServiceStringBuilder();
-
-        if (!initialData.equals("")) {
-            moScript.append(initialData);
-        }
+    private void writeMoAttributeDataType(final String moAttrName, final MoAttributeDataType moAttrDataType, final boolean listItem,
+            final MoScriptWriter moScript) throws IOException {
 
         if (moAttrDataType == null) {
-            return moScript.toString();
+            return;
         }
 
         final String moAttrType = moAttrDataTypeForNetsim.get(moAttrDataType.getDataType().toLowerCase());
         final Object moAttrValue = moAttrDataType.getValue();
-        final String moAttrValueClassName = moAttrValue.getClass().getSimpleName().toUpperCase();
 
-        logger.debug("Parsed attribute: {} : {} : {}", moAttrName, moAttrValue.toString(), moAttrValueClassName);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Parsed attribute: {} : {} : {}", moAttrName, moAttrValue.toString(), moAttrValue.getClass().getSimpleName().toUpperCase());
+        }
 
-        if (moAttrValueClassName.contains("MAP")) {
+        if (moAttrValue instanceof Map) {
             @SuppressWarnings("unchecked")
-            final Map<String, MoAttributeDataType> subAttrs = (Map<String, MoAttributeDataType>) moAttrDataType.getValue();
+            final Map<String, MoAttributeDataType> subAttrs = (Map<String, MoAttributeDataType>) moAttrValue;
             if (!listItem) {
-                moScript.append(2, moAttrName + " " + moAttrType);
+                moScript.indent(2).append(moAttrName).append(' ').append(moAttrType).newLine();
             }
-            moScript.append(listItem ? 2 : 4, "nrOfElements " + subAttrs.size());
+            moScript.indent(listItem ? 2 : 4).append("nrOfElements ").append(subAttrs.size()).newLine();
 
             for (final Map.Entry<String, MoAttributeDataType> entry : subAttrs.entrySet()) {
-                final String subMoAttrName = entry.getKey();
-                final MoAttributeDataType subMoAttrDataType = entry.getValue();
-                moScript.appendWithoutNewLine(4, parseMoAttributeDataType(subMoAttrName, subMoAttrDataType, "", false));
+                moScript.indent(4);
+                writeMoAttributeDataType(entry.getKey(), entry.getValue(), false, moScript);
             }
 
-        } else if (moAttrValueClassName.contains("LIST")) {
+        } else if (moAttrValue instanceof List) {
             @SuppressWarnings("unchecked")
-            final List<MoAttributeDataType> subMoAttrList = (List<MoAttributeDataType>) moAttrDataType.getValue();
+            final List<MoAttributeDataType> subMoAttrList = (List<MoAttributeDataType>) moAttrValue;
             final String listMoAttrType = subMoAttrList.get(0).getDataType();
-            final int subMoAttrListSize = subMoAttrList.size();
-            moScript.append(2, moAttrName + " " + moAttrType + " " + listMoAttrType + moScript.toString() + " " + subMoAttrListSize);
+            moScript.indent(2).append(moAttrName).append(' ').append(moAttrType).append(' ').append(listMoAttrType).append(' ')
+                    .append(subMoAttrList.size()).newLine();
 
             for (final MoAttributeDataType subMoAttr : subMoAttrList) {
-                moScript.appendWithoutNewLine(2, parseMoAttributeDataType(moAttrName, subMoAttr, "", true));
+                moScript.indent(2);
+                writeMoAttributeDataType(moAttrName, subMoAttr, true, moScript);
             }
 
         } else if (listItem) {
-            moScript.append(2, moAttrDataType.getValue().toString());
+            moScript.appendLine(2, moAttrValue.toString());
 
         } else {
 
-            final String moAttrDataTypeValue = moAttrDataType.toString().isEmpty() ? "\"\"" : moAttrDataType.toString();
-            moScript.append(2, moAttrName + " " + moAttrDataTypeForNetsim.get(moAttrDataType.getDataType().toLowerCase()) + " "
-                    + moAttrDataTypeValue);
+            final String moAttrDataTypeValue = moAttrDataType.toString();
+            moScript.indent(2).append(moAttrName).append(' ').append(moAttrType).append(' ')
+                    .append(moAttrDataTypeValue.isEmpty() ? "\"\"" : moAttrDataTypeValue).newLine();
         }
-
-        return moScript.toString();
     }
 }
@@ -0,0 +1,38 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2013
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+
+package com.ericsson.de.onetwork.ss.util;
+
+import java.io.IOException;
+
+/**
+ * Runs shell commands, on a remote host or locally, and streams their output.
+ *
+ * @author eagent
+ */
+public interface CommandExecutor {
+
+    /**
+     * Executes the command and hands its output to the listener line by line.
+     *
+     * @param command
+     *            the command to be executed. For example "ls -la; cd /" or
+     *            "/x/y/z/scriptName.sh"
+     * @param listener
+     *            receives the lines of standard output and standard error
+     * @return the exit status of the command
+     * @throws IOException
+     *             if command fails to execute
+     */
+    int executeCommand(String command, CommandOutputListener listener) throws IOException;
+}
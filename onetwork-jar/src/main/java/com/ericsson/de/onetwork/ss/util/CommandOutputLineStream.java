@@ -0,0 +1,89 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2013
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+
+package com.ericsson.de.onetwork.ss.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Splits the bytes written to it into lines, and hands each complete line to a
+ * {@link CommandOutputListener}. A trailing {@code '\r'} is dropped from each
+ * line, and a last line without terminator is handed over on close.
+ *
+ * @author eagent
+ */
+final class CommandOutputLineStream extends OutputStream {
+
+    private final CommandOutputListener listener;
+    private final boolean errorStream;
+    private final ByteArrayOutputStream currentLine = new ByteArrayOutputStream();
+
+    /**
+     * Creates a stream handing its lines to the given listener.
+     *
+     * @param listener
+     *            receives the lines
+     * @param errorStream
+     *            true if the lines are standard error, false if they are
+     *            standard output
+     */
+    CommandOutputLineStream(final CommandOutputListener listener, final boolean errorStream) {
+        this.listener = listener;
+        this.errorStream = errorStream;
+    }
+
+    @Override
+    public synchronized void write(final int b) {
+        if (b == '\n') {
+            endLine();
+        } else {
+            currentLine.write(b);
+        }
+    }
+
+    @Override
+    public synchronized void write(final byte[] bytes, final int offset, final int length) {
+        int lineStart = offset;
+        final int end = offset + length;
+        for (int index = offset; index < end; index++) {
+            if (bytes[index] == '\n') {
+                currentLine.write(bytes, lineStart, index - lineStart);
+                endLine();
+                lineStart = index + 1;
+            }
+        }
+        currentLine.write(bytes, lineStart, end - lineStart);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (currentLine.size() > 0) {
+            endLine();
+        }
+    }
+
+    private void endLine() {
+        String line = new String(currentLine.toByteArray(), StandardCharsets.UTF_8);
+        currentLine.reset();
+        if (line.endsWith("\r")) {
+            line = line.substring(0, line.length() - 1);
+        }
+        if (errorStream) {
+            listener.onErrorLine(line);
+        } else {
+            listener.onOutputLine(line);
+        }
+    }
+}
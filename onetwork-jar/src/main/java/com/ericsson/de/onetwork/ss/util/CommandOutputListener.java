@@ -0,0 +1,39 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2013
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+
+package com.ericsson.de.onetwork.ss.util;
+
+/**
+ * Receives the output of a remote command line by line, as it arrives.
+ *
+ * @author eagent
+ * @see SshClient#executeCommand(String, CommandOutputListener)
+ */
+public interface CommandOutputListener {
+
+    /**
+     * Called for each line the command writes to standard output.
+     *
+     * @param line
+     *            the line without its line terminator
+     */
+    void onOutputLine(String line);
+
+    /**
+     * Called for each line the command writes to standard error.
+     *
+     * @param line
+     *            the line without its line terminator
+     */
+    void onErrorLine(String line);
+}
@@ -14,7 +14,10 @@ package com.ericsson.de.onetwork.ss.util;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.DirectoryIteratorException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
@@ -22,7 +25,9 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,6 +39,10 @@ import org.slf4j.LoggerFactory;
  */
 public class FileUtils {
 
+    /** Size of a tar header and of the blocks the entry data is padded to */
+    private static final int TAR_BLOCK_SIZE = 512;
+    private static final int TAR_NAME_LENGTH = 100;
+
     private final static Logger logger = LoggerFactory.getLogger(FileUtils.class);
 
     /**
@@ -162,4 +171,70 @@ public class FileUtils {
     public static String getPlatformIndependentPathString(final String path) {
         return path.replaceFirst("^/(.:/)", "$1");
     }
+
+    /**
+     * Writes the given files as a gzip compressed tar archive to the given
+     * stream, which is left open. Each file is stored under its file name
+     * only, so the files are extracted into a single folder.
+     *
+     * @param paths
+     *            the list of path of files
+     * @param out
+     *            the stream the archive is written to
+     * @throws IOException
+     *             if a file cannot be read, or its name is too long for a tar
+     *             header
+     */
+    public static void writeTarGz(final List<Path> paths, final OutputStream out) throws IOException {
+        final GZIPOutputStream gzipOut = new GZIPOutputStream(out, TAR_BLOCK_SIZE * 16);
+        final byte[] buffer = new byte[TAR_BLOCK_SIZE * 16];
+        for (final Path path : paths) {
+            final long size = Files.size(path);
+            gzipOut.write(createTarHeader(path.getFileName().toString(), size, Files.getLastModifiedTime(path).toMillis() / 1000));
+            try (final InputStream in = Files.newInputStream(path)) {
+                int numberOfBytesRead;
+                while ((numberOfBytesRead = in.read(buffer)) >= 0) {
+                    gzipOut.write(buffer, 0, numberOfBytesRead);
+                }
+            }
+            final int padding = (int) ((TAR_BLOCK_SIZE - size % TAR_BLOCK_SIZE) % TAR_BLOCK_SIZE);
+            gzipOut.write(new byte[padding]);
+        }
+        // end of archive: two empty blocks
+        gzipOut.write(new byte[TAR_BLOCK_SIZE * 2]);
+        gzipOut.finish();
+        gzipOut.flush();
+    }
+
+    private static byte[] createTarHeader(final String fileName, final long size, final long modificationTime) throws IOException {
+        final byte[] name = fileName.getBytes(StandardCharsets.UTF_8);
+        if (name.length > TAR_NAME_LENGTH) {
+            throw new IOException("File name is too long for a tar header: " + fileName);
+        }
+        final byte[] header = new byte[TAR_BLOCK_SIZE];
+        System.arraycopy(name, 0, header, 0, name.length);
+        putTarField(header, 100, String.format("%07o", 0644));
+        putTarField(header, 108, String.format("%07o", 0));
+        putTarField(header, 116, String.format("%07o", 0));
+        putTarField(header, 124, String.format("%011o", size));
+        putTarField(header, 136, String.format("%011o", modificationTime));
+        header[156] = '0';
+        putTarField(header, 257, "ustar");
+        putTarField(header, 263, "00");
+
+        // the checksum is summed with its own field filled with spaces
+        Arrays.fill(header, 148, 156, (byte) ' ');
+        int checksum = 0;
+        for (final byte b : header) {
+            checksum += b & 0xff;
+        }
+        putTarField(header, 148, String.format("%06o", checksum));
+        header[154] = 0;
+        return header;
+    }
+
+    private static void putTarField(final byte[] header, final int offset, final String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, header, offset, bytes.length);
+    }
 }
@@ -0,0 +1,166 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2013
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.ss.util;
+
+import java.io.IOException;
+
+/**
+ * Writes NETSim script lines straight into an {@link Appendable}, such as a
+ * reused {@link StringBuilder} or a file writer.
+ * <p>
+ * Unlike {@link SimServiceStringBuilder}, no intermediate strings are created
+ * per line: indentation is taken from a table of cached strings and each part
+ * of a line is appended to the destination as it is.
+ *
+ * @author eagent
+ */
+public class MoScriptWriter {
+
+    /** The new line character */
+    public static final char NEW_LINE = '\n';
+
+    /** The indents which are cached, longer ones are appended in pieces */
+    private static final String[] INDENTS = new String[17];
+
+    static {
+        final StringBuilder indent = new StringBuilder();
+        for (int i = 0; i < INDENTS.length; i++) {
+            INDENTS[i] = indent.toString();
+            indent.append(' ');
+        }
+    }
+
+    /** Holds the destination of the script */
+    private final Appendable out;
+
+    /**
+     * Constructs a new <code>MoScriptWriter</code> object.
+     *
+     * @param out
+     *            the destination of the script
+     */
+    public MoScriptWriter(final Appendable out) {
+        this.out = out;
+    }
+
+    /**
+     * Returns a string of the specified amount of empty spaces.
+     *
+     * @param spaceLength
+     *            the length of the space
+     * @return a string of empty spaces, cached for the common lengths
+     */
+    static String getIndent(final int spaceLength) {
+        if (spaceLength < INDENTS.length) {
+            return INDENTS[spaceLength];
+        }
+        final StringBuilder indent = new StringBuilder(spaceLength);
+        for (int i = 0; i < spaceLength; i++) {
+            indent.append(' ');
+        }
+        return indent.toString();
+    }
+
+    /**
+     * Appends the specified amount of empty spaces.
+     *
+     * @param spaceLength
+     *            the length of the space
+     * @return this writer
+     * @throws IOException
+     *             if the destination cannot be written
+     */
+    public MoScriptWriter indent(final int spaceLength) throws IOException {
+        int remaining = spaceLength;
+        while (remaining >= INDENTS.length) {
+            out.append(INDENTS[INDENTS.length - 1]);
+            remaining -= INDENTS.length - 1;
+        }
+        out.append(INDENTS[remaining]);
+        return this;
+    }
+
+    /**
+     * Appends the specified character sequence.
+     *
+     * @param data
+     *            a character sequence, "null" is appended if it is null
+     * @return this writer
+     * @throws IOException
+     *             if the destination cannot be written
+     */
+    public MoScriptWriter append(final CharSequence data) throws IOException {
+        out.append(data);
+        return this;
+    }
+
+    /**
+     * Appends the specified character.
+     *
+     * @param data
+     *            a character
+     * @return this writer
+     * @throws IOException
+     *             if the destination cannot be written
+     */
+    public MoScriptWriter append(final char data) throws IOException {
+        out.append(data);
+        return this;
+    }
+
+    /**
+     * Appends the decimal representation of the specified number.
+     *
+     * @param data
+     *            a number
+     * @return this writer
+     * @throws IOException
+     *             if the destination cannot be written
+     */
+    public MoScriptWriter append(final int data) throws IOException {
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(data);
+        } else {
+            out.append(Integer.toString(data));
+        }
+        return this;
+    }
+
+    /**
+     * Ends the current line.
+     *
+     * @return this writer
+     * @throws IOException
+     *             if the destination cannot be written
+     */
+    public MoScriptWriter newLine() throws IOException {
+        out.append(NEW_LINE);
+        return this;
+    }
+
+    /**
+     * Appends the specified string after specified prefix space, plus "\n" at
+     * the end the line.
+     *
+     * @param spaceLength
+     *            the length of the prefix space
+     * @param data
+     *            a character sequence
+     * @return this writer
+     * @throws IOException
+     *             if the destination cannot be written
+     */
+    public MoScriptWriter appendLine(final int spaceLength, final CharSequence data) throws IOException {
+        return indent(spaceLength).append(data).newLine();
+    }
+}
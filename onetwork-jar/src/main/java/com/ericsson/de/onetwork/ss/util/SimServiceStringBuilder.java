@@ -12,8 +12,6 @@
 
 package com.ericsson.de.onetwork.ss.util;
 
-import java.util.Arrays;
-
 /**
  * A specialized StringBuilder wrapper class capable of adding "\n" at the end
  * of each line and specified amount of empty spaces in front of the each line.
@@ -43,7 +41,7 @@ public class SimServiceStringBuilder {
      *            a string
      */
     public void append(final String data) {
-        sb.append(data + NEW_LINE);
+        sb.append(data).append(NEW_LINE);
     }
 
     /**
@@ -56,12 +54,7 @@ public class SimServiceStringBuilder {
      *            a string
      */
     public void append(final int spaceLength, final String data) {
-        // faster approach than String.format
-        final char[] charArray = new char[spaceLength];
-        Arrays.fill(charArray, ' ');
-        final String space = new String(charArray);
-
-        sb.append(space + data + NEW_LINE);
+        sb.append(MoScriptWriter.getIndent(spaceLength)).append(data).append(NEW_LINE);
     }
 
     /**
@@ -84,12 +77,7 @@ public class SimServiceStringBuilder {
      *            a string
      */
     public void appendWithoutNewLine(final int spaceLength, final String data) {
-        // faster approach than String.format
-        final char[] charArray = new char[spaceLength];
-        Arrays.fill(charArray, ' ');
-        final String space = new String(charArray);
-
-        sb.append(space + data);
+        sb.append(MoScriptWriter.getIndent(spaceLength)).append(data);
     }
 
     @Override
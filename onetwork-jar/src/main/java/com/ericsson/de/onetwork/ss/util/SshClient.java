@@ -20,9 +20,11 @@ package com.ericsson.de.onetwork.ss.util;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadLocalRandom;
 
 import org.slf4j.Logger;
@@ -55,7 +57,7 @@ import com.jcraft.jsch.SftpException;
  *
  * @author qfatonu
  */
-public class SshClient {
+public class SshClient implements CommandExecutor {
 
     private final static Logger logger = LoggerFactory.getLogger(SshClient.class);
 
@@ -68,6 +70,26 @@ public class SshClient {
     private static String TUNNELING_USER_PWD = "qfatonu";
     private static int TUNNELING_HOST_PORT_TO = 22;
 
+    /** Port remote hosts are connected to directly, unless another is given */
+    private static final int DEFAULT_SSH_PORT = 22;
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final long CHANNEL_CLOSE_POLL_INTERVAL = 10;
+
+    /** Logs standard output at debug level and standard error at info level */
+    private static final CommandOutputListener LOGGING_LISTENER = new CommandOutputListener() {
+
+        @Override
+        public void onOutputLine(final String line) {
+            logger.debug("{}", line);
+        }
+
+        @Override
+        public void onErrorLine(final String line) {
+            logger.info("stderr: {}", line);
+        }
+    };
+
     /** Remote host user password */
     private String password;
 
@@ -89,6 +111,15 @@ public class SshClient {
     /** Defines that tunneling is used */
     private boolean tunneled = false;
 
+    /** Keep-alive interval in milliseconds, 0 if no keep-alive is sent */
+    private int keepAliveInterval = 0;
+
+    /**
+     * Limits the exec and sftp channels open on the session at the same time.
+     * Null if they are not limited.
+     */
+    private Semaphore channelPermits = null;
+
     /**
      * Authenticates SshClient with given user name and password.
      *
@@ -121,6 +152,36 @@ public class SshClient {
         this.privateKey = privateKey;
     }
 
+    /**
+     * Keeps the sessions of this client open between operations by sending a
+     * keep-alive message to the remote host at the given interval. The
+     * session threads are made daemon threads so that a session kept open
+     * does not prevent the JVM from exiting. Must be called before
+     * connecting.
+     *
+     * @param keepAliveInterval
+     *            the keep-alive interval in milliseconds
+     */
+    public void enableKeepAlive(final int keepAliveInterval) {
+        this.keepAliveInterval = keepAliveInterval;
+    }
+
+    /**
+     * Limits the number of exec and sftp channels this client opens on its
+     * session at the same time. A caller that would open one more waits until
+     * another channel is closed, rather than have the remote host refuse the
+     * channel.
+     *
+     * @param maxChannels
+     *            the most channels open at once, at least one
+     */
+    public void setMaxChannels(final int maxChannels) {
+        if (maxChannels < 1) {
+            throw new IllegalArgumentException("Max channels must be at least 1, but was " + maxChannels);
+        }
+        channelPermits = new Semaphore(maxChannels, true);
+    }
+
     /**
      * Connects SshClient to remote host.
      *
@@ -130,13 +191,27 @@ public class SshClient {
      *             if connection fails
      */
     public void connect(final String host) throws IOException {
+        connect(host, DEFAULT_SSH_PORT);
+    }
+
+    /**
+     * Connects SshClient to the given port of a remote host.
+     *
+     * @param host
+     *            the remote host name
+     * @param port
+     *            the port the remote host listens for ssh connections on
+     * @throws IOException
+     *             if connection fails
+     */
+    public void connect(final String host, final int port) throws IOException {
         this.host = host;
         if (firstSession == null || isTunneled() == false) {
             try {
                 // allow connections to all hosts
                 JSch.setConfig("StrictHostKeyChecking", "no");
                 final JSch jsch = new JSch();
-                firstSession = jsch.getSession(user, host);
+                firstSession = jsch.getSession(user, host, port);
 
                 // create a session connected to port 2233 on the local host.
                 if (privateKey != null) {
@@ -149,6 +224,7 @@ public class SshClient {
                     throw new IOException("Either privateKey nor password is set. Please call one of the authentication method.");
                 }
 
+                applyKeepAlive(firstSession);
                 firstSession.connect();
                 logger.debug("Connected directly to:{}", host);
                 setTunneled(false);
@@ -181,6 +257,7 @@ public class SshClient {
                 firstSession.setPassword(TUNNELING_USER_PWD);
 
                 firstSession.setPortForwardingL(tunnelingHostPortFrom, host, TUNNELING_HOST_PORT_TO);
+                applyKeepAlive(firstSession);
                 firstSession.connect();
                 firstSession.openChannel("direct-tcpip");
 
@@ -199,6 +276,7 @@ public class SshClient {
                 secondSession.setPassword(password);
                 secondSession.setConfig("StrictHostKeyChecking", "no");
 
+                applyKeepAlive(secondSession);
                 secondSession.connect(); // now we're connected to the secondary system
                 logger.debug("Connected from={}:{} to={}:{}", TUNNNELING_HOST,tunnelingHostPortFrom, host, TUNNELING_HOST_PORT_TO);
 
@@ -211,153 +289,157 @@ public class SshClient {
     }
 
     /**
-     * Executes commands and scripts remotely and returns the output as a String.
+     * Executes commands and scripts remotely and displays output through logs.
      *
      * @param command
      *            the command to be executed. For example "ls -la; cd /" or
      *            "/x/y/z/scriptName.sh"
-     * @return
+     * @return the exit status of the command
      * @throws IOException
      *             if command fails to execute
      */
     public int executeCommand(final String command) throws IOException {
+        return executeCommand(command, LOGGING_LISTENER);
+    }
 
-        int exitStatus = -100;
-        Channel channel = null;
-        InputStream stdout = null;
-        try {
-            if (isTunneled()) {
-                channel = secondSession.openChannel("exec");
-            } else {
-                channel = firstSession.openChannel("exec");
-            }
-            logger.debug("tunneled:{}", isTunneled());
-
-            ((ChannelExec) channel).setCommand(command);
-
-            channel.setInputStream(null);
-            stdout = channel.getInputStream();
-
-            // TODO: Redirect to a logger
-            ((ChannelExec) channel).setErrStream(System.err);
-
-            channel.connect();
-
-            while (true) {
-                final byte[] tmpArray = new byte[1024];
-                while (stdout.available() > 0) {
-                    final int i = stdout.read(tmpArray, 0, 1024);
-                    if (i < 0) {
-                        break;
-                    }
-                    final String stdOutput = new String(tmpArray, 0, i);
-                    logger.debug("\n{}", stdOutput);
-                }
-                if (channel.isClosed()) {
-                    if (stdout.available() > 0) {
-                        continue;
-                    }
-                    exitStatus = channel.getExitStatus();
+    /**
+     * Executes commands and scripts remotely and returns the output as a String.
+     *
+     * @param command
+     *            the command to be executed. For example "ls -la; cd /" or
+     *            "/x/y/z/scriptName.sh"
+     * @return the standard output of the command
+     * @throws IOException
+     *             if command fails to execute
+     */
+    public String executeCommandv2(final String command) throws IOException {
+        final StringBuilder commandOutPut = new StringBuilder();
+        executeCommand(command, new CommandOutputListener() {
 
-                    break;
-                }
-                try {
-                    Thread.sleep(1000);
-                } catch (final Exception ee) {
-                    // unimportant time exception error
-                }
-            }
-        } catch (final JSchException ex) {
-            throw new IOException(ex);
-        } finally {
-            if (channel != null && channel.isConnected()) {
-                channel.disconnect();
+            @Override
+            public void onOutputLine(final String line) {
+                LOGGING_LISTENER.onOutputLine(line);
+                commandOutPut.append(line).append('\n');
             }
 
-            if (stdout != null) {
-                stdout.close();
+            @Override
+            public void onErrorLine(final String line) {
+                LOGGING_LISTENER.onErrorLine(line);
             }
-
-        }
-        logger.debug("exitStatus:{}", exitStatus);
-        return exitStatus;
+        });
+        return commandOutPut.toString();
     }
 
-
     /**
-     * Executes commands and scripts remotely and displays output through logs.
+     * Executes commands and scripts remotely and hands their output to the
+     * given listener line by line, as soon as each line arrives. Standard
+     * output is read on the calling thread until the remote end closes it,
+     * while standard error is delivered by the session thread, so the
+     * listener may be called from both threads. Returns once the channel is
+     * closed.
      *
      * @param command
      *            the command to be executed. For example "ls -la; cd /" or
      *            "/x/y/z/scriptName.sh"
-     * @return
+     * @param listener
+     *            receives the lines of standard output and standard error
+     * @return the exit status of the command
      * @throws IOException
      *             if command fails to execute
      */
-    public String executeCommandv2(final String command) throws IOException {
+    @Override
+    public int executeCommand(final String command, final CommandOutputListener listener) throws IOException {
+        return executeCommand(command, null, listener);
+    }
 
-        final StringBuilder commandOutPut = new StringBuilder();
+    /**
+     * Copies list of files to remote host as one gzip compressed tar archive,
+     * streamed over a single exec channel into {@code tar} on the remote
+     * host. The files are extracted into the remote destination folder, which
+     * is created if needed.
+     *
+     * @param paths
+     *            the list of path of files
+     * @param remoteDestPath
+     *            remote destination folder
+     * @return true if all files are extracted successfully
+     * @throws IOException
+     *             if copy operation fails
+     */
+    public boolean copyFilesAsArchive(final List<Path> paths, final Path remoteDestPath) throws IOException {
+        final String remoteDestPathName = remoteDestPath.toString().replace("\\", "/");
+        final String cmdToExtractArchive = "mkdir -p '" + remoteDestPathName + "' && tar -xzf - -C '" + remoteDestPathName + "'";
+        logger.debug("Uploading {} files as archive to {}:{}", paths.size(), host, remoteDestPathName);
+
+        return executeCommand(cmdToExtractArchive, paths, LOGGING_LISTENER) == 0;
+    }
+
+    /**
+     * Executes the command, writing the given files as a tar.gz archive to its
+     * standard input if there are any.
+     */
+    private int executeCommand(final String command, final List<Path> archivedPaths, final CommandOutputListener listener)
+            throws IOException {
 
         int exitStatus = -100;
-        Channel channel = null;
-        InputStream stdout = null;
-        try {
+        ChannelExec channel = null;
+        acquireChannelPermit();
+        try (final CommandOutputLineStream stdoutLines = new CommandOutputLineStream(listener, false);
+                final CommandOutputLineStream stderrLines = new CommandOutputLineStream(listener, true)) {
             if (isTunneled()) {
-                channel = secondSession.openChannel("exec");
+                channel = (ChannelExec) secondSession.openChannel("exec");
             } else {
-                channel = firstSession.openChannel("exec");
+                channel = (ChannelExec) firstSession.openChannel("exec");
             }
             logger.debug("tunneled:{}", isTunneled());
 
-            ((ChannelExec) channel).setCommand(command);
-
-            channel.setInputStream(null);
-            stdout = channel.getInputStream();
-
-            // TODO: Redirect to a logger
-            ((ChannelExec) channel).setErrStream(System.err);
-
-            channel.connect();
-
-            while (true) {
-                final byte[] tmpArray = new byte[1024];
-                while (stdout.available() > 0) {
-                    final int i = stdout.read(tmpArray, 0, 1024);
-                    if (i < 0) {
-                        break;
-                    }
-                    final String stdOutput = new String(tmpArray, 0, i);
-                    commandOutPut.append(stdOutput);
-                    logger.debug("\n{}", stdOutput);
+            channel.setCommand(command);
+            channel.setErrStream(stderrLines);
+            final InputStream stdout = channel.getInputStream();
+            if (archivedPaths == null) {
+                channel.setInputStream(null);
+                channel.connect();
+            } else {
+                final OutputStream stdin = channel.getOutputStream();
+                channel.connect();
+                try (final OutputStream archive = stdin) {
+                    FileUtils.writeTarGz(archivedPaths, archive);
                 }
-                if (channel.isClosed()) {
-                    if (stdout.available() > 0) {
-                        continue;
-                    }
-                    exitStatus = channel.getExitStatus();
+            }
 
-                    break;
-                }
-                try {
-                    Thread.sleep(1000);
-                } catch (final Exception ee) {
-                    // unimportant time exception error
-                }
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int numberOfBytesRead;
+            while ((numberOfBytesRead = stdout.read(buffer)) >= 0) {
+                stdoutLines.write(buffer, 0, numberOfBytesRead);
             }
+            waitForChannelToClose(channel);
+            exitStatus = channel.getExitStatus();
+
         } catch (final JSchException ex) {
             throw new IOException(ex);
         } finally {
             if (channel != null && channel.isConnected()) {
                 channel.disconnect();
             }
+            releaseChannelPermit();
+        }
+        logger.debug("exitStatus:{}", exitStatus);
+        return exitStatus;
+    }
 
-            if (stdout != null) {
-                stdout.close();
+    /**
+     * The exit status arrives after the end of standard output, just before
+     * the channel is closed, so it is only a few milliseconds away.
+     */
+    private static void waitForChannelToClose(final Channel channel) throws IOException {
+        while (!channel.isClosed()) {
+            try {
+                Thread.sleep(CHANNEL_CLOSE_POLL_INTERVAL);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for the command to exit", ex);
             }
-
         }
-        logger.debug("exitStatus:{}", exitStatus);
-        return commandOutPut.toString();
     }
 
     /**
@@ -377,6 +459,7 @@ public class SshClient {
         int numOfFilesCopiedSuccesfully = 0;
 
         ChannelSftp sftp = null;
+        acquireChannelPermit();
         try {
             if (isTunneled()) {
                 sftp = (ChannelSftp) secondSession.openChannel("sftp");
@@ -428,6 +511,7 @@ public class SshClient {
             if (sftp != null) {
                 sftp.disconnect();
             }
+            releaseChannelPermit();
         }
         return numOfFiles == numOfFilesCopiedSuccesfully;
     }
@@ -450,6 +534,7 @@ public class SshClient {
         int numOfFilesCopiedSuccesfully = 0;
 
         ChannelSftp sftp = null;
+        acquireChannelPermit();
         try {
             if (isTunneled()) {
                 sftp = (ChannelSftp) secondSession.openChannel("sftp");
@@ -473,6 +558,7 @@ public class SshClient {
             if (sftp != null) {
                 sftp.disconnect();
             }
+            releaseChannelPermit();
         }
         return numOfFiles == numOfFilesCopiedSuccesfully;
     }
@@ -493,6 +579,27 @@ public class SshClient {
         }
     }
 
+    /**
+     * Checks that the sessions of this client are still usable, by sending a
+     * keep-alive message over the session channels are opened on.
+     *
+     * @return true if the client is connected and the remote host can be
+     *         reached, otherwise false
+     */
+    public boolean isHealthy() {
+        final Session session = isTunneled() ? secondSession : firstSession;
+        if (session == null || !session.isConnected() || !firstSession.isConnected()) {
+            return false;
+        }
+        try {
+            session.sendKeepAliveMsg();
+            return true;
+        } catch (final Exception ex) {
+            logger.debug("Keep-alive failed for {}: {}", host, ex.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Returns the tunneling session status.
      *
@@ -513,6 +620,30 @@ public class SshClient {
 
     }
 
+    private void acquireChannelPermit() throws IOException {
+        if (channelPermits != null) {
+            try {
+                channelPermits.acquire();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for a free channel to " + host, ex);
+            }
+        }
+    }
+
+    private void releaseChannelPermit() {
+        if (channelPermits != null) {
+            channelPermits.release();
+        }
+    }
+
+    private void applyKeepAlive(final Session session) throws JSchException {
+        if (keepAliveInterval > 0) {
+            session.setServerAliveInterval(keepAliveInterval);
+            session.setDaemonThread(true);
+        }
+    }
+
     private int getRandomPortAddr(){
         return ThreadLocalRandom.current().nextInt(1024, 65535);
     }
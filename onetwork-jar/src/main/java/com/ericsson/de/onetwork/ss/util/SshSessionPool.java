@@ -0,0 +1,350 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2013
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.ss.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of connected {@link SshClient}s, one per remote host, user, password
+ * and route (direct or through the default tunnel). A client is connected on first use
+ * and kept open with keep-alive messages, so each remote host is only
+ * authenticated once. Exec and sftp channels open their own channel on the
+ * shared session, so a client can be used by several callers at once. At most
+ * 10 channels, the default MaxSessions of sshd, are open on a pooled session at
+ * the same time unless {@link #MAX_CHANNELS_PROPERTY} says otherwise, and
+ * further callers wait for a channel to close.
+ * <p>
+ * Usage details:
+ * // @formatter:off
+ * <blockquote><pre>
+ * SshClient sshClient = pool.acquire(host, user, pass, tunneled);
+ * try{
+ * ...// do your job
+ * } finally{
+ *     pool.release(sshClient);
+ * }
+ * </pre></blockquote>
+ * // @formatter:off
+ *
+ * @author eagent
+ */
+public class SshSessionPool {
+
+    private final static Logger logger = LoggerFactory.getLogger(SshSessionPool.class);
+
+    /** System property holding the keep-alive interval in milliseconds */
+    public static final String KEEP_ALIVE_INTERVAL_PROPERTY = "onetwork.ssh.keepalive.interval";
+
+    /**
+     * System property holding the time in milliseconds after which a client
+     * nobody uses is disconnected
+     */
+    public static final String IDLE_TIMEOUT_PROPERTY = "onetwork.ssh.pool.idle.timeout";
+
+    /**
+     * System property holding the most exec and sftp channels open on a
+     * pooled session at the same time. It must not be above the MaxSessions of
+     * the sshd servers connected to.
+     */
+    public static final String MAX_CHANNELS_PROPERTY = "onetwork.ssh.pool.max.channels";
+
+    private static final int DEFAULT_KEEP_ALIVE_INTERVAL = 30000;
+    private static final int DEFAULT_IDLE_TIMEOUT = 600000;
+    private static final int DEFAULT_MAX_CHANNELS = 10;
+
+    private static final SshSessionPool DEFAULT_POOL = new SshSessionPool(new DefaultConnector(Integer.getInteger(
+            KEEP_ALIVE_INTERVAL_PROPERTY, DEFAULT_KEEP_ALIVE_INTERVAL), Integer.getInteger(MAX_CHANNELS_PROPERTY, DEFAULT_MAX_CHANNELS)));
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+
+            @Override
+            public void run() {
+                DEFAULT_POOL.closeAll();
+            }
+        });
+    }
+
+    private final Connector connector;
+
+    private final Map<SessionKey, PooledClient> pooledClients = new HashMap<>();
+
+    /**
+     * Clients that failed a health check while still in use. They are no
+     * longer handed out, and are disconnected when their last user releases
+     * them.
+     */
+    private final List<PooledClient> evictedClients = new ArrayList<>();
+
+    private int idleTimeout = Integer.getInteger(IDLE_TIMEOUT_PROPERTY, DEFAULT_IDLE_TIMEOUT);
+
+    /**
+     * Creates a pool connecting its clients with the given connector.
+     *
+     * @param connector
+     *            performs the ssh handshake for each new client
+     */
+    public SshSessionPool(final Connector connector) {
+        this.connector = connector;
+    }
+
+    /**
+     * Returns the pool shared by all NETSim operations of this JVM. Its
+     * clients are disconnected when the JVM shuts down.
+     *
+     * @return the default pool
+     */
+    public static SshSessionPool getDefaultPool() {
+        return DEFAULT_POOL;
+    }
+
+    /**
+     * Returns a connected client for the given remote host and user. A pooled
+     * client is reused if it passes a health check, otherwise a new one is
+     * connected in its place. The failed client is disconnected once nobody
+     * uses it. Each call must be matched by a call to
+     * {@link #release(SshClient)}.
+     *
+     * @param host
+     *            the remote host name
+     * @param user
+     *            the remote host user name
+     * @param password
+     *            the remote host password
+     * @param tunneled
+     *            true if the remote host is reached through the default
+     *            tunnel
+     * @return the connected client
+     * @throws IOException
+     *             if connection fails
+     */
+    public synchronized SshClient acquire(final String host, final String user, final String password, final boolean tunneled)
+            throws IOException {
+        closeIdleClients();
+
+        final SessionKey sessionKey = new SessionKey(host, user, password, tunneled);
+        PooledClient pooledClient = pooledClients.get(sessionKey);
+        if (pooledClient != null && !pooledClient.sshClient.isHealthy()) {
+            logger.info("Reconnecting broken ssh session to {}", sessionKey);
+            pooledClients.remove(sessionKey);
+            if (pooledClient.numberOfUsers == 0) {
+                pooledClient.sshClient.close();
+            } else {
+                evictedClients.add(pooledClient);
+            }
+            pooledClient = null;
+        }
+        if (pooledClient == null) {
+            logger.debug("Opening pooled ssh session to {}", sessionKey);
+            pooledClient = new PooledClient(connector.connect(host, user, password, tunneled));
+            pooledClients.put(sessionKey, pooledClient);
+        }
+        pooledClient.numberOfUsers++;
+        return pooledClient.sshClient;
+    }
+
+    /**
+     * Hands a client acquired from this pool back to it. The client stays
+     * connected for the next caller, unless it failed a health check, in which
+     * case it is disconnected when its last user releases it.
+     *
+     * @param sshClient
+     *            the client returned by {@link #acquire}
+     */
+    public synchronized void release(final SshClient sshClient) {
+        for (final PooledClient pooledClient : pooledClients.values()) {
+            if (pooledClient.sshClient == sshClient) {
+                pooledClient.numberOfUsers--;
+                pooledClient.lastReleaseTime = System.currentTimeMillis();
+                return;
+            }
+        }
+        final Iterator<PooledClient> iterator = evictedClients.iterator();
+        while (iterator.hasNext()) {
+            final PooledClient pooledClient = iterator.next();
+            if (pooledClient.sshClient == sshClient) {
+                pooledClient.numberOfUsers--;
+                if (pooledClient.numberOfUsers == 0) {
+                    pooledClient.sshClient.close();
+                    iterator.remove();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Disconnects all pooled clients.
+     */
+    public synchronized void closeAll() {
+        for (final PooledClient pooledClient : pooledClients.values()) {
+            pooledClient.sshClient.close();
+        }
+        pooledClients.clear();
+        for (final PooledClient pooledClient : evictedClients) {
+            pooledClient.sshClient.close();
+        }
+        evictedClients.clear();
+    }
+
+    /**
+     * Returns the number of clients held by the pool.
+     *
+     * @return the number of pooled clients
+     */
+    public synchronized int getNumberOfPooledClients() {
+        return pooledClients.size();
+    }
+
+    /**
+     * Sets the time after which a client nobody uses is disconnected.
+     *
+     * @param idleTimeout
+     *            the idle timeout in milliseconds
+     */
+    public synchronized void setIdleTimeout(final int idleTimeout) {
+        if (idleTimeout < 1) {
+            throw new IllegalArgumentException("Idle timeout must be at least 1 ms, but was " + idleTimeout);
+        }
+        this.idleTimeout = idleTimeout;
+    }
+
+    private void closeIdleClients() {
+        final long now = System.currentTimeMillis();
+        final Iterator<Map.Entry<SessionKey, PooledClient>> iterator = pooledClients.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<SessionKey, PooledClient> entry = iterator.next();
+            final PooledClient pooledClient = entry.getValue();
+            if (pooledClient.numberOfUsers == 0 && now - pooledClient.lastReleaseTime >= idleTimeout) {
+                logger.debug("Closing idle ssh session to {}", entry.getKey());
+                pooledClient.sshClient.close();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Performs the ssh handshake for a new pooled client.
+     */
+    public interface Connector {
+
+        /**
+         * Returns a client connected to the given remote host.
+         *
+         * @param host
+         *            the remote host name
+         * @param user
+         *            the remote host user name
+         * @param password
+         *            the remote host password
+         * @param tunneled
+         *            true if the remote host is reached through the default
+         *            tunnel
+         * @return the connected client
+         * @throws IOException
+         *             if connection fails
+         */
+        SshClient connect(String host, String user, String password, boolean tunneled) throws IOException;
+    }
+
+    private static final class DefaultConnector implements Connector {
+
+        private final int keepAliveInterval;
+        private final int maxChannels;
+
+        DefaultConnector(final int keepAliveInterval, final int maxChannels) {
+            this.keepAliveInterval = keepAliveInterval;
+            this.maxChannels = maxChannels;
+        }
+
+        @Override
+        public SshClient connect(final String host, final String user, final String password, final boolean tunneled)
+                throws IOException {
+            final SshClient sshClient = new SshClient();
+            sshClient.authUserPassword(user, password);
+            sshClient.enableKeepAlive(keepAliveInterval);
+            sshClient.setMaxChannels(maxChannels);
+            try {
+                if (tunneled) {
+                    sshClient.connectThroughDefaultTunnel(host);
+                } else {
+                    sshClient.connect(host);
+                }
+            } catch (final IOException ex) {
+                sshClient.close();
+                throw ex;
+            }
+            return sshClient;
+        }
+    }
+
+    private static final class PooledClient {
+
+        private final SshClient sshClient;
+        private int numberOfUsers;
+        private long lastReleaseTime = System.currentTimeMillis();
+
+        PooledClient(final SshClient sshClient) {
+            this.sshClient = sshClient;
+        }
+    }
+
+    /**
+     * Identifies a pooled client. The password is part of the key, so a caller
+     * with other credentials for the same host and user is never handed a
+     * session it could not have authenticated itself.
+     */
+    private static final class SessionKey {
+
+        private final String host;
+        private final String user;
+        private final String password;
+        private final boolean tunneled;
+
+        SessionKey(final String host, final String user, final String password, final boolean tunneled) {
+            this.host = host;
+            this.user = user;
+            this.password = password;
+            this.tunneled = tunneled;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (!(other instanceof SessionKey)) {
+                return false;
+            }
+            final SessionKey sessionKey = (SessionKey) other;
+            return host.equals(sessionKey.host) && user.equals(sessionKey.user) && Objects.equals(password, sessionKey.password)
+                    && tunneled == sessionKey.tunneled;
+        }
+
+        @Override
+        public int hashCode() {
+            return ((host.hashCode() * 31 + user.hashCode()) * 31 + Objects.hashCode(password)) * 31 + (tunneled ? 1 : 0);
+        }
+
+        @Override
+        public String toString() {
+            return user + "@" + host + (tunneled ? " through tunnel" : "");
+        }
+    }
+}
@@ -19,11 +19,14 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.ericsson.de.onetwork.ss.NetsimServer;
+import com.ericsson.de.onetwork.ss.NetsimServerPool;
 import com.ericsson.de.onetwork.ss.util.SshClient;
+import com.ericsson.de.onetwork.ss.util.SshSessionPool;
 
 /**
- * Wrapper SSH client for ONETWORK environment only. It will enable easier
- * update when NETSim server credentials has changed.
+ * Wrapper SSH client for ONETWORK environment only, connected to the primary
+ * server of the default {@link NetsimServerPool}.
  *
  * @author qfatonu
  */
@@ -31,21 +34,39 @@ public class OnetworkSshClient {
 
     private final static Logger logger = LoggerFactory.getLogger(OnetworkSshClient.class);
 
-    public final static String NETSIM_SERVER = "netsimv006-04.athtem.eei.ericsson.se";
-    public final static String NETSIM_USERNAME = "netsim";
-    public final static String NETSIM_PASSWORD = "netsim";
+    private final SshSessionPool sshSessionPool;
 
-    private final SshClient sshClient;
+    /** Client acquired from the pool on first use */
+    private SshClient sshClient;
 
     /**
-     * Initialize newly created this object.
+     * Initialize newly created this object, sharing the sessions of the
+     * default {@link SshSessionPool}.
      */
     public OnetworkSshClient() {
-        sshClient = new SshClient();
+        this(SshSessionPool.getDefaultPool());
     }
 
+    /**
+     * Initialize newly created this object, sharing the sessions of the given
+     * pool.
+     *
+     * @param sshSessionPool
+     *            the pool the NETSim server session is acquired from
+     */
+    public OnetworkSshClient(final SshSessionPool sshSessionPool) {
+        this.sshSessionPool = sshSessionPool;
+    }
+
+    /**
+     * Hands the NETSim server session back to the pool, which keeps it open
+     * for the next client.
+     */
     public void close() {
-        sshClient.close();
+        if (sshClient != null) {
+            sshSessionPool.release(sshClient);
+            sshClient = null;
+        }
     }
 
     /**
@@ -60,8 +81,7 @@ public class OnetworkSshClient {
      *             if command fails to execute
      */
     public int executeCommand(final String command) throws IOException {
-        authenticateAndConnectToRemoteServer();
-        return sshClient.executeCommand(command);
+        return getConnectedSshClient().executeCommand(command);
     }
 
     /**
@@ -75,8 +95,7 @@ public class OnetworkSshClient {
      *             if command fails to execute
      */
     public String executeCommandv2(final String command) throws IOException {
-        authenticateAndConnectToRemoteServer();
-        return sshClient.executeCommandv2(command);
+        return getConnectedSshClient().executeCommandv2(command);
     }
 
     /**
@@ -91,8 +110,7 @@ public class OnetworkSshClient {
      *             if copy operation files
      */
     public boolean copyFiles(final List<Path> paths, final Path remoteDestPath) throws IOException {
-        authenticateAndConnectToRemoteServer();
-        return sshClient.copyFiles(paths, remoteDestPath);
+        return getConnectedSshClient().copyFiles(paths, remoteDestPath);
     }
 
     /**
@@ -107,23 +125,17 @@ public class OnetworkSshClient {
      *             if copy operation files
      */
     public boolean copyFrom(final String remoteFilePath, final String localDestFolderPath) throws IOException {
-        authenticateAndConnectToRemoteServer();
-        return sshClient.copyFrom(remoteFilePath, localDestFolderPath);
+        return getConnectedSshClient().copyFrom(remoteFilePath, localDestFolderPath);
     }
 
-    private void authenticateAndConnectToRemoteServer() throws IOException {
-        logger.debug("Authanticate and connect to={}", NETSIM_SERVER);
-
-        sshClient.authUserPassword(NETSIM_USERNAME, NETSIM_PASSWORD);
+    private SshClient getConnectedSshClient() throws IOException {
+        if (sshClient == null) {
+            final NetsimServer netsimServer = NetsimServerPool.getDefaultPool().getPrimaryNetsimServer();
+            logger.debug("Authanticate and connect to={}", netsimServer.getHost());
 
-        if (ServerUtility.isRunningOnWindowsServer()
-                || ServerUtility.isRunningOnJenkinsServer()) {
-            sshClient.connectThroughDefaultTunnel(NETSIM_SERVER);
-        } else if (ServerUtility.isRunningOnProductionNetsimServer()
-                || ServerUtility.isRunningOnNetsimServerApartFromProductionServer()) {
-            sshClient.connect(NETSIM_SERVER);
-        } else {
-            sshClient.connect(NETSIM_SERVER);
+            final boolean tunneled = ServerUtility.isRunningOnWindowsServer() || ServerUtility.isRunningOnJenkinsServer();
+            sshClient = sshSessionPool.acquire(netsimServer.getHost(), netsimServer.getUser(), netsimServer.getPassword(), tunneled);
         }
+        return sshClient;
     }
 }
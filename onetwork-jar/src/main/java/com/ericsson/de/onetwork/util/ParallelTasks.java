@@ -0,0 +1,172 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a task for each item of a list on a pool of threads, and returns the
+ * results in the order of the items.
+ * <p>
+ * Each thread takes the next item not yet taken, so slow items do not hold up
+ * the others. The threads are daemon threads named after the work, and are
+ * stopped once all items are done or a task fails. The first failure is
+ * thrown as it was thrown by the task: runtime exceptions and errors as they
+ * are, and the checked exception of the task as itself.
+ *
+ * @author eagent
+ */
+public final class ParallelTasks {
+
+    private ParallelTasks() {
+    }
+
+    /**
+     * Runs the task for each item, on at most the given number of threads. If
+     * only one thread is needed, the items are processed on the calling
+     * thread.
+     *
+     * @param name
+     *            the name of the work, which the threads are named after
+     * @param items
+     *            the items to run the task for
+     * @param parallelism
+     *            the most items processed at the same time, at least 1
+     * @param task
+     *            the task run for each item
+     * @return the result of each item, in the order of the items
+     * @throws E
+     *             the first exception thrown by the task
+     */
+    public static <T, R, E extends Exception> List<R> map(final String name, final List<T> items, final int parallelism,
+            final Task<? super T, ? extends R, E> task) throws E {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism of " + name + " must be at least 1, but was " + parallelism);
+        }
+        final int numberOfThreads = Math.min(parallelism, items.size());
+        if (numberOfThreads <= 1) {
+            final List<R> results = new ArrayList<>(items.size());
+            for (int index = 0; index < items.size(); index++) {
+                results.add(task.run(index, items.get(index)));
+            }
+            return results;
+        }
+
+        final Object[] results = new Object[items.size()];
+        final AtomicInteger nextIndex = new AtomicInteger();
+        final AtomicBoolean failed = new AtomicBoolean();
+        final ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads, new NamedDaemonThreadFactory(name));
+        try {
+            final List<Future<Void>> workers = new ArrayList<>(numberOfThreads);
+            for (int thread = 0; thread < numberOfThreads; thread++) {
+                workers.add(executor.submit(new Callable<Void>() {
+
+                    @Override
+                    public Void call() throws E {
+                        try {
+                            int index;
+                            while (!failed.get() && (index = nextIndex.getAndIncrement()) < items.size()) {
+                                results[index] = task.run(index, items.get(index));
+                            }
+                            return null;
+                        } catch (final Exception | Error e) {
+                            failed.set(true);
+                            throw e;
+                        }
+                    }
+                }));
+            }
+            for (final Future<Void> worker : workers) {
+                worker.get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running " + name, e);
+        } catch (final ExecutionException e) {
+            throw ParallelTasks.<E> asTaskException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        @SuppressWarnings("unchecked")
+        final List<R> orderedResults = (List<R>) Arrays.asList(results);
+        return new ArrayList<>(orderedResults);
+    }
+
+    /**
+     * Throws the cause of a failed task if it is unchecked, or returns it as
+     * the checked exception of the task, the only other kind it can throw.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E extends Exception> E asTaskException(final Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return (E) cause;
+    }
+
+    /**
+     * Work done for one item.
+     *
+     * @param <T>
+     *            the type of the items
+     * @param <R>
+     *            the type of the results
+     * @param <E>
+     *            the checked exception the task may throw
+     */
+    public interface Task<T, R, E extends Exception> {
+
+        /**
+         * Runs the task for one item.
+         *
+         * @param index
+         *            the position of the item in the list
+         * @param item
+         *            the item
+         * @return the result of the item
+         * @throws E
+         *             if the task fails
+         */
+        R run(int index, T item) throws E;
+    }
+
+    private static final class NamedDaemonThreadFactory implements ThreadFactory {
+
+        private final String name;
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        NamedDaemonThreadFactory(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, name + "-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
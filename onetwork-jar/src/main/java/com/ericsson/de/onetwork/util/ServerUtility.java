@@ -101,6 +101,25 @@ public class ServerUtility {
         return false;
     }
 
+    /**
+     * Determines if the running environment is the given server, comparing
+     * the host names without their domains.
+     *
+     * @param host
+     *            the host name of the server
+     * @return true if the current working environment is the given server
+     */
+    public static boolean isRunningOnServer(final String host) {
+        try {
+            final String hostname = InetAddress.getLocalHost().getHostName();
+            logger.debug("Current host is: {}", hostname);
+            return hostname.split("\\.")[0].equalsIgnoreCase(host.split("\\.")[0]);
+        } catch (final UnknownHostException ex) {
+            logger.error("Error: {}", ex.getMessage());
+        }
+        return false;
+    }
+
     /**
      * Determines if the running environment is a development Mint VM.
      *
@@ -0,0 +1,118 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.bs.rules;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.ericsson.de.onetwork.bs.Network;
+import com.ericsson.de.onetwork.bs._1Network;
+import com.ericsson.de.onetwork.dms.generics.NetworkElement;
+
+/**
+ * Verification of {@link NodeLocalRuleExecutor}.
+ *
+ * @author eagent
+ * @since 1Network_15.14
+ */
+public class NodeLocalRuleExecutorTest {
+
+    private final static int NUMBER_OF_NETWORK_ELEMENTS = 1000;
+    private final static String MO_TYPE_HIERARCHY = "ManagedElement,ENodeBFunction,EUtranCellFDD";
+
+    private Network network;
+
+    @BeforeMethod
+    public void setUp() {
+        final List<NetworkElement> networkElements = new ArrayList<NetworkElement>();
+        for (int networkElementIndex = 0; networkElementIndex < NUMBER_OF_NETWORK_ELEMENTS; networkElementIndex++) {
+            final NetworkElement networkElement = mock(NetworkElement.class);
+            when(networkElement.getName()).thenReturn(String.format("LTE01ERBS%05d", networkElementIndex + 1));
+            networkElements.add(networkElement);
+        }
+        network = new _1Network();
+        network.addNetworkElements(networkElements);
+    }
+
+    @Test
+    public void verifyResultsAreReducedInNetworkOrderWhenAppliedConcurrently() {
+        final CellNamingRule sequentialRule = new CellNamingRule(true);
+        NodeLocalRuleExecutor.apply(sequentialRule, network, new RuleConfig(MO_TYPE_HIERARCHY), 1);
+        final CellNamingRule concurrentRule = new CellNamingRule(true);
+        NodeLocalRuleExecutor.apply(concurrentRule, network, new RuleConfig(MO_TYPE_HIERARCHY), 8);
+
+        Assert.assertEquals(concurrentRule.reducedCellNames, sequentialRule.reducedCellNames);
+        Assert.assertEquals(concurrentRule.reducedCellNames.get(0), "LTE01ERBS00001-1");
+        Assert.assertTrue(concurrentRule.threadNames.size() > 1, "Network elements should be processed on several threads");
+    }
+
+    @Test
+    public void verifyRuleThatIsNotNodeLocalIsAppliedOnCallingThread() {
+        final CellNamingRule rule = new CellNamingRule(false);
+
+        NodeLocalRuleExecutor.apply(rule, network, new RuleConfig(MO_TYPE_HIERARCHY), 8);
+
+        Assert.assertEquals(rule.threadNames, Collections.singleton(Thread.currentThread().getName()));
+        Assert.assertEquals(rule.reducedCellNames.size(), NUMBER_OF_NETWORK_ELEMENTS);
+    }
+
+    /**
+     * Names one cell per network element, and records the threads it is
+     * applied on.
+     */
+    private static class CellNamingRule implements NodeLocalRule<String> {
+
+        private final boolean nodeLocal;
+        private final Set<String> threadNames = Collections.synchronizedSet(new HashSet<String>());
+        private final List<String> reducedCellNames = new ArrayList<String>();
+
+        private CellNamingRule(final boolean nodeLocal) {
+            this.nodeLocal = nodeLocal;
+        }
+
+        @Override
+        public boolean isNodeLocal(final RuleConfig config) {
+            return nodeLocal;
+        }
+
+        @Override
+        public void prepare(final Network network, final RuleConfig config) {
+        }
+
+        @Override
+        public String applyToNetworkElement(final int networkElementIndex, final NetworkElement networkElement) {
+            threadNames.add(Thread.currentThread().getName());
+            try {
+                Thread.sleep(1);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return networkElement.getName() + "-1";
+        }
+
+        @Override
+        public void reduce(final Network network, final List<String> results) {
+            reducedCellNames.addAll(results);
+        }
+    }
+}
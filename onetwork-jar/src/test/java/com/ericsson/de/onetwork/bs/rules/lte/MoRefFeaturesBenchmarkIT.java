@@ -0,0 +1,128 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.bs.rules.lte;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.ericsson.de.onetwork.bs.NameGenerator;
+import com.ericsson.de.onetwork.bs.Network;
+import com.ericsson.de.onetwork.bs._1Network;
+import com.ericsson.de.onetwork.bs.features.FeatureManager;
+import com.ericsson.de.onetwork.bs.features.FeatureModule;
+import com.ericsson.de.onetwork.bs.rules.Rule;
+import com.ericsson.de.onetwork.bs.rules.RuleConfig;
+import com.ericsson.de.onetwork.bs.rules.RuleManager;
+import com.ericsson.de.onetwork.bs.rules.RuleUtility;
+import com.ericsson.de.onetwork.dms.exceptions.InvalidChildException;
+import com.ericsson.de.onetwork.dms.generics.Mo;
+import com.ericsson.de.onetwork.dms.generics.MoFactory;
+import com.ericsson.de.onetwork.dms.generics.NetworkElement;
+import com.ericsson.de.onetwork.dms.mo.datatype.MoAttributeDataType;
+import com.ericsson.de.onetwork.gnm.Gnm;
+import com.ericsson.de.onetwork.gnm.GnmManager;
+import com.ericsson.de.onetwork.gnm.GnmRequestException;
+
+/**
+ * Times the features whose rules set MO Ref attributes, and verifies the Refs
+ * they set.
+ *
+ * @author eagent
+ */
+public class MoRefFeaturesBenchmarkIT {
+
+    private final static Logger logger = LoggerFactory.getLogger(MoRefFeaturesBenchmarkIT.class.getName());
+    private final static Network NETWORK = new _1Network();
+    private final static String GNM_REVISION = "LTE_R1";
+    private final static RuleManager RULE_MANAGER = new RuleManager(new MoFactory(true));
+    private final static int TOTAL_NODES = 40;
+    private final static FeatureManager FEATURE_MANAGER = new FeatureManager();
+    static Gnm lteGnm = null;
+
+    @BeforeClass
+    public static void setup() throws GnmRequestException {
+        lteGnm = GnmManager.getGnm(GNM_REVISION);
+        addNodes(NETWORK);
+        applyFeature("Cell Pattern Assignment");
+    }
+
+    @Test
+    public final void applyEUtranSupport_TimeIsLogged() throws InvalidChildException {
+        final long nanos = applyFeature("EUtran Support");
+        final int relations = getMoCountFromNetwork("ManagedElement,ENodeBFunction,EUtranCellFDD,EUtranFreqRelation");
+
+        logger.info("EUtran Support applied to {} nodes with {} EUtranFreqRelations in {} ms", TOTAL_NODES, relations, nanos / 1000000);
+        Assert.assertTrue(relations > 0);
+    }
+
+    @Test
+    public final void applyUtraSupport_TimeIsLogged_AndMoRefsAreSet() throws InvalidChildException {
+        final long nanos = applyFeature("Utra Support");
+        final int relations = getMoCountFromNetwork("ManagedElement,ENodeBFunction,EUtranCellFDD,UtranFreqRelation,UtranCellRelation");
+
+        logger.info("Utra Support applied to {} nodes with {} UtranCellRelations in {} ms", TOTAL_NODES, relations, nanos / 1000000);
+        Assert.assertTrue(relations > 0);
+        verifyMoRefAttributeSet("ManagedElement,ENodeBFunction,EUtranCellFDD,UtranFreqRelation", "utranFrequencyRef");
+        verifyMoRefAttributeSet("ManagedElement,ENodeBFunction,EUtranCellFDD,UtranFreqRelation,UtranCellRelation", "externalUtranCellFDDRef");
+    }
+
+    private static long applyFeature(final String featureName) {
+        final FeatureModule feature = FEATURE_MANAGER.getFeatureModule(featureName);
+        final Map<RuleConfig, Rule> ruleObjectMap = RuleUtility.getRuleObjectsFromRuleNames(RULE_MANAGER, feature.getRules().getMap());
+
+        final long startTime = System.nanoTime();
+        for (final Map.Entry<RuleConfig, Rule> entry : ruleObjectMap.entrySet()) {
+            final RuleConfig ruleConfig = entry.getKey();
+            ruleConfig.setGnm(lteGnm);
+            entry.getValue().apply(NETWORK, ruleConfig);
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    private static void verifyMoRefAttributeSet(final String moTypeHierarchy, final String refAttributeName) throws InvalidChildException {
+        for (final NetworkElement node : NETWORK.getNetworkElements()) {
+            for (final Mo mo : node.getMosFromNe(moTypeHierarchy)) {
+                final MoAttributeDataType moAttr = mo.getAttributeByName(refAttributeName);
+                if (moAttr == null || moAttr.getValue() == null || moAttr.getValue().toString().isEmpty()) {
+                    Assert.fail(refAttributeName + " not set on " + mo.getFdn());
+                }
+            }
+        }
+    }
+
+    private static int getMoCountFromNetwork(final String moTypeHierarchy) throws InvalidChildException {
+        int totalMos = 0;
+        for (final NetworkElement networkElement : NETWORK.getNetworkElements()) {
+            totalMos += networkElement.getMosFromNe(moTypeHierarchy).size();
+        }
+        return totalMos;
+    }
+
+    private static void addNodes(final Network network) {
+        final List<NetworkElement> networkElements = new ArrayList<NetworkElement>();
+        final NameGenerator nameGenerator = new NameGenerator();
+
+        for (int i = 0; i < TOTAL_NODES; i++) {
+            networkElements.add(new NetworkElement("LTE ERBS F1101", nameGenerator.getNextNeName("ERBS")));
+        }
+
+        network.addNetworkElements(networkElements);
+    }
+}
@@ -0,0 +1,89 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.dms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.ericsson.de.onetwork.dms.generics.Platform;
+import com.ericsson.de.onetwork.dms.momparser.MomParser;
+
+/**
+ * Unit tests for {@link MimModelCache}.
+ *
+ * @author eagent
+ * @since 1Network_15.14
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class MimModelCacheTest {
+
+    private final static String FIRST_MIM_VERSION = "LTE ERBS F1101";
+    private final static String SECOND_MIM_VERSION = "LTE ERBS G1220-V1lim";
+    private final static String THIRD_MIM_VERSION = "LTE ERBS G1260";
+
+    @Mock
+    private MomParser momParserMock;
+
+    @Test
+    public void whenGettingCachedMimVersion_thenSameModelIsReturned() {
+        final MimModelCache cache = new MimModelCache(2);
+        final MimModel model = createModel(FIRST_MIM_VERSION);
+        cache.put(model);
+
+        assertSame(model, cache.get(FIRST_MIM_VERSION));
+    }
+
+    @Test
+    public void whenCacheIsFull_thenLeastRecentlyUsedMimVersionIsEvicted() {
+        final MimModelCache cache = new MimModelCache(2);
+        cache.put(createModel(FIRST_MIM_VERSION));
+        cache.put(createModel(SECOND_MIM_VERSION));
+        cache.get(FIRST_MIM_VERSION);
+
+        cache.put(createModel(THIRD_MIM_VERSION));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(FIRST_MIM_VERSION));
+        assertNull(cache.get(SECOND_MIM_VERSION));
+        assertNotNull(cache.get(THIRD_MIM_VERSION));
+    }
+
+    @Test
+    public void whenMaximumSizeIsReduced_thenLeastRecentlyUsedMimVersionsAreEvicted() {
+        final MimModelCache cache = new MimModelCache(3);
+        cache.put(createModel(FIRST_MIM_VERSION));
+        cache.put(createModel(SECOND_MIM_VERSION));
+        cache.put(createModel(THIRD_MIM_VERSION));
+
+        cache.setMaximumSize(1);
+
+        assertEquals(1, cache.size());
+        assertNotNull(cache.get(THIRD_MIM_VERSION));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenMaximumSizeIsZero_thenIllegalArgumentExceptionIsThrown() {
+        new MimModelCache(0);
+    }
+
+    private MimModel createModel(final String mimVersion) {
+        return new MimModel(mimVersion, Platform.CPP, momParserMock);
+    }
+}
@@ -0,0 +1,239 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.dms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.ericsson.de.onetwork.dms.generics.Platform;
+import com.ericsson.de.onetwork.dms.mo.MoClassDescriptor;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Attribute;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Cardinality;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Child;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Class;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Containment;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.DataType;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.DefaultValue;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.EnumRef;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Max;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Min;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.MoRef;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Relationship;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Sequence;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.SystemCreated;
+import com.ericsson.de.onetwork.dms.util.CardinalityAssessor;
+
+/**
+ * Unit tests for {@link MimModelFile}.
+ *
+ * @author eagent
+ * @since 1Network_15.14
+ */
+public class MimModelFileTest {
+
+    private final static String MIM_VERSION = "LTE ERBS F1101";
+    private final static String ROOT_MO_TYPE = "ManagedElement";
+    private final static String SYSTEM_CREATED_MO_TYPE = "ENodeBFunction";
+    private final static String FEATURE_MO_TYPE = "EUtranCellFDD";
+    private final static String ROOT_TO_SYSTEM_CREATED = ROOT_MO_TYPE + "_to_" + SYSTEM_CREATED_MO_TYPE;
+    private final static String SYSTEM_CREATED_TO_FEATURE = SYSTEM_CREATED_MO_TYPE + "_to_" + FEATURE_MO_TYPE;
+    private final static long MOM_CHECKSUM = 42L;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private MimModel mimModel;
+    private Path mimModelFile;
+
+    @Before
+    public void setUp() {
+        final Map<String, Class> classes = new LinkedHashMap<>();
+        classes.put(SYSTEM_CREATED_MO_TYPE, createClass(SYSTEM_CREATED_MO_TYPE, true));
+        classes.put(ROOT_MO_TYPE, createClass(ROOT_MO_TYPE, false));
+
+        final Class cellClass = createClass(FEATURE_MO_TYPE, false);
+        final com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Long cellId = new com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Long();
+        cellId.setDefaultValue(createDefaultValue("1"));
+        cellClass.getActionOrAttribute().add(createAttribute("cellId", cellId));
+        final EnumRef administrativeState = new EnumRef();
+        administrativeState.setDefaultValue(createDefaultValue("LOCKED"));
+        cellClass.getActionOrAttribute().add(createAttribute("administrativeState", administrativeState));
+        cellClass.getActionOrAttribute().add(createAttribute("reservedBy", new MoRef()));
+        final com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Boolean acBarring =
+                new com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Boolean();
+        acBarring.setDefaultValue(createDefaultValue("false"));
+        final Sequence acBarringForSpecialAC = new Sequence();
+        acBarringForSpecialAC
+                .getIntegerOrBooleanOrOctetOrCharOrDoubleOrFloatOrLongOrLonglongOrShortOrStringOrWstringOrInt8OrInt16OrInt32OrInt64OrUint8OrUint16OrUint32OrUint64OrDecimal64OrEnumRefOrMoRefOrStructRefOrDerivedDataTypeRef()
+                .add(acBarring);
+        cellClass.getActionOrAttribute().add(createAttribute("acBarringForSpecialAC", acBarringForSpecialAC));
+        classes.put(FEATURE_MO_TYPE, cellClass);
+
+        final Map<String, Relationship> relationships = new LinkedHashMap<>();
+        relationships.put(ROOT_TO_SYSTEM_CREATED, createRelationship(ROOT_TO_SYSTEM_CREATED, "1", "1"));
+        relationships.put(SYSTEM_CREATED_TO_FEATURE, createRelationship(SYSTEM_CREATED_TO_FEATURE, null, "12"));
+
+        mimModel = new MimModel(MIM_VERSION, Platform.CPP, classes, relationships);
+        mimModelFile = temporaryFolder.getRoot().toPath().resolve(MimModelFile.getFileName(MIM_VERSION));
+    }
+
+    @Test
+    public void whenModelIsWrittenAndRead_thenClassesAndAttributesAreKept() throws IOException {
+        MimModelFile.write(mimModel, MOM_CHECKSUM, mimModelFile);
+
+        final MimModel readModel = MimModelFile.read(mimModelFile, MOM_CHECKSUM);
+
+        assertEquals(MIM_VERSION, readModel.getMimVersion());
+        assertEquals(Platform.CPP, readModel.getPlatform());
+        assertEquals(ROOT_MO_TYPE, readModel.getRootMoClass().getName());
+        assertTrue(readModel.isMoSystemCreated(SYSTEM_CREATED_MO_TYPE));
+        assertFalse(readModel.isMoSystemCreated(FEATURE_MO_TYPE));
+
+        final MoClassDescriptor expected = mimModel.getMoClassDescriptor(FEATURE_MO_TYPE);
+        final MoClassDescriptor actual = readModel.getMoClassDescriptor(FEATURE_MO_TYPE);
+        assertEquals(expected.getAttributeNames(), actual.getAttributeNames());
+        for (final String attributeName : expected.getAttributeNames()) {
+            assertEquals(expected.getDataType(attributeName), actual.getDataType(attributeName));
+            assertEquals(expected.getAttribute(attributeName).getDefaultValue(), actual.getAttribute(attributeName).getDefaultValue());
+        }
+    }
+
+    @Test
+    public void whenModelIsWrittenAndRead_thenRelationshipsAndCardinalitiesAreKept() throws IOException {
+        MimModelFile.write(mimModel, MOM_CHECKSUM, mimModelFile);
+
+        final MimModel readModel = MimModelFile.read(mimModelFile, MOM_CHECKSUM);
+
+        assertEquals(Arrays.asList(SYSTEM_CREATED_MO_TYPE), readModel.getChildMoTypes(ROOT_MO_TYPE));
+        assertEquals(Arrays.asList(FEATURE_MO_TYPE), readModel.getChildMoTypes(SYSTEM_CREATED_MO_TYPE));
+        final Relationship rootToSystemCreated = readModel.getRelationship(ROOT_MO_TYPE, SYSTEM_CREATED_MO_TYPE);
+        assertEquals(1, CardinalityAssessor.getMinCardinality(rootToSystemCreated));
+        assertEquals(1, CardinalityAssessor.getMaxCardinality(rootToSystemCreated));
+        final Relationship systemCreatedToFeature = readModel.getRelationship(SYSTEM_CREATED_MO_TYPE, FEATURE_MO_TYPE);
+        assertEquals(0, CardinalityAssessor.getMinCardinality(systemCreatedToFeature));
+        assertEquals(12, CardinalityAssessor.getMaxCardinality(systemCreatedToFeature));
+    }
+
+    @Test
+    public void whenMomChecksumHasChanged_thenModelFileIsIgnored() throws IOException {
+        MimModelFile.write(mimModel, MOM_CHECKSUM, mimModelFile);
+
+        assertNull(MimModelFile.read(mimModelFile, MOM_CHECKSUM + 1));
+    }
+
+    @Test
+    public void whenModelFingerprintHasChanged_thenModelFileIsIgnored() throws IOException {
+        MimModelFile.write(mimModel, MOM_CHECKSUM, mimModelFile);
+        final ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(mimModelFile));
+        // The fingerprint follows the magic number and the format version
+        content.putLong(8, MimModelFile.MODEL_FINGERPRINT + 1);
+        Files.write(mimModelFile, content.array());
+
+        assertNull(MimModelFile.read(mimModelFile, MOM_CHECKSUM));
+    }
+
+    @Test
+    public void whenModelFileIsMissingOrNotAModelFile_thenNullIsReturned() throws IOException {
+        assertNull(MimModelFile.read(mimModelFile, MOM_CHECKSUM));
+
+        Files.write(mimModelFile, "<models/>".getBytes(StandardCharsets.UTF_8));
+        assertNull(MimModelFile.read(mimModelFile, MOM_CHECKSUM));
+    }
+
+    @Test
+    public void whenMomFileChanges_thenChecksumChanges() throws IOException {
+        final Path momFile = temporaryFolder.newFile("mom.xml").toPath();
+        Files.write(momFile, "<models><mim/></models>".getBytes(StandardCharsets.UTF_8));
+        final long checksum = MimModelFile.getChecksum(momFile);
+
+        assertEquals(checksum, MimModelFile.getChecksum(momFile));
+        Files.write(momFile, "<models><mim></mim></models>".getBytes(StandardCharsets.UTF_8));
+        assertNotEquals(checksum, MimModelFile.getChecksum(momFile));
+    }
+
+    @Test
+    public void whenFileInMomDirectoryChanges_thenChecksumChanges() throws IOException {
+        final Path momDirectory = temporaryFolder.newFolder("SGSN").toPath();
+        Files.write(momDirectory.resolve("fragment1.xml"), "<models/>".getBytes(StandardCharsets.UTF_8));
+        Files.write(momDirectory.resolve("fragment2.xml"), "<models/>".getBytes(StandardCharsets.UTF_8));
+        final long checksum = MimModelFile.getChecksum(momDirectory);
+
+        Files.write(momDirectory.resolve("fragment2.xml"), "<models></models>".getBytes(StandardCharsets.UTF_8));
+        assertNotEquals(checksum, MimModelFile.getChecksum(momDirectory));
+    }
+
+    private static Class createClass(final String name, final boolean systemCreated) {
+        final Class moClass = new Class();
+        moClass.setName(name);
+        if (systemCreated) {
+            moClass.setSystemCreated(new SystemCreated());
+        }
+        return moClass;
+    }
+
+    private static Attribute createAttribute(final String name, final Object dataTypeContent) {
+        final DataType dataType = new DataType();
+        dataType
+                .getIntegerOrBooleanOrOctetOrCharOrDoubleOrFloatOrLongOrLonglongOrShortOrStringOrWstringOrInt8OrInt16OrInt32OrInt64OrUint8OrUint16OrUint32OrUint64OrDecimal64OrEnumRefOrMoRefOrStructRefOrDerivedDataTypeRefOrSequence()
+                .add(dataTypeContent);
+        final Attribute attribute = new Attribute();
+        attribute.setName(name);
+        attribute.setDataType(dataType);
+        return attribute;
+    }
+
+    private static DefaultValue createDefaultValue(final String value) {
+        final DefaultValue defaultValue = new DefaultValue();
+        defaultValue.setvalue(value);
+        return defaultValue;
+    }
+
+    private static Relationship createRelationship(final String name, final String minValue, final String maxValue) {
+        final Cardinality cardinality = new Cardinality();
+        if (null != minValue) {
+            final Min min = new Min();
+            min.setvalue(minValue);
+            cardinality.getMinOrMax().add(min);
+        }
+        final Max max = new Max();
+        max.setvalue(maxValue);
+        cardinality.getMinOrMax().add(max);
+
+        final Child child = new Child();
+        child.setCardinality(cardinality);
+        final Containment containment = new Containment();
+        containment.getChild().add(child);
+
+        final Relationship relationship = new Relationship();
+        relationship.setName(name);
+        relationship.getBiDirectionalAssociationOrUniDirectionalAssociationOrContainmentOrInheritance().add(containment);
+        return relationship;
+    }
+}
@@ -0,0 +1,155 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.dms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.ericsson.de.onetwork.dms.exceptions.DataModellerServiceException;
+import com.ericsson.de.onetwork.dms.generics.Mo;
+import com.ericsson.de.onetwork.dms.generics.Platform;
+import com.ericsson.de.onetwork.dms.momparser.MomParser;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Cardinality;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Child;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Class;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Containment;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Max;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Min;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Relationship;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.SystemCreated;
+
+/**
+ * Unit tests for {@link MimModel}.
+ *
+ * @author eagent
+ * @since 1Network_15.14
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class MimModelTest {
+
+    private final static String MIM_VERSION = "LTE ERBS F1101";
+    private final static String ROOT_MO_TYPE = "ManagedElement";
+    private final static String SYSTEM_CREATED_MO_TYPE = "ENodeBFunction";
+    private final static String FEATURE_MO_TYPE = "EUtranCellFDD";
+    private final static String ROOT_TO_SYSTEM_CREATED = ROOT_MO_TYPE + "_to_" + SYSTEM_CREATED_MO_TYPE;
+
+    @Mock
+    private MomParser momParserMock;
+
+    private MimModel mimModel;
+
+    @Before
+    public void setUp() {
+        final Map<String, Class> classes = new LinkedHashMap<>();
+        classes.put("ManagedObject", createClass("ManagedObject", false));
+        classes.put(SYSTEM_CREATED_MO_TYPE, createClass(SYSTEM_CREATED_MO_TYPE, true));
+        classes.put(ROOT_MO_TYPE, createClass(ROOT_MO_TYPE, false));
+        classes.put(FEATURE_MO_TYPE, createClass(FEATURE_MO_TYPE, false));
+
+        final Map<String, Relationship> relationships = new LinkedHashMap<>();
+        relationships.put(ROOT_TO_SYSTEM_CREATED, createRelationship(ROOT_TO_SYSTEM_CREATED));
+        final String systemCreatedToFeature = SYSTEM_CREATED_MO_TYPE + "_to_" + FEATURE_MO_TYPE;
+        relationships.put(systemCreatedToFeature, createRelationship(systemCreatedToFeature));
+
+        when(momParserMock.getMimClasses()).thenReturn(classes);
+        when(momParserMock.getMimRelationships()).thenReturn(relationships);
+        mimModel = new MimModel(MIM_VERSION, Platform.CPP, momParserMock);
+    }
+
+    @Test
+    public void whenGettingRootMoClass_thenClassWithoutParentIsReturned() {
+        assertEquals(ROOT_MO_TYPE, mimModel.getRootMoClass().getName());
+    }
+
+    @Test
+    public void whenGettingRelationship_withParentAndChildTypes_thenRelationshipIsReturned() {
+        assertEquals(ROOT_TO_SYSTEM_CREATED, mimModel.getRelationship(ROOT_MO_TYPE, SYSTEM_CREATED_MO_TYPE).getName());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void whenGettingRelationship_withInvalidChildType_thenIllegalStateExceptionIsThrown() {
+        mimModel.getRelationship(ROOT_MO_TYPE, FEATURE_MO_TYPE);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void whenGettingCardinalityBounds_withInvalidChildType_thenIllegalStateExceptionIsThrown() {
+        mimModel.getCardinalityBounds(ROOT_MO_TYPE, FEATURE_MO_TYPE);
+    }
+
+    @Test
+    public void whenCheckingSystemCreated_thenMomSystemCreatedFlagIsUsed() {
+        assertTrue(mimModel.isMoSystemCreated(SYSTEM_CREATED_MO_TYPE));
+        assertFalse(mimModel.isMoSystemCreated(FEATURE_MO_TYPE));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void whenGettingMoClassDescriptor_withInvalidMoType_thenIllegalStateExceptionIsThrown() {
+        mimModel.getMoClassDescriptor("invalid");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void whenModifyingChildMoTypes_thenUnsupportedOperationExceptionIsThrown() {
+        assertEquals(Arrays.asList(SYSTEM_CREATED_MO_TYPE), mimModel.getChildMoTypes(ROOT_MO_TYPE));
+        mimModel.getChildMoTypes(ROOT_MO_TYPE).add(FEATURE_MO_TYPE);
+    }
+
+    @Test
+    public void whenGettingSystemCreatedMoTemplate_thenTemplateIsBuiltOncePerModel() throws DataModellerServiceException {
+        final Mo template = mimModel.getSystemCreatedMoTemplate();
+
+        assertSame(template, mimModel.getSystemCreatedMoTemplate());
+        assertEquals(ROOT_MO_TYPE, template.getType());
+        assertNotSame(template, new MimModel(MIM_VERSION, Platform.CPP, momParserMock).getSystemCreatedMoTemplate());
+    }
+
+    private static Class createClass(final String name, final boolean systemCreated) {
+        final Class moClass = new Class();
+        moClass.setName(name);
+        if (systemCreated) {
+            moClass.setSystemCreated(new SystemCreated());
+        }
+        return moClass;
+    }
+
+    private static Relationship createRelationship(final String name) {
+        final Min min = new Min();
+        min.setvalue("1");
+        final Max max = new Max();
+        max.setvalue("1");
+        final Cardinality cardinality = new Cardinality();
+        cardinality.getMinOrMax().add(min);
+        cardinality.getMinOrMax().add(max);
+        final Child child = new Child();
+        child.setCardinality(cardinality);
+        final Containment containment = new Containment();
+        containment.getChild().add(child);
+        final Relationship relationship = new Relationship();
+        relationship.setName(name);
+        relationship.getBiDirectionalAssociationOrUniDirectionalAssociationOrContainmentOrInheritance().add(containment);
+        return relationship;
+    }
+}
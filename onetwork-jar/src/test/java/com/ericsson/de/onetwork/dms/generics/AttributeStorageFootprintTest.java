@@ -0,0 +1,213 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.dms.generics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.de.onetwork.dms.mo.MoClassDescriptor;
+import com.ericsson.de.onetwork.dms.mo.datatype.MoAttributeDataType;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Attribute;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Class;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.DataType;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.DefaultValue;
+
+/**
+ * Verifies the slot based attribute storage of {@link AbstractMo}, and
+ * compares its heap footprint with the previous map per {@link Mo} storage for
+ * a network of 1000 nodes.
+ *
+ * @author eagent
+ * @since 1Network_15.14
+ */
+public class AttributeStorageFootprintTest {
+
+    private final static Logger logger = LoggerFactory.getLogger(AttributeStorageFootprintTest.class);
+
+    private final static int NUMBER_OF_NODES = 1000;
+    private final static int MOS_PER_NODE = 10;
+    private final static int ATTRIBUTES_PER_MO = 100;
+    private final static String MO_TYPE = "EUtranCellFDD";
+    private final static String DEFAULT_VALUE = "0";
+
+    private MoClassDescriptor descriptor;
+
+    @Before
+    public void setUp() {
+        final Class momMoClass = new Class();
+        momMoClass.setName(MO_TYPE);
+        for (int attributeIndex = 0; attributeIndex < ATTRIBUTES_PER_MO; attributeIndex++) {
+            final com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Long longType = new com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Long();
+            if (attributeIndex % 2 == 0) {
+                final DefaultValue defaultValue = new DefaultValue();
+                defaultValue.setvalue(DEFAULT_VALUE);
+                longType.setDefaultValue(defaultValue);
+            }
+            final DataType dataType = new DataType();
+            dataType
+                    .getIntegerOrBooleanOrOctetOrCharOrDoubleOrFloatOrLongOrLonglongOrShortOrStringOrWstringOrInt8OrInt16OrInt32OrInt64OrUint8OrUint16OrUint32OrUint64OrDecimal64OrEnumRefOrMoRefOrStructRefOrDerivedDataTypeRefOrSequence()
+                    .add(longType);
+            final Attribute attribute = new Attribute();
+            attribute.setName("attribute" + attributeIndex);
+            attribute.setDataType(dataType);
+            momMoClass.getActionOrAttribute().add(attribute);
+        }
+        descriptor = MoClassDescriptor.compile(momMoClass);
+    }
+
+    @Test
+    public void whenDefaultsAreSet_thenMosShareTheDefaultAttributeInstance() {
+        final Mo firstMo = createMoWithDefaults("1");
+        final Mo secondMo = createMoWithDefaults("2");
+
+        assertSame(firstMo.getAttributeByName("attribute0"), secondMo.getAttributeByName("attribute0"));
+        assertEquals(DEFAULT_VALUE, firstMo.getAttributeByName("attribute0").getValue());
+        assertNull(firstMo.getAttributeByName("attribute1").getValue());
+        assertEquals("Long", firstMo.getAttributeByName("attribute1").getDataType());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void whenSharedDefaultAttributeIsModifiedInPlace_thenUnsupportedOperationExceptionIsThrown() {
+        final Mo mo = createMoWithDefaults("1");
+
+        mo.getAttributeByName("attribute0").setValue("7");
+    }
+
+    @Test
+    public void whenFeatureSetsAttribute_thenOnlyThatMoChangesAndNameIsReportedOnce() {
+        final Mo firstMo = createMoWithDefaults("1");
+        final Mo secondMo = createMoWithDefaults("2");
+
+        firstMo.setAttributeValue("attribute4", "7", CreationContext.FEATURE_CREATED);
+        firstMo.setAttributeValue("attribute2", "5", CreationContext.FEATURE_CREATED);
+        firstMo.setAttributeValue("attribute4", "8", CreationContext.FEATURE_CREATED);
+
+        assertEquals("8", firstMo.getAttributeByName("attribute4").getValue());
+        assertEquals(DEFAULT_VALUE, secondMo.getAttributeByName("attribute4").getValue());
+        assertEquals(Arrays.asList("attribute4", "attribute2"), firstMo.getFeaturePopulatedAttributeNames());
+        assertTrue(secondMo.getFeaturePopulatedAttributeNames().isEmpty());
+    }
+
+    @Test
+    public void whenFeatureSetsAttributesOutOfMomOrder_thenNamesAreReportedInPopulationOrder() {
+        final Mo mo = createMoWithDefaults("1");
+
+        mo.setAttributeValue("attribute6", "7", CreationContext.FEATURE_CREATED);
+        mo.setAttributeValue("undeclared", "value", CreationContext.FEATURE_CREATED);
+        mo.setAttributeValue("attribute1", "5", CreationContext.FEATURE_CREATED);
+        mo.setAttributeValue("undeclared", "other", CreationContext.FEATURE_CREATED);
+        mo.setAttributeValue("attribute6", "8", CreationContext.FEATURE_CREATED);
+
+        assertEquals(Arrays.asList("attribute6", "undeclared", "attribute1"), mo.getFeaturePopulatedAttributeNames());
+        ((AbstractMo) mo).shareAttributeSlots();
+        assertEquals(Arrays.asList("attribute6", "undeclared", "attribute1"), ((AbstractMo) mo).copySubtree(null, "2").getFeaturePopulatedAttributeNames());
+    }
+
+    @Test
+    public void whenAttributeIsNotInMom_thenItIsStillStored() {
+        final Mo mo = createMoWithDefaults("1");
+
+        mo.setAttributeValue("undeclared", "value", CreationContext.FEATURE_CREATED);
+
+        assertEquals("value", mo.getAttributeByName("undeclared").getValue());
+        assertEquals(ATTRIBUTES_PER_MO + 1, mo.getAttributeNames().size());
+        assertEquals(Arrays.asList("undeclared"), mo.getFeaturePopulatedAttributeNames());
+    }
+
+    @Test
+    public void whenBuildingNetworkOfMos_thenSlotStorageUsesLessHeapThanMapStorage() {
+        final long mapStorageBytes = measureRetainedBytes(new Runnable() {
+            @Override
+            public void run() {
+                retained = createMapStorageNetwork();
+            }
+        });
+        final long slotStorageBytes = measureRetainedBytes(new Runnable() {
+            @Override
+            public void run() {
+                retained = createSlotStorageNetwork();
+            }
+        });
+
+        logger.info("Attribute storage for {} nodes of {} Mos with {} attributes: map {} KB, slots {} KB", NUMBER_OF_NODES, MOS_PER_NODE,
+                ATTRIBUTES_PER_MO, mapStorageBytes / 1024, slotStorageBytes / 1024);
+        assertTrue("Slot storage should use less heap than map storage", slotStorageBytes < mapStorageBytes);
+    }
+
+    private Object retained;
+
+    private long measureRetainedBytes(final Runnable allocation) {
+        retained = null;
+        final long before = usedMemory();
+        allocation.run();
+        final long after = usedMemory();
+        retained = null;
+        return after - before;
+    }
+
+    private static long usedMemory() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int collection = 0; collection < 3; collection++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private List<Mo> createSlotStorageNetwork() {
+        final List<Mo> mos = new ArrayList<>();
+        for (int moIndex = 0; moIndex < NUMBER_OF_NODES * MOS_PER_NODE; moIndex++) {
+            mos.add(createMoWithDefaults(Integer.toString(moIndex)));
+        }
+        return mos;
+    }
+
+    /**
+     * The storage used before slots: a map per {@code Mo} holding a new
+     * {@link MoAttributeDataType} per attribute, plus a feature name list.
+     */
+    private List<Object[]> createMapStorageNetwork() {
+        final List<Object[]> mos = new ArrayList<>();
+        for (int moIndex = 0; moIndex < NUMBER_OF_NODES * MOS_PER_NODE; moIndex++) {
+            final Map<String, MoAttributeDataType> attributes = new HashMap<>();
+            for (final String attributeName : descriptor.getAttributeNames()) {
+                attributes.put(attributeName, new MoAttributeDataType(descriptor.getDataType(attributeName), descriptor.getAttribute(
+                        attributeName).getDefaultValue()));
+            }
+            mos.add(new Object[] { attributes, new ArrayList<String>() });
+        }
+        return mos;
+    }
+
+    private Mo createMoWithDefaults(final String name) {
+        final Mo mo = new CppMo(descriptor.getMomMoClass(), null, MO_TYPE, name);
+        mo.setMoClassDescriptor(descriptor);
+        mo.setAttributeNames(descriptor.getAttributeNames());
+        for (final String attributeName : mo.getAttributeNames()) {
+            mo.setAttributeValue(attributeName, descriptor.getAttribute(attributeName).getDefaultValue(), CreationContext.SYSTEM_CREATED);
+        }
+        return mo;
+    }
+}
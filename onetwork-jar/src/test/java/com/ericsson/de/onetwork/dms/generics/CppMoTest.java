@@ -12,10 +12,17 @@
 
 package com.ericsson.de.onetwork.dms.generics;
 
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.mockito.InjectMocks;
@@ -39,6 +46,8 @@ public class CppMoTest {
 
     private final static String REQUESTED_MO_TYPE = "requestedMoType";
     private final static String REQUESTED_MO_NAME = "requestedMoName";
+    private final static String CHILD_MO_TYPE = "childMoType";
+    private final static String CHILD_MO_NAME = "childMoName";
 
     @Mock
     private Class classMock;
@@ -90,4 +99,65 @@ public class CppMoTest {
 
         assertNotNull(requestedMo, "Null child has been added to Mo. This is an exceptional case.");
     }
+
+    @Test
+    public void whenFindingChildByTypeByName_withNoSuchChild_thenNullIsReturned() {
+        cppMock.setChildTypes(Arrays.asList(CHILD_MO_TYPE));
+
+        assertNull(cppMock.findChildByTypeByName(CHILD_MO_TYPE, CHILD_MO_NAME));
+        assertNull(cppMock.findChildByTypeByName("invalidMoType", CHILD_MO_NAME));
+    }
+
+    @Test
+    public void whenAddingChildrenWithSameName_thenFirstChildIsFoundAndAllAreKeptInOrder() {
+        cppMock.setChildTypes(Arrays.asList(CHILD_MO_TYPE));
+        final Mo firstMo = mockChild(CHILD_MO_NAME);
+        final Mo otherMo = mockChild("otherMoName");
+        final Mo secondMo = mockChild(CHILD_MO_NAME);
+        cppMock.addChild(firstMo);
+        cppMock.addChild(otherMo);
+        cppMock.addChild(secondMo);
+
+        assertSame(cppMock.findChildByTypeByName(CHILD_MO_TYPE, CHILD_MO_NAME), firstMo);
+        assertEquals(cppMock.getChildren(), Arrays.asList(firstMo, otherMo, secondMo));
+    }
+
+    @Test
+    public void whenAddingAndRemovingChildren_thenNumberOfChildrenByTypeIsCounted() throws InvalidChildException {
+        cppMock.setChildTypes(Arrays.asList(CHILD_MO_TYPE));
+        final Mo firstMo = mockChild(CHILD_MO_NAME);
+        final Mo secondMo = mockChild(CHILD_MO_NAME);
+        cppMock.addChild(firstMo);
+        cppMock.addChild(secondMo);
+
+        assertEquals(cppMock.getNumberOfChildrenByType(CHILD_MO_TYPE), 2);
+        assertTrue(cppMock.removeChild(firstMo));
+        assertFalse(cppMock.removeChild(firstMo));
+
+        assertEquals(cppMock.getNumberOfChildrenByType(CHILD_MO_TYPE), 1);
+        assertSame(cppMock.findChildByTypeByName(CHILD_MO_TYPE, CHILD_MO_NAME), secondMo);
+        assertEquals(cppMock.getChildren(), Arrays.asList(secondMo));
+    }
+
+    @Test(expectedExceptions = InvalidChildException.class)
+    public void whenCountingChildren_withInvalidMoType_thenInvalidChildExceptionIsThrown() throws InvalidChildException {
+        cppMock.setChildTypes(Arrays.asList(CHILD_MO_TYPE));
+
+        cppMock.getNumberOfChildrenByType("invalidMoType");
+    }
+
+    @Test
+    public void whenCheckingValidChildMoType_thenOnlyChildTypesAreValid() {
+        cppMock.setChildTypes(Arrays.asList(CHILD_MO_TYPE));
+
+        assertTrue(cppMock.isValidChildMoType(CHILD_MO_TYPE));
+        assertFalse(cppMock.isValidChildMoType("invalidMoType"));
+    }
+
+    private static Mo mockChild(final String name) {
+        final Mo childMo = mock(Mo.class);
+        when(childMo.getType()).thenReturn(CHILD_MO_TYPE);
+        when(childMo.getName()).thenReturn(name);
+        return childMo;
+    }
 }
@@ -13,8 +13,13 @@
 package com.ericsson.de.onetwork.dms.generics;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.testng.annotations.Test;
 
 /**
@@ -78,4 +83,45 @@ public class FdnTest {
         assertEquals(secondLevel.toString(), expectedStringValue, "The FDN as a string does not match expected value.");
     }
 
+    @Test
+    public void whenEquals_withSameRdnsUnderDifferentParentInstances_thenReturnTrue() {
+        final Fdn otherRootLevel = new Fdn(null, "ManagedElement", new String("LTE01ERBS001"));
+        final Fdn otherSecondLevel = new Fdn(new Fdn(otherRootLevel, "ENodeBFunction", "1"), "EUtranCellFDD", "EUtranCellFDD001-1");
+
+        assertTrue(secondLevel.equals(otherSecondLevel), "Fdn objects do not match.");
+        assertEquals(secondLevel.hashCode(), otherSecondLevel.hashCode(), "Hash codes of equal Fdn objects do not match.");
+    }
+
+    @Test
+    public void whenEquals_withDifferentParentRdn_thenReturnFalse() {
+        final Fdn otherRootLevel = new Fdn(null, "ManagedElement", "LTE01ERBS002");
+        final Fdn otherSecondLevel = new Fdn(new Fdn(otherRootLevel, "ENodeBFunction", "1"), "EUtranCellFDD", "EUtranCellFDD001-1");
+
+        assertFalse(secondLevel.equals(otherSecondLevel), "Fdn objects under different parents match.");
+        assertFalse(firstLevel.equals(secondLevel), "Fdn objects of different lengths match.");
+    }
+
+    @Test
+    public void whenUsedAsMapKey_withEqualFdn_thenValueIsFound() {
+        final Map<Fdn, String> values = new HashMap<>();
+        values.put(secondLevel, "cell");
+
+        final Fdn lookupFdn = new Fdn(new Fdn(new Fdn(null, "ManagedElement", "LTE01ERBS001"), "ENodeBFunction", "1"), "EUtranCellFDD",
+                "EUtranCellFDD001-1");
+
+        assertEquals(values.get(lookupFdn), "cell", "The Fdn could not be used as a map key.");
+    }
+
+    @Test
+    public void whenCreated_thenTypeAndNameAreInterned() {
+        final Fdn fdn = new Fdn(null, new String("ManagedElement"), new String("LTE01ERBS001"));
+
+        assertSame(fdn.getType(), rootLevel.getType(), "The type of RDN is not interned.");
+        assertSame(fdn.getName(), rootLevel.getName(), "The name of RDN is not interned.");
+    }
+
+    @Test
+    public void whenToString_calledTwice_thenReturnSameInstance() {
+        assertSame(secondLevel.toString(), secondLevel.toString(), "The FDN as a string is not cached.");
+    }
 }
@@ -14,6 +14,8 @@ package com.ericsson.de.onetwork.dms.generics;
 
 import static org.mockito.Mockito.when;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.support.membermodification.MemberMatcher.method;
+import static org.powermock.api.support.membermodification.MemberModifier.stub;
 
 import java.util.Collections;
 import java.util.HashMap;
@@ -25,8 +27,10 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
 
 import com.ericsson.de.onetwork.MimXmlFileTestConstants;
+import com.ericsson.de.onetwork.dms.MimModel;
 import com.ericsson.de.onetwork.dms.exceptions.InvalidChildException;
 import com.ericsson.de.onetwork.dms.exceptions.InvalidPlatformRuntimeException;
 import com.ericsson.de.onetwork.dms.exceptions.MaximumCardinalityExceededException;
@@ -44,7 +48,7 @@ import com.ericsson.de.onetwork.dms.util.CardinalityAssessor;
  * @since 1Network_15.14
  */
 @RunWith(PowerMockRunner.class)
-@PrepareForTest(CardinalityAssessor.class)
+@PrepareForTest({ CardinalityAssessor.class, MoFactory.class })
 public class MoFactoryTest {
 
     private final static String CPP_MIM_VERSION = "erbs_nodes/" + MimXmlFileTestConstants.CPP_MIM;
@@ -113,8 +117,10 @@ public class MoFactoryTest {
         when(momParserMock.getMimRelationships()).thenReturn(Collections.<String, Relationship>emptyMap());
         when(parentMoMock.isValidChildMoType(MO_TYPE)).thenReturn(true);
         when(parentMoMock.getFdn()).thenReturn(fdnMock);
+        final MimModel mimModel = Whitebox.newInstance(MimModel.class);
+        stub(method(MoFactory.class, "getMimModel", String.class)).toReturn(mimModel);
         mockStatic(CardinalityAssessor.class);
-        when(CardinalityAssessor.isMaxCardinalityExceeded(MO_TYPE, parentMoMock)).thenReturn(new Boolean(true));
+        when(CardinalityAssessor.isMaxCardinalityExceeded(mimModel, MO_TYPE, parentMoMock)).thenReturn(new Boolean(true));
 
         final MoFactory moFactory = new MoFactory(true);
 
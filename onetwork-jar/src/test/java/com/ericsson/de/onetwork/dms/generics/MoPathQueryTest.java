@@ -0,0 +1,118 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.dms.generics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ericsson.de.onetwork.dms.exceptions.InvalidChildException;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Class;
+
+/**
+ * Verifies the evaluation of a {@link MoPathQuery} against a tree of
+ * {@link Mo}s, and the subtree modification count its results are cached by.
+ *
+ * @author eagent
+ * @since 1Network_15.14
+ */
+public class MoPathQueryTest {
+
+    private final static String ROOT_TYPE = "ManagedElement";
+    private final static String FUNCTION_TYPE = "ENodeBFunction";
+    private final static String CELL_TYPE = "EUtranCellFDD";
+    private final static String RELATION_TYPE = "EUtranFreqRelation";
+
+    private AbstractMo rootMo;
+    private AbstractMo function;
+
+    @Before
+    public void setUp() {
+        rootMo = createMo(ROOT_TYPE, null, "1", Arrays.asList(FUNCTION_TYPE));
+        function = createMo(FUNCTION_TYPE, rootMo, "1", Arrays.asList(CELL_TYPE));
+        rootMo.addChild(function);
+        for (int cellIndex = 1; cellIndex <= 2; cellIndex++) {
+            final AbstractMo cell = createMo(CELL_TYPE, function, String.valueOf(cellIndex), Arrays.asList(RELATION_TYPE));
+            function.addChild(cell);
+            for (int relationIndex = 1; relationIndex <= 2; relationIndex++) {
+                cell.addChild(createMo(RELATION_TYPE, cell, String.valueOf(relationIndex), Collections.<String> emptyList()));
+            }
+        }
+    }
+
+    @Test
+    public void whenCompilingQuery_thenMoTypesAreSplitOnce() {
+        final MoPathQuery query = MoPathQuery.compile("ManagedElement,ENodeBFunction,EUtranCellFDD");
+
+        assertEquals(3, query.getNumberOfMoTypes());
+        assertEquals(FUNCTION_TYPE, query.getMoType(1));
+        assertEquals(CELL_TYPE, query.getLastMoType());
+        assertEquals(query, MoPathQuery.compile(query.getMoTypeHierarchy()));
+    }
+
+    @Test
+    public void whenComparingQueries_thenPrefixIsFoundIgnoringCaseAndRootType() {
+        final MoPathQuery cells = MoPathQuery.compile("ManagedElement,ENodeBFunction,EUtranCellFDD");
+
+        assertTrue(cells.isPrefixOf(MoPathQuery.compile("Root,enodebfunction,EUtranCellFDD,EUtranFreqRelation")));
+        assertTrue(cells.isPrefixOf(cells));
+        assertFalse(cells.isPrefixOf(MoPathQuery.compile("ManagedElement,ENodeBFunction,EUtraNetwork,EUtranFrequency")));
+        assertFalse(cells.isPrefixOf(MoPathQuery.compile("ManagedElement,ENodeBFunction")));
+    }
+
+    @Test
+    public void whenFindingMos_thenMosOfLastTypeAreFoundInChildOrder() throws InvalidChildException {
+        final List<Mo> relations = MoPathQuery.compile("ManagedElement,enodebfunction,EUtranCellFDD,EUtranFreqRelation").findMos(rootMo);
+
+        assertEquals(4, relations.size());
+        assertEquals("ManagedElement=1,ENodeBFunction=1,EUtranCellFDD=1,EUtranFreqRelation=1", relations.get(0).getFdn().toString());
+        assertEquals("ManagedElement=1,ENodeBFunction=1,EUtranCellFDD=2,EUtranFreqRelation=2", relations.get(3).getFdn().toString());
+    }
+
+    @Test
+    public void whenFindingMos_withNoMatchingChildOfRoot_thenNoMosAreFound() throws InvalidChildException {
+        assertTrue(MoPathQuery.compile("ManagedElement,Equipment,Slot").findMos(rootMo).isEmpty());
+    }
+
+    @Test(expected = InvalidChildException.class)
+    public void whenFindingMos_withInvalidChildType_thenInvalidChildExceptionIsThrown() throws InvalidChildException {
+        MoPathQuery.compile("ManagedElement,ENodeBFunction,EUtranCellTDD").findMos(rootMo);
+    }
+
+    @Test
+    public void whenChildIsAdded_thenSubtreeModificationCountOfEachAncestorGrows() {
+        final int rootModificationCount = rootMo.getSubtreeModificationCount();
+        final int functionModificationCount = function.getSubtreeModificationCount();
+
+        function.addChild(createMo(CELL_TYPE, function, "3", Arrays.asList(RELATION_TYPE)));
+
+        assertEquals(7, rootModificationCount);
+        assertEquals(rootModificationCount + 1, rootMo.getSubtreeModificationCount());
+        assertEquals(functionModificationCount + 1, function.getSubtreeModificationCount());
+    }
+
+    private static AbstractMo createMo(final String moType, final Mo parentMo, final String name, final List<String> childTypes) {
+        final Class momMoClass = new Class();
+        momMoClass.setName(moType);
+        final AbstractMo mo = new CppMo(momMoClass, parentMo, moType, name);
+        mo.setChildTypes(childTypes);
+        return mo;
+    }
+}
@@ -0,0 +1,139 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.dms.generics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ericsson.de.onetwork.dms.exceptions.ChildNotFoundException;
+import com.ericsson.de.onetwork.dms.exceptions.InvalidChildException;
+import com.ericsson.de.onetwork.dms.mo.MoClassDescriptor;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Attribute;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Class;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.DataType;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.DefaultValue;
+
+/**
+ * Verifies the structural copy of an {@link AbstractMo} tree, as used to stamp
+ * out the system created {@code Mo}s of a {@link NetworkElement}.
+ *
+ * @author eagent
+ * @since 1Network_15.14
+ */
+public class MoSubtreeCopyTest {
+
+    private final static String ROOT_TYPE = "ManagedElement";
+    private final static String CHILD_TYPE = "ENodeBFunction";
+    private final static String GRANDCHILD_TYPE = "Rcs";
+    private final static String ATTRIBUTE_NAME = "userLabel";
+    private final static String DEFAULT_VALUE = "default";
+
+    private AbstractMo template;
+
+    @Before
+    public void setUp() {
+        template = createMo(ROOT_TYPE, null, "1", Arrays.asList(CHILD_TYPE));
+        final AbstractMo child = createMo(CHILD_TYPE, template, "1", Arrays.asList(GRANDCHILD_TYPE));
+        template.addChild(child);
+        child.addChild(createMo(GRANDCHILD_TYPE, child, "1", Collections.<String> emptyList()));
+        child.addChild(createMo(GRANDCHILD_TYPE, child, "2", Collections.<String> emptyList()));
+        template.shareAttributeSlots();
+    }
+
+    @Test
+    public void whenCopyingSubtree_withNewRootName_thenDescendantFdnsUseNewRoot() throws InvalidChildException, ChildNotFoundException {
+        final Mo copy = template.copySubtree(null, "ERBS00001");
+
+        final Mo grandchild = copy.getChildByTypeByName(CHILD_TYPE, "1").getChildByTypeByName(GRANDCHILD_TYPE, "2");
+        assertEquals("ManagedElement=ERBS00001,ENodeBFunction=1,Rcs=2", grandchild.getFdn().toString());
+        assertEquals(2, copy.getChildByTypeByName(CHILD_TYPE, "1").getChildrenByType(GRANDCHILD_TYPE).size());
+        assertTrue(grandchild.isSystemCreated());
+        assertEquals("ManagedElement=1", template.getFdn().toString());
+    }
+
+    @Test
+    public void whenCopyingSubtree_thenAttributesAreSharedUntilWritten() throws InvalidChildException, ChildNotFoundException {
+        final Mo copy = template.copySubtree(null, "ERBS00001");
+        final Mo templateChild = template.getChildByTypeByName(CHILD_TYPE, "1");
+        final Mo copiedChild = copy.getChildByTypeByName(CHILD_TYPE, "1");
+
+        assertNotSame(templateChild, copiedChild);
+        assertSame(templateChild.getAttributeByName(ATTRIBUTE_NAME), copiedChild.getAttributeByName(ATTRIBUTE_NAME));
+
+        copiedChild.setAttributeValue(ATTRIBUTE_NAME, "ERBS00001", CreationContext.FEATURE_CREATED);
+
+        assertEquals("ERBS00001", copiedChild.getAttributeByName(ATTRIBUTE_NAME).getValue());
+        assertEquals(DEFAULT_VALUE, templateChild.getAttributeByName(ATTRIBUTE_NAME).getValue());
+        assertEquals(Arrays.asList(ATTRIBUTE_NAME), copiedChild.getFeaturePopulatedAttributeNames());
+        assertTrue(templateChild.getFeaturePopulatedAttributeNames().isEmpty());
+    }
+
+    @Test
+    public void whenTemplateIsWrittenAfterCopying_thenCopyIsUnchanged() throws InvalidChildException, ChildNotFoundException {
+        final Mo copy = template.copySubtree(null, "ERBS00001");
+        final Mo templateChild = template.getChildByTypeByName(CHILD_TYPE, "1");
+
+        templateChild.setAttributeValue(ATTRIBUTE_NAME, "changed", CreationContext.FEATURE_CREATED);
+
+        assertEquals("changed", templateChild.getAttributeByName(ATTRIBUTE_NAME).getValue());
+        assertEquals(DEFAULT_VALUE, copy.getChildByTypeByName(CHILD_TYPE, "1").getAttributeByName(ATTRIBUTE_NAME).getValue());
+    }
+
+    @Test
+    public void whenChildIsAddedToCopy_thenTemplateIsUnchanged() throws InvalidChildException {
+        final Mo copy = template.copySubtree(null, "ERBS00001");
+
+        copy.addChild(createMo(CHILD_TYPE, copy, "2", Arrays.asList(GRANDCHILD_TYPE)));
+
+        assertEquals(2, copy.getChildrenByType(CHILD_TYPE).size());
+        assertEquals(1, template.getChildrenByType(CHILD_TYPE).size());
+    }
+
+    private static AbstractMo createMo(final String moType, final Mo parentMo, final String name, final List<String> childTypes) {
+        final MoClassDescriptor descriptor = MoClassDescriptor.compile(createMomMoClass(moType));
+        final AbstractMo mo = new CppMo(descriptor.getMomMoClass(), parentMo, moType, name);
+        mo.setMoClassDescriptor(descriptor);
+        mo.setAttributeNames(descriptor.getAttributeNames());
+        mo.setAttributeValue(ATTRIBUTE_NAME, DEFAULT_VALUE, CreationContext.SYSTEM_CREATED);
+        mo.setChildTypes(childTypes);
+        mo.setSystemCreated(true);
+        return mo;
+    }
+
+    private static Class createMomMoClass(final String moType) {
+        final com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.String stringType = new com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.String();
+        final DefaultValue defaultValue = new DefaultValue();
+        defaultValue.setvalue(DEFAULT_VALUE);
+        stringType.setDefaultValue(defaultValue);
+        final DataType dataType = new DataType();
+        dataType
+                .getIntegerOrBooleanOrOctetOrCharOrDoubleOrFloatOrLongOrLonglongOrShortOrStringOrWstringOrInt8OrInt16OrInt32OrInt64OrUint8OrUint16OrUint32OrUint64OrDecimal64OrEnumRefOrMoRefOrStructRefOrDerivedDataTypeRefOrSequence()
+                .add(stringType);
+        final Attribute attribute = new Attribute();
+        attribute.setName(ATTRIBUTE_NAME);
+        attribute.setDataType(dataType);
+        final Class momMoClass = new Class();
+        momMoClass.setName(moType);
+        momMoClass.getActionOrAttribute().add(attribute);
+        return momMoClass;
+    }
+}
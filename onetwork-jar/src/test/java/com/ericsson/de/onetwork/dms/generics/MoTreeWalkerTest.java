@@ -0,0 +1,118 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.dms.generics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ericsson.de.onetwork.dms.exceptions.InvalidChildException;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Class;
+
+/**
+ * Verifies that {@link Mo#forEachChild(MoVisitor)} and
+ * {@link MoTreeWalker#walkDepthFirst(Mo, MoVisitor)} visit the same
+ * {@code Mo}s, in the same order, as {@link Mo#getChildren()}.
+ *
+ * @author eagent
+ * @since 1Network_15.14
+ */
+public class MoTreeWalkerTest {
+
+    private final static String ROOT_TYPE = "ManagedElement";
+    private final static String CHILD_TYPE = "ENodeBFunction";
+    private final static String OTHER_CHILD_TYPE = "Equipment";
+    private final static String GRANDCHILD_TYPE = "EUtranCellFDD";
+
+    private AbstractMo rootMo;
+
+    @Before
+    public void setUp() {
+        rootMo = createMo(ROOT_TYPE, null, "1", Arrays.asList(CHILD_TYPE, OTHER_CHILD_TYPE));
+        final AbstractMo child = createMo(CHILD_TYPE, rootMo, "1", Arrays.asList(GRANDCHILD_TYPE));
+        rootMo.addChild(child);
+        rootMo.addChild(createMo(OTHER_CHILD_TYPE, rootMo, "1", Collections.<String> emptyList()));
+        for (int cellIndex = 1; cellIndex <= 3; cellIndex++) {
+            child.addChild(createMo(GRANDCHILD_TYPE, child, String.valueOf(cellIndex), Collections.<String> emptyList()));
+        }
+    }
+
+    @Test
+    public void whenVisitingEachChild_thenChildrenAreVisitedInSameOrderAsGetChildren() {
+        final List<Mo> visitedMos = new ArrayList<>();
+
+        rootMo.forEachChild(new CollectingVisitor(visitedMos));
+
+        assertEquals(rootMo.getChildren(), visitedMos);
+    }
+
+    @Test
+    public void whenWalkingDepthFirst_thenEachMoIsVisitedBeforeItsChildren() {
+        final List<Mo> visitedMos = new ArrayList<>();
+
+        MoTreeWalker.walkDepthFirst(rootMo, new CollectingVisitor(visitedMos));
+
+        final List<Mo> expectedMos = new ArrayList<>();
+        collectRecursively(rootMo, expectedMos);
+        assertEquals(6, visitedMos.size());
+        assertEquals(expectedMos, visitedMos);
+    }
+
+    @Test(expected = InvalidChildException.class)
+    public void whenVisitorThrowsException_thenWalkIsAbortedWithThatException() throws InvalidChildException {
+        MoTreeWalker.walkDepthFirst(rootMo, new MoVisitor<InvalidChildException>() {
+
+            @Override
+            public void visit(final Mo mo) throws InvalidChildException {
+                if (GRANDCHILD_TYPE.equals(mo.getType())) {
+                    throw new InvalidChildException(mo.getName());
+                }
+            }
+        });
+    }
+
+    private static void collectRecursively(final Mo mo, final List<Mo> mos) {
+        mos.add(mo);
+        for (final Mo child : mo.getChildren()) {
+            collectRecursively(child, mos);
+        }
+    }
+
+    private static AbstractMo createMo(final String moType, final Mo parentMo, final String name, final List<String> childTypes) {
+        final Class momMoClass = new Class();
+        momMoClass.setName(moType);
+        final AbstractMo mo = new CppMo(momMoClass, parentMo, moType, name);
+        mo.setChildTypes(childTypes);
+        return mo;
+    }
+
+    private static class CollectingVisitor implements MoVisitor<RuntimeException> {
+
+        private final List<Mo> visitedMos;
+
+        CollectingVisitor(final List<Mo> visitedMos) {
+            this.visitedMos = visitedMos;
+        }
+
+        @Override
+        public void visit(final Mo mo) {
+            visitedMos.add(mo);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.dms.mo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Cardinality;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Child;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Containment;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Max;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Min;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Relationship;
+
+/**
+ * Unit tests for {@link CardinalityBounds}.
+ *
+ * @author eagent
+ * @since 1Network_15.14
+ */
+public class CardinalityBoundsTest {
+
+    @Test
+    public void whenCompilingRelationship_withMinAndMax_thenBothAreParsed() {
+        final CardinalityBounds bounds = CardinalityBounds.compile(createRelationship(createCardinality("1", "12")));
+
+        assertEquals(1, bounds.getMinCardinality());
+        assertEquals(12, bounds.getMaxCardinality());
+    }
+
+    @Test
+    public void whenCompilingRelationship_withOnlyMin_thenMaxIsNotDefined() {
+        final CardinalityBounds bounds = CardinalityBounds.compile(createRelationship(createCardinality("1", null)));
+
+        assertEquals(CardinalityBounds.NO_CARDINALITY_DEFINED_INDICATOR, bounds.getMaxCardinality());
+        assertFalse(bounds.isMaxCardinalityExceeded(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void whenCheckingMaxCardinality_thenItIsExceededOnceMaxIsReached() {
+        final CardinalityBounds bounds = CardinalityBounds.compile(createRelationship(createCardinality("0", "2")));
+
+        assertFalse(bounds.isMaxCardinalityExceeded(1));
+        assertTrue(bounds.isMaxCardinalityExceeded(2));
+    }
+
+    @Test
+    public void whenCompilingRelationship_withoutContainment_thenNullIsReturned() {
+        assertNull(CardinalityBounds.compile(new Relationship()));
+    }
+
+    @Test
+    public void whenCompilingRelationship_withInvalidCardinality_thenNullIsReturned() {
+        assertNull(CardinalityBounds.compile(createRelationship(createCardinality("0", "unbounded"))));
+    }
+
+    private static Cardinality createCardinality(final String minValue, final String maxValue) {
+        final Cardinality cardinality = new Cardinality();
+        if (null != minValue) {
+            final Min min = new Min();
+            min.setvalue(minValue);
+            cardinality.getMinOrMax().add(min);
+        }
+        if (null != maxValue) {
+            final Max max = new Max();
+            max.setvalue(maxValue);
+            cardinality.getMinOrMax().add(max);
+        }
+        return cardinality;
+    }
+
+    private static Relationship createRelationship(final Cardinality cardinality) {
+        final Child child = new Child();
+        child.setCardinality(cardinality);
+        final Containment containment = new Containment();
+        containment.getChild().add(child);
+        final Relationship relationship = new Relationship();
+        relationship.getBiDirectionalAssociationOrUniDirectionalAssociationOrContainmentOrInheritance().add(containment);
+        return relationship;
+    }
+}
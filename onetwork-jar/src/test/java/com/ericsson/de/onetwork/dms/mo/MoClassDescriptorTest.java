@@ -0,0 +1,120 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.dms.mo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Attribute;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Class;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.DataType;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.DefaultValue;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.EnumRef;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.MoRef;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Sequence;
+
+/**
+ * Unit tests for {@link MoClassDescriptor}.
+ *
+ * @author eagent
+ * @since 1Network_15.14
+ */
+public class MoClassDescriptorTest {
+
+    private final static String LONG_ATTRIBUTE = "cellId";
+    private final static String ENUM_ATTRIBUTE = "administrativeState";
+    private final static String MO_REF_ATTRIBUTE = "reservedBy";
+    private final static String SEQUENCE_ATTRIBUTE = "acBarringForSpecialAC";
+
+    private MoClassDescriptor descriptor;
+
+    @Before
+    public void setUp() {
+        final Class momMoClass = new Class();
+        momMoClass.setName("EUtranCellFDD");
+
+        final com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Long longType = new com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Long();
+        longType.setDefaultValue(createDefaultValue("1"));
+        momMoClass.getActionOrAttribute().add(createAttribute(LONG_ATTRIBUTE, longType));
+
+        final EnumRef enumRef = new EnumRef();
+        enumRef.setDefaultValue(createDefaultValue("LOCKED"));
+        momMoClass.getActionOrAttribute().add(createAttribute(ENUM_ATTRIBUTE, enumRef));
+
+        momMoClass.getActionOrAttribute().add(createAttribute(MO_REF_ATTRIBUTE, new MoRef()));
+
+        final com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Boolean booleanType = new com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Boolean();
+        booleanType.setDefaultValue(createDefaultValue("false"));
+        final Sequence sequence = new Sequence();
+        sequence
+                .getIntegerOrBooleanOrOctetOrCharOrDoubleOrFloatOrLongOrLonglongOrShortOrStringOrWstringOrInt8OrInt16OrInt32OrInt64OrUint8OrUint16OrUint32OrUint64OrDecimal64OrEnumRefOrMoRefOrStructRefOrDerivedDataTypeRef()
+                .add(booleanType);
+        momMoClass.getActionOrAttribute().add(createAttribute(SEQUENCE_ATTRIBUTE, sequence));
+
+        descriptor = MoClassDescriptor.compile(momMoClass);
+    }
+
+    @Test
+    public void whenCompilingClass_thenAttributeNamesKeepMomOrder() {
+        assertEquals(Arrays.asList(LONG_ATTRIBUTE, ENUM_ATTRIBUTE, MO_REF_ATTRIBUTE, SEQUENCE_ATTRIBUTE), descriptor.getAttributeNames());
+        assertEquals(2, descriptor.getAttribute(MO_REF_ATTRIBUTE).getIndex());
+    }
+
+    @Test
+    public void whenCompilingClass_thenDataTypeIsSimpleNameOfTopLevelType() {
+        assertEquals("Long", descriptor.getDataType(LONG_ATTRIBUTE));
+        assertEquals("EnumRef", descriptor.getDataType(ENUM_ATTRIBUTE));
+        assertEquals("MoRef", descriptor.getDataType(MO_REF_ATTRIBUTE));
+        assertEquals("Sequence", descriptor.getDataType(SEQUENCE_ATTRIBUTE));
+    }
+
+    @Test
+    public void whenCompilingClass_thenMomDefaultValuesAreResolved() {
+        assertEquals("1", descriptor.getAttribute(LONG_ATTRIBUTE).getDefaultValue());
+        assertEquals("LOCKED", descriptor.getAttribute(ENUM_ATTRIBUTE).getDefaultValue());
+        assertEquals("false", descriptor.getAttribute(SEQUENCE_ATTRIBUTE).getDefaultValue());
+    }
+
+    @Test
+    public void whenAttributeHasNoMomDefault_thenDefaultValueIsNull() {
+        assertNull(descriptor.getAttribute(MO_REF_ATTRIBUTE).getDefaultValue());
+    }
+
+    @Test
+    public void whenAttributeDoesNotExist_thenDescriptorAndDataTypeAreNull() {
+        assertNull(descriptor.getAttribute("invalid"));
+        assertNull(descriptor.getDataType("invalid"));
+    }
+
+    private static Attribute createAttribute(final String name, final Object dataTypeContent) {
+        final DataType dataType = new DataType();
+        dataType
+                .getIntegerOrBooleanOrOctetOrCharOrDoubleOrFloatOrLongOrLonglongOrShortOrStringOrWstringOrInt8OrInt16OrInt32OrInt64OrUint8OrUint16OrUint32OrUint64OrDecimal64OrEnumRefOrMoRefOrStructRefOrDerivedDataTypeRefOrSequence()
+                .add(dataTypeContent);
+        final Attribute attribute = new Attribute();
+        attribute.setName(name);
+        attribute.setDataType(dataType);
+        return attribute;
+    }
+
+    private static DefaultValue createDefaultValue(final String value) {
+        final DefaultValue defaultValue = new DefaultValue();
+        defaultValue.setvalue(value);
+        return defaultValue;
+    }
+}
@@ -0,0 +1,115 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.dms.momparser;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Class;
+
+/**
+ * Unit tests for the parsing of MOM fragments by {@link EcimLocalMomParser}.
+ *
+ * @author eagent
+ */
+public class EcimLocalMomParserTest {
+
+    private static final int NUMBER_OF_FRAGMENTS = 12;
+    private static final String MP_DTD = "src/main/resources/schema/mp.dtd";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File fragmentFolder;
+
+    @Before
+    public void setUp() throws Exception {
+        fragmentFolder = temporaryFolder.newFolder("fragments");
+        for (int fragmentIndex = 0; fragmentIndex < NUMBER_OF_FRAGMENTS; fragmentIndex++) {
+            final String mimName = "Mim" + fragmentIndex;
+            final String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                    + "<models>\n"
+                    + "  <mim name=\"" + mimName + "\" version=\"1\" release=\"0\">\n"
+                    + "    <class name=\"ManagedElement\"/>\n"
+                    + "    <class name=\"Function" + fragmentIndex + "\"/>\n"
+                    + "    <relationship name=\"ManagedElement_to_Function" + fragmentIndex + "\">\n"
+                    + "      <containment>\n"
+                    + "        <parent><hasClass name=\"ManagedElement\"><mimName>" + mimName + "</mimName></hasClass></parent>\n"
+                    + "        <child><hasClass name=\"Function" + fragmentIndex + "\"><mimName>" + mimName + "</mimName></hasClass>"
+                    + "<cardinality><min>0</min><max>1</max></cardinality></child>\n"
+                    + "      </containment>\n"
+                    + "    </relationship>\n"
+                    + "  </mim>\n"
+                    + "</models>\n";
+            Files.write(new File(fragmentFolder, "fragment" + fragmentIndex + ".xml").toPath(), xml.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(EcimLocalMomParser.FRAGMENT_PARALLELISM_PROPERTY);
+    }
+
+    @Test
+    public void whenParsingFragmentsInParallel_thenSameArtifactsAreMergedAsSequentially() throws Exception {
+        System.setProperty(EcimLocalMomParser.FRAGMENT_PARALLELISM_PROPERTY, "1");
+        final EcimLocalMomParser sequentialParser = createParser();
+        System.setProperty(EcimLocalMomParser.FRAGMENT_PARALLELISM_PROPERTY, "4");
+        final EcimLocalMomParser parallelParser = createParser();
+
+        assertEquals(new ArrayList<>(sequentialParser.getMimClasses().keySet()), new ArrayList<>(parallelParser.getMimClasses().keySet()));
+        assertEquals(new ArrayList<>(sequentialParser.getMimRelationships().keySet()),
+                new ArrayList<>(parallelParser.getMimRelationships().keySet()));
+    }
+
+    @Test
+    public void whenParsingFragmentsInParallel_thenNamespaceOfEachFragmentIsAssignedToItsClasses() throws Exception {
+        System.setProperty(EcimLocalMomParser.FRAGMENT_PARALLELISM_PROPERTY, "4");
+        final EcimLocalMomParser parser = createParser();
+
+        final List<String> expectedFunctions = new ArrayList<>();
+        for (int fragmentIndex = 0; fragmentIndex < NUMBER_OF_FRAGMENTS; fragmentIndex++) {
+            expectedFunctions.add("Mim" + fragmentIndex + ":Function" + fragmentIndex);
+        }
+        final List<String> actualFunctions = new ArrayList<>();
+        for (final Class mimClass : parser.getMimClasses().values()) {
+            if (mimClass.getName().contains(":Function")) {
+                actualFunctions.add(mimClass.getName());
+            }
+        }
+        expectedFunctions.removeAll(actualFunctions);
+        assertEquals(0, expectedFunctions.size());
+        assertEquals(NUMBER_OF_FRAGMENTS, actualFunctions.size());
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void whenFragmentFolderDoesNotExist_thenExceptionIsThrown() throws Exception {
+        new EcimLocalMomParser(new File(fragmentFolder, "missing").getPath(), MP_DTD, temporaryFolder.getRoot().getPath());
+    }
+
+    private EcimLocalMomParser createParser() throws Exception {
+        return new EcimLocalMomParser(fragmentFolder.getPath(), MP_DTD, temporaryFolder.getRoot().getPath());
+    }
+}
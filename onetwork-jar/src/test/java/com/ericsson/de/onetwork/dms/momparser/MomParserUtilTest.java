@@ -0,0 +1,105 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.dms.momparser;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import javax.xml.bind.JAXBException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Class;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Relationship;
+
+/**
+ * Unit tests for {@link MomParserUtil} and the export of artifacts by
+ * {@link BaseLocalMomParser}.
+ *
+ * @author eagent
+ */
+public class MomParserUtilTest {
+
+    private static final int NUMBER_OF_ARTIFACTS = 40;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void whenGettingJaxbContext_forSameType_thenSameContextIsReturned() throws JAXBException {
+        assertSame(MomParserUtil.getJaxbContext(Class.class), MomParserUtil.getJaxbContext(Class.class));
+    }
+
+    @Test
+    public void whenMarshallingAndUnmarshallingClass_thenClassIsKept() throws JAXBException, IOException {
+        final String xmlFile = new File(temporaryFolder.getRoot(), "EUtranCellFDD").getPath();
+
+        MomParserUtil.marshal(createClass("EUtranCellFDD"), xmlFile);
+        MomParserUtil.marshal(createClass("EUtranCellTDD"), xmlFile);
+        final Class unmarshalledClass = MomParserUtil.unmarshal(xmlFile + ".xml", Class.class);
+
+        assertEquals("EUtranCellTDD", unmarshalledClass.getName());
+    }
+
+    @Test
+    public void whenExportingInParallel_thenSameFilesAreWrittenAsSequentially() throws IOException {
+        final File sequentialDirectory = temporaryFolder.newFolder("sequential");
+        final File parallelDirectory = temporaryFolder.newFolder("parallel");
+
+        final BaseLocalMomParser sequentialParser = createParser(sequentialDirectory);
+        sequentialParser.exportToXml();
+        final BaseLocalMomParser parallelParser = createParser(parallelDirectory);
+        parallelParser.setExportParallelism(4);
+        parallelParser.exportToXml();
+
+        for (final String artifactType : new String[] { "class", "relationship" }) {
+            final File[] sequentialFiles = new File(sequentialDirectory, artifactType).listFiles();
+            assertEquals(NUMBER_OF_ARTIFACTS, sequentialFiles.length);
+            for (final File sequentialFile : sequentialFiles) {
+                final File parallelFile = new File(new File(parallelDirectory, artifactType), sequentialFile.getName());
+                assertArrayEquals(Files.readAllBytes(sequentialFile.toPath()), Files.readAllBytes(parallelFile.toPath()));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenSettingExportParallelismBelowOne_thenExceptionIsThrown() {
+        new BaseLocalMomParser().setExportParallelism(0);
+    }
+
+    private static BaseLocalMomParser createParser(final File outputDirectory) {
+        final BaseLocalMomParser parser = new BaseLocalMomParser();
+        parser.outputDirectory = outputDirectory.getPath();
+        for (int artifactIndex = 0; artifactIndex < NUMBER_OF_ARTIFACTS; artifactIndex++) {
+            final Class mimClass = createClass("Class" + artifactIndex);
+            parser.mimClasses.put(mimClass.getName(), mimClass);
+            final Relationship relationship = new Relationship();
+            relationship.setName("Parent_to_Class" + artifactIndex);
+            parser.mimRelationships.put(relationship.getName(), relationship);
+        }
+        return parser;
+    }
+
+    private static Class createClass(final String name) {
+        final Class mimClass = new Class();
+        mimClass.setName(name);
+        return mimClass;
+    }
+}
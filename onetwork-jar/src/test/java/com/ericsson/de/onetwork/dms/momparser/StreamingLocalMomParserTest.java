@@ -0,0 +1,182 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.dms.momparser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.ericsson.de.onetwork.dms.generics.Platform;
+import com.ericsson.de.onetwork.dms.momparser.schema.config.MomParserConfig;
+import com.ericsson.de.onetwork.dms.momparser.schema.config.MomParserConfig.Input;
+import com.ericsson.de.onetwork.dms.momparser.schema.config.MomParserConfig.Output;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Attribute;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Cardinality;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Child;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Class;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Containment;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.DataType;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.DefaultValue;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Max;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Min;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Relationship;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Sequence;
+
+/**
+ * Unit tests for {@link StreamingLocalMomParser}, comparing the artifacts it
+ * streams with those bound by {@link EcimLocalMomParser}.
+ *
+ * @author eagent
+ */
+public class StreamingLocalMomParserTest {
+
+    private static final String RESOURCES_DIRECTORY = StreamingLocalMomParserTest.class.getResource("/").getPath();
+    private static final String MOM_FRAGMENT_FOLDER = RESOURCES_DIRECTORY + "dms/mims/SGSN_15B-WPP-V5";
+    private static final String MP_DTD = RESOURCES_DIRECTORY + "schema/mp.dtd";
+    private static final String OUTPUT_DIRECTORY = RESOURCES_DIRECTORY + "momparser";
+
+    private static MomParser boundParser;
+    private static MomParser streamingParser;
+
+    @BeforeClass
+    public static void parseMom() throws Exception {
+        boundParser = new EcimLocalMomParser(MOM_FRAGMENT_FOLDER, MP_DTD, OUTPUT_DIRECTORY);
+        streamingParser = new StreamingLocalMomParser(MOM_FRAGMENT_FOLDER, MP_DTD, OUTPUT_DIRECTORY, Platform.COMECIM);
+    }
+
+    @Test
+    public void whenStreamingMom_thenSameClassesAreParsedAsWhenBinding() {
+        final Map<String, Class> boundClasses = boundParser.getMimClasses();
+        final Map<String, Class> streamedClasses = streamingParser.getMimClasses();
+
+        assertFalse(boundClasses.isEmpty());
+        assertEquals(boundClasses.keySet(), streamedClasses.keySet());
+        for (final Map.Entry<String, Class> entry : boundClasses.entrySet()) {
+            final Class boundClass = entry.getValue();
+            final Class streamedClass = streamedClasses.get(entry.getKey());
+            assertEquals(boundClass.getName(), streamedClass.getName());
+            assertEquals(boundClass.getName(), null != boundClass.getSystemCreated(), null != streamedClass.getSystemCreated());
+            assertEquals(boundClass.getName(), describeAttributes(boundClass), describeAttributes(streamedClass));
+        }
+    }
+
+    @Test
+    public void whenStreamingMom_thenSameRelationshipsAreParsedAsWhenBinding() {
+        final Map<String, Relationship> boundRelationships = boundParser.getMimRelationships();
+        final Map<String, Relationship> streamedRelationships = streamingParser.getMimRelationships();
+
+        assertFalse(boundRelationships.isEmpty());
+        assertEquals(boundRelationships.keySet(), streamedRelationships.keySet());
+        for (final Map.Entry<String, Relationship> entry : boundRelationships.entrySet()) {
+            final Relationship streamedRelationship = streamedRelationships.get(entry.getKey());
+            assertEquals(entry.getValue().getName(), streamedRelationship.getName());
+            assertEquals(entry.getKey(), describeContainment(entry.getValue()), describeContainment(streamedRelationship));
+        }
+    }
+
+    @Test
+    public void whenStreamingMom_thenNoEnumsOrStructsAreParsed() {
+        assertTrue(streamingParser.getMimEnums().isEmpty());
+        assertTrue(streamingParser.getMimStructs().isEmpty());
+    }
+
+    @Test
+    public void whenCreatingStreamingMomParser_thenStreamingParserIsReturned() throws Exception {
+        final MomParserConfig config = new MomParserConfig();
+        final Input input = new Input();
+        input.setMomURI(MOM_FRAGMENT_FOLDER);
+        input.setMpDtdURI(MP_DTD);
+        final Output output = new Output();
+        output.setMomPool("");
+        output.setVersion("");
+        config.setInput(input);
+        config.setOutput(output);
+
+        assertTrue(MomParserFactory.createMomParser(Platform.COMECIM, config, true) instanceof StreamingLocalMomParser);
+    }
+
+    private static List<String> describeAttributes(final Class mimClass) {
+        final List<String> attributes = new ArrayList<>();
+        for (final Object possibleAttribute : mimClass.getActionOrAttribute()) {
+            if (possibleAttribute instanceof Attribute) {
+                final Attribute attribute = (Attribute) possibleAttribute;
+                attributes.add(attribute.getName() + " " + describeDataType(attribute.getDataType()));
+            }
+        }
+        return attributes;
+    }
+
+    private static String describeDataType(final DataType dataType) {
+        final StringBuilder description = new StringBuilder();
+        for (final Object dataTypeContent : dataType
+                .getIntegerOrBooleanOrOctetOrCharOrDoubleOrFloatOrLongOrLonglongOrShortOrStringOrWstringOrInt8OrInt16OrInt32OrInt64OrUint8OrUint16OrUint32OrUint64OrDecimal64OrEnumRefOrMoRefOrStructRefOrDerivedDataTypeRefOrSequence()) {
+            description.append(describeDataTypeContent(dataTypeContent));
+            if (dataTypeContent instanceof Sequence) {
+                for (final Object elementDataType : ((Sequence) dataTypeContent)
+                        .getIntegerOrBooleanOrOctetOrCharOrDoubleOrFloatOrLongOrLonglongOrShortOrStringOrWstringOrInt8OrInt16OrInt32OrInt64OrUint8OrUint16OrUint32OrUint64OrDecimal64OrEnumRefOrMoRefOrStructRefOrDerivedDataTypeRef()) {
+                    description.append('<').append(describeDataTypeContent(elementDataType)).append('>');
+                }
+            }
+        }
+        return description.toString();
+    }
+
+    private static String describeDataTypeContent(final Object dataTypeContent) {
+        String defaultValue = null;
+        try {
+            final DefaultValue value = (DefaultValue) dataTypeContent.getClass().getMethod("getDefaultValue").invoke(dataTypeContent);
+            defaultValue = null == value ? null : value.getvalue();
+        } catch (final NoSuchMethodException e) {
+            // the data type has no default value
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+        return dataTypeContent.getClass().getSimpleName() + "=" + defaultValue;
+    }
+
+    private static String describeContainment(final Relationship relationship) {
+        final StringBuilder description = new StringBuilder();
+        for (final Object possibleContainment : relationship.getBiDirectionalAssociationOrUniDirectionalAssociationOrContainmentOrInheritance()) {
+            if (possibleContainment instanceof Containment) {
+                final Containment containment = (Containment) possibleContainment;
+                description.append(containment.getParent().getHasClass().getName()).append(" ->");
+                for (final Child child : containment.getChild()) {
+                    description.append(' ').append(child.getHasClass().getName()).append(describeCardinality(child.getCardinality()));
+                }
+            }
+        }
+        return description.toString();
+    }
+
+    private static String describeCardinality(final Cardinality cardinality) {
+        if (null == cardinality) {
+            return "";
+        }
+        final StringBuilder description = new StringBuilder("[");
+        for (final Object minOrMax : cardinality.getMinOrMax()) {
+            if (minOrMax instanceof Min) {
+                description.append("min ").append(((Min) minOrMax).getvalue()).append(' ');
+            } else {
+                description.append("max ").append(((Max) minOrMax).getvalue()).append(' ');
+            }
+        }
+        return description.append(']').toString();
+    }
+}
@@ -0,0 +1,60 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.dms.util;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Relationship;
+
+/**
+ * Times the per-{@code Mo} cost of looking up child MO types in a
+ * {@link ContainmentIndex} against scanning every relationship, on the
+ * synthetic tree of {@link ContainmentIndexTest}.
+ *
+ * @author eagent
+ * @since 1Network_15.14
+ */
+public class ContainmentIndexBenchmarkIT {
+
+    private final static Logger logger = LoggerFactory.getLogger(ContainmentIndexBenchmarkIT.class);
+
+    private final static int NUMBER_OF_LOOKUPS = 2000;
+
+    @Test
+    public void whenLookingUpChildMoTypesPerMo_thenIndexIsCheaperThanRelationshipScan() {
+        final List<Relationship> relationships = ContainmentIndexTest.createSyntheticTree();
+
+        final long scanStart = System.nanoTime();
+        for (int lookup = 0; lookup < NUMBER_OF_LOOKUPS; lookup++) {
+            ContainmentIndexTest.scanForChildMoTypes(relationships, "Type" + (lookup % ContainmentIndexTest.NUMBER_OF_SYNTHETIC_TYPES));
+        }
+        final long scanNanosPerMo = (System.nanoTime() - scanStart) / NUMBER_OF_LOOKUPS;
+
+        final long indexStart = System.nanoTime();
+        final ContainmentIndex index = ContainmentIndex.build(relationships);
+        for (int lookup = 0; lookup < NUMBER_OF_LOOKUPS; lookup++) {
+            index.getChildMoTypes("Type" + (lookup % ContainmentIndexTest.NUMBER_OF_SYNTHETIC_TYPES));
+        }
+        final long indexNanosPerMo = (System.nanoTime() - indexStart) / NUMBER_OF_LOOKUPS;
+
+        logger.info("getChildMoTypes per Mo over {} relationships: scan {} ns, index {} ns (including build)", relationships.size(),
+                scanNanosPerMo, indexNanosPerMo);
+        assertTrue("Index lookup should be cheaper than a relationship scan", indexNanosPerMo < scanNanosPerMo);
+    }
+}
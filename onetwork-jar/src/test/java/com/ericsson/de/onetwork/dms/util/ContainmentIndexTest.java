@@ -0,0 +1,126 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.dms.util;
+
+import static com.ericsson.de.onetwork.dms.constants.RelationshipConstants.NO_PARENT_FOUND_INDICATOR;
+import static com.ericsson.de.onetwork.dms.constants.RelationshipConstants.RELATIONSHIP_CHILD_TYPE_INDEX;
+import static com.ericsson.de.onetwork.dms.constants.RelationshipConstants.RELATIONSHIP_PARENT_TYPE_INDEX;
+import static com.ericsson.de.onetwork.dms.constants.RelationshipConstants.RELATIONSHIP_SEPARATOR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Relationship;
+
+/**
+ * Unit tests for {@link ContainmentIndex}, which check it against scanning
+ * every relationship. The per-{@code Mo} cost of both is compared by
+ * {@link ContainmentIndexBenchmarkIT}.
+ *
+ * @author eagent
+ * @since 1Network_15.14
+ */
+public class ContainmentIndexTest {
+
+    final static int NUMBER_OF_SYNTHETIC_TYPES = 1000;
+
+    @Test
+    public void whenGettingChildMoTypes_withCppRelationships_thenChildrenAreReturnedInRelationshipOrder() {
+        final ContainmentIndex index = ContainmentIndex.build(Arrays.asList(
+                createRelationship("ManagedElement_to_ENodeBFunction"),
+                createRelationship("ManagedElement_to_Equipment"),
+                createRelationship("ENodeBFunction_to_EUtranCellFDD")));
+
+        assertEquals(Arrays.asList("ENodeBFunction", "Equipment"), index.getChildMoTypes("ManagedElement"));
+        assertEquals(Arrays.asList("EUtranCellFDD"), index.getChildMoTypes("ENodeBFunction"));
+    }
+
+    @Test
+    public void whenGettingChildMoTypes_withComEcimRelationships_thenNamespacesAreRemoved() {
+        final ContainmentIndex index = ContainmentIndex.build(Arrays.asList(
+                createRelationship("ComTop:ManagedElement_to_SgsnMmeTop:SgsnMme")));
+
+        assertEquals(Arrays.asList("SgsnMme"), index.getChildMoTypes("ManagedElement"));
+        assertEquals("ComTop:ManagedElement", index.getParentMoType("SgsnMme"));
+    }
+
+    @Test
+    public void whenGettingChildMoTypes_withLeafMoType_thenEmptyListIsReturned() {
+        final ContainmentIndex index = ContainmentIndex.build(Arrays.asList(createRelationship("ManagedElement_to_Equipment")));
+
+        assertTrue(index.getChildMoTypes("Equipment").isEmpty());
+    }
+
+    @Test
+    public void whenGettingParentMoType_withRootMoType_thenNoParentIndicatorIsReturned() {
+        final ContainmentIndex index = ContainmentIndex.build(Arrays.asList(createRelationship("ManagedElement_to_Equipment")));
+
+        assertEquals(NO_PARENT_FOUND_INDICATOR, index.getParentMoType("ManagedElement"));
+        assertEquals("ManagedElement", index.getParentMoType("Equipment"));
+    }
+
+    @Test
+    public void whenLookingUpEveryMoType_thenIndexMatchesRelationshipScan() {
+        final List<Relationship> relationships = createSyntheticTree();
+        final ContainmentIndex index = ContainmentIndex.build(relationships);
+
+        for (int typeIndex = 0; typeIndex < NUMBER_OF_SYNTHETIC_TYPES; typeIndex++) {
+            final String moType = "Type" + typeIndex;
+            assertEquals(scanForChildMoTypes(relationships, moType), index.getChildMoTypes(moType));
+            assertEquals(scanForParentMoType(relationships, moType), index.getParentMoType(moType));
+        }
+    }
+
+    static List<Relationship> createSyntheticTree() {
+        final List<Relationship> relationships = new ArrayList<>();
+        for (int typeIndex = 1; typeIndex < NUMBER_OF_SYNTHETIC_TYPES; typeIndex++) {
+            final int parentIndex = (typeIndex - 1) / 4;
+            relationships.add(createRelationship("Ns:Type" + parentIndex + RELATIONSHIP_SEPARATOR + "Ns:Type" + typeIndex));
+        }
+        return relationships;
+    }
+
+    private static Relationship createRelationship(final String name) {
+        final Relationship relationship = new Relationship();
+        relationship.setName(name);
+        return relationship;
+    }
+
+    static List<String> scanForChildMoTypes(final Collection<Relationship> relationships, final String moType) {
+        final List<String> children = new ArrayList<String>();
+        for (final Relationship relationshipItem : relationships) {
+            final String[] relationshipComponents = relationshipItem.getName().split(RELATIONSHIP_SEPARATOR);
+            final String parentName = MoFormatter.removeComEcimNamespaceFrom(relationshipComponents[RELATIONSHIP_PARENT_TYPE_INDEX]);
+            if (parentName.equals(moType)) {
+                children.add(MoFormatter.removeComEcimNamespaceFrom(relationshipComponents[RELATIONSHIP_CHILD_TYPE_INDEX]));
+            }
+        }
+        return children;
+    }
+
+    private static String scanForParentMoType(final Collection<Relationship> relationships, final String moType) {
+        for (final Relationship relationshipItem : relationships) {
+            final String[] relationshipComponents = relationshipItem.getName().split(RELATIONSHIP_SEPARATOR);
+            if (MoFormatter.removeComEcimNamespaceFrom(relationshipComponents[RELATIONSHIP_CHILD_TYPE_INDEX]).equals(moType)) {
+                return relationshipComponents[RELATIONSHIP_PARENT_TYPE_INDEX];
+            }
+        }
+        return NO_PARENT_FOUND_INDICATOR;
+    }
+}
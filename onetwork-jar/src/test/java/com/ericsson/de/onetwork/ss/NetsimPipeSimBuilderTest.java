@@ -0,0 +1,193 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2013
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.ss;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.ericsson.de.onetwork.ss.util.CommandExecutor;
+import com.ericsson.de.onetwork.ss.util.CommandOutputListener;
+
+/**
+ * Verifies that {@link NetsimPipeSimBuilder} builds sims in parallel, tracks
+ * their status and retries failed ones. The MML scripts are run locally
+ * through a fake netsim_pipe, which answers {@code OK} unless the script
+ * asks it to fail.
+ */
+public class NetsimPipeSimBuilderTest {
+
+    // @formatter:off
+    private static final String FAKE_NETSIM_PIPE =
+            "#!/bin/bash\n"
+            + "dir=$(dirname \"$0\")\n"
+            + "mml=$(cat)\n"
+            + "touch \"$dir/running/$$\"\n"
+            + "ls \"$dir/running\" | wc -l >> \"$dir/concurrency.log\"\n"
+            + "sleep 0.3\n"
+            + "rm \"$dir/running/$$\"\n"
+            + "sim=$(echo \"$mml\" | sed -n 's/^.open //p')\n"
+            + "echo \"$sim\" >> \"$dir/invocations.log\"\n"
+            + "if echo \"$mml\" | grep -q FAIL_ALWAYS; then echo 'Error: simulation failed'; exit 0; fi\n"
+            + "if echo \"$mml\" | grep -q FAIL_ONCE && [ ! -f \"$dir/$sim.failed\" ]; then\n"
+            + "  touch \"$dir/$sim.failed\"; echo 'Error: simulation failed'; exit 0\n"
+            + "fi\n"
+            + "echo \"$mml\"\n"
+            + "echo OK\n";
+    // @formatter:on
+
+    private Path scriptsFolder;
+    private NetsimPipeSimBuilder simBuilder;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        if (System.getProperty("os.name").toLowerCase().startsWith("windows")) {
+            throw new SkipException("The fake netsim_pipe needs bash");
+        }
+        scriptsFolder = Files.createTempDirectory("onetwork-netsim-pipe");
+        Files.createDirectory(scriptsFolder.resolve("running"));
+        final Path netsimPipe = Files.write(scriptsFolder.resolve("netsim_pipe"), FAKE_NETSIM_PIPE.getBytes(StandardCharsets.UTF_8));
+        netsimPipe.toFile().setExecutable(true);
+
+        simBuilder = new NetsimPipeSimBuilder(new LocalCommandExecutor(), scriptsFolder.toString());
+        simBuilder.setNetsimPipe(netsimPipe.toString());
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        if (scriptsFolder != null) {
+            org.apache.commons.io.FileUtils.deleteDirectory(scriptsFolder.toFile());
+        }
+    }
+
+    @Test
+    public void whenSimsAreBuiltInParallel_thenAllSucceedWithinConcurrencyLevel() throws IOException {
+        final List<String> simNames = Arrays.asList("LTE01", "LTE02", "LTE03", "LTE04", "LTE05", "LTE06");
+        for (final String simName : simNames) {
+            writeMmlScript(simName, "");
+        }
+        simBuilder.setSimBuildParallelism(3);
+
+        Assert.assertTrue(simBuilder.buildSims(simNames));
+
+        for (final String simName : simNames) {
+            Assert.assertEquals(simBuilder.getSimBuildStatus(simName), SimBuildStatus.SUCCEEDED);
+            Assert.assertEquals(simBuilder.getNumberOfAttempts(simName), 1);
+        }
+        final int maxConcurrency = getMaxConcurrency();
+        Assert.assertTrue(maxConcurrency > 1 && maxConcurrency <= 3, "max concurrency " + maxConcurrency);
+    }
+
+    @Test
+    public void whenSimsAreBuiltSerially_thenOneNetsimPipeRunsAtATime() throws IOException {
+        final List<String> simNames = Arrays.asList("LTE01", "LTE02", "LTE03");
+        for (final String simName : simNames) {
+            writeMmlScript(simName, "");
+        }
+
+        Assert.assertTrue(simBuilder.buildSims(simNames));
+        Assert.assertEquals(getMaxConcurrency(), 1);
+        Assert.assertEquals(readLines("invocations.log"), simNames);
+    }
+
+    @Test
+    public void whenSimFails_thenOnlyThatSimIsFailedAndCanBeRetried() throws IOException {
+        writeMmlScript("LTE01", "");
+        writeMmlScript("LTE02", "FAIL_ONCE");
+        writeMmlScript("LTE03", "FAIL_ALWAYS");
+        simBuilder.setSimBuildParallelism(3);
+
+        Assert.assertFalse(simBuilder.buildSims(Arrays.asList("LTE01", "LTE02", "LTE03")));
+        Assert.assertEquals(simBuilder.getSimBuildStatus("LTE01"), SimBuildStatus.SUCCEEDED);
+        Assert.assertEquals(simBuilder.getFailedSims(), Arrays.asList("LTE02", "LTE03"));
+
+        Assert.assertTrue(simBuilder.retrySim("LTE02"));
+        Assert.assertEquals(simBuilder.getSimBuildStatus("LTE02"), SimBuildStatus.SUCCEEDED);
+        Assert.assertEquals(simBuilder.getNumberOfAttempts("LTE02"), 2);
+
+        Assert.assertFalse(simBuilder.retryFailedSims());
+        Assert.assertEquals(simBuilder.getFailedSims(), Arrays.asList("LTE03"));
+        Assert.assertEquals(simBuilder.getNumberOfAttempts("LTE01"), 1);
+        Assert.assertEquals(simBuilder.getNumberOfAttempts("LTE03"), 2);
+    }
+
+    @Test
+    public void whenSimFailsOnceAndAttemptsAreAllowed_thenItIsRetriedAutomatically() throws IOException {
+        writeMmlScript("LTE01", "FAIL_ONCE");
+        simBuilder.setSimBuildAttempts(2);
+
+        Assert.assertTrue(simBuilder.buildSims(Arrays.asList("LTE01")));
+        Assert.assertEquals(simBuilder.getNumberOfAttempts("LTE01"), 2);
+        Assert.assertEquals(simBuilder.getSimBuildStatuses().get("LTE01"), SimBuildStatus.SUCCEEDED);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void whenSimBuildParallelismIsBelowOne_thenIllegalArgumentExceptionIsThrown() {
+        simBuilder.setSimBuildParallelism(0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void whenSimBuildParallelismIsAboveSshChannelLimit_thenIllegalArgumentExceptionIsThrown() {
+        simBuilder.setSimBuildParallelism(NetsimPipeSimBuilder.MAX_SIM_BUILD_PARALLELISM + 1);
+    }
+
+    private void writeMmlScript(final String simName, final String extraCommand) throws IOException {
+        final String mmlScript = ".open " + simName + "\n.select network\n.start\n" + extraCommand + "\n";
+        Files.write(scriptsFolder.resolve(simName + ".mml"), mmlScript.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private int getMaxConcurrency() throws IOException {
+        int maxConcurrency = 0;
+        for (final String line : readLines("concurrency.log")) {
+            maxConcurrency = Math.max(maxConcurrency, Integer.parseInt(line.trim()));
+        }
+        return maxConcurrency;
+    }
+
+    private List<String> readLines(final String fileName) throws IOException {
+        return Files.readAllLines(scriptsFolder.resolve(fileName), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Runs the commands through a local bash, in place of the NETSim server.
+     */
+    private static class LocalCommandExecutor implements CommandExecutor {
+
+        @Override
+        public int executeCommand(final String command, final CommandOutputListener listener) throws IOException {
+            final Process process = new ProcessBuilder("bash", "-c", command).redirectError(Redirect.INHERIT).start();
+            try (final BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    listener.onOutputLine(line);
+                }
+                return process.waitFor();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+    }
+}
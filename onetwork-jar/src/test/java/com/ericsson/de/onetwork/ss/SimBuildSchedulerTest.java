@@ -0,0 +1,295 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2013
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.ss;
+
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.ericsson.de.onetwork.dms.generics.NetworkElement;
+import com.ericsson.de.onetwork.ss.util.LocalSshServer;
+import com.ericsson.de.onetwork.ss.util.SshClient;
+import com.ericsson.de.onetwork.ss.util.SshSessionPool;
+
+/**
+ * Verifies that {@link SimBuildScheduler} shares sims out across NETSim
+ * servers weighted by their number of NEs, builds on all servers at once and
+ * collects the sim zips onto the primary server. Each server is stood in for
+ * by a {@link LocalSshServer} serving its own local folder, and the sim zips
+ * are copied from the other servers to the primary server over ssh.
+ */
+public class SimBuildSchedulerTest {
+
+    private static final NetsimServer PRIMARY_SERVER = new NetsimServer("netsim1", "netsim", "netsim");
+    private static final NetsimServer SECOND_SERVER = new NetsimServer("netsim2", "netsim", "netsim");
+    private static final NetsimServer THIRD_SERVER = new NetsimServer("netsim3", "netsim", "netsim");
+
+    private Path serversFolder;
+    private final Map<String, LocalSshServer> localSshServers = new LinkedHashMap<>();
+    private SshSessionPool sshSessionPool;
+    private LocalServerSimBuilder serverSimBuilder;
+    private SimBuildScheduler simBuildScheduler;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        serversFolder = Files.createTempDirectory("netsim_servers");
+        final List<NetsimServer> netsimServers = Arrays.asList(PRIMARY_SERVER, SECOND_SERVER, THIRD_SERVER);
+        for (final NetsimServer netsimServer : netsimServers) {
+            localSshServers.put(netsimServer.getHost(),
+                    new LocalSshServer(Files.createDirectories(serversFolder.resolve(netsimServer.getHost()))));
+        }
+        sshSessionPool = new SshSessionPool(new LocalConnector(localSshServers));
+        serverSimBuilder = new LocalServerSimBuilder(serversFolder, new SimBuildScheduler.SshServerSimBuilder(true, false, false,
+                sshSessionPool, serversFolder.resolve("onenetwork_shards")));
+        simBuildScheduler = new SimBuildScheduler(new NetsimServerPool(netsimServers), serverSimBuilder);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        sshSessionPool.closeAll();
+        for (final LocalSshServer localSshServer : localSshServers.values()) {
+            localSshServer.stop();
+        }
+        localSshServers.clear();
+        deleteRecursively(serversFolder.toFile());
+    }
+
+    @Test
+    public void whenSimsAreAssigned_thenServersGetEqualNumbersOfNes() {
+        final List<Sim> sims = Arrays.asList(createSim("LTE01", 40), createSim("LTE02", 10), createSim("LTE03", 30), createSim("LTE04", 20),
+                createSim("LTE05", 20), createSim("LTE06", 10), createSim("LTE07", 20));
+
+        final Map<NetsimServer, List<Sim>> serverSims = simBuildScheduler.assignSims(sims);
+
+        Assert.assertEquals(new ArrayList<>(serverSims.keySet()), Arrays.asList(PRIMARY_SERVER, SECOND_SERVER, THIRD_SERVER));
+        Assert.assertEquals(getSimNames(serverSims.get(PRIMARY_SERVER)), Arrays.asList("LTE01", "LTE02"));
+        Assert.assertEquals(getSimNames(serverSims.get(SECOND_SERVER)), Arrays.asList("LTE03", "LTE07"));
+        Assert.assertEquals(getSimNames(serverSims.get(THIRD_SERVER)), Arrays.asList("LTE04", "LTE05", "LTE06"));
+    }
+
+    @Test
+    public void whenSimsAreBuilt_thenAllServersBuildAtOnceAndZipsAreCollectedOnPrimaryServer() throws Exception {
+        final List<Sim> sims = Arrays.asList(createSim("LTE01", 30), createSim("LTE02", 20), createSim("LTE03", 10));
+
+        Assert.assertTrue(simBuildScheduler.buildSims(sims));
+
+        Assert.assertEquals(serverSimBuilder.getMaxConcurrentBuilds(), 3);
+        Assert.assertEquals(serverSimBuilder.getSimZipNames(PRIMARY_SERVER), new HashSet<>(Arrays.asList("LTE01.zip", "LTE02.zip",
+                "LTE03.zip")));
+        Assert.assertEquals(serverSimBuilder.getSimZipNames(SECOND_SERVER), Collections.singleton("LTE02.zip"));
+        Assert.assertEquals(serverSimBuilder.readSimZip(PRIMARY_SERVER, "LTE02.zip"), "LTE02");
+        Assert.assertEquals(serverSimBuilder.readSimZip(PRIMARY_SERVER, "LTE03.zip"), "LTE03");
+    }
+
+    @Test
+    public void whenSimZipsAreCollected_thenOneSshSessionIsOpenedPerServer() throws Exception {
+        final List<Sim> sims = Arrays.asList(createSim("LTE01", 30), createSim("LTE02", 20), createSim("LTE03", 10), createSim("LTE04", 10),
+                createSim("LTE05", 10));
+
+        Assert.assertTrue(simBuildScheduler.buildSims(sims));
+
+        Assert.assertEquals(serverSimBuilder.getSimZipNames(PRIMARY_SERVER).size(), 5);
+        for (final LocalSshServer localSshServer : localSshServers.values()) {
+            Assert.assertEquals(localSshServer.getNumberOfHandshakes(), 1);
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void whenSimZipIsMissingOnServer_thenCollectingItThrowsIOException() throws Exception {
+        serverSimBuilder.dropSimZipsOn(THIRD_SERVER);
+
+        simBuildScheduler.buildSims(Arrays.asList(createSim("LTE01", 30), createSim("LTE02", 20), createSim("LTE03", 10)));
+    }
+
+    @Test
+    public void whenOneServerFailsToBuild_thenBuildFailsAndNoZipsAreCollected() throws Exception {
+        serverSimBuilder.failOn(SECOND_SERVER);
+        final List<Sim> sims = Arrays.asList(createSim("LTE01", 30), createSim("LTE02", 20), createSim("LTE03", 10));
+
+        Assert.assertFalse(simBuildScheduler.buildSims(sims));
+
+        Assert.assertEquals(serverSimBuilder.getSimZipNames(PRIMARY_SERVER), Collections.singleton("LTE01.zip"));
+    }
+
+    @Test
+    public void whenThereAreFewerSimsThanServers_thenIdleServersAreNotUsed() throws Exception {
+        Assert.assertTrue(simBuildScheduler.buildSims(Arrays.asList(createSim("LTE01", 10))));
+
+        Assert.assertEquals(serverSimBuilder.getMaxConcurrentBuilds(), 1);
+        Assert.assertTrue(serverSimBuilder.getSimZipNames(SECOND_SERVER).isEmpty());
+    }
+
+    @Test
+    public void whenServersAreOverridden_thenOverridingHostsAreUsedWithConfiguredCredentials() {
+        final Properties config = new Properties();
+        config.setProperty(NetsimServerPool.BUILD_SERVERS_KEY, "netsim1");
+        config.setProperty(NetsimServerPool.BUILD_SERVER_USER_KEY, "netsim");
+        config.setProperty(NetsimServerPool.BUILD_SERVER_PWD_KEY, "netsim");
+
+        final NetsimServerPool netsimServerPool = new NetsimServerPool(config, " netsim2 , netsim3,");
+
+        Assert.assertEquals(netsimServerPool.getNetsimServers(), Arrays.asList(SECOND_SERVER, THIRD_SERVER));
+        Assert.assertEquals(netsimServerPool.getPrimaryNetsimServer(), SECOND_SERVER);
+        Assert.assertEquals(new NetsimServerPool(config, null).getNetsimServers(), Arrays.asList(PRIMARY_SERVER));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void whenPoolHasNoServers_thenIllegalArgumentExceptionIsThrown() {
+        new NetsimServerPool(Collections.<NetsimServer> emptyList());
+    }
+
+    private static Sim createSim(final String name, final int numberOfNes) {
+        final Sim sim = new Sim(Collections.nCopies(numberOfNes, mock(NetworkElement.class)));
+        sim.setName(name);
+        return sim;
+    }
+
+    private static List<String> getSimNames(final List<Sim> sims) {
+        final List<String> simNames = new ArrayList<>();
+        for (final Sim sim : sims) {
+            simNames.add(sim.getName());
+        }
+        return simNames;
+    }
+
+    private static void deleteRecursively(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (final File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+
+    /**
+     * Connects each host to its local server.
+     */
+    private static class LocalConnector implements SshSessionPool.Connector {
+
+        private final Map<String, LocalSshServer> localSshServers;
+
+        LocalConnector(final Map<String, LocalSshServer> localSshServers) {
+            this.localSshServers = localSshServers;
+        }
+
+        @Override
+        public SshClient connect(final String host, final String user, final String password, final boolean tunneled)
+                throws IOException {
+            final SshClient sshClient = new SshClient();
+            sshClient.authUserPassword(user, password);
+            localSshServers.get(host).connect(sshClient);
+            return sshClient;
+        }
+    }
+
+    /**
+     * Builds the sims by writing their zips into the NETSim simulations folder
+     * of the local server, and copies the zips over ssh as
+     * {@link SimBuildScheduler} does.
+     */
+    private static class LocalServerSimBuilder implements SimBuildScheduler.ServerSimBuilder {
+
+        private final Path serversFolder;
+        private final SimBuildScheduler.ServerSimBuilder sshServerSimBuilder;
+        private final AtomicInteger concurrentBuilds = new AtomicInteger();
+        private final AtomicInteger maxConcurrentBuilds = new AtomicInteger();
+        private volatile NetsimServer failingServer;
+        private volatile NetsimServer serverDroppingSimZips;
+
+        LocalServerSimBuilder(final Path serversFolder, final SimBuildScheduler.ServerSimBuilder sshServerSimBuilder) {
+            this.serversFolder = serversFolder;
+            this.sshServerSimBuilder = sshServerSimBuilder;
+        }
+
+        @Override
+        public boolean buildSims(final NetsimServer netsimServer, final List<Sim> sims) throws IOException {
+            final int builds = concurrentBuilds.incrementAndGet();
+            synchronized (maxConcurrentBuilds) {
+                maxConcurrentBuilds.set(Math.max(maxConcurrentBuilds.get(), builds));
+            }
+            try {
+                Thread.sleep(300);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                concurrentBuilds.decrementAndGet();
+            }
+            if (netsimServer.equals(failingServer)) {
+                return false;
+            }
+            if (netsimServer.equals(serverDroppingSimZips)) {
+                return true;
+            }
+            final Path netsimdir = Files.createDirectories(getNetsimdir(netsimServer));
+            for (final Sim sim : sims) {
+                Files.write(netsimdir.resolve(sim.getName() + ".zip"), sim.getName().getBytes());
+            }
+            return true;
+        }
+
+        @Override
+        public boolean copySimZip(final NetsimServer fromServer, final NetsimServer toServer, final String simZipName)
+                throws IOException {
+            return sshServerSimBuilder.copySimZip(fromServer, toServer, simZipName);
+        }
+
+        void failOn(final NetsimServer netsimServer) {
+            failingServer = netsimServer;
+        }
+
+        void dropSimZipsOn(final NetsimServer netsimServer) {
+            serverDroppingSimZips = netsimServer;
+        }
+
+        int getMaxConcurrentBuilds() {
+            return maxConcurrentBuilds.get();
+        }
+
+        Set<String> getSimZipNames(final NetsimServer netsimServer) {
+            final Set<String> simZipNames = new HashSet<>();
+            final String[] fileNames = getNetsimdir(netsimServer).toFile().list();
+            if (fileNames != null) {
+                simZipNames.addAll(Arrays.asList(fileNames));
+            }
+            return simZipNames;
+        }
+
+        String readSimZip(final NetsimServer netsimServer, final String simZipName) throws IOException {
+            return new String(Files.readAllBytes(getNetsimdir(netsimServer).resolve(simZipName)));
+        }
+
+        private Path getNetsimdir(final NetsimServer netsimServer) {
+            return serversFolder.resolve(netsimServer.getHost() + SimBuildScheduler.NETSIM_SIMULATIONS_FOLDER);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2013
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.ss;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.ericsson.de.onetwork.dms.generics.NetworkElement;
+import com.ericsson.de.onetwork.ss.util.InvalidMimVersionFormatException;
+
+/**
+ * Verifies that {@link SimMmlDataGenerator} loads the MO script file of every
+ * network element, also when the MO scripts were streamed to files and are
+ * not held in memory.
+ */
+public class SimMmlDataGeneratorTest {
+
+    private static final String LTE_SIM_MIM_VERSION = "LTE ERBS F1101";
+
+    @Test
+    public void loadMmlCmdsOntoSim_WithEmptyMoScriptMap_KertayleIsCreatedForEachNetworkElement()
+            throws InvalidMimVersionFormatException {
+        final List<NetworkElement> networkElements = new ArrayList<>();
+        networkElements.add(createNetworkElement("LTE01ERBS00001"));
+        networkElements.add(createNetworkElement("LTE01ERBS00002"));
+        final Sim sim = new Sim(networkElements);
+        sim.setName("LTEF1101x2-GEN-LTE01");
+
+        new SimMmlDataGenerator().loadMmlCmdsOntoSim(sim, 0);
+
+        Assert.assertTrue(sim.getNetworkElementToMoScriptMap().isEmpty());
+        final String mmlCmd = sim.getMmlCmd();
+        Assert.assertTrue(mmlCmd.contains(".selectregexp simne LTE01ERBS00001\nkertayle:file=\"/tmp/prod/onenetwork/LTE01ERBS00001.mo\";"),
+                mmlCmd);
+        Assert.assertTrue(mmlCmd.contains(".selectregexp simne LTE01ERBS00002\nkertayle:file=\"/tmp/prod/onenetwork/LTE01ERBS00002.mo\";"),
+                mmlCmd);
+    }
+
+    private static NetworkElement createNetworkElement(final String name) {
+        final NetworkElement ne = mock(NetworkElement.class);
+        when(ne.getName()).thenReturn(name);
+        when(ne.getMimVersion()).thenReturn(LTE_SIM_MIM_VERSION);
+        return ne;
+    }
+}
@@ -0,0 +1,75 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2013
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.ss;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.ericsson.de.onetwork.dms.generics.NetworkElement;
+import com.ericsson.de.onetwork.ss.SimMoDataGeneratorComparisonTest.PreviousSimMoDataGenerator;
+
+/**
+ * Times the MO script generation of {@link SimMoDataGenerator} against the
+ * previous generator of {@link SimMoDataGeneratorComparisonTest}.
+ *
+ * @author eagent
+ */
+public class SimMoDataGeneratorBenchmarkIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimMoDataGeneratorBenchmarkIT.class);
+
+    private static final int WARM_UP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 1000;
+
+    private NetworkElement networkElement;
+
+    @BeforeClass
+    public void beforeClass() {
+        networkElement = SimMoDataGeneratorComparisonTest.createNetworkElement();
+    }
+
+    @Test
+    public void writeMoScript_ComparedWithPreviousGenerator_TimesAreLogged() throws IOException {
+        final SimMoDataGenerator simMoDataGen = new SimMoDataGenerator();
+        final PreviousSimMoDataGenerator previousSimMoDataGen = new PreviousSimMoDataGenerator();
+        final StringBuilder moScript = new StringBuilder();
+
+        for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+            moScript.setLength(0);
+            simMoDataGen.writeMoScript(networkElement, moScript);
+            previousSimMoDataGen.createMoScript(networkElement);
+        }
+
+        long startTime = System.nanoTime();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            previousSimMoDataGen.createMoScript(networkElement);
+        }
+        final long previousNanos = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            moScript.setLength(0);
+            simMoDataGen.writeMoScript(networkElement, moScript);
+        }
+        final long currentNanos = System.nanoTime() - startTime;
+
+        logger.info("MO script of {} cells generated {} times: previous generator {} ms, current generator {} ms",
+                SimMoDataGeneratorComparisonTest.NUMBER_OF_CELLS, MEASURED_ROUNDS, previousNanos / 1000000, currentNanos / 1000000);
+        Assert.assertTrue(moScript.length() > 0);
+    }
+}
@@ -0,0 +1,260 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2013
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.ss;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.ericsson.de.onetwork.dms.generics.CppMo;
+import com.ericsson.de.onetwork.dms.generics.CreationContext;
+import com.ericsson.de.onetwork.dms.generics.Mo;
+import com.ericsson.de.onetwork.dms.generics.NetworkElement;
+import com.ericsson.de.onetwork.dms.mo.datatype.MoAttributeDataType;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Attribute;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Class;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.DataType;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Sequence;
+import com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.StructRef;
+import com.ericsson.de.onetwork.ss.util.SimServiceStringBuilder;
+
+/**
+ * Compares the MO scripts of {@link SimMoDataGenerator} with the ones of the
+ * previous, {@link SimServiceStringBuilder} based, generator: the scripts must
+ * be identical. The time taken by each generator is logged by
+ * {@link SimMoDataGeneratorBenchmarkIT}.
+ *
+ * @author eagent
+ */
+public class SimMoDataGeneratorComparisonTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimMoDataGeneratorComparisonTest.class);
+
+    static final int NUMBER_OF_CELLS = 12;
+
+    private NetworkElement networkElement;
+
+    @BeforeClass
+    public void beforeClass() {
+        networkElement = createNetworkElement();
+    }
+
+    @Test
+    public void writeMoScript_WithCellsOfStructArrayStructAndArrayAttrs_SameMoScriptAsPreviousGenerator() throws IOException {
+        final StringBuilder actual = new StringBuilder();
+        new SimMoDataGenerator().writeMoScript(networkElement, actual);
+
+        final String expected = new PreviousSimMoDataGenerator().createMoScript(networkElement);
+        logger.debug("expected=\n{}", expected);
+        Assert.assertEquals(actual.toString(), expected);
+    }
+
+    /**
+     * Creates a network element of {@link #NUMBER_OF_CELLS} cells with struct,
+     * array of struct and array attributes.
+     */
+    static NetworkElement createNetworkElement() {
+        final Mo rootMo = new CppMo(new Class(), null, "ManagedElement", "1");
+        rootMo.setSystemCreated(true);
+        rootMo.setChildTypes(Arrays.asList("EUtranCellFDD"));
+
+        final Class cellClass = createCellClass();
+        for (int cellIndex = 1; cellIndex <= NUMBER_OF_CELLS; cellIndex++) {
+            rootMo.addChild(createCell(cellClass, rootMo, cellIndex));
+        }
+
+        final NetworkElement networkElement = mock(NetworkElement.class);
+        when(networkElement.getName()).thenReturn("LTE01ERBS0001");
+        when(networkElement.getRootMo()).thenReturn(rootMo);
+        return networkElement;
+    }
+
+    private static Class createCellClass() {
+        final Class cellClass = new Class();
+        cellClass.setName("EUtranCellFDD");
+        cellClass.getActionOrAttribute().add(createAttribute("userLabel", new com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.String()));
+        cellClass.getActionOrAttribute().add(createAttribute("cellId", new com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Long()));
+        cellClass.getActionOrAttribute().add(
+                createAttribute("acBarringForSpecialAC", createSequence(new com.ericsson.de.onetwork.dms.momparser.schema.mpdtd.Boolean())));
+        cellClass.getActionOrAttribute().add(createAttribute("healthCheckSchedule", createSequence(new StructRef())));
+        cellClass.getActionOrAttribute().add(createAttribute("healthCheckStruct", new StructRef()));
+        return cellClass;
+    }
+
+    private static Sequence createSequence(final Object elementDataType) {
+        final Sequence sequence = new Sequence();
+        sequence
+                .getIntegerOrBooleanOrOctetOrCharOrDoubleOrFloatOrLongOrLonglongOrShortOrStringOrWstringOrInt8OrInt16OrInt32OrInt64OrUint8OrUint16OrUint32OrUint64OrDecimal64OrEnumRefOrMoRefOrStructRefOrDerivedDataTypeRef()
+                .add(elementDataType);
+        return sequence;
+    }
+
+    private static Attribute createAttribute(final String name, final Object dataTypeContent) {
+        final DataType dataType = new DataType();
+        dataType
+                .getIntegerOrBooleanOrOctetOrCharOrDoubleOrFloatOrLongOrLonglongOrShortOrStringOrWstringOrInt8OrInt16OrInt32OrInt64OrUint8OrUint16OrUint32OrUint64OrDecimal64OrEnumRefOrMoRefOrStructRefOrDerivedDataTypeRefOrSequence()
+                .add(dataTypeContent);
+        final Attribute attribute = new Attribute();
+        attribute.setName(name);
+        attribute.setDataType(dataType);
+        return attribute;
+    }
+
+    private static Mo createCell(final Class cellClass, final Mo rootMo, final int cellIndex) {
+        final Mo cell = new CppMo(cellClass, rootMo, "EUtranCellFDD", "LTE01ERBS0001-" + cellIndex);
+        cell.setAttributeValue("userLabel", cellIndex % 2 == 0 ? "" : "cell" + cellIndex, CreationContext.FEATURE_CREATED);
+        cell.setAttributeValue("cellId", Integer.toString(cellIndex), CreationContext.FEATURE_CREATED);
+
+        final List<MoAttributeDataType> acBarringForSpecialAC = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            acBarringForSpecialAC.add(new MoAttributeDataType("Boolean", i % 2 == 0));
+        }
+        cell.setAttributeValue("acBarringForSpecialAC", acBarringForSpecialAC, CreationContext.FEATURE_CREATED);
+
+        final List<MoAttributeDataType> healthCheckSchedule = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final Map<String, MoAttributeDataType> scheduleEntry = new TreeMap<>();
+            scheduleEntry.put("time", new MoAttributeDataType("String", "0" + i + ":00"));
+            scheduleEntry.put("weekday", new MoAttributeDataType("String", "MONDAY"));
+            healthCheckSchedule.add(new MoAttributeDataType("Struct", scheduleEntry));
+        }
+        cell.setAttributeValue("healthCheckSchedule", healthCheckSchedule, CreationContext.FEATURE_CREATED);
+
+        final Map<String, MoAttributeDataType> healthCheckStruct = new TreeMap<>();
+        healthCheckStruct.put("healthCheckResultCode", new MoAttributeDataType("Enum", "2"));
+        healthCheckStruct.put("message", new MoAttributeDataType("String", "message" + cellIndex));
+        cell.setAttributeValue("healthCheckStruct", healthCheckStruct, CreationContext.FEATURE_CREATED);
+        return cell;
+    }
+
+    /**
+     * The MO script generation of {@link SimMoDataGenerator} before it wrote
+     * straight into one destination: each CREATE block and attribute is built
+     * in its own {@link SimServiceStringBuilder} and copied into its parent.
+     */
+    static class PreviousSimMoDataGenerator {
+
+        private static final Map<String, String> moAttrDataTypeForNetsim = new HashMap<String, String>();
+
+        static {
+            moAttrDataTypeForNetsim.put("long", "Integer");
+            moAttrDataTypeForNetsim.put("enumref", "Integer");
+            moAttrDataTypeForNetsim.put("structref", "Struct");
+            moAttrDataTypeForNetsim.put("moref", "Ref");
+            moAttrDataTypeForNetsim.put("sequence", "Array");
+            moAttrDataTypeForNetsim.put("boolean", "Boolean");
+            moAttrDataTypeForNetsim.put("string", "String");
+            moAttrDataTypeForNetsim.put("longlong", "Long");
+            moAttrDataTypeForNetsim.put("struct", "Struct");
+            moAttrDataTypeForNetsim.put("enum", "Integer");
+        }
+
+        String createMoScript(final NetworkElement ne) {
+            final StringBuilder moDataHolder = new StringBuilder();
+            populateMosWithoutSetMoRef(ne.getRootMo(), moDataHolder);
+            return new String(moDataHolder);
+        }
+
+        private void populateMosWithoutSetMoRef(final Mo mo, final StringBuilder moDataHolder) {
+            if (!mo.isSystemCreated()) {
+                moDataHolder.append(createMoScript(mo));
+            }
+            for (final Mo childMo : mo.getChildren()) {
+                populateMosWithoutSetMoRef(childMo, moDataHolder);
+            }
+        }
+
+        private String createMoScript(final Mo mo) {
+            final String parentFdn = mo.getParentFdn() == null ? "\"\"" : mo.getParentFdn().toString();
+            final String identity = mo.getName() == null ? "\"\"" : mo.getName();
+            final String moType = mo.getType() == null ? "\"\"" : mo.getType();
+            final int numOfAttr = mo.getAttributeNames().size();
+
+            final SimServiceStringBuilder moScript = new SimServiceStringBuilder();
+            moScript.append("CREATE");
+            moScript.append("(");
+            moScript.append("  parent " + parentFdn);
+            moScript.append("  identity " + identity);
+            moScript.append("  moType " + moType);
+            moScript.append("  exception none");
+            moScript.append("  nrOfAttributes " + numOfAttr);
+            moScript.appendWithoutNewLine(parseMoAttributes(mo));
+            moScript.append(")");
+            return moScript.toString();
+        }
+
+        private String parseMoAttributes(final Mo mo) {
+            final StringBuilder moScript = new StringBuilder();
+            for (final String moAttrName : mo.getFeaturePopulatedAttributeNames()) {
+                moScript.append(parseMoAttributeDataType(moAttrName, mo.getAttributeByName(moAttrName), "", false));
+            }
+            return moScript.toString();
+        }
+
+        private String parseMoAttributeDataType(final String moAttrName, final MoAttributeDataType moAttrDataType, final String initialData,
+                final boolean listItem) {
+            final SimServiceStringBuilder moScript = new SimServiceStringBuilder();
+            if (!initialData.equals("")) {
+                moScript.append(initialData);
+            }
+            if (moAttrDataType == null) {
+                return moScript.toString();
+            }
+
+            final String moAttrType = moAttrDataTypeForNetsim.get(moAttrDataType.getDataType().toLowerCase());
+            final Object moAttrValue = moAttrDataType.getValue();
+            final String moAttrValueClassName = moAttrValue.getClass().getSimpleName().toUpperCase();
+
+            if (moAttrValueClassName.contains("MAP")) {
+                @SuppressWarnings("unchecked")
+                final Map<String, MoAttributeDataType> subAttrs = (Map<String, MoAttributeDataType>) moAttrDataType.getValue();
+                if (!listItem) {
+                    moScript.append(2, moAttrName + " " + moAttrType);
+                }
+                moScript.append(listItem ? 2 : 4, "nrOfElements " + subAttrs.size());
+                for (final Map.Entry<String, MoAttributeDataType> entry : subAttrs.entrySet()) {
+                    moScript.appendWithoutNewLine(4, parseMoAttributeDataType(entry.getKey(), entry.getValue(), "", false));
+                }
+            } else if (moAttrValueClassName.contains("LIST")) {
+                @SuppressWarnings("unchecked")
+                final List<MoAttributeDataType> subMoAttrList = (List<MoAttributeDataType>) moAttrDataType.getValue();
+                final String listMoAttrType = subMoAttrList.get(0).getDataType();
+                final int subMoAttrListSize = subMoAttrList.size();
+                moScript.append(2, moAttrName + " " + moAttrType + " " + listMoAttrType + moScript.toString() + " " + subMoAttrListSize);
+                for (final MoAttributeDataType subMoAttr : subMoAttrList) {
+                    moScript.appendWithoutNewLine(2, parseMoAttributeDataType(moAttrName, subMoAttr, "", true));
+                }
+            } else if (listItem) {
+                moScript.append(2, moAttrDataType.getValue().toString());
+            } else {
+                final String moAttrDataTypeValue = moAttrDataType.toString().isEmpty() ? "\"\"" : moAttrDataType.toString();
+                moScript.append(2, moAttrName + " " + moAttrDataTypeForNetsim.get(moAttrDataType.getDataType().toLowerCase()) + " "
+                        + moAttrDataTypeValue);
+            }
+            return moScript.toString();
+        }
+    }
+}
@@ -12,19 +12,26 @@
 
 package com.ericsson.de.onetwork.ss;
 
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.TreeMap;
 
+import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.Assert;
@@ -34,6 +41,7 @@ import org.testng.annotations.Test;
 
 import com.ericsson.de.onetwork.dms.generics.Fdn;
 import com.ericsson.de.onetwork.dms.generics.Mo;
+import com.ericsson.de.onetwork.dms.generics.MoVisitor;
 import com.ericsson.de.onetwork.dms.generics.NetworkElement;
 import com.ericsson.de.onetwork.dms.mo.datatype.MoAttributeDataType;
 
@@ -135,6 +143,7 @@ public class SimMoDataGeneratorTest {
         final List<Mo> children = new ArrayList<>();
         children.add(childMockedMo);
         when(mockedMo.getChildren()).thenReturn(children);
+        doAnswer(visitEach(children)).when(mockedMo).forEachChild(Matchers.<MoVisitor<RuntimeException>> any());
 
         logger.debug("neSize={}", sim.getNetworkElements().size());
         logger.debug("sim.getNetworkElements().get(0).getName()={}", sim.getNetworkElements().get(0).getName());
@@ -301,6 +310,48 @@ public class SimMoDataGeneratorTest {
         Assert.assertEquals(actual, expected);
     }
 
+    @Test
+    public void writeMoScriptFiles_WithSingleNonSystemCreatedMo_AndUserLabelAttr_FileContentMatchesLoadedMoScript() throws IOException {
+
+        when(mockedNetworkElement.getName()).thenReturn("LTE01ERBS0001");
+        when(mockedMo.isSystemCreated()).thenReturn(false);
+        when(mockedNetworkElement.getRootMo()).thenReturn(mockedMo);
+        final List<String> listOfAttrs = new ArrayList<String>();
+        listOfAttrs.add("userLabel");
+        when(mockedMo.getFeaturePopulatedAttributeNames()).thenReturn(listOfAttrs);
+        when(mockedMo.getAttributeNames()).thenReturn(listOfAttrs);
+        when(mockedMo.getAttributeByName("userLabel")).thenReturn(new MoAttributeDataType("string", "fake-user-label"));
+
+        final Path folder = Files.createTempDirectory("onetwork-mo-scripts");
+        final Path moScriptFile = folder.resolve("LTE01ERBS0001" + SimMoDataGenerator.MO_SCRIPT_FILE_EXTENSION);
+        try {
+            simMoDataGen.writeMoScriptFiles(sim, folder);
+            final String actual = new String(Files.readAllBytes(moScriptFile), StandardCharsets.US_ASCII);
+            logger.debug("actual-{}=\n{}", testingMethodName, actual);
+
+            simMoDataGen.loadMoScriptsOnto(sim);
+            Assert.assertEquals(actual, sim.getNetworkElementToMoScriptMap().get("LTE01ERBS0001"));
+            Assert.assertEquals(removeExtraSpaces(actual), simMoDataProps.getProperty("SingleCreateMoScriptWithUserLabelAttr"));
+        } finally {
+            Files.deleteIfExists(moScriptFile);
+            Files.delete(folder);
+        }
+    }
+
+    private static Answer<Void> visitEach(final List<Mo> children) {
+        return new Answer<Void>() {
+
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws Throwable {
+                final MoVisitor<?> visitor = (MoVisitor<?>) invocation.getArguments()[0];
+                for (final Mo child : children) {
+                    visitor.visit(child);
+                }
+                return null;
+            }
+        };
+    }
+
     private String removeExtraSpaces(final String str) {
         return str.replaceAll("\\s+", " ").trim();
     }
@@ -0,0 +1,97 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2013
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.ss.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Verifies that {@link CommandOutputLineStream} hands command output to its
+ * listener line by line.
+ *
+ * @author eagent
+ */
+public class CommandOutputLineStreamTest {
+
+    private List<String> outputLines;
+    private List<String> errorLines;
+    private CommandOutputListener listener;
+
+    @BeforeMethod
+    public void setUp() {
+        outputLines = new ArrayList<>();
+        errorLines = new ArrayList<>();
+        listener = new CommandOutputListener() {
+
+            @Override
+            public void onOutputLine(final String line) {
+                outputLines.add(line);
+            }
+
+            @Override
+            public void onErrorLine(final String line) {
+                errorLines.add(line);
+            }
+        };
+    }
+
+    @Test
+    public void whenLinesAreSplitAcrossWrites_thenEachLineIsDeliveredOnceComplete() {
+        final CommandOutputLineStream stream = new CommandOutputLineStream(listener, false);
+
+        write(stream, "sim1\nsi");
+        Assert.assertEquals(outputLines, Arrays.asList("sim1"));
+
+        write(stream, "m2\r\n\nsim3");
+        Assert.assertEquals(outputLines, Arrays.asList("sim1", "sim2", ""));
+
+        stream.close();
+        Assert.assertEquals(outputLines, Arrays.asList("sim1", "sim2", "", "sim3"));
+        Assert.assertTrue(errorLines.isEmpty());
+    }
+
+    @Test
+    public void whenMultiByteCharacterIsSplitAcrossWrites_thenLineIsDecodedWhole() {
+        final CommandOutputLineStream stream = new CommandOutputLineStream(listener, false);
+        final byte[] bytes = "café\n".getBytes(StandardCharsets.UTF_8);
+
+        stream.write(bytes, 0, 4);
+        stream.write(bytes, 4, bytes.length - 4);
+
+        Assert.assertEquals(outputLines, Arrays.asList("café"));
+    }
+
+    @Test
+    public void whenStreamIsErrorStream_thenLinesAreDeliveredAsErrorLines() {
+        final CommandOutputLineStream stream = new CommandOutputLineStream(listener, true);
+
+        write(stream, "rm: cannot remove\n");
+        stream.write('x');
+        stream.close();
+        stream.close();
+
+        Assert.assertEquals(errorLines, Arrays.asList("rm: cannot remove", "x"));
+        Assert.assertTrue(outputLines.isEmpty());
+    }
+
+    private static void write(final CommandOutputLineStream stream, final String text) {
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        stream.write(bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,133 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2013
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.ss.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Verifies the tar.gz archive written by {@link FileUtils#writeTarGz}.
+ *
+ * @author eagent
+ */
+public class FileUtilsTest {
+
+    private static final String MO_SCRIPT_LINE = "CREATE\n(\n    parent \"ManagedElement=1,ENodeBFunction=1\"\n    identity \"1\"\n"
+            + "    moType EUtranCellFDD\n    exception none\n    nrOfAttributes 0\n)\n";
+
+    private Path folder;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("onetwork-archive");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        org.apache.commons.io.FileUtils.deleteDirectory(folder.toFile());
+    }
+
+    @Test
+    public void whenFilesAreArchived_thenEachFileIsReadBackWithItsNameAndContent() throws IOException {
+        final Path mmlFile = Files.write(folder.resolve("LTEF1101x2-ST-ERBS.mml"), ".open LTEF1101x2\n".getBytes(StandardCharsets.UTF_8));
+        final Path emptyFile = Files.write(folder.resolve("empty.txt"), new byte[0]);
+        final Path moFile = Files.write(folder.resolve("ERBS01.mo"), repeat(MO_SCRIPT_LINE, 20).getBytes(StandardCharsets.UTF_8));
+
+        final ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        FileUtils.writeTarGz(Arrays.asList(mmlFile, emptyFile, moFile), archive);
+
+        final Map<String, String> entries = readTarGz(archive.toByteArray());
+        Assert.assertEquals(entries.keySet().toArray(), new String[] { "LTEF1101x2-ST-ERBS.mml", "empty.txt", "ERBS01.mo" });
+        Assert.assertEquals(entries.get("LTEF1101x2-ST-ERBS.mml"), ".open LTEF1101x2\n");
+        Assert.assertEquals(entries.get("empty.txt"), "");
+        Assert.assertEquals(entries.get("ERBS01.mo"), repeat(MO_SCRIPT_LINE, 20));
+    }
+
+    @Test
+    public void whenRepetitiveScriptsAreArchived_thenArchiveIsAnOrderOfMagnitudeSmaller() throws IOException {
+        final Path moFile = Files.write(folder.resolve("ERBS01.mo"), repeat(MO_SCRIPT_LINE, 2000).getBytes(StandardCharsets.UTF_8));
+
+        final ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        FileUtils.writeTarGz(Arrays.asList(moFile), archive);
+
+        Assert.assertTrue(archive.size() * 10 < Files.size(moFile), "archive size " + archive.size());
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void whenFileNameIsTooLongForTarHeader_thenIOExceptionIsThrown() throws IOException {
+        final Path file = Files.write(folder.resolve(repeat("x", 101)), new byte[1]);
+
+        FileUtils.writeTarGz(Arrays.asList(file), new ByteArrayOutputStream());
+    }
+
+    private static Map<String, String> readTarGz(final byte[] archive) throws IOException {
+        final Map<String, String> entries = new LinkedHashMap<>();
+        try (final InputStream in = new GZIPInputStream(new ByteArrayInputStream(archive))) {
+            final DataInputStream tar = new DataInputStream(in);
+            final byte[] header = new byte[512];
+            while (true) {
+                tar.readFully(header);
+                final String name = readField(header, 0, 100);
+                if (name.isEmpty()) {
+                    break;
+                }
+                Assert.assertEquals(readField(header, 257, 6), "ustar");
+                Assert.assertEquals(Integer.parseInt(readField(header, 148, 6), 8), checksum(header));
+                final int size = Integer.parseInt(readField(header, 124, 12), 8);
+                final byte[] data = new byte[(size + 511) / 512 * 512];
+                tar.readFully(data);
+                entries.put(name, new String(data, 0, size, StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+
+    private static String readField(final byte[] header, final int offset, final int length) {
+        int end = offset;
+        while (end < offset + length && header[end] != 0) {
+            end++;
+        }
+        return new String(header, offset, end - offset, StandardCharsets.US_ASCII).trim();
+    }
+
+    private static int checksum(final byte[] header) {
+        int checksum = 0;
+        for (int index = 0; index < header.length; index++) {
+            checksum += index >= 148 && index < 156 ? ' ' : header[index] & 0xff;
+        }
+        return checksum;
+    }
+
+    private static String repeat(final String text, final int times) {
+        final StringBuilder builder = new StringBuilder();
+        for (int time = 0; time < times; time++) {
+            builder.append(text);
+        }
+        return builder.toString();
+    }
+}
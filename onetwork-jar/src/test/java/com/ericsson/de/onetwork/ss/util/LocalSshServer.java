@@ -0,0 +1,266 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2013
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.ss.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.sshd.SshServer;
+import org.apache.sshd.common.FactoryManager;
+import org.apache.sshd.common.KeyPairProvider;
+import org.apache.sshd.common.NamedFactory;
+import org.apache.sshd.common.file.virtualfs.VirtualFileSystemFactory;
+import org.apache.sshd.common.session.AbstractSession;
+import org.apache.sshd.server.Command;
+import org.apache.sshd.server.CommandFactory;
+import org.apache.sshd.server.Environment;
+import org.apache.sshd.server.ExitCallback;
+import org.apache.sshd.server.PasswordAuthenticator;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.apache.sshd.server.session.ServerSession;
+import org.apache.sshd.server.sftp.SftpSubsystem;
+import org.apache.sshd.server.shell.ProcessShellFactory;
+
+/**
+ * An ssh server listening on a free local port, standing in for a NETSim
+ * server in tests. Exec commands are run by the local shell, and files are
+ * served over sftp from the local file system, or from a folder of it
+ * standing in for the root of the server. Any user and password is accepted.
+ * <p>
+ * The server counts the sessions that authenticate, which is the number of
+ * ssh handshakes clients performed, and the most exec channels that ran at
+ * the same time.
+ * </p>
+ *
+ * @author eagent
+ */
+public class LocalSshServer {
+
+    private static final String LOCAL_HOST = "127.0.0.1";
+
+    /**
+     * The number of times a handshake is tried. The jsch version in use now
+     * and then rejects a valid host key signature, so a failed handshake is
+     * tried again before a test fails.
+     */
+    private static final int HANDSHAKE_ATTEMPTS = 3;
+
+    /**
+     * The host key of every server, generated once up front, so that no
+     * handshake waits for a key to be generated.
+     */
+    private static final KeyPairProvider HOST_KEY_PROVIDER = new SimpleGeneratorHostKeyProvider(null, "DSA", 1024);
+
+    static {
+        HOST_KEY_PROVIDER.loadKeys();
+    }
+
+    private final SshServer sshServer = SshServer.setUpDefaultServer();
+
+    private final AtomicInteger numberOfHandshakes = new AtomicInteger();
+    private final AtomicInteger numberOfRunningCommands = new AtomicInteger();
+    private final AtomicInteger maximumNumberOfRunningCommands = new AtomicInteger();
+
+    /**
+     * Starts a server on a free local port.
+     *
+     * @throws IOException
+     *             if the server cannot be started
+     */
+    public LocalSshServer() throws IOException {
+        this(null);
+    }
+
+    /**
+     * Starts a server on a free local port, serving the given folder over
+     * sftp as its root folder, so that several servers hold their own files
+     * under the same remote paths.
+     *
+     * @param rootFolder
+     *            the local folder served as {@code /}, or null to serve the
+     *            local file system
+     * @throws IOException
+     *             if the server cannot be started
+     */
+    @SuppressWarnings("unchecked")
+    public LocalSshServer(final Path rootFolder) throws IOException {
+        sshServer.setHost(LOCAL_HOST);
+        sshServer.setPort(0);
+        sshServer.setKeyPairProvider(HOST_KEY_PROVIDER);
+        sshServer.setPasswordAuthenticator(new PasswordAuthenticator() {
+
+            @Override
+            public boolean authenticate(final String username, final String password, final ServerSession session) {
+                numberOfHandshakes.incrementAndGet();
+                return true;
+            }
+        });
+        sshServer.setCommandFactory(new CommandFactory() {
+
+            @Override
+            public Command createCommand(final String command) {
+                return new CountedCommand(new ProcessShellFactory(new String[] { "/bin/sh", "-c", command },
+                        EnumSet.noneOf(ProcessShellFactory.TtyOptions.class)).create());
+            }
+        });
+        if (rootFolder != null) {
+            sshServer.setFileSystemFactory(new VirtualFileSystemFactory(rootFolder.toAbsolutePath().toString()));
+        }
+        sshServer.setSubsystemFactories(Arrays.<NamedFactory<Command>> asList(new SftpSubsystem.Factory()));
+        sshServer.start();
+    }
+
+    /**
+     * Returns the local port the server listens on.
+     *
+     * @return the port of the server
+     */
+    public int getPort() {
+        return sshServer.getPort();
+    }
+
+    /**
+     * Connects the given client directly to this server.
+     *
+     * @param sshClient
+     *            a client with its credentials set
+     * @throws IOException
+     *             if every handshake fails
+     */
+    public void connect(final SshClient sshClient) throws IOException {
+        for (int attempt = 1;; attempt++) {
+            try {
+                sshClient.connect(LOCAL_HOST, getPort());
+                return;
+            } catch (final IOException e) {
+                if (attempt == HANDSHAKE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of sessions that authenticated since the server
+     * started.
+     *
+     * @return the number of ssh handshakes
+     */
+    public int getNumberOfHandshakes() {
+        return numberOfHandshakes.get();
+    }
+
+    /**
+     * Returns the most exec commands that ran at the same time since the
+     * server started.
+     *
+     * @return the most exec channels open at once
+     */
+    public int getMaximumNumberOfRunningCommands() {
+        return maximumNumberOfRunningCommands.get();
+    }
+
+    /**
+     * Closes the sessions that are open, as a server restart or network
+     * failure would.
+     */
+    public void closeSessions() {
+        for (final AbstractSession session : sshServer.getActiveSessions()) {
+            session.close(true);
+        }
+    }
+
+    /**
+     * Disconnects all clients after the given time without activity. Clients
+     * sending keep-alive messages more often stay connected.
+     *
+     * @param idleTimeout
+     *            the idle timeout in milliseconds
+     */
+    public void setIdleTimeout(final long idleTimeout) {
+        sshServer.getProperties().put(FactoryManager.IDLE_TIMEOUT, Long.toString(idleTimeout));
+    }
+
+    /**
+     * Stops the server and closes its sessions.
+     */
+    public void stop() {
+        try {
+            sshServer.stop(true);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private final class CountedCommand implements Command {
+
+        private final Command command;
+
+        CountedCommand(final Command command) {
+            this.command = command;
+        }
+
+        @Override
+        public void setInputStream(final InputStream inputStream) {
+            command.setInputStream(inputStream);
+        }
+
+        @Override
+        public void setOutputStream(final OutputStream outputStream) {
+            command.setOutputStream(outputStream);
+        }
+
+        @Override
+        public void setErrorStream(final OutputStream errorStream) {
+            command.setErrorStream(errorStream);
+        }
+
+        @Override
+        public void setExitCallback(final ExitCallback exitCallback) {
+            command.setExitCallback(new ExitCallback() {
+
+                @Override
+                public void onExit(final int exitValue) {
+                    numberOfRunningCommands.decrementAndGet();
+                    exitCallback.onExit(exitValue);
+                }
+
+                @Override
+                public void onExit(final int exitValue, final String exitMessage) {
+                    numberOfRunningCommands.decrementAndGet();
+                    exitCallback.onExit(exitValue, exitMessage);
+                }
+            });
+        }
+
+        @Override
+        public void start(final Environment environment) throws IOException {
+            final int running = numberOfRunningCommands.incrementAndGet();
+            int maximum = maximumNumberOfRunningCommands.get();
+            while (running > maximum && !maximumNumberOfRunningCommands.compareAndSet(maximum, running)) {
+                maximum = maximumNumberOfRunningCommands.get();
+            }
+            command.start(environment);
+        }
+
+        @Override
+        public void destroy() {
+            command.destroy();
+        }
+    }
+}
@@ -42,4 +42,14 @@ public class SimServiceStringBuilderTest {
         sb.append(2, DATA);
         Assert.assertEquals(sb.toString(), expected);
     }
+
+    @Test
+    public void testAppend_With_Prefix_NumOfSpace_LongerThanCachedIndents() {
+        sb = new SimServiceStringBuilder();
+        final String prefix20Space = "                    ";
+        final String expected = prefix20Space + DATA + NEW_LINE + prefix20Space + DATA;
+        sb.append(20, DATA);
+        sb.appendWithoutNewLine(20, DATA);
+        Assert.assertEquals(sb.toString(), expected);
+    }
 }
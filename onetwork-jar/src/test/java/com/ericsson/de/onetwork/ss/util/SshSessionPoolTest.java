@@ -0,0 +1,340 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2013
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.ss.util;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.ericsson.de.onetwork.util.OnetworkSshClient;
+
+/**
+ * Verifies that {@link SshSessionPool} performs one ssh handshake per remote
+ * host, user and password, shares the session between callers, and reconnects
+ * broken or idle sessions. The clients connect to a {@link LocalSshServer},
+ * which counts the handshakes.
+ *
+ * @author eagent
+ */
+public class SshSessionPoolTest {
+
+    private static final String HOST = "netsim.host";
+    private static final String OTHER_HOST = "other.netsim.host";
+    private static final String USER = "netsim";
+    private static final String PASSWORD = "netsim";
+
+    private static final int KEEP_ALIVE_INTERVAL = 500;
+    private static final int SERVER_IDLE_TIMEOUT = 2000;
+    private static final long HEALTH_CHECK_TIMEOUT = 5000;
+    private static final int MAX_CHANNELS = 2;
+
+    private LocalSshServer localSshServer;
+    private LocalConnector connector;
+    private SshSessionPool sshSessionPool;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        localSshServer = new LocalSshServer();
+        connector = new LocalConnector(localSshServer, 0, 0);
+        sshSessionPool = new SshSessionPool(connector);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        sshSessionPool.closeAll();
+        localSshServer.stop();
+    }
+
+    @Test
+    public void whenClientIsAcquiredRepeatedly_thenOneHandshakeIsPerformed() throws IOException {
+        final SshClient firstClient = sshSessionPool.acquire(HOST, USER, PASSWORD, false);
+        sshSessionPool.release(firstClient);
+        final SshClient secondClient = sshSessionPool.acquire(HOST, USER, PASSWORD, false);
+        sshSessionPool.release(secondClient);
+
+        Assert.assertSame(secondClient, firstClient);
+        Assert.assertEquals(localSshServer.getNumberOfHandshakes(), 1);
+        verify(firstClient, never()).close();
+    }
+
+    @Test
+    public void whenClientsAreAcquiredForDifferentHostsOrRoutes_thenOneHandshakeIsPerformedForEach() throws IOException {
+        sshSessionPool.acquire(HOST, USER, PASSWORD, false);
+        sshSessionPool.acquire(OTHER_HOST, USER, PASSWORD, false);
+        sshSessionPool.acquire(HOST, USER, PASSWORD, true);
+        sshSessionPool.acquire(HOST, USER, PASSWORD, false);
+
+        Assert.assertEquals(localSshServer.getNumberOfHandshakes(), 3);
+        Assert.assertEquals(sshSessionPool.getNumberOfPooledClients(), 3);
+    }
+
+    @Test
+    public void whenClientIsAcquiredWithOtherPassword_thenPooledSessionIsNotShared() throws IOException {
+        final SshClient sshClient = sshSessionPool.acquire(HOST, USER, PASSWORD, false);
+        final SshClient otherClient = sshSessionPool.acquire(HOST, USER, "otherPassword", false);
+
+        Assert.assertNotSame(otherClient, sshClient);
+        Assert.assertEquals(localSshServer.getNumberOfHandshakes(), 2);
+    }
+
+    @Test
+    public void whenOnetworkSshClientRunsSeveralOperations_thenOneHandshakeIsPerformed() throws IOException {
+        for (int operation = 0; operation < 5; operation++) {
+            final OnetworkSshClient onetworkSshClient = new OnetworkSshClient(sshSessionPool);
+            try {
+                Assert.assertEquals(onetworkSshClient.executeCommand("true"), 0);
+                Assert.assertEquals(onetworkSshClient.executeCommandv2("echo " + operation).trim(), Integer.toString(operation));
+            } finally {
+                onetworkSshClient.close();
+            }
+        }
+
+        Assert.assertEquals(localSshServer.getNumberOfHandshakes(), 1);
+        verify(connector.getClients().get(0), never()).close();
+    }
+
+    @Test
+    public void whenClientIsUsedByManyThreadsAtOnce_thenTheirChannelsShareOneSession() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<SshClient>> futures = new ArrayList<>();
+            for (int task = 0; task < 8; task++) {
+                futures.add(executor.submit(new Callable<SshClient>() {
+
+                    @Override
+                    public SshClient call() throws IOException {
+                        final SshClient sshClient = sshSessionPool.acquire(HOST, USER, PASSWORD, false);
+                        try {
+                            Assert.assertEquals(sshClient.executeCommand("sleep 0.5"), 0);
+                        } finally {
+                            sshSessionPool.release(sshClient);
+                        }
+                        return sshClient;
+                    }
+                }));
+            }
+            for (final Future<SshClient> future : futures) {
+                Assert.assertSame(future.get(), connector.getClients().get(0));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assert.assertEquals(localSshServer.getNumberOfHandshakes(), 1);
+        Assert.assertTrue(localSshServer.getMaximumNumberOfRunningCommands() > 1,
+                "Commands of several threads should have run on the shared session at once");
+    }
+
+    @Test
+    public void whenChannelsAreLimited_thenNoMoreChannelsThanTheLimitAreOpenAtOnce() throws Exception {
+        final SshSessionPool limitedPool = new SshSessionPool(new LocalConnector(localSshServer, 0, MAX_CHANNELS));
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Integer>> futures = new ArrayList<>();
+            for (int task = 0; task < 8; task++) {
+                futures.add(executor.submit(new Callable<Integer>() {
+
+                    @Override
+                    public Integer call() throws IOException {
+                        final SshClient sshClient = limitedPool.acquire(HOST, USER, PASSWORD, false);
+                        try {
+                            return sshClient.executeCommand("sleep 0.2");
+                        } finally {
+                            limitedPool.release(sshClient);
+                        }
+                    }
+                }));
+            }
+            for (final Future<Integer> future : futures) {
+                Assert.assertEquals(future.get().intValue(), 0);
+            }
+        } finally {
+            executor.shutdownNow();
+            limitedPool.closeAll();
+        }
+
+        Assert.assertEquals(localSshServer.getNumberOfHandshakes(), 1);
+        Assert.assertEquals(localSshServer.getMaximumNumberOfRunningCommands(), MAX_CHANNELS);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void whenMaxChannelsIsBelowOne_thenIllegalArgumentExceptionIsThrown() {
+        new SshClient().setMaxChannels(0);
+    }
+
+    @Test
+    public void whenServerClosesSession_thenClientIsUnhealthyAndPoolReconnects() throws Exception {
+        final SshClient brokenClient = sshSessionPool.acquire(HOST, USER, PASSWORD, false);
+        sshSessionPool.release(brokenClient);
+        Assert.assertTrue(brokenClient.isHealthy());
+
+        localSshServer.closeSessions();
+        awaitUnhealthy(brokenClient);
+        final SshClient sshClient = sshSessionPool.acquire(HOST, USER, PASSWORD, false);
+
+        Assert.assertNotSame(sshClient, brokenClient);
+        Assert.assertEquals(sshClient.executeCommand("true"), 0);
+        Assert.assertEquals(localSshServer.getNumberOfHandshakes(), 2);
+        verify(brokenClient).close();
+    }
+
+    @Test
+    public void whenPooledClientInUseFailsHealthCheck_thenItIsOnlyClosedWhenItsLastUserReleasesIt() throws Exception {
+        final SshClient brokenClient = sshSessionPool.acquire(HOST, USER, PASSWORD, false);
+        sshSessionPool.acquire(HOST, USER, PASSWORD, false);
+        localSshServer.closeSessions();
+        awaitUnhealthy(brokenClient);
+
+        final SshClient sshClient = sshSessionPool.acquire(HOST, USER, PASSWORD, false);
+        sshSessionPool.release(brokenClient);
+
+        Assert.assertNotSame(sshClient, brokenClient);
+        Assert.assertEquals(sshSessionPool.getNumberOfPooledClients(), 1);
+        verify(brokenClient, never()).close();
+
+        sshSessionPool.release(brokenClient);
+
+        verify(brokenClient).close();
+        verify(sshClient, never()).close();
+    }
+
+    @Test
+    public void whenKeepAliveIsEnabled_thenIdleSessionOutlivesServerIdleTimeout() throws Exception {
+        localSshServer.setIdleTimeout(SERVER_IDLE_TIMEOUT);
+        final SshSessionPool keepAlivePool = new SshSessionPool(new LocalConnector(localSshServer, KEEP_ALIVE_INTERVAL, 0));
+        try {
+            final SshClient firstClient = keepAlivePool.acquire(HOST, USER, PASSWORD, false);
+            keepAlivePool.release(firstClient);
+            Thread.sleep(SERVER_IDLE_TIMEOUT * 3 / 2);
+            final SshClient secondClient = keepAlivePool.acquire(HOST, USER, PASSWORD, false);
+
+            Assert.assertSame(secondClient, firstClient);
+            Assert.assertEquals(secondClient.executeCommand("true"), 0);
+            Assert.assertEquals(localSshServer.getNumberOfHandshakes(), 1);
+        } finally {
+            keepAlivePool.closeAll();
+        }
+    }
+
+    @Test
+    public void whenKeepAliveIsDisabled_thenIdleSessionIsClosedByServer() throws Exception {
+        localSshServer.setIdleTimeout(SERVER_IDLE_TIMEOUT);
+        final SshClient sshClient = new SshClient();
+        sshClient.authUserPassword(USER, PASSWORD);
+        try {
+            localSshServer.connect(sshClient);
+            Assert.assertTrue(sshClient.isHealthy());
+
+            Thread.sleep(SERVER_IDLE_TIMEOUT * 3 / 2);
+
+            awaitUnhealthy(sshClient);
+        } finally {
+            sshClient.close();
+        }
+    }
+
+    @Test
+    public void whenPooledClientIsIdleLongerThanTimeout_thenItIsClosed() throws Exception {
+        sshSessionPool.setIdleTimeout(1);
+        final SshClient idleClient = sshSessionPool.acquire(HOST, USER, PASSWORD, false);
+        final SshClient busyClient = sshSessionPool.acquire(OTHER_HOST, USER, PASSWORD, false);
+        sshSessionPool.release(idleClient);
+        Thread.sleep(10);
+
+        sshSessionPool.acquire(HOST, USER, PASSWORD, true);
+
+        verify(idleClient).close();
+        verify(busyClient, never()).close();
+        Assert.assertEquals(sshSessionPool.getNumberOfPooledClients(), 2);
+    }
+
+    @Test
+    public void whenPoolIsClosed_thenAllClientsAreClosedAndNextAcquireReconnects() throws IOException {
+        final SshClient sshClient = sshSessionPool.acquire(HOST, USER, PASSWORD, false);
+        sshSessionPool.release(sshClient);
+
+        sshSessionPool.closeAll();
+        sshSessionPool.acquire(HOST, USER, PASSWORD, false);
+
+        verify(sshClient).close();
+        Assert.assertEquals(localSshServer.getNumberOfHandshakes(), 2);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void whenIdleTimeoutIsBelowOne_thenIllegalArgumentExceptionIsThrown() {
+        sshSessionPool.setIdleTimeout(0);
+    }
+
+    /**
+     * Waits for a client to notice that its session was closed by the server.
+     */
+    private static void awaitUnhealthy(final SshClient sshClient) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + HEALTH_CHECK_TIMEOUT;
+        while (sshClient.isHealthy()) {
+            Assert.assertTrue(System.currentTimeMillis() < deadline, "Client should be unhealthy once the server closed its session");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Connects every host, directly, to the local server, and hands out spied
+     * clients so that their disconnection can be verified. The channels of the
+     * clients are limited if a maximum above 0 is given.
+     */
+    private static class LocalConnector implements SshSessionPool.Connector {
+
+        private final LocalSshServer localSshServer;
+        private final int keepAliveInterval;
+        private final int maxChannels;
+        private final List<SshClient> clients = new ArrayList<>();
+
+        LocalConnector(final LocalSshServer localSshServer, final int keepAliveInterval, final int maxChannels) {
+            this.localSshServer = localSshServer;
+            this.keepAliveInterval = keepAliveInterval;
+            this.maxChannels = maxChannels;
+        }
+
+        @Override
+        public SshClient connect(final String host, final String user, final String password, final boolean tunneled)
+                throws IOException {
+            final SshClient sshClient = spy(new SshClient());
+            sshClient.authUserPassword(user, password);
+            sshClient.enableKeepAlive(keepAliveInterval);
+            if (maxChannels > 0) {
+                sshClient.setMaxChannels(maxChannels);
+            }
+            localSshServer.connect(sshClient);
+            synchronized (this) {
+                clients.add(sshClient);
+            }
+            return sshClient;
+        }
+
+        synchronized List<SshClient> getClients() {
+            return clients;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2015
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.de.onetwork.util;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ParallelTasksTest {
+
+    @Test
+    public void whenItemsAreMappedOnSeveralThreads_thenResultsAreInItemOrderAndThreadsAreNamedDaemons() {
+        final List<String> threadDescriptions = ParallelTasks.map("test-map", Arrays.asList(30, 20, 10, 0), 3,
+                new ParallelTasks.Task<Integer, String, RuntimeException>() {
+
+                    @Override
+                    public String run(final int index, final Integer sleepMillis) {
+                        sleep(sleepMillis);
+                        final Thread thread = Thread.currentThread();
+                        return index + ":" + thread.getName().startsWith("test-map-") + ":" + thread.isDaemon();
+                    }
+                });
+
+        Assert.assertEquals(threadDescriptions, Arrays.asList("0:true:true", "1:true:true", "2:true:true", "3:true:true"));
+    }
+
+    @Test
+    public void whenParallelismIsOne_thenItemsAreMappedOnCallingThread() {
+        final Thread callingThread = Thread.currentThread();
+        final List<Boolean> onCallingThread = ParallelTasks.map("test-map", Arrays.asList("a", "b"), 1,
+                new ParallelTasks.Task<String, Boolean, RuntimeException>() {
+
+                    @Override
+                    public Boolean run(final int index, final String item) {
+                        return Thread.currentThread() == callingThread;
+                    }
+                });
+
+        Assert.assertEquals(onCallingThread, Arrays.asList(true, true));
+    }
+
+    @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = "failed on b")
+    public void whenTaskThrowsCheckedException_thenItIsThrownUnwrapped() throws IOException {
+        ParallelTasks.map("test-map", Arrays.asList("a", "b", "c"), 3, new ParallelTasks.Task<String, String, IOException>() {
+
+            @Override
+            public String run(final int index, final String item) throws IOException {
+                if (item.equals("b")) {
+                    throw new IOException("failed on " + item);
+                }
+                return item;
+            }
+        });
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void whenParallelismIsBelowOne_thenIllegalArgumentExceptionIsThrown() {
+        ParallelTasks.map("test-map", Arrays.asList("a"), 0, new ParallelTasks.Task<String, String, RuntimeException>() {
+
+            @Override
+            public String run(final int index, final String item) {
+                return item;
+            }
+        });
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}